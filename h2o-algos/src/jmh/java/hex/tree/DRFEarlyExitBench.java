@@ -0,0 +1,90 @@
+package hex.tree;
+
+import hex.tree.drf.DRF;
+import hex.tree.drf.DRFModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import water.DKV;
+import water.fvec.Frame;
+import water.util.Log;
+
+import java.util.concurrent.TimeUnit;
+
+import static water.TestUtil.parse_test_file;
+import static water.TestUtil.stall_till_cloudsize;
+
+/**
+ * DRF scoring benchmark: all the trees vs. early exit on the votes (see DRFModel#scoreBlock),
+ * the agreement of the predicted classes with the full forest is logged in the setup
+ */
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DRFEarlyExitBench {
+
+  @Param({"100", "1000"})
+  private int ntrees;
+
+  @Param({"0", "0.01", "0.001"})
+  private double earlyExitDelta;
+
+  private Frame fr;
+  private DRFModel drf;
+
+  @Setup
+  public void setup() {
+    stall_till_cloudsize(1);
+    fr = parse_test_file("smalldata/covtype/covtype.20k.data");
+    int resp = 54;
+    fr.replace(resp, fr.vecs()[resp].toCategoricalVec()).remove();
+    DKV.put(fr);
+    DRFModel.DRFParameters parms = new DRFModel.DRFParameters();
+    parms._train = fr._key;
+    parms._response_column = fr.names()[resp];
+    parms._ntrees = ntrees;
+    parms._max_depth = 10;
+    parms._seed = 1234;
+    drf = new DRF(parms).trainModel().get();
+
+    Frame full = drf.score(fr);
+    drf._parms._early_exit_delta = earlyExitDelta;
+    Frame early = drf.score(fr);
+    long agree = 0;
+    for (long r = 0; r < fr.numRows(); r++)
+      if (full.vec(0).at8(r) == early.vec(0).at8(r)) agree++;
+    Log.info("DRF early exit (delta=" + earlyExitDelta + ", ntrees=" + ntrees + "): " +
+            (double) agree / fr.numRows() + " of the predicted classes agree with the full forest");
+    full.delete();
+    early.delete();
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (drf != null) drf.delete();
+    if (fr != null) fr.delete();
+  }
+
+  @Benchmark
+  public long score() {
+    Frame preds = drf.score(fr);
+    long n = preds.numRows();
+    preds.delete();
+    return n;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+            .include(DRFEarlyExitBench.class.getSimpleName())
+            .build();
+
+    new Runner(opt).run();
+  }
+
+}
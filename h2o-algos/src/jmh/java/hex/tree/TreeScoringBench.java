@@ -0,0 +1,143 @@
+package hex.tree;
+
+import hex.genmodel.algos.tree.FlatTree;
+import hex.genmodel.algos.tree.SharedTreeMojoModel;
+import hex.genmodel.utils.DistributionFamily;
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import water.DKV;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static water.TestUtil.parse_test_file;
+import static water.TestUtil.stall_till_cloudsize;
+
+/**
+ * Tree scoring benchmark: decoding the compressed trees on every row vs. the flat (decoded once) trees,
+ * scored row by row or by blocks of rows (see {@link SharedTreeModel#SCORE_BLOCK_SIZE})
+ */
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TreeScoringBench {
+
+  @Param({"5", "10"})
+  private int maxDepth;
+
+  @Param({"50", "1000"})
+  private int ntrees;
+
+  private static final int ROWS = 10000;
+
+  private byte[][] trees;
+  private FlatTree[] flatTrees;
+  private String[][] domains;
+  private double[][] data;
+  private double[][] columns; // column-major copy of data
+
+  @Setup
+  public void setup() {
+    stall_till_cloudsize(1);
+    Frame tfr = parse_test_file("./smalldata/airlines/allyears2k_headers.zip");
+    GBMModel gbm = null;
+    try {
+      for (String s : new String[]{
+              "DepTime", "ArrTime", "ActualElapsedTime",
+              "AirTime", "ArrDelay", "DepDelay", "Cancelled",
+              "CancellationCode", "CarrierDelay", "WeatherDelay",
+              "NASDelay", "SecurityDelay", "LateAircraftDelay", "IsArrDelayed"
+      }) {
+        tfr.remove(s).remove();
+      }
+      DKV.put(tfr);
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = "IsDepDelayed";
+      parms._ntrees = ntrees;
+      parms._max_depth = maxDepth;
+      parms._distribution = DistributionFamily.bernoulli;
+      parms._seed = 0xC0FFEE;
+      gbm = new GBM(parms).trainModel().get();
+
+      domains = gbm._output._domains;
+      trees = new byte[gbm._output._ntrees][];
+      for (int t = 0; t < trees.length; t++)
+        trees[t] = gbm._output.ctree(t, 0)._bits;
+      flatTrees = FlatTree.decode(trees, domains);
+
+      String[] names = gbm._output._names;
+      Vec[] vecs = new Vec[names.length - 1];
+      for (int c = 0; c < vecs.length; c++)
+        vecs[c] = tfr.vec(names[c]);
+      data = new double[ROWS][vecs.length];
+      for (int r = 0; r < ROWS; r++)
+        for (int c = 0; c < vecs.length; c++)
+          data[r][c] = vecs[c].at(r % vecs[c].length());
+      columns = new double[vecs.length][ROWS];
+      for (int r = 0; r < ROWS; r++)
+        for (int c = 0; c < vecs.length; c++)
+          columns[c][r] = data[r][c];
+    } finally {
+      if (gbm != null) gbm.delete();
+      tfr.delete();
+    }
+  }
+
+  @Benchmark
+  public double compressedTrees() {
+    double sum = 0;
+    for (double[] row : data)
+      for (byte[] tree : trees)
+        sum += SharedTreeMojoModel.scoreTree(tree, row, 1, false, domains);
+    return sum;
+  }
+
+  @Benchmark
+  public double flatTrees() {
+    double sum = 0;
+    for (double[] row : data)
+      for (FlatTree tree : flatTrees)
+        sum += tree.score(row);
+    return sum;
+  }
+
+  @Benchmark
+  public double flatTreesBlock() {
+    final int blockSize = SharedTreeModel.SCORE_BLOCK_SIZE;
+    double[][] block = new double[columns.length][blockSize];
+    double[] preds = new double[blockSize];
+    double sum = 0;
+    for (int r = 0; r < ROWS; r += blockSize) {
+      int n = Math.min(blockSize, ROWS - r);
+      for (int c = 0; c < columns.length; c++)
+        System.arraycopy(columns[c], r, block[c], 0, n);
+      Arrays.fill(preds, 0);
+      for (FlatTree tree : flatTrees)
+        tree.score(block, n, preds);
+      for (int i = 0; i < n; i++)
+        sum += preds[i];
+    }
+    return sum;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+            .include(TreeScoringBench.class.getSimpleName())
+            .build();
+
+    new Runner(opt).run();
+  }
+
+}
@@ -45,11 +45,16 @@ public class DRFV3 extends SharedTreeV3<DRF, DRFV3, DRFV3.DRFParametersV3> {
                 "sample_rate",
                 "sample_rate_per_class",
                 "binomial_double_trees",
+                "early_exit_delta",
                 "checkpoint",
                 "col_sample_rate_change_per_level",
                 "col_sample_rate_per_tree",
                 "min_split_improvement",
                 "histogram_type",
+                "histogram_subtraction",
+                "prebin",
+                "bundle_sparse_columns",
+                "low_precision",
                 "categorical_encoding",
                 "calibrate_model",
                 "calibration_frame",
@@ -63,5 +68,8 @@ public class DRFV3 extends SharedTreeV3<DRF, DRFV3, DRFV3.DRFParametersV3> {
 
         @API(help = "For binary classification: Build 2x as many trees (one per class) - can lead to higher accuracy.", level = API.Level.expert)
         public boolean binomial_double_trees;
+
+        @API(help = "For classification: when predicting, stop evaluating the trees for a row once its predicted class is decided with probability at least 1 - early_exit_delta (Hoeffding bound on the margin of the votes); the class probabilities are then averaged over the evaluated trees. Only applies to frames scored in the cluster (predictions and model performance); the training and validation metrics and scoring history computed during training, MOJO/POJO and single-row scoring always use all the trees. 0 disables early exit.", level = API.Level.expert)
+        public double early_exit_delta;
     }
 }
@@ -32,6 +32,7 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
       "max_hit_ratio_k",
       "ntrees",
       "max_depth",
+      "max_leaves",
       "min_rows",
       "nbins",
       "nbins_top_level",
@@ -57,8 +58,15 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
       "col_sample_rate_per_tree",
       "min_split_improvement",
       "histogram_type",
+      "histogram_subtraction",
+      "prebin",
+      "bundle_sparse_columns",
+      "low_precision",
       "max_abs_leafnode_pred",
       "pred_noise_bandwidth",
+      "goss",
+      "goss_top_rate",
+      "goss_other_rate",
       "categorical_encoding",
       "calibrate_model",
       "calibration_frame",
@@ -80,12 +88,24 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
     @API(help="Column sample rate (from 0.0 to 1.0)", level = API.Level.critical, gridable = true)
     public double col_sample_rate;
 
+    @API(help="Grow the trees leaf-wise (split the leaf with the largest improvement first) up to this number of leaves per tree, still limited by max_depth (0 to grow the trees depth-wise)", level = API.Level.secondary, gridable = true)
+    public int max_leaves;
+
     @API(help="Maximum absolute value of a leaf node prediction", level = API.Level.expert, gridable = true)
     public double max_abs_leafnode_pred;
 
     @API(help="Bandwidth (sigma) of Gaussian multiplicative noise ~N(1,sigma) for tree node predictions", level = API.Level.expert, gridable = true)
     public double pred_noise_bandwidth;
 
+    @API(help="Use gradient-based one-side sampling (GOSS) instead of uniform row sampling: every tree is built from the rows with the largest gradients and a random sample of the other rows (with increased weights)", level = API.Level.expert, gridable = true)
+    public boolean goss;
+
+    @API(help="GOSS: fraction of rows with the largest gradients, all of them are used to build every tree (from 0.0 to 1.0)", level = API.Level.expert, gridable = true)
+    public double goss_top_rate;
+
+    @API(help="GOSS: fraction of rows randomly sampled from the rows with smaller gradients for every tree (from 0.0 to 1.0)", level = API.Level.expert, gridable = true)
+    public double goss_other_rate;
+
 //    // TODO debug only, remove!
 //    @API(help="Internal flag, use new version of histo tsk if set", level = API.Level.expert, gridable = false)
 //    public boolean use_new_histo_tsk;
@@ -93,6 +93,18 @@ public class SharedTreeV3<B extends SharedTree, S extends SharedTreeV3<B,S,P>, P
     @API(help="What type of histogram to use for finding optimal split points", values = { "AUTO", "UniformAdaptive", "Random", "QuantilesGlobal", "RoundRobin"}, level = API.Level.secondary, gridable = true)
     public SharedTreeParameters.HistogramType histogram_type;
 
+    @API(help="Build the histograms of only the smaller child of a split and derive the larger child's histograms by subtracting them from the parent's (children reuse the bins of their parent instead of re-binning the observed range)", level = API.Level.expert, gridable = true)
+    public boolean histogram_subtraction;
+
+    @API(help="Bin the predictors once per model using the global split points (requires histogram_type QuantilesGlobal or RoundRobin) and build the histograms of all the trees from the compact bin codes", level = API.Level.expert, gridable = true)
+    public boolean prebin;
+
+    @API(help="Bundle mutually exclusive sparse 0/1 columns (eg. one-hot encoded features) and build one histogram per bundle instead of one per column", level = API.Level.expert, gridable = true)
+    public boolean bundle_sparse_columns;
+
+    @API(help="Use single precision for the histograms sent between the nodes and for the working columns of the trees (halves their memory and network volume)", level = API.Level.expert, gridable = true)
+    public boolean low_precision;
+
     @API(help="Use Platt Scaling to calculate calibrated class probabilities. Calibration can provide more accurate estimates of class probabilities.", level = API.Level.expert)
     public boolean calibrate_model;
 
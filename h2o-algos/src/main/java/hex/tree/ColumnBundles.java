@@ -0,0 +1,213 @@
+package hex.tree;
+
+import water.Iced;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.util.ArrayUtils;
+import water.util.Log;
+
+import java.util.*;
+
+/**
+ * Bundles of mutually exclusive sparse predictors (exclusive feature bundling).
+ *
+ * <p>Sparse 0/1 columns (eg. one-hot encoded or indicator features) are grouped into bundles so that no row has more
+ * than one column of a bundle set to 1. Every bundle is encoded as a single code column: code 0 for rows with none
+ * of the columns set, code i for rows with the i-th column of the bundle set. Histograms are built once per bundle
+ * (a bin per code) instead of once per column, and the histograms of the columns are recovered from the bundle
+ * histogram before looking for splits, see {@link DHistogram#unbundle}.
+ *
+ * <p>Bundles are proposed greedily from the non-zeros of a sample of rows and verified on all the rows, columns
+ * which conflict with another column of their bundle are left out of the bundle.
+ */
+public final class ColumnBundles extends Iced<ColumnBundles> {
+  static final double MAX_DENSITY = 0.1;   // only columns with at most this fraction of non-zeros are bundled
+  static final int MAX_BUNDLE_SIZE = 255;  // codes of a bundle fit in a byte
+  static final int SAMPLE_ROWS = 100000;   // rows used to propose the bundles
+  static final int MAX_SEARCH = 64;        // number of bundles tried for each column
+
+  final int[][] _cols;   // predictors of every bundle, the i-th column has the code i+1
+  final int[] _bundleOf; // bundle of every predictor, -1 if not bundled
+  final int[] _codeOf;   // code of every bundled predictor
+
+  private ColumnBundles(int[][] cols, int ncols) {
+    _cols = cols;
+    _bundleOf = new int[ncols];
+    _codeOf = new int[ncols];
+    Arrays.fill(_bundleOf, -1);
+    for (int b = 0; b < cols.length; b++)
+      for (int i = 0; i < cols[b].length; i++) {
+        _bundleOf[cols[b][i]] = b;
+        _codeOf[cols[b][i]] = i + 1;
+      }
+  }
+
+  public int numBundles() { return _cols.length; }
+
+  public boolean isBundled(int col) { return _bundleOf[col] >= 0; }
+
+  /** Candidates for bundling: sparse numeric 0/1 columns without missing values */
+  static boolean isBundleable(Vec v) {
+    return v.isNumeric() && !v.isCategorical() && v.isBinary() && v.naCnt() == 0 && v.sparseRatio() <= MAX_DENSITY;
+  }
+
+  /**
+   * Finds bundles of mutually exclusive columns among the predictors.
+   * @param fr training frame, predictors are the first ncols columns
+   * @return bundles or null if no two columns can be bundled
+   */
+  static ColumnBundles find(Frame fr, int ncols) {
+    ArrayList<Integer> candidates = new ArrayList<>();
+    for (int c = 0; c < ncols; c++)
+      if (isBundleable(fr.vec(c)))
+        candidates.add(c);
+    if (candidates.size() < 2) return null;
+    final Vec[] vecs = fr.vecs();
+    // densest columns first, they are the hardest to place
+    Collections.sort(candidates, new Comparator<Integer>() {
+      @Override public int compare(Integer c1, Integer c2) { return Long.compare(vecs[c2].nzCnt(), vecs[c1].nzCnt()); }
+    });
+    int[] cands = ArrayUtils.toPrimitive(candidates);
+    long stride = Math.max(1, fr.numRows() / SAMPLE_ROWS);
+    int[][] sampleNZs = new SampleNonZeros(stride).doAll(selectColumns(fr, cands))._nzs;
+
+    // Greedy bundling: every column goes to the first bundle it does not conflict with (on the sample)
+    List<ArrayList<Integer>> bundles = new ArrayList<>();
+    List<BitSet> used = new ArrayList<>();
+    for (int i = 0; i < cands.length; i++) {
+      int[] nzs = sampleNZs[i] == null ? new int[0] : sampleNZs[i];
+      int b = Math.max(0, bundles.size() - MAX_SEARCH);
+      for (; b < bundles.size(); b++) {
+        if (bundles.get(b).size() >= MAX_BUNDLE_SIZE) continue;
+        boolean conflict = false;
+        for (int r = 0; r < nzs.length && !conflict; r++)
+          conflict = used.get(b).get(nzs[r]);
+        if (!conflict) break;
+      }
+      if (b == bundles.size()) {
+        bundles.add(new ArrayList<Integer>());
+        used.add(new BitSet());
+      }
+      bundles.get(b).add(cands[i]);
+      for (int r : nzs) used.get(b).set(r);
+    }
+    int[][] proposed = new int[bundles.size()][];
+    for (int b = 0; b < proposed.length; b++)
+      proposed[b] = ArrayUtils.toPrimitive(bundles.get(b));
+
+    // Verify on all the rows, drop the columns conflicting with a preceding column of their bundle
+    boolean[] conflicts = new FindConflicts(proposed).doAll(new Frame(Arrays.copyOf(fr.names(), ncols), Arrays.copyOf(vecs, ncols)))._conflicts;
+    List<int[]> verified = new ArrayList<>();
+    int dropped = 0, bundled = 0;
+    for (int[] cols : proposed) {
+      ArrayList<Integer> ok = new ArrayList<>();
+      for (int c : cols)
+        if (conflicts[c]) dropped++;
+        else ok.add(c);
+      if (ok.size() < 2) continue;
+      verified.add(ArrayUtils.toPrimitive(ok));
+      bundled += ok.size();
+    }
+    Log.info("Bundled " + bundled + " of " + cands.length + " sparse columns into " + verified.size() + " bundles (" +
+            dropped + " columns left out due to conflicts).");
+    return verified.isEmpty() ? null : new ColumnBundles(verified.toArray(new int[verified.size()][]), ncols);
+  }
+
+  /**
+   * Encodes the bundles of the given frame.
+   * @return Frame of bundle codes (one Vec per bundle), not in DKV
+   */
+  Frame encode(Frame fr) {
+    int ncols = _bundleOf.length;
+    Frame predictors = new Frame(Arrays.copyOf(fr.names(), ncols), Arrays.copyOf(fr.vecs(), ncols));
+    String[] names = new String[_cols.length];
+    for (int b = 0; b < names.length; b++)
+      names[b] = "Bundle_" + b;
+    return new EncodeTask(_cols).doAll(_cols.length, Vec.T_NUM, predictors).outputFrame(names, null);
+  }
+
+  private static Frame selectColumns(Frame fr, int[] cols) {
+    Frame sel = new Frame();
+    for (int c : cols) sel.add(fr.name(c), fr.vec(c));
+    return sel;
+  }
+
+  // Sample row indices (row / stride) of the non-zeros of every column, sampled rows are the multiples of stride
+  private static class SampleNonZeros extends MRTask<SampleNonZeros> {
+    final long _stride;
+    int[][] _nzs;
+
+    SampleNonZeros(long stride) { _stride = stride; }
+
+    @Override public void map(Chunk[] cs) {
+      _nzs = new int[cs.length][];
+      long start = cs[0].start();
+      int[] buf = new int[cs[0]._len];
+      for (int c = 0; c < cs.length; c++) {
+        int n = 0;
+        for (int r = cs[c].nextNZ(-1); r < cs[c]._len; r = cs[c].nextNZ(r)) {
+          long row = start + r;
+          if (cs[c].atd(r) != 0 && row % _stride == 0)
+            buf[n++] = (int) (row / _stride);
+        }
+        _nzs[c] = Arrays.copyOf(buf, n);
+      }
+    }
+
+    @Override public void reduce(SampleNonZeros snz) {
+      for (int c = 0; c < _nzs.length; c++)
+        _nzs[c] = ArrayUtils.append(_nzs[c], snz._nzs[c]);
+    }
+  }
+
+  // Flags the columns set in a row where a preceding column of the same bundle is set
+  private static class FindConflicts extends MRTask<FindConflicts> {
+    final int[][] _bundles;
+    boolean[] _conflicts;
+
+    FindConflicts(int[][] bundles) { _bundles = bundles; }
+
+    @Override public void map(Chunk[] cs) {
+      _conflicts = new boolean[cs.length];
+      int[] owner = new int[cs[0]._len]; // bundle (+1) which has a column set in the row
+      for (int b = 0; b < _bundles.length; b++) {
+        for (int c : _bundles[b]) {
+          Chunk chk = cs[c];
+          for (int r = chk.nextNZ(-1); r < chk._len; r = chk.nextNZ(r)) {
+            if (chk.atd(r) == 0) continue;
+            if (owner[r] == b + 1) _conflicts[c] = true;
+            else owner[r] = b + 1;
+          }
+        }
+      }
+    }
+
+    @Override public void reduce(FindConflicts fc) {
+      for (int c = 0; c < _conflicts.length; c++)
+        _conflicts[c] |= fc._conflicts[c];
+    }
+  }
+
+  private static class EncodeTask extends MRTask<EncodeTask> {
+    final int[][] _bundles;
+
+    EncodeTask(int[][] bundles) { _bundles = bundles; }
+
+    @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+      int[] codes = new int[cs[0]._len];
+      for (int b = 0; b < _bundles.length; b++) {
+        Arrays.fill(codes, 0);
+        for (int i = 0; i < _bundles[b].length; i++) {
+          Chunk chk = cs[_bundles[b][i]];
+          for (int r = chk.nextNZ(-1); r < chk._len; r = chk.nextNZ(r))
+            if (chk.atd(r) != 0) codes[r] = i + 1;
+        }
+        for (int code : codes)
+          ncs[b].addNum(code, 0);
+      }
+    }
+  }
+}
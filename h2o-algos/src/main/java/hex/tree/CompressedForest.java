@@ -4,6 +4,8 @@ import water.DKV;
 import water.Iced;
 import water.Key;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Collection of Compressed Trees
  * contains:
@@ -24,20 +26,16 @@ public class CompressedForest extends Iced<CompressedTree> {
   public final int ntrees() { return _treeKeys.length; }
 
   /**
-   * Fetches trees from DKV and converts to a node-local structure.
-   * @return fetched trees
+   * Starts fetching the trees from DKV and returns a node-local structure, the trees are only waited for
+   * when they are first used (scoring can start while the remaining trees are still being fetched).
+   * @return local forest
    */
   public final LocalCompressedForest fetch() {
-    int ntrees = _treeKeys.length;
-    CompressedTree[][] trees = new CompressedTree[ntrees][];
-    for (int t = 0; t < ntrees; t++) {
-      Key[] treek = _treeKeys[t];
-      trees[t] = new CompressedTree[treek.length];
-      for (int i = 0; i < treek.length; i++)
-        if (treek[i] != null)
-          trees[t][i] = DKV.get(treek[i]).get();
-    }
-    return new LocalCompressedForest(trees, _domains);
+    for (Key[] treek : _treeKeys)
+      for (Key k : treek)
+        if (k != null)
+          DKV.prefetch(k);
+    return new LocalCompressedForest(_treeKeys, _domains);
   }
 
   /**
@@ -45,20 +43,36 @@ public class CompressedForest extends Iced<CompressedTree> {
    * Is not meant to be Serialized/Iced or send over the wire.
    */
   public static class LocalCompressedForest {
-    public CompressedTree[][] _trees;
+    private final Key<CompressedTree>[][] _treeKeys;
+    private final AtomicReferenceArray<CompressedTree[]> _trees; // fetched trees, shared by the local threads
     public String[][] _domains;
 
-    private LocalCompressedForest(CompressedTree[][] trees, String[][] domains) {
-      _trees = trees;
+    private LocalCompressedForest(Key<CompressedTree>[][] treeKeys, String[][] domains) {
+      _treeKeys = treeKeys;
+      _trees = new AtomicReferenceArray<>(treeKeys.length);
       _domains = domains;
     }
 
+    /** Trees of the tidx-th iteration (one per class), blocks until they are fetched */
+    public final CompressedTree[] trees(int tidx) {
+      CompressedTree[] ts = _trees.get(tidx);
+      if (ts == null) {
+        Key<CompressedTree>[] treek = _treeKeys[tidx];
+        ts = new CompressedTree[treek.length];
+        for (int i = 0; i < treek.length; i++)
+          if (treek[i] != null)
+            ts[i] = DKV.get(treek[i]).get();
+        _trees.set(tidx, ts); // racy but benign, all the threads fetch the same trees
+      }
+      return ts;
+    }
+
     /** Score given tree on the row of data.
      *  @param data row of data
      *  @param preds array to hold resulting prediction
      *  @param tidx index of a tree (points to a representation of a single regression tree, or multi tree)  */
     public final void scoreTree(double data[], double preds[], int tidx) {
-      CompressedTree[] ts = _trees[tidx];
+      CompressedTree[] ts = trees(tidx);
       for( int c=0; c<ts.length; c++ )
         if( ts[c] != null )
           preds[ts.length==1?0:c+1] += ts[c].score(data, _domains);
@@ -2,6 +2,7 @@ package hex.tree;
 
 import java.util.Random;
 
+import hex.genmodel.algos.tree.FlatTree;
 import hex.genmodel.algos.tree.SharedTreeMojoModel;
 import water.*;
 import water.util.IcedBitSet;
@@ -27,6 +28,7 @@ public class CompressedTree extends Keyed<CompressedTree> {
   final byte [] _bits;
   final int _nclass;     // Number of classes being predicted (for an integer prediction tree)
   final long _seed;
+  private transient volatile FlatTree _flat; // decoded tree for scoring, built on the first use
 
   public CompressedTree(byte[] bits, int nclass, long seed, int tid, int cls) {
     super(makeTreeKey(tid, cls));
@@ -36,7 +38,15 @@ public class CompressedTree extends Keyed<CompressedTree> {
   }
 
   public double score(final double row[], final String[][] domains) {
-    return SharedTreeMojoModel.scoreTree(_bits, row, _nclass, false, domains);
+    return flat(domains).score(row);
+  }
+
+  /** @return the tree decoded for scoring, see {@link FlatTree} */
+  public FlatTree flat(final String[][] domains) {
+    FlatTree flat = _flat;
+    if (flat == null || !flat.isFor(domains))
+      _flat = flat = FlatTree.decode(_bits, domains);
+    return flat;
   }
 
   public String getDecisionPath(final double row[], final String[][] domains) {
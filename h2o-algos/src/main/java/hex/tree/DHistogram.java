@@ -51,6 +51,7 @@ public final class DHistogram extends Iced {
   public final double _min, _maxEx; // Conservative Min/Max over whole collection.  _maxEx is Exclusive.
 
   protected double [] _vals;
+  float [] _vals32; // bins in single precision while the histogram is sent between the nodes (_vals is null then)
   public double w(int i){  return _vals[3*i+0];}
   public double wY(int i){ return _vals[3*i+1];}
   public double wYY(int i){return _vals[3*i+2];}
@@ -95,6 +96,10 @@ public final class DHistogram extends Iced {
   public final long _seed;
   public transient boolean _hasQuantiles;
   public Key _globalQuantilesKey; //key under which original top-level quantiles are stored;
+  // Pre-binning: bin of every global bin code, observed min/max of the values of the global bins
+  private transient int[] _codeBins;
+  private transient double[] _codeMins, _codeMaxs;
+  private transient boolean _codeBinsChecked;
 
 
 
@@ -128,6 +133,7 @@ public final class DHistogram extends Iced {
       this.splitPts = splitPts;
     }
     double[/*nbins*/] splitPts;
+    double[/*nbins*/] binMins, binMaxs; // observed min/max of the values in each bin (only if pre-binned)
   }
 
 
@@ -205,6 +211,98 @@ public final class DHistogram extends Iced {
     // Do not allocate the big arrays here; wait for scoreCols to pick which cols will be used.
   }
 
+  /**
+   * Makes an empty histogram with the same bins as the given histogram (same range, bin count, split points), used
+   * by histogram subtraction: histograms of the children of a split can only be derived from the histograms of
+   * their parent if they share its bins.
+   */
+  public DHistogram(DHistogram h) {
+    assert h._histoType != SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal : "Quantile bins are refined on init";
+    _isInt = h._isInt;
+    _name = h._name;
+    _min = h._min;
+    _maxEx = h._maxEx;
+    _min2 = Double.MAX_VALUE;
+    _maxIn = -Double.MAX_VALUE;
+    _minSplitImprovement = h._minSplitImprovement;
+    _histoType = h._histoType;
+    _seed = h._seed; // same seed => same random split points
+    _globalQuantilesKey = h._globalQuantilesKey;
+    _step = h._step;
+    _nbin = h._nbin;
+  }
+
+  /** True if both histograms bin the values the same way */
+  public boolean hasSameBins(DHistogram h) {
+    return _isInt == h._isInt && _nbin == h._nbin && _step == h._step && _min == h._min && _maxEx == h._maxEx &&
+            _histoType == h._histoType && _seed == h._seed && !_hasQuantiles && !h._hasQuantiles;
+  }
+
+  /**
+   * Fills this (empty) histogram with the difference of the parent and sibling histograms, all three need to have
+   * the same bins. Bins emptied up to floating point error are cleared, observed min/max are estimated from the
+   * non-empty bins (bounded by the parent's observed min/max).
+   */
+  public void subtract(DHistogram parent, DHistogram sibling) {
+    assert hasSameBins(parent) && hasSameBins(sibling);
+    assert _vals == null;
+    init();
+    final double[] pvals = parent._vals;
+    final double[] svals = sibling._vals == null ? new double[pvals.length] : sibling._vals; // sibling saw no rows
+    int first = -1, last = -1;
+    for (int b = 0; b <= _nbin; b++) { // including the NA bucket
+      double w = pvals[3*b] - svals[3*b];
+      if (w <= 1e-9 * pvals[3*b]) continue; // empty bin
+      _vals[3*b+0] = w;
+      _vals[3*b+1] = pvals[3*b+1] - svals[3*b+1];
+      _vals[3*b+2] = Math.max(0, pvals[3*b+2] - svals[3*b+2]);
+      if (b == _nbin) continue;
+      if (first < 0) first = b;
+      last = b;
+    }
+    if (first < 0) return; // only NAs
+    _min2 = Math.max(parent._min2, binAt(first));
+    if (last == _nbin - 1)
+      _maxIn = parent._maxIn;
+    else
+      _maxIn = Math.min(parent._maxIn, _isInt > 0 && _step == 1 ? binAt(last + 1) - 1 : binAt(last + 1));
+    reducePrecision();
+  }
+
+  /**
+   * Fills this (empty) histogram of a 0/1 column from the histogram of its bundle (see {@link ColumnBundles}).
+   * Rows with the column set have the code of the column, all the other rows of the bundle have the column at 0.
+   * @param bundleVals bins (w, wY, wYY) of the bundle codes
+   * @param code bundle code of the column
+   */
+  public void unbundle(double[] bundleVals, int code) {
+    assert _vals == null;
+    init();
+    double w0 = 0, wY0 = 0, wYY0 = 0;
+    for (int i = 0; i < bundleVals.length; i += 3) {
+      if (i == 3*code) continue;
+      w0 += bundleVals[i];
+      wY0 += bundleVals[i+1];
+      wYY0 += bundleVals[i+2];
+    }
+    if (w0 > 0) {
+      int b = bin(0);
+      _vals[3*b+0] += w0;
+      _vals[3*b+1] += wY0;
+      _vals[3*b+2] += wYY0;
+      _min2 = 0;
+      _maxIn = 0;
+    }
+    if (bundleVals[3*code] > 0) {
+      int b = bin(1);
+      _vals[3*b+0] += bundleVals[3*code];
+      _vals[3*b+1] += bundleVals[3*code+1];
+      _vals[3*b+2] += bundleVals[3*code+2];
+      if (w0 == 0) _min2 = 1;
+      _maxIn = 1;
+    }
+  }
+
   // Interpolate d to find bin#
   public int bin( double col_data ) {
     if(Double.isNaN(col_data)) return _nbin; // NA bucket
@@ -281,6 +379,73 @@ public final class DHistogram extends Iced {
     _vals = vals == null?MemoryManager.malloc8d(3*_nbin+3):vals;
   }
 
+  /**
+   * Prepares binning of pre-binned column values (global bin codes of the column, see {@link PreBinning}),
+   * call after {@link #init()}.
+   * @return true if every global bin falls into a single bin of this histogram, ie. codes can be binned
+   */
+  public boolean initCodeBins() {
+    if (_codeBinsChecked) return _codeBins != null;
+    _codeBinsChecked = true;
+    if (_globalQuantilesKey == null) return false;
+    HistoQuantiles hq = DKV.getGet(_globalQuantilesKey);
+    if (hq == null || hq.binMins == null) return false;
+    final double[] pts = hq.splitPts;
+    int[] codeBins = new int[pts.length];
+    for (int g = 0; g < pts.length; g++) {
+      double lo = Math.max(pts[g], _min);
+      double hiEx = g + 1 < pts.length ? Math.min(pts[g + 1], _maxEx) : _maxEx;
+      if (lo >= hiEx) { // none of the values of this histogram are in the global bin
+        codeBins[g] = pts[g] >= _maxEx ? _nbin - 1 : 0;
+        continue;
+      }
+      int b = bin(lo);
+      if (b != bin(Math.nextAfter(hiEx, Double.NEGATIVE_INFINITY)))
+        return false; // the global bin spans several bins of this histogram
+      codeBins[g] = b;
+    }
+    _codeBins = codeBins;
+    _codeMins = hq.binMins;
+    _codeMaxs = hq.binMaxs;
+    return true;
+  }
+
+  /**
+   * Same as {@link #updateHisto(double[], double[], double[], int[], int, int)} for pre-binned column values,
+   * requires {@link #initCodeBins()}. Min/max are tracked with the precision of the global bins.
+   * @param codes global bin codes of the column values, negative for NAs
+   */
+  public void updateHistoCodes(double[] ws, int[] codes, double[] ys, int [] rows, int hi, int lo){
+    assert _codeBins != null;
+    int minCode = Integer.MAX_VALUE, maxCode = -1;
+    for(int r = lo; r< hi; ++r) {
+      int k = rows[r];
+      double weight = ws[k];
+      if (weight == 0) continue;
+      int code = codes[k];
+      int b;
+      if (code < 0) b = _nbin; // NA bucket
+      else {
+        b = _codeBins[code];
+        if (code < minCode) minCode = code;
+        if (code > maxCode) maxCode = code;
+      }
+      double y = ys[k];
+      assert (!Double.isNaN(y));
+      double wy = weight * y;
+      double wyy = wy * y;
+      _vals[3*b + 0] += weight;
+      _vals[3*b + 1] += wy;
+      _vals[3*b + 2] += wyy;
+    }
+    if (maxCode < 0) return; // only NAs
+    double min = Math.max(_codeMins[minCode], _min);
+    double maxIn = _codeMaxs[maxCode];
+    if (maxIn >= _maxEx) maxIn = _isInt > 0 ? _maxEx - 1 : Math.nextAfter(_maxEx, Double.NEGATIVE_INFINITY);
+    if (min < _min2) _min2 = min;
+    if (maxIn > _maxIn) _maxIn = maxIn;
+  }
+
   // Add one row to a bin found via simple linear interpolation.
   // Compute bin min/max.
   // Compute response mean & variance.
@@ -303,17 +468,61 @@ public final class DHistogram extends Iced {
   // Merge two equal histograms together.  Done in a F/J reduce, so no
   // synchronization needed.
   public void add( DHistogram dsh ) {
-    assert (_vals == null || dsh._vals == null) || (_isInt == dsh._isInt && _nbin == dsh._nbin && _step == dsh._step &&
+    assert (!hasBins() || !dsh.hasBins()) || (_isInt == dsh._isInt && _nbin == dsh._nbin && _step == dsh._step &&
       _min == dsh._min && _maxEx == dsh._maxEx);
-    if( dsh._vals == null ) return;
-    if(_vals == null)
-      init(dsh._vals);
-    else
-      ArrayUtils.add(_vals,dsh._vals);
+    if (dsh._vals32 != null)
+      addPacked(dsh._vals32);
+    else if( dsh._vals == null ) return;
+    else {
+      unpack();
+      if(_vals == null)
+        init(dsh._vals);
+      else
+        ArrayUtils.add(_vals,dsh._vals);
+    }
     if (_min2 > dsh._min2) _min2 = dsh._min2;
     if (_maxIn < dsh._maxIn) _maxIn = dsh._maxIn;
   }
 
+  // Packed bins stay packed, the sum of two floats is exact in double and rounded only once
+  private void addPacked(float [] vals32) {
+    if (_vals != null) {
+      for (int i = 0; i < _vals.length; i++)
+        _vals[i] += vals32[i];
+    } else if (_vals32 == null)
+      _vals32 = vals32;
+    else {
+      for (int i = 0; i < _vals32.length; i++)
+        _vals32[i] = (float) ((double) _vals32[i] + vals32[i]);
+    }
+  }
+
+  private boolean hasBins() { return _vals != null || _vals32 != null; }
+
+  /**
+   * Converts the bins to single precision, halves the size of the histogram sent between the nodes.
+   * Sums of the responses are rounded to floats in {@link #reducePrecision()} anyway, sums of the weights
+   * stay exact up to 2^24.
+   */
+  public void pack() {
+    if (_vals == null) return;
+    float [] vals32 = MemoryManager.malloc4f(_vals.length);
+    for (int i = 0; i < vals32.length; i++)
+      vals32[i] = (float) _vals[i];
+    _vals32 = vals32;
+    _vals = null;
+  }
+
+  /** Converts packed bins back to double precision, see {@link #pack()} */
+  public void unpack() {
+    if (_vals32 == null) return;
+    double [] vals = MemoryManager.malloc8d(_vals32.length);
+    for (int i = 0; i < vals.length; i++)
+      vals[i] = _vals32[i];
+    _vals32 = null;
+    init(vals); // split points are transient, the histogram might have been created on another node
+  }
+
   // Inclusive min & max
   public double find_min  () { return _min2 ; }
   public double find_maxIn() { return _maxIn; }
@@ -425,6 +634,21 @@ public final class DHistogram extends Iced {
     }
   }
 
+  /**
+   * Adds the given (weighted) rows of the same value, not thread safe, assumed to have private copy.
+   * Used for the zeros of sparse columns, which are added in bulk.
+   */
+  void add1(double col_data, double w, double wy, double wyy) {
+    if (!Double.isInfinite(col_data)) { // same as incr, infinities are binned but do not stretch the range
+      if (col_data < _min2) _min2 = col_data;
+      if (col_data > _maxIn) _maxIn = col_data;
+    }
+    int b = bin(col_data);
+    _vals[3*b + 0] += w;
+    _vals[3*b + 1] += wy;
+    _vals[3*b + 2] += wyy;
+  }
+
   /**
    * Cast bin values *except for sums of weights and Na-bucket counters to floats to drop least significant bits.
    * Improves reproducibility (drop bits most affected by floating point error).
@@ -39,6 +39,9 @@ public class DTree extends Iced {
   public final transient Random _rand; // RNG for split decisions & sampling
   public final transient int[] _cols; // Per-tree selection of columns to consider for splits
   public transient SharedTreeModel.SharedTreeParameters _parms;
+  // Leaf-wise growth: nodes with a split found but not made yet, largest improvement first
+  private transient PriorityQueue<DecidedNode> _parked;
+  private transient int _splits; // Number of splits made by leaf-wise growth
 
 
   // compute the effective number of columns to sample
@@ -76,6 +79,72 @@ public class DTree extends Iced {
   }
 
   public final Node root() { return _ns[0]; }
+
+  /** Depth of the given node, the root is at depth 0 */
+  public int depth(int nid) {
+    int d = 0;
+    for (; _ns[nid]._pid != NO_PARENT; nid = _ns[nid]._pid) d++;
+    return d;
+  }
+
+  /** True if the tree is grown leaf-wise (best split first) instead of depth-wise */
+  public boolean isLeafwise() { return _parms._max_leaves > 0; }
+
+  /** False once leaf-wise growth made max_leaves leaves */
+  public boolean canGrow() { return !isLeafwise() || _splits + 1 < _parms._max_leaves; }
+
+  /**
+   * Leaf-wise growth: keeps the node (with its split found, but the rows staying at the node) until it is the best
+   * node to split.
+   */
+  void park(DecidedNode dn, DHistogram[] hs) {
+    assert dn._split != null && dn._nids[0] == dn._nid;
+    if (_parked == null)
+      _parked = new PriorityQueue<>(11, new Comparator<DecidedNode>() {
+        @Override public int compare(DecidedNode n1, DecidedNode n2) {
+          int c = Double.compare(n2.improvement(), n1.improvement());
+          return c != 0 ? c : Integer.compare(n1._nid, n2._nid); // deterministic order of ties
+        }
+      });
+    dn._parkedHs = hs;
+    _parked.add(dn);
+  }
+
+  /**
+   * Leaf-wise growth: number of parked nodes to split before the next histogram pass. The batch doubles with every
+   * pass (as many splits as made so far), so that max_leaves leaves take about log2(max_leaves) passes over the data,
+   * and it is bounded by the leaves left to grow.
+   */
+  int parkedSplitsPerPass() {
+    return Math.max(1, Math.min(_splits, _parms._max_leaves - 1 - _splits));
+  }
+
+  /**
+   * Leaf-wise growth: makes the split of the parked node with the largest improvement (unless max_leaves is reached).
+   * Children deeper than max_depth are not split any further, no histograms are built for them.
+   * @return the node which got split, or null
+   */
+  DecidedNode splitBestParked() {
+    if (_parked == null || _parked.isEmpty() || !canGrow()) return null;
+    DecidedNode dn = _parked.poll();
+    DHistogram[] hs = dn._parkedHs;
+    dn._parkedHs = null;
+    int childDepth = depth(dn._nid) + 1;
+    if (childDepth < _parms._max_depth) dn.makeChildren(hs);
+    else Arrays.fill(dn._nids, ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID); // bottomed out, children are leaves
+    _splits++;
+    _depth = Math.max(_depth, childDepth);
+    return dn;
+  }
+
+  /** Leaf-wise growth: parked nodes which did not get split become leaves */
+  public void unpark() {
+    if (_parked == null) return;
+    for (DecidedNode dn : _parked)
+      new DecidedNode(dn);
+    _parked = null;
+  }
+
   // One-time local init after wire transfer
   void init_tree( ) { for( int j=0; j<_len; j++ ) _ns[j]._tree = this; }
 
@@ -281,7 +350,11 @@ public class DTree extends Iced {
         if( h._isInt > 0 && !(min+1 < maxEx ) )
           continue; // This column will not split again
         assert min < maxEx && adj_nbins > 1 : ""+min+"<"+maxEx+" nbins="+adj_nbins;
-        nhists[j] = DHistogram.make(h._name, adj_nbins, h._isInt, min, maxEx, h._seed*0xDECAF+(way+1), parms, h._globalQuantilesKey);
+        if( parms._histogram_subtraction && (_col!=j || _equal > 1) &&
+            h._histoType != SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal )
+          nhists[j] = new DHistogram(h); // Keep the parent's bins, so that the histogram can be derived from the parent's
+        else
+          nhists[j] = DHistogram.make(h._name, adj_nbins, h._isInt, min, maxEx, h._seed*0xDECAF+(way+1), parms, h._globalQuantilesKey);
         cnt++;                    // At least some chance of splitting
       }
       return cnt == 0 ? null : nhists;
@@ -300,6 +373,10 @@ public class DTree extends Iced {
   public static class UndecidedNode extends Node {
     public transient DHistogram[] _hs; //(up to) one histogram per column
     public final int _scoreCols[];      // A list of columns to score; could be null for all
+    // Histogram subtraction: histograms of the parent and the sibling node; this node's histograms are
+    // the parent's minus the sibling's (only on the node building the tree)
+    transient DHistogram[] _parentHs;
+    transient int _sibling = ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID;
     public UndecidedNode( DTree tree, int pid, DHistogram[] hs ) {
       super(tree,pid);
       assert hs.length==tree._ncols;
@@ -443,6 +520,7 @@ public class DTree extends Iced {
 
     transient byte _nodeType; // Complex encoding: see the compressed struct comments
     transient int _size = 0;  // Compressed byte size of this subtree
+    transient DHistogram[] _parkedHs; // Leaf-wise growth: histograms of a node waiting for its split to be made
 
     // Make a correctly flavored Undecided
     public UndecidedNode makeUndecidedNode(DHistogram hs[]) {
@@ -495,6 +573,14 @@ public class DTree extends Iced {
     }
 
     public DecidedNode(UndecidedNode n, DHistogram hs[]) {
+      this(n, hs, false);
+    }
+
+    /**
+     * @param park if true, only the split is found and the rows stay at this node, the children are made once the
+     *             node is picked for splitting (leaf-wise growth, see {@link DTree#park})
+     */
+    public DecidedNode(UndecidedNode n, DHistogram hs[], boolean park) {
       super(n._tree,n._pid,n._nid); // Replace Undecided with this DecidedNode
       _nids = new int[2];           // Split into 2 subsets
       _split = bestCol(n,hs);  // Best split-point for this tree
@@ -507,6 +593,27 @@ public class DTree extends Iced {
         return;
       }
       _splat = _split._nasplit != DHistogram.NASplitDir.NAvsREST && (_split._equal == 0 || _split._equal == 1) ? _split.splat(hs) : -1f; // Split-at value (-1 for group-wise splits)
+      if (park) {
+        Arrays.fill(_nids, _nid); // rows are steered back to this node until it gets split
+        return;
+      }
+      makeChildren(hs);
+    }
+
+    // Replaces a parked node by a node without a split, its rows end up in the parent's leaf
+    DecidedNode(DecidedNode parked) {
+      super(parked._tree, parked._pid, parked._nid);
+      _nids = new int[]{ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID, ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID};
+      _split = null;
+      _splat = Float.NaN;
+    }
+
+    /** Squared error improvement of the split */
+    public double improvement() {
+      return _split == null ? 0 : _split.pre_split_se() - _split.se();
+    }
+
+    void makeChildren(DHistogram hs[]) {
       for(int way = 0; way <2; way++ ) { // left / right
         // Create children histograms, not yet populated, but the ranges are set
         DHistogram nhists[] = _split.nextLevelHistos(hs, way,_splat, _tree._parms); //maintains the full range for NAvsREST
@@ -514,6 +621,13 @@ public class DTree extends Iced {
         // Assign a new (yet undecided) node to each child, and connect this (the parent) decided node and the newly made histograms to it
         _nids[way] = nhists == null ? ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID : makeUndecidedNode(nhists)._nid;
       }
+      if( _tree._parms._histogram_subtraction && _nids[0] >= 0 && _nids[1] >= 0 ) {
+        // Only the smaller child gets its histograms built, the larger one is the parent minus the smaller one
+        int small = _split._n0 <= _split._n1 ? 0 : 1;
+        UndecidedNode large = _tree.undecided(_nids[1-small]);
+        large._parentHs = hs;
+        large._sibling = _nids[small];
+      }
     }
 
     public int getChildNodeID(Chunk [] chks, int row ) {
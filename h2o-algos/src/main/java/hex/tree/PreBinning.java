@@ -0,0 +1,116 @@
+package hex.tree;
+
+import water.DKV;
+import water.Key;
+import water.MRTask;
+import water.MemoryManager;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+
+/**
+ * Pre-binned predictors of the training frame, built once per model and reused by all the trees.
+ *
+ * <p>Every value of a column with global split points (see {@link DHistogram.HistoQuantiles}) is replaced by the index
+ * of its global bin. The codes are stored as integer Vecs aligned with the training frame, compressed to 1 or 2 bytes
+ * per value. Histograms whose bins nest in the global bins map the codes straight to their own bins instead of
+ * decoding the column and searching the split points for every row, see {@link DHistogram#updateHistoCodes}.
+ *
+ * <p>The observed min/max of the values in every global bin are kept next to the global split points, histograms
+ * built from codes track their min/max with the precision of the global bins.
+ */
+final class PreBinning {
+  private PreBinning() {}
+
+  /**
+   * Bins the predictors of the given frame, the observed min/max of every global bin are added to the global quantiles.
+   * @param fr training frame, predictors are the first ncols columns
+   * @param quantilesKeys keys of the global quantiles of the columns (null for columns without global split points)
+   * @return Frame of bin codes (one Vec per predictor, all-NA for columns without global split points), not in DKV
+   */
+  static Frame binColumns(Frame fr, int ncols, Key[] quantilesKeys) {
+    double[][] splitPts = new double[ncols][];
+    for (int c = 0; c < ncols; c++) {
+      DHistogram.HistoQuantiles hq = quantilesKeys[c] == null ? null : DKV.<DHistogram.HistoQuantiles>getGet(quantilesKeys[c]);
+      splitPts[c] = hq == null ? null : hq.splitPts;
+    }
+    Frame predictors = new Frame(Arrays.copyOf(fr.names(), ncols), Arrays.copyOf(fr.vecs(), ncols));
+    BinTask bt = new BinTask(splitPts).doAll(ncols, Vec.T_NUM, predictors);
+    for (int c = 0; c < ncols; c++) {
+      if (splitPts[c] == null || bt._mins[c] == null) continue;
+      DHistogram.HistoQuantiles hq = new DHistogram.HistoQuantiles(quantilesKeys[c], splitPts[c]);
+      hq.binMins = bt._mins[c];
+      hq.binMaxs = bt._maxs[c];
+      DKV.put(hq);
+    }
+    String[] names = new String[ncols];
+    for (int c = 0; c < ncols; c++)
+      names[c] = "Bin_" + fr.name(c);
+    return bt.outputFrame(names, null);
+  }
+
+  /** Global bin of the value, same as {@link DHistogram#bin(double)} for a histogram with the global split points */
+  static int code(double[] splitPts, double d) {
+    int b = Arrays.binarySearch(splitPts, d);
+    if (b < 0) b = -b - 2;
+    return Math.max(0, Math.min(b, splitPts.length - 1));
+  }
+
+  private static class BinTask extends MRTask<BinTask> {
+    final double[][] _splitPts;
+    double[][] _mins; // observed min of the values per column and global bin
+    double[][] _maxs; // observed max of the values per column and global bin
+
+    BinTask(double[][] splitPts) {
+      _splitPts = splitPts;
+    }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      _mins = new double[cs.length][];
+      _maxs = new double[cs.length][];
+      double[] vals = MemoryManager.malloc8d(cs[0]._len);
+      for (int c = 0; c < cs.length; c++) {
+        final double[] pts = _splitPts[c];
+        if (pts == null) {
+          ncs[c].addNAs(cs[c]._len);
+          continue;
+        }
+        double[] mins = _mins[c] = new double[pts.length];
+        double[] maxs = _maxs[c] = new double[pts.length];
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        cs[c].getDoubles(vals, 0, cs[c]._len);
+        for (int row = 0; row < cs[c]._len; row++) {
+          double d = vals[row];
+          if (Double.isNaN(d)) {
+            ncs[c].addNA();
+            continue;
+          }
+          int b = code(pts, d);
+          ncs[c].addNum(b, 0);
+          if (d < mins[b]) mins[b] = d;
+          if (d > maxs[b]) maxs[b] = d;
+        }
+      }
+    }
+
+    @Override
+    public void reduce(BinTask bt) {
+      for (int c = 0; c < _mins.length; c++) {
+        if (_mins[c] == null) {
+          _mins[c] = bt._mins[c];
+          _maxs[c] = bt._maxs[c];
+        } else if (bt._mins[c] != null) {
+          for (int b = 0; b < _mins[c].length; b++) {
+            _mins[c][b] = Math.min(_mins[c][b], bt._mins[c][b]);
+            _maxs[c][b] = Math.max(_maxs[c][b], bt._maxs[c][b]);
+          }
+        }
+      }
+    }
+  }
+}
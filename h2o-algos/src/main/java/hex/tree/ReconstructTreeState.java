@@ -33,7 +33,7 @@ import water.fvec.Chunk;
     Chunk resp = _st.chk_resp(chks);
     for( int tidx=0; tidx<ntrees; tidx++) { // tree
       // OOB RNG for this tree
-      Random rng = rngForTree(_forest._trees[tidx], oobt.cidx());
+      Random rng = rngForTree(_forest.trees(tidx), oobt.cidx());
       for (int row = 0; row< oobt._len; row++) {
         double w = weight.atd(row);
         if (w==0) continue;
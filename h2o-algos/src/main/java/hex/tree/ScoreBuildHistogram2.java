@@ -56,6 +56,33 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  *    exp(nthreads-pre-column) = max(1,H2O.NUMCPUS - num_cols)
  *
+ * Histogram subtraction:
+ *
+ * With histogram subtraction enabled, the larger child of a split keeps the bins of its parent and its histograms are
+ * not accumulated at all; they are computed in postGlobal as the parent's histograms minus the (smaller) sibling's.
+ *
+ * Pre-binning:
+ *
+ * If the frame comes with pre-binned predictors (codesIdx >= 0, see PreBinning), histograms whose bins nest in the
+ * global bins are filled from the compact bin codes, the others from the column values.
+ *
+ * Sparse columns:
+ *
+ * Chunks of zero-sparse columns are histogrammed from their non-zeros only, the zeros of every leaf are accounted for
+ * in bulk as the totals of the leaf (computed once per chunk) minus the non-zeros, so the cost is proportional to the
+ * number of non-zeros instead of the number of rows.
+ *
+ * Low precision:
+ *
+ * With low precision (see SharedTreeParameters._low_precision) the histograms are packed to floats in closeLocal,
+ * before they are reduced across the nodes, and unpacked in postGlobal.
+ *
+ * Column bundles:
+ *
+ * Columns bundled together (see ColumnBundles) are not histogrammed one by one, a single histogram with a bin per
+ * bundle code is built for every bundle (reading the bundle code column, bundlesIdx) and the histograms of the bundled
+ * columns are recovered from it in postGlobal.
+ *
  */
 public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
   transient int []   _cids;
@@ -64,13 +91,37 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
   transient double [][] _ws;
   transient int [][] _nhs;
   transient int [][] _rss;
+  transient int [][] _lids;       // per chunk with sparse columns: leaf of every row (negative if not in a leaf)
+  transient double [][] _totals;  // per chunk with sparse columns: w, wY, wYY and number of rows of every leaf
   Frame _fr2;
   final int _numLeafs;
   final IcedBitSet _activeCols;
+  final IcedBitSet [] _derivedCols; // per leaf: columns with histograms derived from the parent and the sibling (or null)
+  transient DHistogram [][] _parentHcs;
+  transient int [] _siblings;
+  final int _codesIdx; // index of the first pre-binned predictor in the frame, -1 if not pre-binned
+  final ColumnBundles _bundles; // bundles of exclusive sparse columns (or null)
+  final int _bundlesIdx; // index of the first bundle code column in the frame, -1 if no bundles
+  final boolean [][] _bundleLeafs; // per bundle and leaf: true if the histogram of the bundle is needed
+  double [][][] _bundleHs; // per bundle and leaf: bins (w, wY, wYY) of the bundle codes
+  final boolean _lowPrecision; // histograms are sent between the nodes in single precision
 
   public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family, int weightIdx, int workIdx, int nidIdxs) {
+    this(cc, k, ncols, nbins, nbins_cats, tree, leaf, hcs, family, weightIdx, workIdx, nidIdxs, -1);
+  }
+
+  public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family, int weightIdx, int workIdx, int nidIdxs, int codesIdx) {
+    this(cc, k, ncols, nbins, nbins_cats, tree, leaf, hcs, family, weightIdx, workIdx, nidIdxs, codesIdx, null, -1);
+  }
+
+  public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family, int weightIdx, int workIdx, int nidIdxs, int codesIdx, ColumnBundles bundles, int bundlesIdx) {
     super(cc, k, ncols, nbins, nbins_cats, tree, leaf, hcs, family, weightIdx, workIdx, nidIdxs);
     _numLeafs = _hcs.length;
+    _codesIdx = codesIdx;
+    _bundles = bundles;
+    _bundlesIdx = bundlesIdx;
+    _bundleLeafs = bundles == null ? null : new boolean[bundles.numBundles()][_numLeafs];
+    _lowPrecision = tree._parms != null && tree._parms._low_precision;
 
     int hcslen = _hcs.length;
     IcedBitSet activeCols = new IcedBitSet(ncols);
@@ -85,9 +136,51 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
       }
     }
     _activeCols = activeCols;
+    _derivedCols = new IcedBitSet[hcslen];
+    _parentHcs = new DHistogram[hcslen][];
+    _siblings = new int[hcslen];
+    for (int n = 0; n < hcslen; n++)
+      planSubtraction(n);
+    if (_bundles != null)
+      for (int n = 0; n < hcslen; n++)
+        planBundles(n);
     _hcs = ArrayUtils.transpose(_hcs);
   }
 
+  // Marks the bundles with a column to score in the given leaf
+  private void planBundles(int n) {
+    int [] sCols = _tree.undecided(n + _leaf)._scoreCols;
+    for (int c = 0; c < _ncols; c++) {
+      if (!_bundles.isBundled(c) || _hcs[n][c] == null) continue;
+      if (sCols == null || ArrayUtils.find(sCols, c) >= 0)
+        _bundleLeafs[_bundles._bundleOf[c]][n] = true;
+    }
+  }
+
+  // Picks the columns of the given leaf which can be derived from the histograms of the parent and the sibling
+  private void planSubtraction(int n) {
+    DTree.UndecidedNode u = _tree.undecided(n + _leaf);
+    DHistogram [] phs = u._parentHs;
+    if (phs == null) return;
+    u._parentHs = null; // not needed beyond this layer
+    int s = u._sibling - _leaf;
+    assert 0 <= s && s < _numLeafs;
+    int [] sCols = _tree.undecided(u._sibling)._scoreCols;
+    IcedBitSet derived = null;
+    for (int c = 0; c < _ncols; c++) {
+      DHistogram h = _hcs[n][c], ph = phs[c], sh = _hcs[s][c];
+      if (h == null || ph == null || sh == null || ph._vals == null) continue;
+      if (_bundles != null && _bundles.isBundled(c)) continue; // recovered from the bundle
+      if (sCols != null && ArrayUtils.find(sCols, c) < 0) continue; // the sibling does not build this column
+      if (!h.hasSameBins(ph) || !h.hasSameBins(sh)) continue;  // re-binned (eg. the split column)
+      if (derived == null) derived = new IcedBitSet(_ncols);
+      derived.set(c);
+    }
+    _derivedCols[n] = derived;
+    _parentHcs[n] = phs;
+    _siblings[n] = s;
+  }
+
   @Override
   public ScoreBuildHistogram dfork2(byte[] types, Frame fr, boolean run_local) {
     _fr2 = fr;
@@ -159,6 +252,8 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     _ws = new double[_cids.length][];
     _nhs = new int[_cids.length][];
     _rss = new int[_cids.length][];
+    _lids = new int[_cids.length][];
+    _totals = new double[_cids.length][];
     long [] espc = v.espc();
     int largestChunkSz = 0;
     for(int i = 1; i < espc.length; ++i){
@@ -171,6 +266,8 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
       Arrays.fill(ws,1);
       Arrays.fill(_ws,ws);
     }
+    if (_bundles != null)
+      _bundleHs = new double[_bundles.numBundles()][_numLeafs][];
     final AtomicInteger cidx = new AtomicInteger(0);
     // First do the phase 1 on all local data
     new LocalMR(new MrFun(){
@@ -207,7 +304,12 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
         for (int row = 0; row < nnids.length; row++)
           if (nnids[row] >= 0)
             rows[nh[nnids[row]]++] = row;
-
+        // Keep the leaves of the rows for the sparse columns
+        for (int c = 0; c < _ncols; c++)
+          if (chks[c].isSparseZero()) {
+            _lids[id] = nnids;
+            break;
+          }
       }
       @Override
       protected void map(int id) {
@@ -227,22 +329,36 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
           if(_weightIdx != -1){
             _ws[id] = chks[_weightIdx].getDoubles(MemoryManager.malloc8d(len), 0, len);
           }
+          if (_lids[id] != null)
+            _totals[id] = leafTotals(_lids[id], _ys[id], _ws[id]);
         }
       }
     },new H2O.H2OCountedCompleter(this){
       public void onCompletion(CountedCompleter cc){
         final int ncols = _ncols;
-        final int [] active_cols = _activeCols == null?null:new int[Math.max(1,_activeCols.cardinality())];
-        int nactive_cols = active_cols == null?ncols:active_cols.length;
-        final int numWrks = _hcs.length*nactive_cols < 16*1024?H2O.NUMCPUS:Math.min(H2O.NUMCPUS,Math.max(4*H2O.NUMCPUS/nactive_cols,1));
-        final int rem = H2O.NUMCPUS-numWrks*ncols;
-        ScoreBuildHistogram2.this.addToPendingCount(1+nactive_cols);
-        if(active_cols != null) {
+        final int nbundles = _bundles == null ? 0 : _bundles.numBundles();
+        final int [] active_cols;
+        if (_bundles != null) { // bundled columns are built by their bundles
+          int [] cols = new int[ncols];
           int j = 0;
           for (int i = 0; i < ncols; ++i)
-            if (_activeCols.contains(i))
-              active_cols[j++] = i;
+            if ((_activeCols == null || _activeCols.contains(i)) && !_bundles.isBundled(i))
+              cols[j++] = i;
+          active_cols = Arrays.copyOf(cols, j);
+        } else {
+          active_cols = _activeCols == null ? null : new int[Math.max(1, _activeCols.cardinality())];
+          if (active_cols != null) {
+            int j = 0;
+            for (int i = 0; i < ncols; ++i)
+              if (_activeCols.contains(i))
+                active_cols[j++] = i;
+          }
         }
+        final int nactive_cols = active_cols == null?ncols:active_cols.length;
+        final int ntasks = nactive_cols + nbundles;
+        final int numWrks = _hcs.length*ntasks < 16*1024?H2O.NUMCPUS:Math.min(H2O.NUMCPUS,Math.max(4*H2O.NUMCPUS/ntasks,1));
+        final int rem = H2O.NUMCPUS-numWrks*ncols;
+        ScoreBuildHistogram2.this.addToPendingCount(1+ntasks);
         // MRTask (over columns) launching MrTasks (over number of workers) for each column.
         // We want FJ to start processing all the columns before parallelizing within column to reduce memory overhead.
         // (running single column in n threads means n-copies of the histogram)
@@ -255,14 +371,35 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
         new LocalMR(new MrFun() {
           @Override
           protected void map(int c) {
+            if (c >= nactive_cols) { // bundle
+              int b = c - nactive_cols;
+              new LocalMR(new ComputeBundleThread(_bundleHs[b],b,fLargestChunkSz,new AtomicInteger()),numWrks,ScoreBuildHistogram2.this).fork();
+              return;
+            }
             c = active_cols == null?c:active_cols[c];
             new LocalMR(new ComputeHistoThread(_hcs.length == 0?new DHistogram[0]:_hcs[c],c,fLargestChunkSz,new AtomicInteger()),numWrks + (c < rem?1:0),ScoreBuildHistogram2.this).fork();
           }
-        },nactive_cols,ScoreBuildHistogram2.this).fork();
+        },ntasks,ScoreBuildHistogram2.this).fork();
       }
     }).fork();
   }
 
+  // w, wY, wYY and number of rows (of non-zero weight) of every leaf
+  private double [] leafTotals(int [] lids, double [] ys, double [] ws) {
+    double [] totals = MemoryManager.malloc8d(4 * _numLeafs);
+    for (int row = 0; row < lids.length; row++) {
+      int n = lids[row];
+      double w = ws[row];
+      if (n < 0 || w == 0) continue;
+      double wy = w * ys[row];
+      totals[4*n + 0] += w;
+      totals[4*n + 1] += wy;
+      totals[4*n + 2] += wy * ys[row];
+      totals[4*n + 3]++;
+    }
+    return totals;
+  }
+
   private static void mergeHistos(DHistogram [] hcs, DHistogram [] hcs2){
     // Distributed histograms need a little work
     for( int i=0; i< hcs.length; i++ ) {
@@ -296,13 +433,62 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     @Override
     protected void map(int id){
       double [] cs = null;
+      int [] codes = null;
+      int [] ids = null;
       for(int i = _cidx.getAndIncrement(); i < _cids.length; i = _cidx.getAndIncrement()) {
         if(cs == null) cs = MemoryManager.malloc8d(_maxChunkSz);
-        computeChunk(i,cs,_ws[i]);
+        if (_lids[i] != null && _chks[i][_col].isSparseZero()) {
+          if (ids == null) ids = MemoryManager.malloc4(_maxChunkSz);
+          computeSparseChunk(i,cs,ids,_ws[i]);
+          continue;
+        }
+        if(codes == null && _codesIdx >= 0) codes = MemoryManager.malloc4(_maxChunkSz);
+        computeChunk(i,cs,codes,_ws[i]);
       }
     }
 
-    private void computeChunk(int id, double [] cs, double [] ws){
+    // Only the non-zeros of the chunk are visited, the zeros of every leaf are its totals minus its non-zeros
+    private void computeSparseChunk(int id, double [] vals, int [] ids, double [] ws){
+      int [] nh = _nhs[id];
+      int [] lids = _lids[id];
+      double [] totals = _totals[id];
+      double [] ys = ScoreBuildHistogram2.this._ys[id];
+      final int hcslen = _lh.length;
+      DHistogram [] hs = new DHistogram[hcslen]; // histograms to fill (null for leaves without this column)
+      for (int n = 0; n < hcslen; n++) {
+        int sCols[] = _tree.undecided(n + _leaf)._scoreCols; // Columns to score (null, or a list of selected cols)
+        if (_derivedCols[n] != null && _derivedCols[n].contains(_col)) continue; // Filled in by subtraction
+        if (sCols != null && ArrayUtils.find(sCols, _col) < 0) continue;
+        DHistogram h = _lh[n];
+        int hi = nh[n];
+        int lo = (n == 0 ? 0 : nh[n - 1]);
+        if (hi == lo || h == null) continue; // Ignore untracked columns in this split
+        if (h._vals == null) h.init();
+        hs[n] = h;
+      }
+      double [] nzs = new double[4 * hcslen]; // w, wY, wYY and number of the non-zeros of every leaf
+      int nnz = _chks[id][_col].getSparseDoubles(vals, ids);
+      for (int i = 0; i < nnz; i++) {
+        int k = ids[i];
+        int n = lids[k];
+        if (n < 0 || hs[n] == null) continue;
+        double w = ws[k];
+        if (w == 0) continue;
+        double wy = w * ys[k];
+        double wyy = wy * ys[k];
+        hs[n].add1(vals[i], w, wy, wyy);
+        nzs[4*n + 0] += w;
+        nzs[4*n + 1] += wy;
+        nzs[4*n + 2] += wyy;
+        nzs[4*n + 3]++;
+      }
+      for (int n = 0; n < hcslen; n++) {
+        if (hs[n] == null || totals[4*n + 3] == nzs[4*n + 3]) continue; // no zeros in this leaf
+        hs[n].add1(0, totals[4*n] - nzs[4*n], totals[4*n + 1] - nzs[4*n + 1], Math.max(0, totals[4*n + 2] - nzs[4*n + 2]));
+      }
+    }
+
+    private void computeChunk(int id, double [] cs, int [] codes, double [] ws){
       int [] nh = _nhs[id];
       int [] rs = _rss[id];
       Chunk resChk = _chks[id][_workIdx];
@@ -310,15 +496,24 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
       double [] ys = ScoreBuildHistogram2.this._ys[id];
       if(_weightIdx != -1) _chks[id][_weightIdx].getDoubles(ws, 0, len);
       final int hcslen = _lh.length;
-      boolean extracted = false;
+      boolean extracted = false, extractedCodes = false;
       for (int n = 0; n < hcslen; n++) {
         int sCols[] = _tree.undecided(n + _leaf)._scoreCols; // Columns to score (null, or a list of selected cols)
+        if (_derivedCols[n] != null && _derivedCols[n].contains(_col)) continue; // Filled in by subtraction
         if (sCols == null || ArrayUtils.find(sCols, _col) >= 0) {
           DHistogram h = _lh[n];
           int hi = nh[n];
           int lo = (n == 0 ? 0 : nh[n - 1]);
           if (hi == lo || h == null) continue; // Ignore untracked columns in this split
           if (h._vals == null) h.init();
+          if (_codesIdx >= 0 && h.initCodeBins()) {
+            if (!extractedCodes) {
+              _chks[id][_codesIdx + _col].getIntegers(codes, 0, len, -1);
+              extractedCodes = true;
+            }
+            h.updateHistoCodes(ws, codes, ys, rs, hi, lo);
+            continue;
+          }
           if (!extracted) {
             _chks[id][_col].getDoubles(cs,0,len);
             extracted = true;
@@ -335,12 +530,126 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     }
   }
 
+  private static void mergeBundleHistos(double [][] bhs, double [][] bhs2){
+    for( int n=0; n< bhs.length; n++ ) {
+      if( bhs[n] == null ) bhs[n] = bhs2[n];
+      else if( bhs2[n] != null )
+        ArrayUtils.add(bhs[n], bhs2[n]);
+    }
+  }
+
+  private class ComputeBundleThread extends MrFun<ComputeBundleThread> {
+    final int _maxChunkSz;
+    final int _bundle;
+    final double [][] _bh; // bins of the bundle codes per leaf
+    final int _ncodes;
+
+    AtomicInteger _cidx;
+
+    ComputeBundleThread(double [][] bh, int bundle, int maxChunkSz, AtomicInteger cidx){
+      _bh = bh; _bundle = bundle; _maxChunkSz = maxChunkSz;
+      _ncodes = _bundles._cols[bundle].length + 1;
+      _cidx = cidx;
+    }
+
+    @Override
+    public ComputeBundleThread makeCopy() {
+      return new ComputeBundleThread(new double[_bh.length][],_bundle,_maxChunkSz,_cidx);
+    }
+
+    @Override
+    protected void map(int id){
+      int [] codes = null;
+      for(int i = _cidx.getAndIncrement(); i < _cids.length; i = _cidx.getAndIncrement()) {
+        if(codes == null) codes = MemoryManager.malloc4(_maxChunkSz);
+        computeChunk(i,codes,_ws[i]);
+      }
+    }
+
+    private void computeChunk(int id, int [] codes, double [] ws){
+      int [] nh = _nhs[id];
+      int [] rs = _rss[id];
+      int len = _chks[id][_workIdx]._len;
+      double [] ys = ScoreBuildHistogram2.this._ys[id];
+      boolean extracted = false;
+      for (int n = 0; n < _bh.length; n++) {
+        if (!_bundleLeafs[_bundle][n]) continue;
+        int hi = nh[n];
+        int lo = (n == 0 ? 0 : nh[n - 1]);
+        if (hi == lo) continue;
+        if (!extracted) {
+          _chks[id][_bundlesIdx + _bundle].getIntegers(codes, 0, len, 0);
+          extracted = true;
+        }
+        double [] vals = _bh[n];
+        if (vals == null) vals = _bh[n] = MemoryManager.malloc8d(3 * _ncodes);
+        for (int r = lo; r < hi; ++r) {
+          int k = rs[r];
+          double w = ws[k];
+          if (w == 0) continue;
+          double wy = w * ys[k];
+          int code = codes[k];
+          vals[3*code + 0] += w;
+          vals[3*code + 1] += wy;
+          vals[3*code + 2] += wy * ys[k];
+        }
+      }
+    }
+
+    @Override
+    protected void reduce(ComputeBundleThread cc) {
+      assert _bh != cc._bh;
+      mergeBundleHistos(_bh, cc._bh);
+    }
+  }
+
+  @Override public void reduce(ScoreBuildHistogram sbh) {
+    super.reduce(sbh);
+    double [][][] bhs = ((ScoreBuildHistogram2) sbh)._bundleHs;
+    if (_bundleHs == null || bhs == null || bhs == _bundleHs) return;
+    for (int b = 0; b < _bundleHs.length; b++)
+      mergeBundleHistos(_bundleHs[b], bhs[b]);
+  }
+
+  // Histograms of the bundled columns from the histograms of their bundles
+  private void unbundle() {
+    for (int n = 0; n < _numLeafs; n++) {
+      int [] sCols = _tree.undecided(n + _leaf)._scoreCols;
+      for (int c = 0; c < _ncols; c++) {
+        DHistogram h = _hcs[n][c];
+        if (h == null || !_bundles.isBundled(c)) continue;
+        if (sCols != null && ArrayUtils.find(sCols, c) < 0) continue;
+        double [] bvals = _bundleHs[_bundles._bundleOf[c]][n];
+        if (bvals != null) h.unbundle(bvals, _bundles._codeOf[c]);
+      }
+    }
+  }
+
+  @Override protected void closeLocal(){
+    if (!_lowPrecision) return;
+    for(DHistogram [] ary:_hcs)
+      for(DHistogram dh:ary)
+        if(dh != null) dh.pack();
+  }
+
   @Override public void postGlobal(){
     _hcs = ArrayUtils.transpose(_hcs);
+    if (_lowPrecision)
+      for(DHistogram [] ary:_hcs)
+        for(DHistogram dh:ary)
+          if(dh != null) dh.unpack();
+    if (_bundles != null) unbundle();
     for(DHistogram [] ary:_hcs)
       for(DHistogram dh:ary) {
         if(dh == null) continue;
         dh.reducePrecision();
       }
+    // Larger children: parent minus the smaller sibling
+    for (int n = 0; n < _numLeafs; n++) {
+      if (_derivedCols[n] == null) continue;
+      for (int c = 0; c < _ncols; c++)
+        if (_derivedCols[n].contains(c))
+          _hcs[n][c].subtract(_parentHcs[n][c], _hcs[_siblings[n]][c]);
+    }
   }
 }
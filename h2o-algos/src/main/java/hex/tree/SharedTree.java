@@ -72,6 +72,16 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
   protected transient Frame _trainPredsCache;
   protected transient Frame _validPredsCache;
 
+  // Bin codes of the predictors (if pre-binned), aligned with the training frame
+  protected transient Frame _binned;
+
+  // Bundles of exclusive sparse predictors (if bundled) and their codes, aligned with the training frame
+  protected transient ColumnBundles _bundles;
+  protected transient Frame _bundled;
+
+  // Weights of the rows used to build the trees (if a builder samples the rows with weights), replace the observation weights
+  protected transient Vec _sampleWeights;
+
   public boolean isSupervised(){return true;}
 
   @Override public boolean haveMojo() { return true; }
@@ -149,6 +159,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     if (_parms._nbins_top_level < _parms._nbins) error ("_nbins_top_level", "nbins_top_level must be >= nbins (" + _parms._nbins + ").");
     if (_parms._nbins_top_level >= 1<<16) error ("_nbins_top_level", "nbins_top_level must be < " + (1<<16));
     if (_parms._max_depth <= 0) error ("_max_depth", "_max_depth must be > 0.");
+    if (_parms._max_leaves < 0 || _parms._max_leaves == 1) error ("_max_leaves", "_max_leaves must be 0 (depth-wise growth) or >= 2.");
     if (_parms._min_rows <=0) error ("_min_rows", "_min_rows must be > 0.");
     if (_parms._r2_stopping!=Double.MAX_VALUE) warn("_r2_stopping", "_r2_stopping is no longer supported - please use stopping_rounds, stopping_metric and stopping_tolerance instead.");
     if (_parms._score_tree_interval < 0) error ("_score_tree_interval", "_score_tree_interval must be >= 0.");
@@ -169,6 +180,9 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     if( !(0. < _parms._col_sample_rate_change_per_level && _parms._col_sample_rate_change_per_level <= 2) )
       error("_col_sample_rate_change_per_level", "col_sample_rate_change_per_level must be > 0" +
               " and <= 2");
+    if (_parms._prebin && _parms._histogram_type != SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal
+            && _parms._histogram_type != SharedTreeModel.SharedTreeParameters.HistogramType.RoundRobin)
+      error("_prebin", "Pre-binning requires global split points, histogram_type must be QuantilesGlobal or RoundRobin.");
     if (_train != null) {
       double sumWeights = _train.numRows() * (hasWeightCol() ? _train.vec(_parms._weights_column).mean() : 1);
       if (sumWeights < 2*_parms._min_rows ) // Need at least 2*min_rows weighted rows to split even once
@@ -310,6 +324,17 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
           }
           qm.delete();
           DKV.remove(rndKey);
+          if (_parms._prebin) {
+            Timer t = new Timer();
+            _binned = PreBinning.binColumns(_train, _ncols, keys);
+            Log.info("Pre-binning of the training frame took " + t);
+          }
+        }
+        if (_parms._bundle_sparse_columns) {
+          Timer t = new Timer();
+          _bundles = ColumnBundles.find(_train, _ncols);
+          if (_bundles != null) _bundled = _bundles.encode(_train);
+          Log.info("Bundling of sparse columns took " + t);
         }
 
         // Also add to the basic working Frame these sets:
@@ -324,7 +349,11 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
           twNames[i] = "Tree_" + domain[i];
           twNames[_nclass+i] = "Work_" + domain[i];
         }
-        Vec [] twVecs = _response.makeVolatileDoubles(_nclass*2);
+        Vec [] twVecs;
+        if (_parms._low_precision) { // predictions are summed over the trees, working columns do not need doubles
+          twVecs = ArrayUtils.append(_response.makeVolatileDoubles(_nclass), _response.makeVolatileFloats(_nclass));
+        } else
+          twVecs = _response.makeVolatileDoubles(_nclass*2);
         _train.add(twNames,twVecs);
 
 
@@ -358,6 +387,18 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       } finally {
         if( _model!=null ) _model.unlock(_job);
         for (Key k : getGlobalQuantilesKeys()) if (k!=null) k.remove();
+        if (_binned != null) {
+          _binned.remove();
+          _binned = null;
+        }
+        if (_bundled != null) {
+          _bundled.remove();
+          _bundled = null;
+        }
+        if (_sampleWeights != null) {
+          _sampleWeights.remove();
+          _sampleWeights = null;
+        }
         if (_validWorkspace != null) {
           _validWorkspace.remove();
           _validWorkspace = null;
@@ -458,7 +499,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     Vec vecs[] = fr.vecs();
     for( int k=0; k<_nclass; k++ ) {
       final DTree tree = ktrees[k]; // Tree for class K
-      if( tree == null ) continue;
+      if( tree == null || !tree.canGrow() ) continue;
       // Build a frame with just a single tree (& work & nid) columns, so the
       // nested MRTask ScoreBuildHistogram in ScoreBuildOneTree does not try
       // to close other tree's Vecs when run in parallel.
@@ -466,22 +507,26 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
 
       // Add temporary workspace vectors (optional weights are taken over from fr)
       int weightIdx = fr2.find(_parms._weights_column);
+      if (_sampleWeights != null) { weightIdx = fr2.numCols(); fr2.add("Sample_Weights", _sampleWeights); }
       fr2.add(fr._names[idx_tree(k)],vecs[idx_tree(k)]);                              //tree predictions
       int workIdx = fr2.numCols(); fr2.add(fr._names[idx_work(k)],vecs[idx_work(k)]); //target value to fit (copy of actual response for DRF, residual for GBM)
       int nidIdx  = fr2.numCols(); fr2.add(fr._names[idx_nids(k)],vecs[idx_nids(k)]); //node indices for tree construction
+      int codesIdx = -1;
+      if (_binned != null) { codesIdx = fr2.numCols(); fr2.add(_binned.names(), _binned.vecs()); } //pre-binned predictors
+      int bundlesIdx = -1;
+      if (_bundled != null) { bundlesIdx = fr2.numCols(); fr2.add(_bundled.names(), _bundled.vecs()); } //codes of the column bundles
       if (DEV_DEBUG) {
         System.out.println("Building a layer for class " + k + ":\n" + fr2.toTwoDimTable());
       }
       // Async tree building
       // step 1: build histograms
       // step 2: split nodes
-      H2O.submitTask(sb1ts[k] = new ScoreBuildOneTree(this,k,nbins, nbins_cats, tree, leafs, hcs, fr2, build_tree_one_node, _improvPerVar, _model._parms._distribution, weightIdx, workIdx, nidIdx));
+      H2O.submitTask(sb1ts[k] = new ScoreBuildOneTree(this,k,nbins, nbins_cats, tree, leafs, hcs, fr2, build_tree_one_node, _improvPerVar, _model._parms._distribution, weightIdx, workIdx, nidIdx, codesIdx, bundlesIdx));
     }
     // Block for all K trees to complete.
     boolean did_split=false;
     for( int k=0; k<_nclass; k++ ) {
-      final DTree tree = ktrees[k]; // Tree for class K
-      if( tree == null ) continue;
+      if( sb1ts[k] == null ) continue;
       sb1ts[k].join();
       if( sb1ts[k]._did_split ) did_split=true;
       if (DEV_DEBUG) {
@@ -514,10 +559,12 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     final int _weightIdx;
     final int _workIdx;
     final int _nidIdx;
+    final int _codesIdx;
+    final int _bundlesIdx;
 
     boolean _did_split;
 
-    ScoreBuildOneTree(SharedTree st, int k, int nbins, int nbins_cats, DTree tree, int leafs[], DHistogram hcs[][][], Frame fr2, boolean build_tree_one_node, float[] improvPerVar, DistributionFamily family, int weightIdx, int workIdx, int nidIdx) {
+    ScoreBuildOneTree(SharedTree st, int k, int nbins, int nbins_cats, DTree tree, int leafs[], DHistogram hcs[][][], Frame fr2, boolean build_tree_one_node, float[] improvPerVar, DistributionFamily family, int weightIdx, int workIdx, int nidIdx, int codesIdx, int bundlesIdx) {
       _st   = st;
       _k    = k;
       _nbins= nbins;
@@ -532,6 +579,8 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       _weightIdx = weightIdx;
       _workIdx = workIdx;
       _nidIdx = nidIdx;
+      _codesIdx = codesIdx;
+      _bundlesIdx = bundlesIdx;
     }
     @Override public void compute2() {
       // Fuse 2 conceptual passes into one:
@@ -543,7 +592,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       // got assigned into.  Collect counts, mean, variance, min, max per bin,
       // per column.
 //      new ScoreBuildHistogram(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx).dfork2(null,_fr2,_build_tree_one_node);
-      new ScoreBuildHistogram2(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx).dfork2(null,_fr2,_build_tree_one_node);
+      new ScoreBuildHistogram2(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx, _codesIdx, _st._bundles, _bundlesIdx).dfork2(null,_fr2,_build_tree_one_node);
     }
     @Override public void onCompletion(CountedCompleter caller) {
       ScoreBuildHistogram sbh = (ScoreBuildHistogram) caller;
@@ -556,12 +605,21 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
         DTree.DecidedNode dn = _st.makeDecided(udn, sbh._hcs[leaf - leafOffset]);
 //        System.out.println(dn + "\n" + dn._split);
         if (dn._split == null) udn.do_not_split();
+        else if (_tree.isLeafwise()) _tree.park(dn, sbh._hcs[leaf - leafOffset]);
         else {
           _did_split = true;
-          DTree.Split s = dn._split; // Accumulate squared error improvements per variable
-          float improvement = (float) (s.pre_split_se() - s.se());
-          assert (improvement >= 0);
-          AtomicUtils.FloatArray.add(_improvPerVar, s.col(), improvement);
+          addImprovement(dn._split);
+        }
+      }
+      if (_tree.isLeafwise()) {
+        // Make the best splits among all the (new and older) leaves, best first; splits without new children to
+        // histogram (bottomed out) do not count against the batch
+        int batch = _tree.parkedSplitsPerPass();
+        DTree.DecidedNode dn;
+        while (batch > 0 && (dn = _tree.splitBestParked()) != null) {
+          _did_split = true;
+          addImprovement(dn._split);
+          if (dn._nids[0] >= 0 || dn._nids[1] >= 0) batch--;
         }
       }
       _leafOffsets[_k] = tmax;          // Setup leafs for next tree level
@@ -570,7 +628,14 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       for (int nl = tmax; nl < _tree.len(); nl++)
         _hcs[_k][nl - tmax] = _tree.undecided(nl)._hs;
 //      if (_did_split && new_leafs > 0) _tree._depth++;
-      if (_did_split) _tree._depth++; //
+      if (_did_split && !_tree.isLeafwise()) _tree._depth++; // leaf-wise growth tracks the depth of the split nodes
+    }
+
+    // Accumulate squared error improvements per variable
+    private void addImprovement(DTree.Split s) {
+      float improvement = (float) (s.pre_split_se() - s.se());
+      assert (improvement >= 0);
+      AtomicUtils.FloatArray.add(_improvPerVar, s.col(), improvement);
     }
   }
 
@@ -620,6 +685,13 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       nids0Index = t.idx_nids(0);
       oobtIndex = t.idx_oobt();
     }
+
+    /** Copy of this map with the weights read from the given column */
+    public FrameMap withWeightIndex(int weightIndex) {
+      FrameMap fm = clone();
+      fm.weightIndex = weightIndex;
+      return fm;
+    }
   }
 
   protected double[] data_row( Chunk chks[], int row, double[] data) {
@@ -630,7 +702,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
 
   // Builder-specific decision node
   protected DTree.DecidedNode makeDecided( DTree.UndecidedNode udn, DHistogram hs[] ) {
-    return new DTree.DecidedNode(udn, hs);
+    return new DTree.DecidedNode(udn, hs, udn._tree.isLeafwise());
   }
 
   // Read the 'tree' columns, do model-specific math and put the results in the
@@ -5,6 +5,7 @@ import hex.*;
 import static hex.ModelCategory.Binomial;
 import static hex.genmodel.GenModel.createAuxKey;
 
+import hex.genmodel.algos.tree.FlatTree;
 import hex.glm.GLMModel;
 import hex.util.LinearAlgebraUtils;
 import water.*;
@@ -28,6 +29,8 @@ public abstract class SharedTreeModel<
         O extends SharedTreeModel.SharedTreeOutput
         > extends Model<M, P, O> implements Model.LeafNodeAssignment, Model.GetMostImportantFeatures {
 
+  static final int SCORE_BLOCK_SIZE = 256; // rows scored together through one tree
+
   @Override
   public String[] getMostImportantFeatures(int n) {
     if (_output == null) return null;
@@ -47,6 +50,8 @@ public abstract class SharedTreeModel<
 
     public int _max_depth = 5; // Maximum tree depth. Grid Search, comma sep values:5,7
 
+    public int _max_leaves = 0; // Maximum number of leaves of leaf-wise (best split first) grown trees, 0 to grow trees depth-wise
+
     public double _min_rows = 10; // Fewest allowed observations in a leaf (in R called 'nodesize'). Grid Search, comma sep values
 
     public int _nbins = 20; // Numerical (real/int) cols: Build a histogram of this many bins, then split at the best point
@@ -58,6 +63,14 @@ public abstract class SharedTreeModel<
     public enum HistogramType { AUTO, UniformAdaptive, Random, QuantilesGlobal, RoundRobin }
     public HistogramType _histogram_type = HistogramType.AUTO; // What type of histogram to use for finding optimal split points
 
+    public boolean _histogram_subtraction = false; // Children keep the bins of their parent, the larger child's histograms are parent minus sibling
+
+    public boolean _prebin = false; // Bin the predictors once per model (global split points), histograms are built from the bin codes
+
+    public boolean _bundle_sparse_columns = false; // Build the histograms of mutually exclusive sparse 0/1 columns per bundle of columns
+
+    public boolean _low_precision = false; // Send the histograms between the nodes and keep the working columns in single precision
+
     public double _r2_stopping = Double.MAX_VALUE; // Stop when the r^2 metric equals or exceeds this value
 
     public int _nbins_top_level = 1<<10; //hardcoded maximum top-level number of bins for real-valued columns
@@ -320,7 +333,77 @@ public abstract class SharedTreeModel<
 
   protected double[] score0(double[] data, double[] preds, double offset, int ntrees) {
     Arrays.fill(preds,0);
-    return score0(data, preds, offset, 0, ntrees);
+    score0(data, preds, offset, 0, ntrees);
+    return unifyPreds(preds, offset, _output._ntrees);
+  }
+
+  /** Final predictions from the sums of the predictions of the first ntrees trees (in preds) */
+  protected double[] unifyPreds(double[] preds, double offset, int ntrees) {
+    return preds;
+  }
+
+  // Rows are scored by blocks, see score0(Chunk[], double[], int[], double[][], double[][])
+  @Override protected boolean bulkBigScorePredict() { return true; }
+
+  // Starts fetching all the trees (once per node), the first blocks are scored while the remaining trees are still
+  // being fetched
+  @Override protected void setupLocalBigScorePredict() {
+    for (Key[] keys : _output._treeKeys)
+      for (Key k : keys)
+        if (k != null)
+          DKV.prefetch(k);
+  }
+
+  /** Flat form of the tree with the given key, null if there is no tree */
+  protected final FlatTree flatTree(Key key) {
+    return key == null ? null : DKV.get(key).<CompressedTree>get().flat(_output._domains);
+  }
+
+  /**
+   * Adds the predictions of the trees for a block of rows to sums (per class, see FlatTree#score).
+   * @return number of trees scored per row, null if all the rows were scored by all the trees
+   */
+  protected int[] scoreBlock(double[][] block, int nrows, double[][] sums) {
+    for (Key[] keys : _output._treeKeys)
+      for (int c = 0; c < keys.length; c++) {
+        FlatTree tree = flatTree(keys[c]);
+        if (tree != null)
+          tree.score(block, nrows, sums[keys.length == 1 ? 0 : c + 1]);
+      }
+    return null;
+  }
+
+  /**
+   * Scores the rows by blocks of SCORE_BLOCK_SIZE rows, all the rows of a block go through one tree before the next
+   * tree, the rows of the block are kept in a column-major buffer.
+   */
+  @Override
+  public double[][] score0(Chunk chks[], double[] offsets, int[] rowsInChunk, double[][] tmp, double[][] preds) {
+    final int ncols = _output.nfeatures();
+    final int npreds = preds.length == 0 ? 0 : preds[0].length;
+    double[][] block = new double[ncols][SCORE_BLOCK_SIZE]; // column-major rows of the block
+    double[][] sums = new double[npreds][SCORE_BLOCK_SIZE]; // sums of the predictions of the trees per class
+    for (int from = 0; from < rowsInChunk.length; from += SCORE_BLOCK_SIZE) {
+      final int n = Math.min(SCORE_BLOCK_SIZE, rowsInChunk.length - from);
+      for (int c = 0; c < ncols; c++)
+        for (int i = 0; i < n; i++)
+          block[c][i] = chks[c].atd(rowsInChunk[from + i]);
+      for (double[] s : sums)
+        Arrays.fill(s, 0);
+      int[] ntrees = scoreBlock(block, n, sums);
+      for (int i = 0; i < n; i++) {
+        double[] data = tmp[from + i];
+        double[] p = preds[from + i];
+        for (int c = 0; c < ncols; c++)
+          data[c] = block[c][i];
+        for (int k = 0; k < npreds; k++)
+          p[k] = sums[k][i];
+        unifyPreds(p, offsets == null ? 0 : offsets[from + i], ntrees == null ? _output._ntrees : ntrees[i]);
+        if (needsPostProcess() && isSupervised())
+          score0PostProcessSupervised(p, data);
+      }
+    }
+    return preds;
   }
 
   protected double[] score0(double[] data, double[] preds, double offset, int startTree, int ntrees) {
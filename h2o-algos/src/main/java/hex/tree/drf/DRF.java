@@ -71,6 +71,12 @@ public class DRF extends SharedTree<hex.tree.drf.DRFModel, hex.tree.drf.DRFModel
       warn("_sample_rate", "Sample rate is 100% and no validation dataset and no cross-validation. There are no out-of-bag data to compute error estimates on the training data!");
     if (hasOffsetCol())
       error("_offset_column", "Offsets are not yet supported for DRF.");
+    if (_parms._max_leaves > 0)
+      error("_max_leaves", "Leaf-wise tree growth is not supported for DRF.");
+    if (_parms._early_exit_delta < 0 || _parms._early_exit_delta >= 1)
+      error("_early_exit_delta", "early_exit_delta must be in [0, 1) but it is " + _parms._early_exit_delta);
+    if (_parms._early_exit_delta > 0 && _nclass == 1)
+      warn("_early_exit_delta", "Early exit is only done for classification, all the trees are used for regression.");
     if (hasOffsetCol() && isClassifier()) {
       error("_offset_column", "Offset is only supported for regression.");
     }
@@ -1,5 +1,6 @@
 package hex.tree.drf;
 
+import hex.genmodel.algos.tree.FlatTree;
 import hex.tree.SharedTreeModel;
 import water.Key;
 import water.util.MathUtils;
@@ -14,6 +15,7 @@ public class DRFModel extends SharedTreeModel<DRFModel, DRFModel.DRFParameters,
     public String javaName() { return DRFModel.class.getName(); }
     public boolean _binomial_double_trees = false;
     public int _mtries = -1; //number of columns to use per split. default depeonds on the algorithm and problem (classification/regression)
+    public double _early_exit_delta = 0; // scoring: stop evaluating trees for a row once its class is decided with probability 1-delta, 0 = all trees
 
     public DRFParameters() {
       super();
@@ -33,13 +35,9 @@ public class DRFModel extends SharedTreeModel<DRFModel, DRFModel.DRFParameters,
 
   @Override protected boolean binomialOpt() { return !_parms._binomial_double_trees; }
 
-  /** Bulk scoring API for one row.  Chunks are all compatible with the model,
-   *  and expect the last Chunks are for the final distribution and prediction.
-   *  Default method is to just load the data into the tmp array, then call
-   *  subclass scoring logic. */
-  @Override protected double[] score0(double[] data, double[] preds, double offset, int ntrees) {
-    super.score0(data, preds, offset, ntrees);
-    int N = _output._ntrees;
+  /** Averages the predictions (or votes) of the first ntrees trees */
+  @Override protected double[] unifyPreds(double[] preds, double offset, int ntrees) {
+    int N = ntrees;
     if (_output.nclasses() == 1) { // regression - compute avg over all trees
       if (N>=1) preds[0] /= N;
     } else { // classification
@@ -56,6 +54,67 @@ public class DRFModel extends SharedTreeModel<DRFModel, DRFModel.DRFParameters,
     return preds;
   }
 
+  // Early exit is only done on the votes of a single tree per iteration (binomial) or of one tree per class (multinomial)
+  private boolean earlyExit() {
+    return _parms._early_exit_delta > 0 && !_parms._balance_classes &&
+            (_output.nclasses() > 2 || (_output.nclasses() == 2 && binomialOpt()));
+  }
+
+  /**
+   * Scores a block of rows, with early exit the rows stop going through the trees once their predicted class is decided:
+   * either no remaining trees can change it, or the margin of the votes is above the Hoeffding bound for
+   * _early_exit_delta (the votes of the remaining trees are seen as a sample of the votes of the whole forest).
+   */
+  @Override protected int[] scoreBlock(double[][] block, int nrows, double[][] sums) {
+    if (!earlyExit())
+      return super.scoreBlock(block, nrows, sums);
+    final Key[][] treeKeys = _output._treeKeys;
+    final double logDelta = Math.log(1 / _parms._early_exit_delta);
+    final boolean binomial = _output.nclasses() == 2;
+    final double threshold = defaultThreshold();
+    int[] ntrees = new int[nrows];
+    int[] rows = new int[nrows]; // rows still going through the trees
+    for (int i = 0; i < nrows; i++)
+      rows[i] = i;
+    int nactive = nrows;
+    for (int t = 0; t < treeKeys.length && nactive > 0; t++) {
+      Key[] keys = treeKeys[t];
+      for (int c = 0; c < keys.length; c++) {
+        FlatTree tree = flatTree(keys[c]);
+        if (tree != null)
+          tree.score(block, rows, nactive, sums[keys.length == 1 ? 0 : c + 1]);
+      }
+      int k = 0;
+      for (int j = 0; j < nactive; j++) {
+        int i = rows[j];
+        ntrees[i] = t + 1;
+        if (!isDecided(sums, i, t + 1, treeKeys.length, binomial, threshold, logDelta))
+          rows[k++] = i;
+      }
+      nactive = k;
+    }
+    return ntrees;
+  }
+
+  // Is the class of the i-th row decided after t out of N trees?
+  private static boolean isDecided(double[][] sums, int i, int t, int N, boolean binomial, double threshold, double logDelta) {
+    if (binomial) { //, sums[1] are the votes for the first class, one tree per iteration
+      double votes1 = t - sums[1][i]; // votes for the second class, each in [0, 1]
+      if (votes1 >= threshold * N || votes1 + (N - t) < threshold * N)
+        return true;
+      return Math.abs(votes1 / t - threshold) >= Math.sqrt(logDelta / (2 * t));
+    }
+    // multinomial, margin between the two classes with the most votes
+    double first = Double.NEGATIVE_INFINITY, second = Double.NEGATIVE_INFINITY;
+    for (int c = 1; c < sums.length; c++) {
+      double v = sums[c][i];
+      if (v > first) { second = first; first = v; }
+      else if (v > second) second = v;
+    }
+    double margin = first - second; // each tree changes the margin by at most 1
+    return margin > N - t || margin >= Math.sqrt(2 * t * logDelta);
+  }
+
   @Override protected void toJavaUnifyPreds(SBPrintStream body) {
     if (_output.nclasses() == 1) { // Regression
       body.ip("preds[0] /= " + _output._ntrees + ";").nl();
@@ -103,7 +103,7 @@ public class TreeMeasuresCollector extends MRTask<TreeMeasuresCollector> {
     // Start iteration
     for( int tidx=0; tidx<_ntrees; tidx++) { // tree
       // OOB RNG for this tree
-      Random rng = rngForTree(_forest._trees[tidx], cresp.cidx());
+      Random rng = rngForTree(_forest.trees(tidx), cresp.cidx());
       // Collect oob rows and permutate them
       oob = ModelUtils.sampleOOBRows(nrows, _rate, rng, oob); // reuse use the same array for sampling
       int oobcnt = oob[0]; // Get number of sample rows
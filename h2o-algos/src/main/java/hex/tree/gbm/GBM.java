@@ -148,6 +148,17 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       error("_max_abs_leafnode_pred", "max_abs_leafnode_pred must be larger than 0.");
     if (_parms._pred_noise_bandwidth < 0)
       error("_pred_noise_bandwidth", "pred_noise_bandwidth must be >= 0.");
+    if (_parms._goss) {
+      if (!(0. < _parms._goss_top_rate && _parms._goss_top_rate < 1.0))
+        error("_goss_top_rate", "goss_top_rate must be between 0 and 1 (exclusive)");
+      if (!(0. < _parms._goss_other_rate && _parms._goss_top_rate + _parms._goss_other_rate <= 1.0))
+        error("_goss_other_rate", "goss_other_rate must be > 0 and goss_top_rate + goss_other_rate must be <= 1");
+      if (_parms._sample_rate < 1 || _parms._sample_rate_per_class != null)
+        error("_goss", "GOSS replaces uniform row sampling, sample_rate and sample_rate_per_class cannot be used with it.");
+      if (_parms._distribution == DistributionFamily.laplace || _parms._distribution == DistributionFamily.quantile
+              || _parms._distribution == DistributionFamily.huber)
+        error("_goss", "GOSS is not supported for the " + _parms._distribution + " distribution.");
+    }
   }
 
   // ----------------------
@@ -355,7 +366,13 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       // ESL2, page 387.  Step 2b iii.  Compute the gammas (leaf node predictions === fit best constant), and store them back
       // into the tree leaves.  Includes learn_rate.
       GammaPass gp = new GammaPass(frameMap, ktrees, leaves, new Distribution(_parms), _nclass);
-      gp.doAll(_train);
+      if (_sampleWeights != null) { // GOSS: leaf estimates use the weights of the sampled rows
+        Frame fr = new Frame(_train);
+        gp.fm = frameMap.withWeightIndex(fr.numCols());
+        fr.add("sample_weights", _sampleWeights);
+        gp.doAll(fr);
+      } else
+        gp.doAll(_train);
       if (_parms._distribution == DistributionFamily.laplace) {
         fitBestConstantsQuantile(ktrees, leaves[0], 0.5); //special case for Laplace: compute the median for each leaf node and store that as prediction
       } else if (_parms._distribution == DistributionFamily.quantile) {
@@ -406,6 +423,27 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       return _nclass == 2 ? 1 : _nclass; // Boolean Optimization (only one tree needed for 2-class problems)
     }
 
+    /**
+     * Gradient-based one-side sampling of the rows used to build the trees of this iteration, the sampled
+     * small-gradient rows get amplified weights (stored in the sample weights which replace the observation weights).
+     * @param ktrees trees of this iteration, all share the sample
+     * @param seed seed of the sampling
+     */
+    private void gossSample(DTree[] ktrees, long seed) {
+      if (_sampleWeights == null)
+        _sampleWeights = _response.makeVolatileDoubles(1)[0];
+      Frame fr = new Frame(_response);
+      if (hasWeightCol()) fr.add("weights", _train.vecs()[idx_weight()]);
+      int ntrees = 0;
+      for (int k = 0; k < _nclass; k++)
+        if (ktrees[k] != null) { fr.add("work_" + k, vec_work(_train, k)); ntrees++; }
+      for (int k = 0; k < _nclass; k++)
+        if (ktrees[k] != null) fr.add("nids_" + k, vec_nids(_train, k));
+      fr.add("sample_weights", _sampleWeights);
+      new GossSample(ntrees, hasWeightCol(), _parms._goss_top_rate, _parms._goss_other_rate)
+          .sample(fr, seed, _parms._build_tree_one_node);
+    }
+
     /**
      * Grow k regression trees (k=1 for regression and binomial, k=N for classification with N classes)
      * @param ktrees k trees to grow (must be properly initialized)
@@ -432,7 +470,9 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       }
 
       // Sample - mark the lines by putting 'OUT_OF_BAG' into nid(<klass>) vector
-      if (_parms._sample_rate < 1 || _parms._sample_rate_per_class != null) {
+      if (_parms._goss) {
+        gossSample(ktrees, rseed);
+      } else if (_parms._sample_rate < 1 || _parms._sample_rate_per_class != null) {
         Sample ss[] = new Sample[_nclass];
         for (int k = 0; k < _nclass; k++)
           if (ktrees[k] != null)
@@ -451,11 +491,21 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       // ESL2, page 387.  Step 2b ii.
       // One Big Loop till the ktrees are of proper depth.
       // Adds a layer to the trees each pass.
-      int depth = 0;
-      for (; depth < _parms._max_depth; depth++) {
-        hcs = buildLayer(_train, _parms._nbins, _parms._nbins_cats, ktrees, leaves, hcs, _parms._build_tree_one_node);
-        // If we did not make any new splits, then the tree is split-to-death
-        if (hcs == null) break;
+      if (_parms._max_leaves > 0) {
+        // Leaf-wise growth: every layer makes the best splits of each tree (limited by max_depth), until the trees
+        // have max_leaves leaves or no split is left
+        do {
+          hcs = buildLayer(_train, _parms._nbins, _parms._nbins_cats, ktrees, leaves, hcs, _parms._build_tree_one_node);
+        } while (hcs != null);
+        for (int k = 0; k < _nclass; k++)
+          if (ktrees[k] != null) ktrees[k].unpark();
+      } else {
+        int depth = 0;
+        for (; depth < _parms._max_depth; depth++) {
+          hcs = buildLayer(_train, _parms._nbins, _parms._nbins_cats, ktrees, leaves, hcs, _parms._build_tree_one_node);
+          // If we did not make any new splits, then the tree is split-to-death
+          if (hcs == null) break;
+        }
       }
 
       // Each tree bottomed-out in a DecidedNode; go 1 more level and insert
@@ -706,7 +756,7 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       Chunk ys = chks[fm.responseIndex];
       Chunk offset = fm.offsetIndex >= 0 ? chks[fm.offsetIndex] : new C0DChunk(0, chks[0]._len);
       Chunk preds = chks[fm.tree0Index];  // Prior tree sums
-      C8DVolatileChunk wk = (C8DVolatileChunk) chks[fm.work0Index]; // Place to store residuals
+      Chunk wk = chks[fm.work0Index]; // Place to store residuals
       Chunk weights = fm.weightIndex >= 0 ? chks[fm.weightIndex] : new C0DChunk(1, chks[0]._len);
       double[] fs = nclass > 1 ? new double[nclass + 1] : null;
       for (int row = 0; row < wk._len; row++) {
@@ -720,25 +770,31 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
           double sum = score1static(chks, fm.tree0Index, 0.0 /*not used for multiclass*/, fs, row, dist, nclass);
           if (Double.isInfinite(sum)) {  // Overflow (happens for constant responses)
             for (int k = 0; k < nclass; k++) {
-              wk = (C8DVolatileChunk) chks[fm.work0Index + k];
-              wk.getValues()[row] = ((int) y == k ? 1f : 0f) - (Double.isInfinite(fs[k + 1]) ? 1.0f : 0.0f);
+              wk = chks[fm.work0Index + k];
+              setWork(wk, row, ((int) y == k ? 1f : 0f) - (Double.isInfinite(fs[k + 1]) ? 1.0f : 0.0f));
             }
           } else {
             for (int k = 0; k < nclass; k++) { // Save as a probability distribution
               if (out[k]) {
-                wk = (C8DVolatileChunk) chks[fm.work0Index + k];
-                wk.getValues()[row] = (((int) y == k ? 1f : 0f) - (float) (fs[k + 1] / sum));
+                wk = chks[fm.work0Index + k];
+                setWork(wk, row, (((int) y == k ? 1f : 0f) - (float) (fs[k + 1] / sum)));
               }
             }
           }
         } else {
-          wk.getValues()[row] = ((float) dist.negHalfGradient(y, f));
+          setWork(wk, row, (float) dist.negHalfGradient(y, f));
         }
       }
     }
   }
 
 
+  // Residuals are stored as floats, in double or (low precision) float working columns
+  private static void setWork(Chunk wk, int row, float res) {
+    if (wk instanceof C4FVolatileChunk) ((C4FVolatileChunk) wk).getValues()[row] = res;
+    else ((C8DVolatileChunk) wk).getValues()[row] = res;
+  }
+
   private static class ComputeMinMax extends MRTask<ComputeMinMax> {
     private FrameMap fm;
     int firstLeafIdx;
@@ -915,7 +971,7 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       Chunk ys = chks[fm.responseIndex];
       Chunk offset = fm.offsetIndex >= 0 ? chks[fm.offsetIndex] : new C0DChunk(0, chks[0]._len);
       Chunk preds = chks[fm.tree0Index];  // Prior tree sums
-      C8DVolatileChunk wk = (C8DVolatileChunk) chks[fm.work0Index]; // Place to store residuals
+      Chunk wk = chks[fm.work0Index]; // Place to store residuals
       Chunk weights = fm.weightIndex >= 0 ? chks[fm.weightIndex] : new C0DChunk(1, chks[0]._len);
       for (int row = 0; row < wk._len; row++) {
         double weight = weights.atd(row);
@@ -923,7 +979,7 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
         if (ys.isNA(row)) continue;
         double f = preds.atd(row) + offset.atd(row);
         double y = ys.atd(row);
-        wk.getValues()[row] = ((float) dist.negHalfGradient(y, f));
+        setWork(wk, row, (float) dist.negHalfGradient(y, f));
       }
     }
   }
@@ -941,7 +997,7 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
    * <pre>{@code    gamma_i = sum res_i / count(res_i)}</pre>
    */
   private static class GammaPass extends MRTask<GammaPass> {
-    private final FrameMap fm;
+    private FrameMap fm;
     private final DTree[] _trees; // Read-only, shared (except at the histograms in the Nodes)
     private final int[] _leafs;  // Starting index of leaves (per class-tree)
     private final Distribution _dist;
@@ -18,6 +18,9 @@ public class GBMModel extends SharedTreeModel<GBMModel, GBMModel.GBMParameters,
     public double _col_sample_rate;
     public double _max_abs_leafnode_pred;
     public double _pred_noise_bandwidth;
+    public boolean _goss; // Gradient-based one-side sampling instead of uniform row sampling
+    public double _goss_top_rate; // GOSS: fraction of rows with the largest gradients, always kept
+    public double _goss_other_rate; // GOSS: fraction of rows sampled from the remaining rows
 
     public GBMParameters() {
       super();
@@ -29,6 +32,9 @@ public class GBMModel extends SharedTreeModel<GBMModel, GBMModel.GBMParameters,
       _max_depth = 5;
       _max_abs_leafnode_pred = Double.MAX_VALUE;
       _pred_noise_bandwidth =0;
+      _goss = false;
+      _goss_top_rate = 0.2;
+      _goss_other_rate = 0.1;
     }
 
     public String algoName() { return "GBM"; }
@@ -83,12 +89,8 @@ public class GBMModel extends SharedTreeModel<GBMModel, GBMModel.GBMParameters,
     return preds;
   }
 
-  /** Bulk scoring API for one row.  Chunks are all compatible with the model,
-   *  and expect the last Chunks are for the final distribution and prediction.
-   *  Default method is to just load the data into the tmp array, then call
-   *  subclass scoring logic. */
-  @Override protected double[] score0(double data[/*ncols*/], double preds[/*nclasses+1*/], double offset, int ntrees) {
-    super.score0(data, preds, offset, ntrees);    // These are f_k(x) in Algorithm 10.4
+  /** Predictions from the sums of the trees (f_k(x) in Algorithm 10.4) */
+  @Override protected double[] unifyPreds(double preds[/*nclasses+1*/], double offset, int ntrees) {
     return score0Probabilities(preds, offset);
   }
 
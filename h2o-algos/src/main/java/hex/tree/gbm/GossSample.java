@@ -0,0 +1,169 @@
+package hex.tree.gbm;
+
+import hex.tree.ScoreBuildHistogram;
+import water.Iced;
+import water.MRTask;
+import water.fvec.C4VolatileChunk;
+import water.fvec.C8DVolatileChunk;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.util.ArrayUtils;
+import water.util.Log;
+import water.util.RandomUtils;
+
+import java.util.Random;
+
+/**
+ * Gradient-based one-side sampling (GOSS) of the rows used to build the trees of one boosting iteration.
+ *
+ * <p>Rows with the largest gradients (the top {@code topRate} fraction of the rows) are always used, {@code otherRate}
+ * (as a fraction of all the rows) is sampled at random from the remaining rows. The weights of the sampled
+ * small-gradient rows are divided by their sampling probability, so that the histograms and the leaf estimates
+ * stay unbiased.
+ *
+ * <p>Same as with {@link hex.tree.Sample}, rows which are not used are flagged as OUT_OF_BAG in the NIDs of the trees and
+ * the sampling is deterministic (independent of the chunking). All the trees of an iteration share the sample, the
+ * gradient of a row is the sum of the absolute residuals in the working columns of the trees.
+ *
+ * <p>The sampled frame is laid out as: response, weights (optional), working columns of the K trees, NIDs of the K trees
+ * and the Vec to store the weights of the sampled rows in.
+ */
+class GossSample extends Iced<GossSample> {
+  // Gradients are binned on a log scale to find the threshold of the top rows
+  static final int NBINS = 2048;
+  static final int LOG_RANGE = 32; // gradients smaller than 2^-LOG_RANGE of the largest one fall into the lowest bin
+
+  private final int _ntrees;
+  private final boolean _hasWeights;
+  private final double _topRate;
+  private final double _otherRate;
+
+  GossSample(int ntrees, boolean hasWeights, double topRate, double otherRate) {
+    _ntrees = ntrees;
+    _hasWeights = hasWeights;
+    _topRate = topRate;
+    _otherRate = otherRate;
+  }
+
+  /**
+   * Samples the rows of one boosting iteration.
+   * @param fr frame laid out as described in the class comment
+   * @param seed seed of the sampling (eg. the seed of the trees)
+   */
+  void sample(Frame fr, long seed, boolean runLocal) {
+    MaxGradient mg = new MaxGradient(this).doAll(fr, runLocal);
+    if (mg._n == 0 || mg._max == 0) { // all residuals are zero, use all the rows
+      new SampleTask(this, mg._max, NBINS, 1, seed).doAll(fr, runLocal);
+      return;
+    }
+    long[] counts = new GradientHisto(this, mg._max).doAll(fr, runLocal)._counts;
+    int threshold = NBINS;
+    long top = 0;
+    while (threshold > 0 && top < _topRate * mg._n)
+      top += counts[--threshold];
+    long rest = mg._n - top;
+    double rate = rest == 0 ? 1 : Math.min(1, _otherRate * mg._n / rest);
+    Log.debug("GOSS: keeping " + top + " rows with the largest gradients, sampling " + rest + " other rows at rate " + rate + ".");
+    new SampleTask(this, mg._max, threshold, rate, seed).doAll(fr, runLocal);
+  }
+
+  static int bin(double g, double max) {
+    if (g <= 0) return 0;
+    int b = (int) ((Math.log(g / max) / Math.log(2) + LOG_RANGE) * NBINS / LOG_RANGE);
+    return Math.max(0, Math.min(b, NBINS - 1));
+  }
+
+  // Sum of the absolute residuals of the row, NaN if the row is not used to build the trees
+  private double gradient(Chunk[] cs, int row) {
+    if (cs[0].isNA(row)) return Double.NaN;
+    if (_hasWeights && cs[1].atd(row) == 0) return Double.NaN;
+    int works = _hasWeights ? 2 : 1;
+    double g = 0;
+    for (int k = 0; k < _ntrees; k++)
+      g += Math.abs(cs[works + k].atd(row));
+    return g;
+  }
+
+  private static class MaxGradient extends MRTask<MaxGradient> {
+    final GossSample _goss;
+    double _max;
+    long _n;
+
+    MaxGradient(GossSample goss) { _goss = goss; }
+
+    @Override public void map(Chunk[] cs) {
+      for (int row = 0; row < cs[0]._len; row++) {
+        double g = _goss.gradient(cs, row);
+        if (Double.isNaN(g)) continue;
+        if (g > _max) _max = g;
+        _n++;
+      }
+    }
+
+    @Override public void reduce(MaxGradient mg) {
+      _max = Math.max(_max, mg._max);
+      _n += mg._n;
+    }
+  }
+
+  private static class GradientHisto extends MRTask<GradientHisto> {
+    final GossSample _goss;
+    final double _max;
+    long[] _counts;
+
+    GradientHisto(GossSample goss, double max) { _goss = goss; _max = max; }
+
+    @Override public void map(Chunk[] cs) {
+      _counts = new long[NBINS];
+      for (int row = 0; row < cs[0]._len; row++) {
+        double g = _goss.gradient(cs, row);
+        if (Double.isNaN(g)) continue;
+        _counts[bin(g, _max)]++;
+      }
+    }
+
+    @Override public void reduce(GradientHisto gh) {
+      ArrayUtils.add(_counts, gh._counts);
+    }
+  }
+
+  private static class SampleTask extends MRTask<SampleTask> {
+    final GossSample _goss;
+    final double _max;
+    final int _threshold; // rows in this bin of gradients or higher are always used
+    final double _rate;   // sampling rate of the other rows
+    final long _seed;
+
+    SampleTask(GossSample goss, double max, int threshold, double rate, long seed) {
+      _goss = goss; _max = max; _threshold = threshold; _rate = rate; _seed = seed;
+    }
+
+    @Override
+    protected boolean modifiesVolatileVecs() {
+      return true;
+    }
+
+    @Override public void map(Chunk[] cs) {
+      final int ntrees = _goss._ntrees;
+      final int nidsIdx = (_goss._hasWeights ? 2 : 1) + ntrees;
+      final double[] ws = ((C8DVolatileChunk) cs[cs.length - 1]).getValues();
+      Random rand = RandomUtils.getRNG(_seed);
+      for (int row = 0; row < cs[0]._len; row++) {
+        double w = _goss._hasWeights ? cs[1].atd(row) : 1;
+        ws[row] = w;
+        double g = _goss.gradient(cs, row);
+        boolean skip = cs[0].isNA(row);
+        if (!Double.isNaN(g) && bin(g, _max) < _threshold) {
+          rand.setSeed(_seed + row + cs[0].start()); //seeding is independent of chunking
+          skip = rand.nextFloat() >= _rate;
+          ws[row] = w / _rate;
+        }
+        if (skip) {
+          ws[row] = w; // out-of-bag rows still get the tree contributions with their original weight
+          for (int k = 0; k < ntrees; k++)
+            ((C4VolatileChunk) cs[nidsIdx + k]).getValues()[row] = ScoreBuildHistogram.OUT_OF_BAG;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package hex.tree;
+
+import hex.genmodel.MojoModel;
+import hex.genmodel.MojoReaderBackendFactory;
+import hex.genmodel.algos.tree.SharedTreeMojoModel;
+import hex.genmodel.utils.DistributionFamily;
+import hex.tree.drf.DRF;
+import hex.tree.drf.DRFModel;
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.io.*;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CompressedTreeTest extends TestUtil {
+
+  @BeforeClass
+  public static void stall() { stall_till_cloudsize(1); }
+
+  @Test public void testFlatTreeScoring() {
+    Scope.enter();
+    GBMModel gbm = null;
+    try {
+      Frame tfr = parse_test_file("./smalldata/airlines/allyears2k_headers.zip");
+      Scope.track(tfr);
+      for (String s : new String[]{
+              "DepTime", "ArrTime", "ActualElapsedTime",
+              "AirTime", "ArrDelay", "DepDelay", "Cancelled",
+              "CancellationCode", "CarrierDelay", "WeatherDelay",
+              "NASDelay", "SecurityDelay", "LateAircraftDelay", "IsArrDelayed"
+      }) {
+        tfr.remove(s).remove();
+      }
+      DKV.put(tfr);
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = "IsDepDelayed";
+      parms._nbins_cats = 500; // large bitsets
+      parms._ntrees = 10;
+      parms._max_depth = 8;
+      parms._distribution = DistributionFamily.bernoulli;
+      parms._seed = 0xC0FFEE;
+      gbm = new GBM(parms).trainModel().get();
+
+      String[] names = gbm._output._names;
+      String[][] domains = gbm._output._domains;
+      Vec[] vecs = new Vec[names.length - 1];
+      for (int c = 0; c < vecs.length; c++)
+        vecs[c] = tfr.vec(names[c]);
+      Random rng = new Random(0xDECAF);
+      double[] row = new double[vecs.length];
+      for (int r = 0; r < 2000; r++) {
+        for (int c = 0; c < row.length; c++) {
+          row[c] = vecs[c].at(r);
+          if (rng.nextInt(20) == 0) row[c] = Double.NaN;
+          else if (domains[c] != null && rng.nextInt(20) == 0) row[c] = domains[c].length; // unseen level
+        }
+        for (int t = 0; t < gbm._output._ntrees; t++) {
+          CompressedTree ct = gbm._output.ctree(t, 0);
+          double expected = SharedTreeMojoModel.scoreTree(ct._bits, row, ct._nclass, false, domains);
+          assertEquals(expected, ct.score(row, domains), 0);
+        }
+      }
+    } finally {
+      if (gbm != null) gbm.delete();
+      Scope.exit();
+    }
+  }
+
+  @Test public void testMojoSerialization() throws IOException, ClassNotFoundException {
+    Scope.enter();
+    try {
+      Frame fr = parse_test_file("./smalldata/iris/iris.csv");
+      Scope.track(fr);
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = fr._key;
+      parms._response_column = "C5";
+      parms._ntrees = 5;
+      parms._seed = 0xC0FFEE;
+      GBMModel gbm = new GBM(parms).trainModel().get();
+      Scope.track_generic(gbm);
+      ByteArrayOutputStream mojoBytes = new ByteArrayOutputStream();
+      gbm.getMojo().writeTo(mojoBytes);
+      MojoModel mojo = MojoModel.load(MojoReaderBackendFactory.createReaderBackend(
+              new ByteArrayInputStream(mojoBytes.toByteArray()), MojoReaderBackendFactory.CachingStrategy.MEMORY));
+      double[] row = new double[]{5.1, 3.5, 1.4, 0.2};
+      double[] expected = mojo.score0(row, new double[mojo.getPredsSize()]); // trees are decoded for scoring
+
+      ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+      ObjectOutputStream oos = new ObjectOutputStream(serialized);
+      oos.writeObject(mojo);
+      oos.close();
+      ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serialized.toByteArray()));
+      MojoModel deserialized = (MojoModel) ois.readObject();
+      ois.close();
+      assertArrayEquals(expected, deserialized.score0(row, new double[deserialized.getPredsSize()]), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testBlockScoring() {
+    Scope.enter();
+    try {
+      Frame fr = parse_test_file("./smalldata/iris/iris.csv");
+      Scope.track(fr);
+      GBMModel.GBMParameters gbmParms = new GBMModel.GBMParameters();
+      gbmParms._train = fr._key;
+      gbmParms._response_column = "C5";
+      gbmParms._ntrees = 20;
+      gbmParms._seed = 0xC0FFEE;
+      GBMModel gbm = new GBM(gbmParms).trainModel().get();
+      Scope.track_generic(gbm);
+      assertBlockScoring(gbm, fr);
+
+      DRFModel.DRFParameters drfParms = new DRFModel.DRFParameters();
+      drfParms._train = fr._key;
+      drfParms._response_column = "C1";
+      drfParms._ntrees = 20;
+      drfParms._seed = 0xC0FFEE;
+      DRFModel drf = new DRF(drfParms).trainModel().get();
+      Scope.track_generic(drf);
+      assertBlockScoring(drf, fr);
+
+      // rows with zero weight are skipped by the block scoring, but still get a (0) prediction in their place
+      Vec weights = fr.anyVec().makeCon(1);
+      for (long r = 0; r < weights.length(); r += 7)
+        weights.set(r, 0);
+      Frame wfr = new Frame(Key.<Frame>make(), fr.names(), fr.vecs());
+      wfr.add("weights", weights);
+      DKV.put(wfr);
+      Scope.track(wfr);
+      GBMModel.GBMParameters weightedParms = new GBMModel.GBMParameters();
+      weightedParms._train = wfr._key;
+      weightedParms._response_column = "C5";
+      weightedParms._weights_column = "weights";
+      weightedParms._ntrees = 20;
+      weightedParms._seed = 0xC0FFEE;
+      GBMModel weighted = new GBM(weightedParms).trainModel().get();
+      Scope.track_generic(weighted);
+      assertBlockScoring(weighted, wfr);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  // Predictions of BigScore (scored by blocks of rows) are the same as the predictions of the rows scored one by one,
+  // rows with zero weight are predicted as 0
+  private static void assertBlockScoring(SharedTreeModel<?, ?, ?> model, Frame fr) {
+    Frame preds = model.score(fr);
+    Scope.track(preds);
+    Vec weights = model._parms._weights_column == null ? null : fr.vec(model._parms._weights_column);
+    Frame adapted = new Frame(fr);
+    model.adaptTestForTrain(adapted, true, false);
+    double[] tmp = new double[model._output.nfeatures()];
+    double[] p = new double[preds.numCols()];
+    for (long r = 0; r < adapted.numRows(); r++) {
+      Chunk[] chks = new Chunk[adapted.numCols()];
+      for (int c = 0; c < chks.length; c++)
+        chks[c] = adapted.vec(c).chunkForRow(r);
+      model.score0(chks, (int) (r - chks[0].start()), tmp, p);
+      boolean skipped = weights != null && weights.at(r) == 0;
+      for (int c = 0; c < preds.numCols(); c++)
+        assertEquals(skipped ? 0 : p[c], preds.vec(c).at(r), 1e-6);
+    }
+  }
+
+}
@@ -1,9 +1,14 @@
 package hex.tree;
 
+import hex.genmodel.utils.DistributionFamily;
+import hex.tree.gbm.GBMModel;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import water.*;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
 import water.util.*;
 
 import java.util.Arrays;
@@ -205,6 +210,378 @@ public class HistogramTest extends TestUtil {
     k.remove();
   }
 
+  @Test public void testSubtraction() {
+    Random rng = new Random(0xDECAF);
+    for (SharedTreeModel.SharedTreeParameters.HistogramType histoType : new SharedTreeModel.SharedTreeParameters.HistogramType[]{
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, SharedTreeModel.SharedTreeParameters.HistogramType.Random}) {
+      DHistogram parent = new DHistogram("myhisto", 20, 20, (byte) 0, 0, 100, 0, histoType, 1234, null);
+      DHistogram left = new DHistogram(parent), right = new DHistogram(parent);
+      final int N = 1000;
+      double[] cs = new double[N], ys = new double[N], ws = new double[N];
+      int[] rows = new int[N];
+      for (int i = 0; i < N; i++) {
+        cs[i] = i % 50 == 0 ? Double.NaN : rng.nextDouble() * 100;
+        ys[i] = rng.nextGaussian();
+        ws[i] = 1;
+        rows[i] = i;
+      }
+      parent.init();
+      parent.updateHisto(ws, cs, ys, rows, N, 0);
+      left.init();
+      left.updateHisto(ws, cs, ys, rows, N / 3, 0);
+      right.init();
+      right.updateHisto(ws, cs, ys, rows, N, N / 3);
+      DHistogram derived = new DHistogram(parent);
+      Assert.assertTrue(derived.hasSameBins(left));
+      derived.subtract(parent, left);
+      for (int b = 0; b < parent.nbins(); b++) {
+        Assert.assertEquals(right.w(b), derived.w(b), 1e-9);
+        Assert.assertEquals(right.wY(b), derived.wY(b), 1e-3);
+        Assert.assertEquals(right.wYY(b), derived.wYY(b), 1e-3);
+      }
+      Assert.assertEquals(right.wNA(), derived.wNA(), 1e-9);
+      Assert.assertTrue(derived.find_min() <= right.find_min());
+      Assert.assertTrue(derived.find_maxIn() >= right.find_maxIn());
+    }
+  }
+
+  @Test public void testSubtractionInTree() {
+    Random rng = new Random(0xBEEF);
+    final int N = 5000;
+    double[][] cols = new double[4][N];
+    for (int i = 0; i < N; i++) {
+      for (int c = 0; c < 3; c++)
+        cols[c][i] = c == 1 && i % 20 == 0 ? Double.NaN : rng.nextDouble() * 100;
+      cols[3][i] = (cols[0][i] > 30 ? 1 : -1) + rng.nextGaussian() * 0.1; // root splits ~30:70 on x0
+    }
+    GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+    parms._histogram_subtraction = true;
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(regressionFrame(cols, 2000, 3000));
+      Vec nids = Scope.track(new Frame(fr.anyVec().makeVolatileInts(new int[]{0}))).anyVec();
+      ScoreBuildHistogram2 sbh = buildChildHistograms(fr, nids, parms);
+      int derived = 0;
+      for (int n = 0; n < sbh._derivedCols.length; n++)
+        if (sbh._derivedCols[n] != null) derived += sbh._derivedCols[n].cardinality();
+      Assert.assertEquals(2, derived); // the larger child derives all the columns but the split column
+      for (int n = 0; n < sbh._hcs.length; n++)
+        assertBuiltFromRows(fr, cols, nids, n + 1, sbh._hcs[n]);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testPreBinnedCodes() {
+    double[] splitPts = new double[]{0,10,20,30,40,50,60,70,80,90};
+    double[] binMins = new double[splitPts.length], binMaxs = new double[splitPts.length];
+    Random rng = new Random(0xC0FFEE);
+    final int N = 1000;
+    double[] cs = new double[N], ys = new double[N], ws = new double[N];
+    int[] codes = new int[N], rows = new int[N];
+    Arrays.fill(binMins, Double.POSITIVE_INFINITY);
+    Arrays.fill(binMaxs, Double.NEGATIVE_INFINITY);
+    for (int i = 0; i < N; i++) {
+      cs[i] = i % 100 == 0 ? Double.NaN : 20 + rng.nextDouble() * 60;
+      ys[i] = rng.nextGaussian();
+      ws[i] = 1;
+      rows[i] = i;
+      codes[i] = Double.isNaN(cs[i]) ? -1 : PreBinning.code(splitPts, cs[i]);
+      if (codes[i] >= 0) {
+        binMins[codes[i]] = Math.min(binMins[codes[i]], cs[i]);
+        binMaxs[codes[i]] = Math.max(binMaxs[codes[i]], cs[i]);
+      }
+    }
+    Key k = Key.make();
+    DHistogram.HistoQuantiles hq = new DHistogram.HistoQuantiles(k, splitPts);
+    hq.binMins = binMins;
+    hq.binMaxs = binMaxs;
+    DKV.put(hq);
+    try {
+      SharedTreeModel.SharedTreeParameters.HistogramType histoType = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+      // bins of the histogram are the global bins within its range (no padding with fewer requested bins)
+      DHistogram fromValues = new DHistogram("myhisto", 2, 2, (byte) 0, 15, 85, 0, histoType, 1234, k);
+      DHistogram fromCodes = new DHistogram("myhisto", 2, 2, (byte) 0, 15, 85, 0, histoType, 1234, k);
+      fromValues.init();
+      fromCodes.init();
+      Assert.assertTrue(fromCodes.initCodeBins());
+      fromValues.updateHisto(ws, cs, ys, rows, N, 0);
+      fromCodes.updateHistoCodes(ws, codes, ys, rows, N, 0);
+      for (int b = 0; b <= fromValues.nbins(); b++) {
+        Assert.assertEquals(fromValues._vals[3*b], fromCodes._vals[3*b], 0);
+        Assert.assertEquals(fromValues._vals[3*b+1], fromCodes._vals[3*b+1], 1e-9);
+        Assert.assertEquals(fromValues._vals[3*b+2], fromCodes._vals[3*b+2], 1e-9);
+      }
+      Assert.assertEquals(fromValues.find_min(), fromCodes.find_min(), 0);
+      Assert.assertEquals(fromValues.find_maxIn(), fromCodes.find_maxIn(), 0);
+      // uniform bins do not nest in the global bins
+      DHistogram uniform = new DHistogram("myhisto", 20, 20, (byte) 0, 15, 85, 0,
+              SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 1234, k);
+      uniform.init();
+      Assert.assertFalse(uniform.initCodeBins());
+    } finally {
+      k.remove();
+    }
+  }
+
+  @Test public void testPreBinnedCodesMatchBins() {
+    double[] splitPts = new double[]{0,10,20,30,40,50,60,70,80,90};
+    Random rng = new Random(0xC0DE5);
+    final int N = 3000;
+    double[] xs = new double[N];
+    for (int i = 0; i < N; i++)
+      xs[i] = i % 50 == 0 ? Double.NaN : (i % 7 == 0 ? splitPts[rng.nextInt(splitPts.length)] : rng.nextDouble() * 100);
+    Key k = Key.make();
+    DKV.put(new DHistogram.HistoQuantiles(k, splitPts));
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withName("preBinFrame")
+              .withColNames("x")
+              .withVecTypes(Vec.T_NUM)
+              .withDataForCol(0, xs)
+              .withChunkLayout(1000, 2000)
+              .build());
+      Frame codes = Scope.track(PreBinning.binColumns(fr, 1, new Key[]{k}));
+      DHistogram h = new DHistogram("x", splitPts.length, 20, (byte) 0, 0, 100, 0,
+              SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal, 1234, k);
+      h.init();
+      for (int i = 0; i < N; i++) {
+        if (Double.isNaN(xs[i])) Assert.assertTrue(codes.vec(0).isNA(i));
+        else Assert.assertEquals(h.bin(xs[i]), codes.vec(0).at8(i));
+      }
+      DHistogram.HistoQuantiles hq = DKV.getGet(k); // observed min/max of the global bins were added
+      for (int i = 0; i < N; i++) {
+        if (Double.isNaN(xs[i])) continue;
+        int code = (int) codes.vec(0).at8(i);
+        Assert.assertTrue(hq.binMins[code] <= xs[i] && xs[i] <= hq.binMaxs[code]);
+      }
+    } finally {
+      k.remove();
+      Scope.exit();
+    }
+  }
+
+  @Test public void testUnbundle() {
+    Random rng = new Random(0xDECAF);
+    final int N = 1000, M = 3; // M exclusive 0/1 columns
+    double[][] cs = new double[M][N];
+    double[] ys = new double[N], ws = new double[N];
+    double[] bundleVals = new double[3 * (M + 1)];
+    int[] rows = new int[N];
+    for (int i = 0; i < N; i++) {
+      int code = rng.nextInt(2 * M) < M ? 0 : 1 + rng.nextInt(M); // half of the rows with no column set
+      if (code > 0) cs[code - 1][i] = 1;
+      ys[i] = rng.nextGaussian();
+      ws[i] = rng.nextInt(3);
+      rows[i] = i;
+      bundleVals[3*code] += ws[i];
+      bundleVals[3*code+1] += ws[i] * ys[i];
+      bundleVals[3*code+2] += ws[i] * ys[i] * ys[i];
+    }
+    for (int c = 0; c < M; c++) {
+      DHistogram fromValues = new DHistogram("col" + c, 20, 20, (byte) 1, 0, 2, 0,
+              SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 1234, null);
+      DHistogram fromBundle = new DHistogram("col" + c, 20, 20, (byte) 1, 0, 2, 0,
+              SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 1234, null);
+      fromValues.init();
+      fromValues.updateHisto(ws, cs[c], ys, rows, N, 0);
+      fromBundle.unbundle(bundleVals, c + 1);
+      Assert.assertEquals(2, fromBundle.nbins());
+      for (int b = 0; b <= fromValues.nbins(); b++) {
+        Assert.assertEquals(fromValues._vals[3*b], fromBundle._vals[3*b], 1e-9);
+        Assert.assertEquals(fromValues._vals[3*b+1], fromBundle._vals[3*b+1], 1e-9);
+        Assert.assertEquals(fromValues._vals[3*b+2], fromBundle._vals[3*b+2], 1e-9);
+      }
+      Assert.assertEquals(0, fromBundle.find_min(), 0);
+      Assert.assertEquals(1, fromBundle.find_maxIn(), 0);
+    }
+  }
+
+  @Test public void testSparseZeros() {
+    Random rng = new Random(0xFACE);
+    final int N = 1000;
+    double[] cs = new double[N], ys = new double[N], ws = new double[N];
+    int[] rows = new int[N];
+    double tw = 0, twy = 0, twyy = 0;
+    for (int i = 0; i < N; i++) {
+      cs[i] = rng.nextInt(10) == 0 ? (rng.nextInt(20) == 0 ? Double.NaN : 2 * rng.nextDouble() - 1) : 0;
+      ys[i] = rng.nextGaussian();
+      ws[i] = rng.nextInt(3);
+      rows[i] = i;
+      tw += ws[i];
+      twy += ws[i] * ys[i];
+      twyy += ws[i] * ys[i] * ys[i];
+    }
+    DHistogram dense = new DHistogram("col", 20, 20, (byte) 1, -3, 3, 0,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 1234, null);
+    DHistogram sparse = new DHistogram("col", 20, 20, (byte) 1, -3, 3, 0,
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 1234, null);
+    dense.init();
+    dense.updateHisto(ws, cs, ys, rows, N, 0);
+    sparse.init();
+    for (int i = 0; i < N; i++) {
+      if (cs[i] == 0 || ws[i] == 0) continue;
+      double wy = ws[i] * ys[i];
+      sparse.add1(cs[i], ws[i], wy, wy * ys[i]);
+      tw -= ws[i];
+      twy -= wy;
+      twyy -= wy * ys[i];
+    }
+    sparse.add1(0, tw, twy, twyy);
+    for (int b = 0; b <= dense.nbins(); b++) {
+      Assert.assertEquals(dense._vals[3*b], sparse._vals[3*b], 1e-9);
+      Assert.assertEquals(dense._vals[3*b+1], sparse._vals[3*b+1], 1e-9);
+      Assert.assertEquals(dense._vals[3*b+2], sparse._vals[3*b+2], 1e-9);
+    }
+    Assert.assertEquals(dense.find_min(), sparse.find_min(), 0);
+    Assert.assertEquals(dense.find_maxIn(), sparse.find_maxIn(), 0);
+  }
+
+  @Test public void testSparseChunksInTree() {
+    Random rng = new Random(0xFACADE);
+    final int N = 5000;
+    double[][] cols = new double[4][N];
+    for (int i = 0; i < N; i++) {
+      for (int c = 0; c < 2; c++) // sparse: 5% non-zeros, some of them NAs
+        cols[c][i] = rng.nextInt(20) != 0 ? 0 : (rng.nextInt(10) == 0 ? Double.NaN : 2 * rng.nextDouble() - 1);
+      cols[2][i] = rng.nextDouble() * 100;
+      cols[3][i] = (cols[2][i] > 40 ? 1 : -1) + cols[0][i] + rng.nextGaussian() * 0.1;
+    }
+    cols[1][10] = Double.POSITIVE_INFINITY; // non-zeros of the sparse chunks
+    cols[1][4010] = Double.NEGATIVE_INFINITY;
+    GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(regressionFrame(cols, 2500, 2500));
+      for (int c = 0; c < 2; c++)
+        for (int cidx = 0; cidx < fr.anyVec().nChunks(); cidx++)
+          Assert.assertTrue(fr.vec(c).chunkForChunkIdx(cidx).isSparseZero());
+      Vec nids = Scope.track(new Frame(fr.anyVec().makeVolatileInts(new int[]{0}))).anyVec();
+      ScoreBuildHistogram2 sbh = buildChildHistograms(fr, nids, parms);
+      // histograms of the sparse chunks match the ones filled from all the rows
+      for (int n = 0; n < sbh._hcs.length; n++) {
+        assertBuiltFromRows(fr, cols, nids, n + 1, sbh._hcs[n]);
+        for (int c = 0; c < 2; c++) { // infinities do not end up in the range of the next level
+          Assert.assertFalse(Double.isInfinite(sbh._hcs[n][c].find_min()));
+          Assert.assertFalse(Double.isInfinite(sbh._hcs[n][c].find_maxIn()));
+        }
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testPacked() {
+    Random rng = new Random(0xC0DE);
+    final int N = 1000;
+    double[] cs = new double[N], ys = new double[N], ws = new double[N];
+    int[] rows = new int[N];
+    for (int i = 0; i < N; i++) {
+      cs[i] = rng.nextInt(20) == 0 ? Double.NaN : 2 * rng.nextDouble() - 1;
+      ys[i] = rng.nextGaussian();
+      ws[i] = rng.nextInt(3);
+      rows[i] = i;
+    }
+    DHistogram[] hs = new DHistogram[3]; // two halves and the expected sum
+    for (int i = 0; i < hs.length; i++) {
+      hs[i] = new DHistogram("col", 20, 20, (byte) 1, -1, 1, 0,
+              SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 1234, null);
+      hs[i].init();
+    }
+    hs[0].updateHisto(ws, cs, ys, rows, N / 2, 0);
+    hs[1].updateHisto(ws, cs, ys, rows, N, N / 2);
+    hs[2].updateHisto(ws, cs, ys, rows, N, 0);
+    hs[0].pack();
+    hs[1].pack();
+    Assert.assertNull(hs[0]._vals);
+    hs[0].add(hs[1]);
+    Assert.assertNull(hs[0]._vals);
+    hs[0].unpack();
+    Assert.assertNull(hs[0]._vals32);
+    for (int b = 0; b <= hs[2].nbins(); b++) {
+      Assert.assertEquals(hs[2]._vals[3*b], hs[0]._vals[3*b], 0);
+      Assert.assertEquals(hs[2]._vals[3*b+1], hs[0]._vals[3*b+1], 1e-4);
+      Assert.assertEquals(hs[2]._vals[3*b+2], hs[0]._vals[3*b+2], 1e-4);
+    }
+    Assert.assertEquals(hs[2].find_min(), hs[0].find_min(), 0);
+    Assert.assertEquals(hs[2].find_maxIn(), hs[0].find_maxIn(), 0);
+  }
+
+  private static Frame regressionFrame(double[][] cols, long... chunkLayout) {
+    String[] names = new String[cols.length];
+    byte[] types = new byte[cols.length];
+    for (int c = 0; c < cols.length; c++) {
+      names[c] = c == cols.length - 1 ? "y" : "x" + c;
+      types[c] = Vec.T_NUM;
+    }
+    TestFrameBuilder builder = new TestFrameBuilder()
+            .withName(Key.make().toString())
+            .withColNames(names)
+            .withVecTypes(types)
+            .withChunkLayout(chunkLayout);
+    for (int c = 0; c < cols.length; c++)
+      builder = builder.withDataForCol(c, cols[c]);
+    return builder.build();
+  }
+
+  /**
+   * Splits the root of a regression tree on the predictors of the frame (the last column is the response) and builds
+   * the histograms of the children of the root with ScoreBuildHistogram2.
+   * @param nids (volatile) node of every row, left at the children of the root
+   * @return the task which built the histograms of the children
+   */
+  private static ScoreBuildHistogram2 buildChildHistograms(Frame fr, Vec nids, SharedTreeModel.SharedTreeParameters parms) {
+    final int ncols = fr.numCols() - 1;
+    Frame fr2 = new Frame(fr);
+    fr2.add("nids", nids);
+    DTree tree = new DTree(fr, ncols, (char) 1, ncols, ncols, 0xFEED, parms);
+    DHistogram[] root = DHistogram.initialHist(fr, ncols, parms._nbins, new DHistogram[ncols], 0xFEED, parms, new Key[ncols]);
+    new DTree.UndecidedNode(tree, DTree.NO_PARENT, root);
+    ScoreBuildHistogram2 sbh = buildHistograms(tree, 0, new DHistogram[][]{root}, fr2, parms);
+    DTree.DecidedNode dn = new DTree.DecidedNode(tree.undecided(0), sbh._hcs[0]);
+    Assert.assertTrue(dn._nids[0] > 0 && dn._nids[1] > 0);
+    DHistogram[][] children = new DHistogram[tree.len() - 1][];
+    for (int nid = 1; nid < tree.len(); nid++)
+      children[nid - 1] = tree.undecided(nid)._hs;
+    return buildHistograms(tree, 1, children, fr2, parms);
+  }
+
+  private static ScoreBuildHistogram2 buildHistograms(DTree tree, int leaf, DHistogram[][] hcs, Frame fr2,
+                                                      SharedTreeModel.SharedTreeParameters parms) {
+    final int ncols = fr2.numCols() - 2;
+    ScoreBuildHistogram2 sbh = new ScoreBuildHistogram2(null, 0, ncols, parms._nbins, parms._nbins_cats, tree, leaf, hcs,
+            DistributionFamily.gaussian, -1, ncols, ncols + 1);
+    sbh.dfork2(null, fr2, false);
+    sbh.getResult();
+    return sbh;
+  }
+
+  // Histograms of the given node match histograms with the same bins filled directly from the rows of the node
+  private static void assertBuiltFromRows(Frame fr, double[][] cols, Vec nids, int nid, DHistogram[] hs) {
+    final int N = (int) fr.numRows();
+    int[] rows = new int[N];
+    int cnt = 0;
+    for (int i = 0; i < N; i++)
+      if (nids.at8(i) == nid) rows[cnt++] = i;
+    Assert.assertTrue(cnt > 0);
+    double[] ws = new double[N];
+    Arrays.fill(ws, 1);
+    double[] ys = cols[cols.length - 1];
+    for (int c = 0; c < hs.length; c++) {
+      if (hs[c] == null) continue;
+      DHistogram direct = new DHistogram(hs[c]);
+      direct.init();
+      direct.updateHisto(ws, cols[c], ys, rows, cnt, 0);
+      direct.reducePrecision();
+      for (int b = 0; b <= direct.nbins(); b++) {
+        Assert.assertEquals(direct._vals[3*b], hs[c]._vals[3*b], 1e-9);
+        Assert.assertEquals(direct._vals[3*b+1], hs[c]._vals[3*b+1], 1e-3);
+        Assert.assertEquals(direct._vals[3*b+2], hs[c]._vals[3*b+2], 1e-3);
+      }
+    }
+  }
+
   @Test public void testShrinking() {
     double[] before = new double[]{0.2,0.28,0.31,0.32,0.32,0.4,0.7,0.81,0.84};
     double[] after = ArrayUtils.makeUniqueAndLimitToRange(before, 0.3,0.8);
@@ -1685,4 +1685,78 @@ public class DRFTest extends TestUtil {
       Scope.exit();
     }
   }
+
+  @Test public void earlyExit() {
+    Scope.enter();
+    try {
+      Frame tfr = parse_test_file("smalldata/covtype/covtype.20k.data");
+      Scope.track(tfr);
+      int resp = 54;
+      Scope.track(tfr.replace(resp, tfr.vecs()[resp].toCategoricalVec()));
+      DKV.put(tfr);
+      DRFModel.DRFParameters parms = new DRFModel.DRFParameters();
+      parms._train = tfr._key;
+      parms._response_column = tfr.names()[resp];
+      parms._ntrees = 100;
+      parms._max_depth = 10;
+      parms._seed = 1234;
+      assertEarlyExit(parms, tfr);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void earlyExitBinomial() {
+    Scope.enter();
+    try {
+      Frame tfr = parse_test_file("smalldata/logreg/prostate.csv");
+      Scope.track(tfr);
+      Scope.track(tfr.replace(1, tfr.vecs()[1].toCategoricalVec()));
+      DKV.put(tfr);
+      DRFModel.DRFParameters parms = new DRFModel.DRFParameters();
+      parms._train = tfr._key;
+      parms._response_column = "CAPSULE";
+      parms._ignored_columns = new String[]{"ID"};
+      parms._ntrees = 100;
+      parms._seed = 1234;
+      assertEarlyExit(parms, tfr);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  // Scoring with early exit evaluates fewer trees per row and (almost always) predicts the class of the full forest
+  private static void assertEarlyExit(DRFModel.DRFParameters parms, Frame tfr) {
+    DRFModel drf = new DRF(parms).trainModel().get();
+    Scope.track_generic(drf);
+    Frame full = drf.score(tfr);
+    Scope.track(full);
+    drf._parms._early_exit_delta = 0.01;
+    Frame early = drf.score(tfr);
+    Scope.track(early);
+    long agree = 0;
+    for (long r = 0; r < tfr.numRows(); r++)
+      if (full.vec(0).at8(r) == early.vec(0).at8(r)) agree++;
+    double agreement = (double) agree / tfr.numRows();
+    Log.info("Early exit: " + agreement + " of the predicted classes agree with the full forest");
+    Assert.assertTrue(agreement > 0.98);
+
+    // number of trees evaluated for the rows of a block
+    Frame adapted = new Frame(tfr);
+    drf.adaptTestForTrain(adapted, true, false);
+    final int nrows = (int) Math.min(adapted.numRows(), 1000);
+    double[][] block = new double[drf._output.nfeatures()][nrows];
+    for (int c = 0; c < block.length; c++)
+      for (int i = 0; i < nrows; i++)
+        block[c][i] = adapted.vec(c).at(i);
+    int[] ntrees = drf.scoreBlock(block, nrows, new double[drf._output.nclasses() + 1][nrows]);
+    Assert.assertNotNull(ntrees);
+    double avgTrees = 0;
+    for (int n : ntrees) {
+      Assert.assertTrue(n >= 1 && n <= parms._ntrees);
+      avgTrees += (double) n / nrows;
+    }
+    Log.info("Early exit: " + avgTrees + " trees evaluated per row on average out of " + parms._ntrees);
+    Assert.assertTrue(avgTrees < parms._ntrees);
+  }
 }
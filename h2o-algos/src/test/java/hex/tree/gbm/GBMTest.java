@@ -2,6 +2,7 @@ package hex.tree.gbm;
 
 import hex.*;
 import hex.genmodel.utils.DistributionFamily;
+import hex.tree.ScoreBuildHistogram;
 import hex.tree.SharedTreeModel;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -13,6 +14,7 @@ import water.exceptions.H2OModelBuilderIllegalArgumentException;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.RebalanceDataSet;
+import water.fvec.TestFrameBuilder;
 import water.fvec.Vec;
 import water.parser.ParseDataset;
 import water.util.*;
@@ -2023,6 +2025,224 @@ public class GBMTest extends TestUtil {
     }
   }
 
+  /** Checks of the models trained by {@link #trainOnCovtype} */
+  private interface CovtypeCheck {
+    void check(GBMModel[] models, Frame train, Frame valid);
+  }
+
+  private static GBMModel.GBMParameters covtypeParms() {
+    GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+    parms._learn_rate = 0.05f;
+    parms._ntrees = 10;
+    parms._max_depth = 5;
+    parms._seed = 0xDECAFFEE;
+    return parms;
+  }
+
+  /**
+   * Trains a model for each of the given parameters on the same split of covtype (training and validation frames and
+   * the response are set here), the models are passed to the check (if any) before they are deleted.
+   * @return validation loglosses of the models
+   */
+  private static double[] trainOnCovtype(CovtypeCheck check, GBMModel.GBMParameters... parmss) {
+    Frame tfr = null;
+    Key[] ksplits = null;
+    GBMModel[] models = new GBMModel[parmss.length];
+    try {
+      Scope.enter();
+      tfr = parse_test_file("smalldata/covtype/covtype.20k.data");
+      int resp = 54;
+      Scope.track(tfr.replace(resp, tfr.vecs()[resp].toCategoricalVec()));
+      DKV.put(tfr);
+      SplitFrame sf = new SplitFrame(tfr, new double[]{0.5, 0.5}, new Key[]{Key.make("train.hex"), Key.make("valid.hex")});
+      // Invoke the job
+      sf.exec().get();
+      ksplits = sf._destination_frames;
+      double[] loglosses = new double[parmss.length];
+      for (int i = 0; i < parmss.length; ++i) {
+        GBMModel.GBMParameters parms = parmss[i];
+        parms._train = ksplits[0];
+        parms._valid = ksplits[1];
+        parms._response_column = tfr.names()[resp];
+        parms._score_tree_interval = parms._ntrees;
+        models[i] = new GBM(parms).trainModel().get();
+        loglosses[i] = models[i]._output._scored_valid[models[i]._output._scored_valid.length - 1]._logloss;
+      }
+      if (check != null)
+        check.check(models, DKV.<Frame>getGet(ksplits[0]), DKV.<Frame>getGet(ksplits[1]));
+      return loglosses;
+    } finally {
+      for (GBMModel gbm : models)
+        if (gbm != null) gbm.delete();
+      if (tfr != null) tfr.delete();
+      if (ksplits != null)
+        for (Key k : ksplits)
+          if (k != null) k.remove();
+      Scope.exit();
+    }
+  }
+
+  @Test public void testHistogramSubtraction() {
+    GBMModel.GBMParameters subtraction = covtypeParms();
+    subtraction._histogram_subtraction = true;
+    GBMModel.GBMParameters parms = covtypeParms();
+    parms._max_depth = subtraction._max_depth = 8;
+    double[] loglosses = trainOnCovtype(null, parms, subtraction);
+    Log.info("Validation logloss without/with histogram subtraction: " + loglosses[0] + "/" + loglosses[1]);
+    // Children keep the bins of their parent instead of re-binning, the models are not identical but close
+    // (the histograms themselves are checked against directly built ones in HistogramTest)
+    assertEquals(loglosses[0], loglosses[1], 0.05 * loglosses[0]);
+  }
+
+  @Test public void testPreBinning() {
+    GBMModel.GBMParameters parms = covtypeParms();
+    GBMModel.GBMParameters prebin = covtypeParms();
+    parms._histogram_type = prebin._histogram_type = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+    prebin._prebin = true;
+    double[] loglosses = trainOnCovtype(null, parms, prebin);
+    Log.info("Validation logloss without/with pre-binning: " + loglosses[0] + "/" + loglosses[1]);
+    // Min/max of the nodes are only tracked with the precision of the global bins
+    assertEquals(loglosses[0], loglosses[1], 0.02 * loglosses[0]);
+  }
+
+  @Test public void testLeafwiseGrowth() {
+    final GBMModel.GBMParameters leafwise = covtypeParms();
+    leafwise._max_depth = 10;
+    leafwise._max_leaves = 32; // as many leaves as a tree of depth 5
+    double[] loglosses = trainOnCovtype(new CovtypeCheck() {
+      @Override public void check(GBMModel[] models, Frame train, Frame valid) {
+        GBMModel gbm = models[1];
+        assertEquals(leafwise._max_leaves, gbm._output._treeStats._max_leaves);
+        assertEquals(leafwise._max_leaves, gbm._output._treeStats._min_leaves); // enough rows to grow every tree fully
+        assertTrue(gbm._output._treeStats._max_depth <= leafwise._max_depth);
+        // every leaf of every tree holds at least min_rows of the training rows
+        Frame leaves = gbm.scoreLeafNodeAssignment(train, Key.<Frame>make());
+        try {
+          for (Vec v : leaves.vecs()) {
+            long[] counts = new long[v.domain().length];
+            for (long r = 0; r < v.length(); r++)
+              counts[(int) v.at8(r)]++;
+            int used = 0;
+            for (long c : counts) {
+              if (c == 0) continue;
+              used++;
+              assertTrue(c >= leafwise._min_rows);
+            }
+            assertEquals(leafwise._max_leaves, used);
+          }
+        } finally {
+          leaves.delete();
+        }
+      }
+    }, covtypeParms(), leafwise);
+    Log.info("Validation logloss depth-wise/leaf-wise: " + loglosses[0] + "/" + loglosses[1]);
+    assertEquals(loglosses[0], loglosses[1], 0.05 * loglosses[0]);
+  }
+
+  @Test public void testLowPrecision() {
+    GBMModel.GBMParameters lowPrecision = covtypeParms();
+    lowPrecision._low_precision = true;
+    double[] loglosses = trainOnCovtype(null, covtypeParms(), lowPrecision);
+    Log.info("Validation logloss with double/single precision: " + loglosses[0] + "/" + loglosses[1]);
+    assertEquals(loglosses[0], loglosses[1], 1e-2 * loglosses[0]);
+  }
+
+  @Test public void testBundleSparseColumns() {
+    // columns 10-53 are one-hot encoded wilderness areas and soil types
+    GBMModel.GBMParameters bundled = covtypeParms();
+    bundled._bundle_sparse_columns = true;
+    double[] loglosses = trainOnCovtype(new CovtypeCheck() {
+      @Override public void check(GBMModel[] models, Frame train, Frame valid) {
+        Frame preds = null, bundledPreds = null;
+        try {
+          preds = models[0].score(valid);
+          bundledPreds = models[1].score(valid);
+          for (int c = 1; c < preds.numCols(); c++) // class probabilities, the label follows
+            assertVecEquals(preds.vec(c), bundledPreds.vec(c), 1e-8);
+        } finally {
+          if (preds != null) preds.delete();
+          if (bundledPreds != null) bundledPreds.delete();
+        }
+      }
+    }, covtypeParms(), bundled);
+    Log.info("Validation logloss without/with column bundling: " + loglosses[0] + "/" + loglosses[1]);
+    // The bins of a bundled column are the same sums in a different order, the float histograms (and so the splits)
+    // are the same up to rounding of the last bit
+    assertEquals(loglosses[0], loglosses[1], 1e-8);
+  }
+
+  @Test public void testGOSS() {
+    GBMModel.GBMParameters parms = covtypeParms();
+    GBMModel.GBMParameters goss = covtypeParms();
+    parms._ntrees = goss._ntrees = 20;
+    goss._goss = true;
+    double[] loglosses = trainOnCovtype(null, parms, goss);
+    Log.info("Validation logloss without/with GOSS: " + loglosses[0] + "/" + loglosses[1]);
+    // Trees are built from 30% of the rows only
+    assertEquals(loglosses[0], loglosses[1], 0.05 * loglosses[0]);
+  }
+
+  @Test public void testGOSSWeights() {
+    final int N = 10000;
+    final double topRate = 0.2, otherRate = 0.1;
+    Scope.enter();
+    try {
+      double[] resp = new double[N];
+      double[] work = new double[N];
+      for (int i = 0; i < N; i++) {
+        resp[i] = i % 2;
+        work[i] = (i % 3 == 0 ? -1 : 1) * (i + 1); // gradient (absolute residual) grows with the row
+      }
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withName("gossFrame")
+              .withColNames("response", "work")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+              .withDataForCol(0, resp)
+              .withDataForCol(1, work)
+              .withChunkLayout(3000, 3000, 4000)
+              .build());
+      Vec nids = fr.anyVec().makeVolatileInts(new int[]{0})[0];
+      Vec ws = fr.anyVec().makeVolatileDoubles(1)[0];
+      Frame sample = new Frame(fr);
+      sample.add("nids", nids);
+      sample.add("sample_weights", ws);
+      new GossSample(1, false, topRate, otherRate).sample(sample, 0xDECAF, false);
+
+      long top = 0, others = 0, oob = 0;
+      double otherWeight = Double.NaN, sumWeights = 0;
+      for (int i = 0; i < N; i++) {
+        boolean inBag = nids.at8(i) != ScoreBuildHistogram.OUT_OF_BAG;
+        double w = ws.at(i);
+        if (i >= (1 - topRate) * N) { // the rows with the largest gradients are always used, with their own weight
+          assertTrue(inBag);
+          assertEquals(1, w, 0);
+        }
+        if (!inBag) {
+          assertEquals(1, w, 0); // out-of-bag rows keep their weight
+          oob++;
+          continue;
+        }
+        sumWeights += w;
+        if (w == 1) {
+          top++;
+          continue;
+        }
+        // sampled small-gradient rows are scaled by the inverse of their (common) sampling probability
+        if (Double.isNaN(otherWeight)) otherWeight = w;
+        assertEquals(otherWeight, w, 1e-12);
+        others++;
+      }
+      assertTrue(top >= topRate * N);
+      assertEquals(N, top + others + oob);
+      assertEquals(otherRate * N, others, 0.1 * otherRate * N);
+      assertEquals(otherWeight, (double) (N - top) / (otherRate * N), 1e-9);
+      // unbiased: the sample stands for all the rows
+      assertEquals(N, sumWeights, 0.1 * N);
+    } finally {
+      Scope.exit();
+    }
+  }
+
   // PUBDEV-2822
   @Test public void testNA() {
     String xy = ",0\n1,0\n2,0\n3,0\n4,-10\n,0";
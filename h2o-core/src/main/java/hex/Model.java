@@ -1527,6 +1527,11 @@ public abstract class Model<M extends Model<M,P,O>, P extends Model.Parameters,
       _hasWeights = testHasWeights;
     }
 
+    @Override protected void setupLocal() {
+      super.setupLocal();
+      setupLocalBigScorePredict();
+    }
+
     @Override public void map( Chunk chks[], NewChunk cpreds[] ) {
       if (isCancelled() || _j != null && _j.stop_requested()) return;
       Chunk weightsChunk = _hasWeights && _computeMetrics ? chks[_output.weightsIdx()] : null;
@@ -1582,13 +1587,7 @@ public abstract class Model<M extends Model<M,P,O>, P extends Model.Parameters,
           int nonZeroW = 0;
           for (int row = 0; row < len; row++) {
             double weight = getWeight(weightsChunk, row);
-            if (weight == 0) {
-              if (_makePreds) {
-                for (int c = 0; c < _npredcols; c++)  // Output predictions; sized for train only (excludes extra test classes)
-                  cpreds[c].addNum(0);
-              }
-              continue;
-            }
+            if (weight == 0) continue; // predicted as 0, see below
             if(offsetChunk != null) {
               offsets[nonZeroW] = getOffset(offsetChunk, row);
             }
@@ -1597,33 +1596,39 @@ public abstract class Model<M extends Model<M,P,O>, P extends Model.Parameters,
 
           indices = Arrays.copyOf(indices, nonZeroW);
 
-          if(0 == nonZeroW) {
-            return;
-          }
-
-          double[][] bulkPreds = new double[nonZeroW][];
-          for(int i = 0; i < bulkPreds.length; i++) {
-            bulkPreds[i] = new double[_mb._work.length];
-          }
-          double[][] bulkTmp = new double[nonZeroW][];
-          for(int i = 0; i < bulkTmp.length; i++) {
-            bulkTmp[i] = new double[_output.nfeatures()];
-          }
-          double[][] p = score0(chks, offsets, indices, bulkTmp, bulkPreds);
-          for(int rowIdx = 0; rowIdx < indices.length; rowIdx++) {
-            int row = indices[rowIdx];
+          double[][] p = null;
+          if (nonZeroW > 0) {
+            double[][] bulkPreds = new double[nonZeroW][];
+            for(int i = 0; i < bulkPreds.length; i++) {
+              bulkPreds[i] = new double[_mb._work.length];
+            }
+            double[][] bulkTmp = new double[nonZeroW][];
+            for(int i = 0; i < bulkTmp.length; i++) {
+              bulkTmp[i] = new double[_output.nfeatures()];
+            }
+            p = score0(chks, offsets, indices, bulkTmp, bulkPreds);
             if (_computeMetrics) {
-              if (isSupervised()) {
-                actual[0] = (float) responseChunk.atd(row);
-              } else {
-                for (int i = 0; i < actual.length; ++i)
-                  actual[i] = (float) data(chks, row, i);
+              for(int rowIdx = 0; rowIdx < indices.length; rowIdx++) {
+                int row = indices[rowIdx];
+                if (isSupervised()) {
+                  actual[0] = (float) responseChunk.atd(row);
+                } else {
+                  for (int i = 0; i < actual.length; ++i)
+                    actual[i] = (float) data(chks, row, i);
+                }
+                _mb.perRow(bulkPreds[rowIdx], actual, getWeight(weightsChunk, row), getOffset(offsetChunk, row), Model.this);
+                // Handle custom metric
+                customMetricPerRow(bulkPreds[rowIdx], actual, getWeight(weightsChunk, row), getOffset(offsetChunk, row), Model.this);
               }
-              _mb.perRow(bulkPreds[rowIdx], actual, getWeight(weightsChunk, row), getOffset(offsetChunk, row), Model.this);
             }
-            if (_makePreds) {
+          }
+          if (_makePreds) {
+            // Output predictions in the order of the rows, 0 for the rows with zero weight
+            for (int row = 0, rowIdx = 0; row < len; row++) {
+              boolean scored = rowIdx < nonZeroW && indices[rowIdx] == row;
               for (int c = 0; c < _npredcols; c++)  // Output predictions; sized for train only (excludes extra test classes)
-                cpreds[c].addNum(p[rowIdx][c]);
+                cpreds[c].addNum(scored ? p[rowIdx][c] : 0);
+              if (scored) rowIdx++;
             }
           }
         }
@@ -1654,6 +1659,7 @@ public abstract class Model<M extends Model<M,P,O>, P extends Model.Parameters,
   }
 
   protected boolean bulkBigScorePredict() { return false; }
+  protected void setupLocalBigScorePredict() {} // once per node, before the chunks of the node are scored
   protected void setupBigScorePredict() {}
   protected void closeBigScorePredict() {}
 
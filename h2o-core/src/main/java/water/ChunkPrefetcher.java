@@ -0,0 +1,271 @@
+package water;
+
+import jsr166y.ForkJoinPool;
+import water.fvec.FileVec;
+import water.fvec.Vec;
+import water.util.Log;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static water.H2O.OptArgs.SYSTEM_PROP_PREFIX;
+
+/**
+ * Loads Chunks ahead of the map calls of an {@link MRTask}. While a Chunk is being mapped, the following Chunks
+ * the task will map on this node are loaded in the background - from ICE (swapped out Values), from the persist
+ * backend (not yet loaded files) or from the home node (tasks running local over remote data). A map call then
+ * finds its Chunks loaded instead of blocking on the i/o.
+ *
+ * Only tasks over data which is not (entirely) in memory prefetch, see {@link #isWorthwhile(MRTask)}. A map call
+ * only waits for a prefetch which is already loading its Chunks, a prefetch still queued is cancelled and the map
+ * call loads the Chunks on its own. The metrics of each task are logged (debug level) once its local work is done.
+ */
+final class ChunkPrefetcher {
+  /** Number of Chunks loaded ahead of the mapped Chunk, 0 disables prefetching */
+  static final String PROP_DEPTH = SYSTEM_PROP_PREFIX + "mr.prefetch.depth";
+  /** Number of threads loading the Chunks */
+  static final String PROP_THREADS = SYSTEM_PROP_PREFIX + "mr.prefetch.threads";
+
+  // Chunks nobody asked for (eg. the task was cancelled) are forgotten after this time
+  private static final long PREFETCH_TTL_MS = 60 * 1000;
+  private static final int MAX_INFLIGHT = 1024;
+
+  static volatile int DEPTH = Integer.getInteger(PROP_DEPTH, 2);
+  private static final int THREADS = Math.max(1, Integer.getInteger(PROP_THREADS, 4));
+
+  private static final ConcurrentHashMap<Key, Prefetch> _inflight = new ConcurrentHashMap<>();
+  private static volatile ExecutorService _pool;
+
+  // Metrics of all the tasks of this node
+  private static final Counters _total = new Counters();
+  private static final AtomicLong _expired = new AtomicLong();
+
+  private ChunkPrefetcher() {}
+
+  /** Prefetch metrics of one task on this node (shared by all its local map calls) */
+  static final class Counters {
+    private final AtomicLong _issued = new AtomicLong();
+    private final AtomicLong _hits = new AtomicLong();
+    private final AtomicLong _late = new AtomicLong();
+    private final AtomicLong _cancelled = new AtomicLong();
+    private final AtomicLong _stallAvoidedNanos = new AtomicLong();
+    private final AtomicLong _waitNanos = new AtomicLong();
+
+    void mapped(Prefetch p, long waitedNanos) {
+      if (waitedNanos == 0) _hits.incrementAndGet();
+      else {
+        _late.incrementAndGet();
+        _waitNanos.addAndGet(waitedNanos);
+      }
+      _stallAvoidedNanos.addAndGet(Math.max(0, p._nanos - waitedNanos));
+    }
+
+    Stats toStats() {
+      Stats s = new Stats();
+      s._issued = _issued.get();
+      s._hits = _hits.get();
+      s._late = _late.get();
+      s._cancelled = _cancelled.get();
+      s._stallAvoidedMs = TimeUnit.NANOSECONDS.toMillis(_stallAvoidedNanos.get());
+      s._waitMs = TimeUnit.NANOSECONDS.toMillis(_waitNanos.get());
+      return s;
+    }
+  }
+
+  private static final int QUEUED = 0, RUNNING = 1, CANCELLED = 2;
+
+  /** Loads all the Chunks of one row of Chunks of a Frame */
+  private static final class Prefetch implements Runnable, ForkJoinPool.ManagedBlocker {
+    final Vec[] _vecs;
+    final int _cidx;
+    final long _created = System.currentTimeMillis();
+    final AtomicInteger _state = new AtomicInteger(QUEUED);
+    final CountDownLatch _done = new CountDownLatch(1);
+    volatile long _nanos;
+
+    Prefetch(Vec[] vecs, int cidx) {
+      _vecs = vecs;
+      _cidx = cidx;
+    }
+
+    /** Takes the prefetch off the queue unless a thread already started loading the Chunks */
+    boolean cancel() {
+      return _state.compareAndSet(QUEUED, CANCELLED);
+    }
+
+    @Override public boolean isReleasable() { return _done.getCount() == 0; }
+
+    @Override public boolean block() throws InterruptedException {
+      _done.await();
+      return true;
+    }
+
+    @Override public void run() {
+      if (!_state.compareAndSet(QUEUED, RUNNING)) {
+        _done.countDown(); // cancelled, the map call loads the Chunks
+        return;
+      }
+      long start = System.nanoTime();
+      try {
+        for (Vec v : _vecs) {
+          if (v == null) continue;
+          Value val = v.chunkIdx(_cidx);
+          if (val != null) val.memOrLoad();
+        }
+      } catch (Throwable t) { // the map call loads the Chunk on its own
+        Log.debug("Prefetch of chunk " + _cidx + " failed: " + t);
+      } finally {
+        _nanos = System.nanoTime() - start;
+        _done.countDown();
+      }
+    }
+  }
+
+  private static ExecutorService pool() {
+    if (_pool == null) {
+      synchronized (ChunkPrefetcher.class) {
+        if (_pool == null) {
+          final AtomicInteger cnt = new AtomicInteger();
+          _pool = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+            @Override public Thread newThread(Runnable r) {
+              Thread t = new Thread(r, "ChunkPrefetch-" + cnt.incrementAndGet());
+              t.setDaemon(true);
+              return t;
+            }
+          });
+        }
+      }
+    }
+    return _pool;
+  }
+
+  /**
+   * Prefetching only pays off when some of the Chunks are not in memory: parts of the K/V store were swapped out,
+   * the Frame has Vecs of not yet loaded files, or the task is pulling remote Chunks to this node.
+   */
+  static boolean isWorthwhile(MRTask<?> task) {
+    if (DEPTH <= 0 || task._fr == null) return false;
+    if (task._run_local && H2O.CLOUD.size() > 1) return true;
+    if (Cleaner.Histo.hasSwapped()) return true;
+    for (Vec v : task._fr.vecs())
+      if (v instanceof FileVec) return true;
+    return false;
+  }
+
+  /**
+   * Schedules loads of the Chunks the task will map after the given Chunk
+   */
+  static void prefetchAfter(MRTask<?> task, Counters counters, Vec[] vecs, int cidx) {
+    expireStale();
+    Vec v0 = task._fr.anyVec();
+    int nChunks = v0.nChunks();
+    for (int c = cidx + 1; c < nChunks && c <= cidx + DEPTH && _inflight.size() < MAX_INFLIGHT; c++) {
+      if (!(task._run_local || v0.chunkKey(c).home()) || task.skipChunk(c)) continue;
+      if (isLoaded(vecs, c)) continue;
+      Prefetch p = new Prefetch(vecs, c);
+      boolean scheduled = false;
+      for (Vec v : vecs) {
+        if (v == null) continue;
+        if (_inflight.putIfAbsent(v.chunkKey(c), p) == null) scheduled = true;
+      }
+      if (scheduled) {
+        counters._issued.incrementAndGet();
+        _total._issued.incrementAndGet();
+        pool().execute(p);
+      }
+    }
+  }
+
+  // Loaded Chunks have their bytes (or the Chunk object) in memory
+  private static boolean isLoaded(Vec[] vecs, int cidx) {
+    for (Vec v : vecs) {
+      if (v == null) continue;
+      Value val = Value.STORE_get(v.chunkKey(cidx));
+      if (val == null || (val.rawMem() == null && val.rawPOJO() == null)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Called before the Chunks are mapped. A prefetch still queued behind other loads is cancelled (the map call
+   * loads the Chunks itself rather than waiting for a free prefetch thread), a prefetch already loading the Chunks
+   * is waited for (instead of loading the Chunks once more).
+   */
+  static void await(Counters counters, Vec[] vecs, int cidx) {
+    if (_inflight.isEmpty()) return;
+    Prefetch last = null;
+    for (Vec v : vecs) {
+      if (v == null) continue;
+      Prefetch p = _inflight.remove(v.chunkKey(cidx));
+      if (p == null || p == last) continue;
+      last = p;
+      if (p.cancel()) {
+        counters._cancelled.incrementAndGet();
+        _total._cancelled.incrementAndGet();
+        continue;
+      }
+      if (p.isReleasable()) {
+        count(counters, p, 0);
+        continue;
+      }
+      long start = System.nanoTime();
+      try {
+        ForkJoinPool.managedBlock(p);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      count(counters, p, System.nanoTime() - start);
+    }
+  }
+
+  private static void count(Counters counters, Prefetch p, long waited) {
+    counters.mapped(p, waited);
+    _total.mapped(p, waited);
+  }
+
+  /** Logs the metrics of a task once its local map calls are done */
+  static void log(MRTask<?> task, Counters counters) {
+    if (counters._issued.get() == 0) return;
+    Log.debug(task.getClass().getSimpleName() + " prefetched Chunks: " + counters.toStats());
+  }
+
+  private static void expireStale() {
+    if (_inflight.isEmpty()) return;
+    long now = System.currentTimeMillis();
+    for (Iterator<Map.Entry<Key, Prefetch>> it = _inflight.entrySet().iterator(); it.hasNext(); ) {
+      Prefetch p = it.next().getValue();
+      if (now - p._created > PREFETCH_TTL_MS && (p.isReleasable() || p.cancel())) {
+        it.remove();
+        _expired.incrementAndGet();
+      }
+    }
+  }
+
+  /** Snapshot of the prefetch metrics of this node */
+  static class Stats extends Iced<Stats> {
+    long _issued;          // rows of Chunks scheduled to be loaded ahead
+    long _hits;            // prefetched rows of Chunks fully loaded by the time they were mapped
+    long _late;            // prefetched rows of Chunks still loading when they were mapped
+    long _cancelled;       // prefetched rows of Chunks not yet loading when they were mapped (loaded by the map call)
+    long _expired;         // prefetched Chunks never mapped
+    long _stallAvoidedMs;  // load time taken off the map calls
+    long _waitMs;          // time map calls waited for late prefetches
+
+    @Override public String toString() {
+      return "ChunkPrefetcher{issued=" + _issued + ", hits=" + _hits + ", late=" + _late + ", cancelled=" + _cancelled +
+              ", expired=" + _expired +
+              ", stallAvoidedMs=" + _stallAvoidedMs + ", waitMs=" + _waitMs + "}";
+    }
+  }
+
+  /** Metrics of all the tasks of this node */
+  static Stats stats() {
+    Stats s = _total.toStats();
+    s._expired = _expired.get();
+    return s;
+  }
+}
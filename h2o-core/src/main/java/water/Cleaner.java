@@ -226,6 +226,7 @@ class Cleaner extends Thread {
     // built nor blocking for one being in-progress.
     static long cached() { return H._cached; }
     static long swapped(){ return H._swapped;}
+    static boolean hasSwapped() { Histo h = H; return h != null && h._swapped > 0; }
 
     final long[] _hs = new long[128];
     long _oldest; // Time of the oldest K/V discovered this pass
@@ -67,6 +67,11 @@ final class ExternalFrameHandler {
      */
     static final byte CREATE_FRAME = 0;
     static final byte DOWNLOAD_FRAME = 1;
+    /**
+     * Same as above, but the data are exchanged in batches of rows, one array of values (plus NA bitmap) per column
+     */
+    static final byte CREATE_FRAME_COLUMNAR = 2;
+    static final byte DOWNLOAD_FRAME_COLUMNAR = 3;
 
     /**
      * Method which receives the {@link ByteChannel} and {@link AutoBuffer} and dispatches the request for further processing
@@ -80,6 +85,12 @@ final class ExternalFrameHandler {
             case DOWNLOAD_FRAME:
                 ExternalFrameReaderBackend.handleReadingFromChunk(sock, ab);
                 break;
+            case CREATE_FRAME_COLUMNAR:
+                ExternalFrameWriterBackend.handleWriteColumnBatches(sock, ab);
+                break;
+            case DOWNLOAD_FRAME_COLUMNAR:
+                ExternalFrameReaderBackend.handleReadingColumnBatches(sock, ab);
+                break;
         }
     }
 }
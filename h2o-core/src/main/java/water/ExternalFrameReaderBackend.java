@@ -92,4 +92,114 @@ final class ExternalFrameReaderBackend {
         ab.put1(ExternalFrameHandler.CONFIRM_READING_DONE);
         writeToChannel(ab, channel);
     }
+
+    /**
+     * Internal method use on the h2o backend side to handle reading of column batches from the chunk from non-h2o
+     * environment. Each batch holds one array of values and NA bitmap per selected column and is sent in a single write.
+     * @param channel socket channel originating from non-h2o node
+     * @param initAb {@link AutoBuffer} containing information necessary for preparing backend for reading
+     */
+    static void handleReadingColumnBatches(ByteChannel channel, AutoBuffer initAb) throws IOException {
+        // receive required information
+        String frameKey = initAb.getStr();
+        int chunkIdx = initAb.getInt();
+        byte[] expectedTypes = initAb.getA1();
+        assert expectedTypes != null : "Expected types can't be null";
+        int[] selectedColumnIndices = initAb.getA4();
+        assert selectedColumnIndices != null : "Selected column indices can't be null";
+        int batchSize = initAb.getInt();
+        assert batchSize > 0 : "Batch size has to be positive";
+
+        Frame fr = DKV.getGet(frameKey);
+        Chunk[] chunks = ChunkUtils.getChunks(fr, chunkIdx);
+        int numRows = chunks[0]._len;
+
+        // write number of rows
+        AutoBuffer ab = new AutoBuffer();
+        ab.putInt(numRows);
+        writeToChannel(ab, channel);
+
+        BufferedString valStr = new BufferedString();
+        for (int from = 0; from < numRows; from += batchSize) {
+            int batchRows = Math.min(batchSize, numRows - from);
+            ab.putInt(batchRows);
+            for (int i = 0; i < selectedColumnIndices.length; i++) {
+                final Chunk chnk = chunks[selectedColumnIndices[i]];
+                byte[] nas = null;
+                for (int r = 0; r < batchRows; r++) {
+                    if (chnk.isNA(from + r)) {
+                        if (nas == null) nas = naBitmap(batchRows);
+                        setNA(nas, r);
+                    }
+                }
+                ab.putA1(nas);
+                switch (expectedTypes[i]) {
+                    case EXPECTED_BOOL:
+                    case EXPECTED_BYTE: {
+                        byte[] data = new byte[batchRows];
+                        for (int r = 0; r < batchRows; r++) if (!isNA(nas, r)) data[r] = (byte) chnk.at8(from + r);
+                        ab.putA1(data);
+                        break;
+                    }
+                    case EXPECTED_CHAR:
+                        ab.putInt(batchRows);
+                        for (int r = 0; r < batchRows; r++) ab.put2(isNA(nas, r) ? 0 : (char) chnk.at8(from + r));
+                        break;
+                    case EXPECTED_SHORT: {
+                        short[] data = new short[batchRows];
+                        for (int r = 0; r < batchRows; r++) if (!isNA(nas, r)) data[r] = (short) chnk.at8(from + r);
+                        ab.putA2(data);
+                        break;
+                    }
+                    case EXPECTED_INT: {
+                        int[] data = new int[batchRows];
+                        for (int r = 0; r < batchRows; r++) if (!isNA(nas, r)) data[r] = (int) chnk.at8(from + r);
+                        ab.putA4(data);
+                        break;
+                    }
+                    case EXPECTED_TIMESTAMP:
+                    case EXPECTED_LONG: {
+                        long[] data = new long[batchRows];
+                        for (int r = 0; r < batchRows; r++) if (!isNA(nas, r)) data[r] = chnk.at8(from + r);
+                        ab.putA8(data);
+                        break;
+                    }
+                    case EXPECTED_FLOAT: {
+                        float[] data = new float[batchRows];
+                        for (int r = 0; r < batchRows; r++) data[r] = (float) chnk.atd(from + r);
+                        ab.putA4f(data);
+                        break;
+                    }
+                    case EXPECTED_DOUBLE: {
+                        double[] data = new double[batchRows];
+                        for (int r = 0; r < batchRows; r++) data[r] = chnk.atd(from + r);
+                        ab.putA8d(data);
+                        break;
+                    }
+                    case EXPECTED_STRING: {
+                        String[] data = new String[batchRows];
+                        for (int r = 0; r < batchRows; r++) {
+                            if (isNA(nas, r)) continue;
+                            if (chnk.vec().isCategorical()) {
+                                data[r] = chnk.vec().domain()[(int) chnk.at8(from + r)];
+                            } else if (chnk.vec().isString()) {
+                                data[r] = chnk.atStr(valStr, from + r).toString();
+                            } else if (chnk.vec().isUUID()) {
+                                data[r] = new UUID(chnk.at16h(from + r), chnk.at16l(from + r)).toString();
+                            } else {
+                                assert false : "Can never be here";
+                            }
+                        }
+                        ab.putAStr(data);
+                        break;
+                    }
+                    default:
+                        throw new IllegalArgumentException("Unsupported expected type in column batch: " + expectedTypes[i]);
+                }
+            }
+            writeToChannel(ab, channel);
+        }
+        ab.put1(ExternalFrameHandler.CONFIRM_READING_DONE);
+        writeToChannel(ab, channel);
+    }
 }
@@ -52,6 +52,26 @@ import static water.ExternalFrameUtils.writeToChannel;
  * </p>
  *
  * <p>
+ * Alternatively, the reader can be created with a batch size, the data are then received in batches of rows with
+ * one array of values per selected column:</br>
+ * <pre>
+ * {@code
+ * ExternalFrameReader reader = new ExternalFrameReader(channel, "frameName", 0, selectedColumnIndices, expectedTypes, 4096);
+ * int rowsRead = 0;
+ * while(rowsRead < reader.getNumRows()){
+ *     int batchRows = reader.readBatch();
+ *     byte[] bools = reader.readByteColumn();
+ *     int[] ints = reader.readIntColumn();
+ *     if(ExternalFrameUtils.isNA(reader.getLastNAs(), 0)){
+ *         // first int of the batch is NA
+ *     }
+ *     rowsRead += batchRows;
+ * }
+ * }
+ * </pre>
+ * </p>
+ *
+ * <p>
  * And at the end we need to make sure to force to code wait for all data to be read:</br>
  * <pre>
  * {@code
@@ -63,6 +83,8 @@ import static water.ExternalFrameUtils.writeToChannel;
 final public class ExternalFrameReaderClient {
 
     private boolean isLastNA = false;
+    // NA bitmap of the last received column batch
+    private byte[] lastNAs = null;
     private AutoBuffer ab;
     private String frameKey;
     private int chunkIdx;
@@ -70,6 +92,8 @@ final public class ExternalFrameReaderClient {
     private ByteChannel channel;
     private int numRows;
     private byte[] expectedTypes = null;
+    // number of rows in a column batch, 0 if the data are read row by row
+    private int batchSize = 0;
 
     /**
      * @param channel               channel to h2o node
@@ -87,6 +111,27 @@ final public class ExternalFrameReaderClient {
         this.ab = initAndGetAb();
     }
 
+    /**
+     * @param channel               channel to h2o node
+     * @param frameKey              name of frame we want to read from
+     * @param chunkIdx              chunk index from we want to read
+     * @param selectedColumnIndices indices of columns we want to read from
+     * @param expectedTypes         expected types
+     * @param batchSize             maximal number of rows in a column batch
+     */
+    public ExternalFrameReaderClient(ByteChannel channel, String frameKey, int chunkIdx, int[] selectedColumnIndices, byte[] expectedTypes, int batchSize) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size has to be positive, got " + batchSize + ".");
+        }
+        this.channel = channel;
+        this.frameKey = frameKey;
+        this.chunkIdx = chunkIdx;
+        this.expectedTypes = expectedTypes;
+        this.selectedColumnIndices = selectedColumnIndices;
+        this.batchSize = batchSize;
+        this.ab = initAndGetAb();
+    }
+
     public int getNumRows() {
         return numRows;
     }
@@ -151,6 +196,73 @@ final public class ExternalFrameReaderClient {
         return data;
     }
 
+    /**
+     * Start reading the next column batch, the columns of the batch are then read in the order they were selected
+     * @return number of rows in the batch
+     */
+    public int readBatch() {
+        lastNAs = null;
+        return ab.getInt();
+    }
+
+    /**
+     * Read values of a boolean (0/1) or byte column of the current batch
+     */
+    public byte[] readByteColumn() {
+        lastNAs = ab.getA1();
+        return ab.getA1();
+    }
+
+    public char[] readCharColumn() {
+        lastNAs = ab.getA1();
+        char[] data = new char[ab.getInt()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = ab.get2();
+        }
+        return data;
+    }
+
+    public short[] readShortColumn() {
+        lastNAs = ab.getA1();
+        return ab.getA2();
+    }
+
+    public int[] readIntColumn() {
+        lastNAs = ab.getA1();
+        return ab.getA4();
+    }
+
+    /**
+     * Read values of a long or timestamp (milliseconds since the epoch) column of the current batch
+     */
+    public long[] readLongColumn() {
+        lastNAs = ab.getA1();
+        return ab.getA8();
+    }
+
+    public float[] readFloatColumn() {
+        lastNAs = ab.getA1();
+        return ab.getA4f();
+    }
+
+    public double[] readDoubleColumn() {
+        lastNAs = ab.getA1();
+        return ab.getA8d();
+    }
+
+    public String[] readStringColumn() {
+        lastNAs = ab.getA1();
+        return ab.getAStr();
+    }
+
+    /**
+     * NA bitmap of the last received column, null if the column has no NAs in the current batch.
+     * Use {@link ExternalFrameUtils#isNA(byte[], int)} to check individual rows.
+     */
+    public byte[] getLastNAs() {
+        return lastNAs;
+    }
+
     /**
      * This method is used to check if the last received value was marked as NA by H2O backend
      */
@@ -182,11 +294,14 @@ final public class ExternalFrameReaderClient {
     private AutoBuffer initAndGetAb() throws IOException {
         AutoBuffer sentAb = new AutoBuffer();
         sentAb.put1(ExternalFrameHandler.INIT_BYTE);
-        sentAb.put1(ExternalFrameHandler.DOWNLOAD_FRAME);
+        sentAb.put1(batchSize > 0 ? ExternalFrameHandler.DOWNLOAD_FRAME_COLUMNAR : ExternalFrameHandler.DOWNLOAD_FRAME);
         sentAb.putStr(frameKey);
         sentAb.putInt(chunkIdx);
         sentAb.putA1(expectedTypes);
         sentAb.putA4(selectedColumnIndices);
+        if (batchSize > 0) {
+            sentAb.putInt(batchSize);
+        }
         writeToChannel(sentAb, channel);
         AutoBuffer receiveAb = new AutoBuffer(channel, null);
         // once we send H2O all information it needs to prepare for reading, it sends us back number of rows
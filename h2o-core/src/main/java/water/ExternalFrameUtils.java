@@ -264,6 +264,25 @@ public class ExternalFrameUtils {
         return data != null && data.equals(STR_MARKER_NEXT_BYTE_FOLLOWS) && ab.get1() == MARKER_NA;
     }
 
+    /**
+     * Allocates NA bitmap for the column batch of the given number of rows, bit {@code i} is set when the value
+     * in row {@code i} is NA.
+     */
+    public static byte[] naBitmap(int numRows){
+        return new byte[(numRows + 7) >> 3];
+    }
+
+    public static void setNA(byte[] naBitmap, int row){
+        naBitmap[row >> 3] |= (byte) (1 << (row & 7));
+    }
+
+    /**
+     * Check whether the value in the given row of a column batch is NA, {@code null} bitmap means there are no NAs
+     */
+    public static boolean isNA(byte[] naBitmap, int row){
+        return naBitmap != null && (naBitmap[row >> 3] & (1 << (row & 7))) != 0;
+    }
+
     static int[] getStartPositions(int[] elemSizes){
         int[] startPos = new int[elemSizes.length];
         for(int i = 1; i<elemSizes.length; i++){
@@ -309,7 +328,9 @@ public class ExternalFrameUtils {
 
     public static void writeToChannel(AutoBuffer ab, ByteChannel channel) throws IOException {
         ab.flipForReading();
-        channel.write(ab._bb);
+        while (ab._bb.hasRemaining()) { // column batches don't necessarily fit into a single write
+            channel.write(ab._bb);
+        }
         ab.clearForWriting(H2O.MAX_PRIORITY);
     }
 }
@@ -85,6 +85,86 @@ final class ExternalFrameWriterBackend {
         writeToChannel(outputAb, sock);
     }
 
+    /**
+     * Internal method use on the h2o backend side to handle writing of column batches to the chunk from non-h2o
+     * environment. Each column of a batch is decoded straight into its NewChunk.
+     * @param sock socket channel originating from non-h2o node
+     * @param ab {@link AutoBuffer} containing information necessary for preparing backend for writing
+     */
+    static void handleWriteColumnBatches(ByteChannel sock, AutoBuffer ab) throws IOException {
+        String frameKey = ab.getStr();
+        byte[] expectedTypes = ab.getA1();
+        if( expectedTypes == null){
+          throw new RuntimeException("Expected types can't be null.");
+        }
+        byte[] vecTypes = vecTypesFromExpectedTypes(expectedTypes, EMPTY_ARI);
+        int expectedNumRows = ab.getInt();
+        int chunk_id = ab.getInt();
+        NewChunk[] nchnk = ChunkUtils.createNewChunks(frameKey, vecTypes, chunk_id);
+        assert nchnk != null;
+        int currentRowIdx = 0;
+        while (currentRowIdx < expectedNumRows) {
+            int batchRows = ab.getInt();
+            for (int typeIdx = 0; typeIdx < expectedTypes.length; typeIdx++) {
+                byte[] nas = ab.getA1();
+                NewChunk chunk = nchnk[typeIdx];
+                switch (expectedTypes[typeIdx]) {
+                    case EXPECTED_BOOL: // fall through to byte since BOOL is internally stored in frame as number (byte)
+                    case EXPECTED_BYTE: {
+                        byte[] data = ab.getA1();
+                        for (int i = 0; i < batchRows; i++) store(chunk, nas, i, data[i]);
+                        break;
+                    }
+                    case EXPECTED_CHAR: {
+                        int len = ab.getInt();
+                        assert len == batchRows;
+                        for (int i = 0; i < batchRows; i++) store(chunk, nas, i, ab.get2());
+                        break;
+                    }
+                    case EXPECTED_SHORT: {
+                        short[] data = ab.getA2();
+                        for (int i = 0; i < batchRows; i++) store(chunk, nas, i, data[i]);
+                        break;
+                    }
+                    case EXPECTED_INT: {
+                        int[] data = ab.getA4();
+                        for (int i = 0; i < batchRows; i++) store(chunk, nas, i, data[i]);
+                        break;
+                    }
+                    case EXPECTED_TIMESTAMP: // fall through to long since TIMESTAMP is internally stored in frame as long
+                    case EXPECTED_LONG: {
+                        long[] data = ab.getA8();
+                        for (int i = 0; i < batchRows; i++) store(chunk, nas, i, data[i]);
+                        break;
+                    }
+                    case EXPECTED_FLOAT: {
+                        float[] data = ab.getA4f();
+                        for (int i = 0; i < batchRows; i++) store(chunk, isNA(nas, i) ? Double.NaN : data[i]);
+                        break;
+                    }
+                    case EXPECTED_DOUBLE: {
+                        double[] data = ab.getA8d();
+                        for (int i = 0; i < batchRows; i++) store(chunk, isNA(nas, i) ? Double.NaN : data[i]);
+                        break;
+                    }
+                    case EXPECTED_STRING: {
+                        String[] data = ab.getAStr();
+                        for (int i = 0; i < batchRows; i++) chunk.addStr(isNA(nas, i) ? null : data[i]);
+                        break;
+                    }
+                    default:
+                        throw new IllegalArgumentException("Unsupported expected type in column batch: " + expectedTypes[typeIdx]);
+                }
+            }
+            currentRowIdx += batchRows;
+        }
+        ChunkUtils.closeNewChunks(nchnk);
+
+        AutoBuffer outputAb = new AutoBuffer();
+        outputAb.put1(ExternalFrameHandler.CONFIRM_WRITING_DONE);
+        writeToChannel(outputAb, sock);
+    }
+
     private static void storeVector(AutoBuffer ab, NewChunk[] nchnk, int maxVecSize, int startPos){
       boolean isSparse = ab.getZ();
       if(isSparse){
@@ -137,6 +217,14 @@ final class ExternalFrameWriterBackend {
         }
     }
 
+    private static void store(NewChunk chunk, byte[] nas, int row, long data){
+        if(isNA(nas, row)){
+            chunk.addNA();
+        }else{
+            chunk.addNum(data, 0);
+        }
+    }
+
     private static void store(NewChunk chunk, double data){
         if(isNA(data)){
             chunk.addNA();
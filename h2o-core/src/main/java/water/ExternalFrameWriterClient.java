@@ -5,7 +5,7 @@ import java.nio.channels.ByteChannel;
 import java.sql.Timestamp;
 import java.util.concurrent.*;
 
-import static water.ExternalFrameUtils.writeToChannel;
+import static water.ExternalFrameUtils.*;
 
 /**
  * <p>This class is used to create and write data to H2O Frames from non-H2O environments, such as Spark Executors.</p>
@@ -38,6 +38,20 @@ import static water.ExternalFrameUtils.writeToChannel;
  * </p>
  *
  * <p>
+ * Alternatively, the chunks can be created by {@code createColumnarChunks} and the data sent in batches of rows,
+ * each column of the batch as a single array of values. All columns of a batch are sent in a single write:
+ * <pre>{@code
+ * writer.createColumnarChunks("frameName", expectedTypes, chunkIdx, numOfRowsToBeWritten);
+ * writer.startBatch(3);
+ * writer.sendColumn(new byte[]{1, 0, 1}, null); // no NAs in the first column
+ * byte[] nas = ExternalFrameUtils.naBitmap(3);
+ * ExternalFrameUtils.setNA(nas, 2);
+ * writer.sendColumn(new int[]{657, 42, 0}, nas);
+ * }
+ * </pre>
+ * </p>
+ *
+ * <p>
  * And at the end we need to make sure to force to code wait for all data to be written
  * <pre>
  * {@code
@@ -53,6 +67,8 @@ final public class ExternalFrameWriterClient {
     private byte[] expectedTypes;
     // we discover the current column index based on number of data sent
     private int currentColIdx = 0;
+    // number of rows in the column batch being sent
+    private int batchRows = -1;
 
     /**
      * Initialize the External frame writer
@@ -85,6 +101,117 @@ final public class ExternalFrameWriterClient {
         writeToChannel(ab, channel);
     }
 
+    /**
+     * Create chunks on the h2o backend which are filled by column batches. Vectors can't be sent in column batches.
+     * @param frameKey name of the frame
+     * @param expectedTypes expected types
+     * @param chunkId chunk index
+     * @param totalNumRows total number of rows which is about to be sent
+     */
+    public void createColumnarChunks(String frameKey, byte[] expectedTypes, int chunkId, int totalNumRows) throws IOException {
+        for (byte expectedType : expectedTypes) {
+            if (expectedType == EXPECTED_VECTOR) {
+                throw new IllegalArgumentException("Vectors can't be sent in column batches.");
+            }
+        }
+        ab.put1(ExternalFrameHandler.INIT_BYTE);
+        ab.put1(ExternalFrameHandler.CREATE_FRAME_COLUMNAR);
+        ab.putStr(frameKey);
+        this.expectedTypes = expectedTypes;
+        ab.putA1(expectedTypes);
+        ab.putInt(totalNumRows);
+        ab.putInt(chunkId);
+        writeToChannel(ab, channel);
+    }
+
+    /**
+     * Start a new batch of rows, all the columns of the batch have to be sent (in order) before the next batch
+     * is started. The batch is sent to h2o once its last column is provided.
+     * @param numRows number of rows in the batch
+     */
+    public void startBatch(int numRows) {
+        if (currentColIdx != 0) {
+            throw new IllegalStateException("Previous batch is missing columns starting at column " + currentColIdx);
+        }
+        batchRows = numRows;
+        ab.putInt(numRows);
+    }
+
+    /**
+     * Send values of a boolean (0/1) or byte column of the current batch
+     * @param naBitmap bitmap of NA values (see {@link ExternalFrameUtils#naBitmap(int)}) or null if there are no NAs
+     */
+    public void sendColumn(byte[] data, byte[] naBitmap) throws IOException {
+        checkColumn(data.length, EXPECTED_BOOL, EXPECTED_BYTE);
+        ab.putA1(naBitmap);
+        ab.putA1(data);
+        finishColumn();
+    }
+
+    public void sendColumn(char[] data, byte[] naBitmap) throws IOException {
+        checkColumn(data.length, EXPECTED_CHAR, EXPECTED_CHAR);
+        ab.putA1(naBitmap);
+        ab.putInt(data.length);
+        for (char c : data) {
+            ab.put2(c);
+        }
+        finishColumn();
+    }
+
+    public void sendColumn(short[] data, byte[] naBitmap) throws IOException {
+        checkColumn(data.length, EXPECTED_SHORT, EXPECTED_SHORT);
+        ab.putA1(naBitmap);
+        ab.putA2(data);
+        finishColumn();
+    }
+
+    public void sendColumn(int[] data, byte[] naBitmap) throws IOException {
+        checkColumn(data.length, EXPECTED_INT, EXPECTED_INT);
+        ab.putA1(naBitmap);
+        ab.putA4(data);
+        finishColumn();
+    }
+
+    /**
+     * Send values of a long or timestamp (milliseconds since the epoch) column of the current batch
+     */
+    public void sendColumn(long[] data, byte[] naBitmap) throws IOException {
+        checkColumn(data.length, EXPECTED_LONG, EXPECTED_TIMESTAMP);
+        ab.putA1(naBitmap);
+        ab.putA8(data);
+        finishColumn();
+    }
+
+    /**
+     * Send values of a float column of the current batch, NaN values are stored as NA as well
+     */
+    public void sendColumn(float[] data, byte[] naBitmap) throws IOException {
+        checkColumn(data.length, EXPECTED_FLOAT, EXPECTED_FLOAT);
+        ab.putA1(naBitmap);
+        ab.putA4f(data);
+        finishColumn();
+    }
+
+    /**
+     * Send values of a double column of the current batch, NaN values are stored as NA as well
+     */
+    public void sendColumn(double[] data, byte[] naBitmap) throws IOException {
+        checkColumn(data.length, EXPECTED_DOUBLE, EXPECTED_DOUBLE);
+        ab.putA1(naBitmap);
+        ab.putA8d(data);
+        finishColumn();
+    }
+
+    /**
+     * Send values of a String column of the current batch, null values are stored as NA as well
+     */
+    public void sendColumn(String[] data, byte[] naBitmap) throws IOException {
+        checkColumn(data.length, EXPECTED_STRING, EXPECTED_STRING);
+        ab.putA1(naBitmap);
+        ab.putAStr(data);
+        finishColumn();
+    }
+
     public void sendBoolean(boolean data) throws IOException{
         ExternalFrameUtils.sendBoolean(ab, channel, data);
         increaseCurrentColIdx();
@@ -176,6 +303,23 @@ final public class ExternalFrameWriterClient {
         }
     }
 
+    private void checkColumn(int numRows, byte expectedType, byte altExpectedType) {
+        if (batchRows != numRows) {
+            throw new IllegalArgumentException("Column " + currentColIdx + " has " + numRows + " values, expected " + batchRows + ".");
+        }
+        byte type = expectedTypes[currentColIdx];
+        if (type != expectedType && type != altExpectedType) {
+            throw new IllegalArgumentException("Column " + currentColIdx + " of expected type " + type + " can't be sent as type " + expectedType + ".");
+        }
+    }
+
+    private void finishColumn() throws IOException {
+        increaseCurrentColIdx();
+        if (currentColIdx == 0) { // all the columns of the batch are ready
+            writeToChannel(ab, channel);
+        }
+    }
+
     private void increaseCurrentColIdx(){
         currentColIdx = (currentColIdx + 1) % expectedTypes.length;
     }
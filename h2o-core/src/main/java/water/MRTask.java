@@ -179,6 +179,12 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   /** If true, run entirely local - which will pull all the data locally. */
   protected boolean _run_local;
 
+  /** When doing a Frame, Chunks before this index are skipped (e.g. to process only newly appended Chunks). */
+  protected int chunkStart() { return 0; }
+
+  /** Load the following Chunks in the background while mapping a Chunk (see {@link ChunkPrefetcher}) */
+  transient private ChunkPrefetcher.Counters _prefetch; // null when not prefetching
+
   public String profString() { return _profile != null ? _profile.toString() : "Profiling turned off"; }
   MRProfile _profile;
 
@@ -241,6 +247,12 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     return new Frame(key,names,vecs);
   }
 
+  /** Override to leave out some of the Chunks: skipped Chunks are neither
+   *  loaded nor passed to map.  E.g. to process only a sample of the Chunks.
+   *  @param cidx index of the Chunk
+   *  @return true if the Chunk should be skipped */
+  protected boolean skipChunk(int cidx) { return false; }
+
   /** Override with your map implementation.  This overload is given a single
    *  <strong>local</strong> input Chunk.  It is meant for map/reduce jobs that use a
    *  single column in a input Frame.  All map variants are called, but only one is
@@ -539,9 +551,11 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     }
 
     if( _fr != null ) {                       // Doing a Frame
-      _lo = 0;  _hi = _fr.numCols()==0 ? 0 : _fr.anyVec().nChunks(); // Do All Chunks
+      _hi = _fr.numCols()==0 ? 0 : _fr.anyVec().nChunks(); // Do All Chunks
+      _lo = Math.min(chunkStart(), _hi);                    // ...unless asked to skip the leading ones
       // get the Vecs from the K/V store, to avoid racing fetches from the map calls
       _fr.vecs();
+      _prefetch = ChunkPrefetcher.isWorthwhile(this) ? new ChunkPrefetcher.Counters() : null;
     } else if( _keys != null ) {    // Else doing a set of Keys
       _lo = 0;  _hi = _keys.length; // Do All Keys
     }
@@ -604,11 +618,15 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       }
     } else if( _hi > _lo ) {    // Frame, Single chunk?
       Vec v0 = _fr.anyVec();
-      if( _run_local || v0.chunkKey(_lo).home() ) { // And chunk is homed here?
+      if( (_run_local || v0.chunkKey(_lo).home()) && !skipChunk(_lo) ) { // And chunk is homed here (and wanted)?
         assert(_run_local || !H2O.ARGS.client) : "Client node should not process any keys in MRTask!";
 
         // Make decompression chunk headers for these chunks
         Vec vecs[] = _fr.vecs();
+        if( _prefetch != null ) {
+          ChunkPrefetcher.prefetchAfter(this, _prefetch, vecs, _lo);
+          ChunkPrefetcher.await(_prefetch, vecs, _lo);
+        }
         Chunk bvs[] = new Chunk[vecs.length];
         NewChunk [] appendableChunks = null;
         for( int i=0; i<vecs.length; i++ )
@@ -706,6 +724,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   // Copy any final results into 'this', such that a return of 'this' has the results.
   private void postLocal0() {
     closeLocal();               // User's node-local cleanup
+    if( _prefetch != null ) ChunkPrefetcher.log(this, _prefetch);
     if(_profile!=null) _profile._closeLocalDone = System.currentTimeMillis();
     reduce3(_nleft);            // Reduce global results from neighbors.
     reduce3(_nrite);
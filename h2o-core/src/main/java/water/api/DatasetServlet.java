@@ -13,11 +13,15 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  */
 public class DatasetServlet extends HttpServlet {
 
+  // Rows are streamed straight to the client: a blocking write of the response applies backpressure to the rendering
+  private static final int BUFFER_SIZE = 64 * 1024;
+
   @Override
   protected void doGet(HttpServletRequest request, HttpServletResponse response) {
     String uri = JettyHTTPD.getDecodedUri(request);
@@ -25,6 +29,7 @@ public class DatasetServlet extends HttpServlet {
       boolean use_hex = false;
       String f_name = request.getParameter("frame_id");
       String hex_string = request.getParameter("hex_string");
+      boolean gzip = "gzip".equalsIgnoreCase(request.getParameter("compression"));
       if (f_name == null) {
         throw new RuntimeException("Cannot find value for parameter \'frame_id\'");
       }
@@ -46,14 +51,19 @@ public class DatasetServlet extends HttpServlet {
       String suggested_fname = f_name.substring(x + 1).replace(".hex", ".csv");
       if (!suggested_fname.endsWith(".csv"))
         suggested_fname = suggested_fname + ".csv";
+      if (gzip)
+        suggested_fname = suggested_fname + ".gz";
       f_name = suggested_fname;
       response.addHeader("Content-Disposition", "attachment; filename=" + f_name);
       JettyHTTPD.setResponseStatus(response, HttpServletResponse.SC_OK);
       OutputStream os = null;
       try {
         os = response.getOutputStream();
-        FileUtils.copyStream(is, os, 2048);
+        if (gzip)
+          os = new GZIPOutputStream(os, BUFFER_SIZE);
+        FileUtils.copyStream(is, os, BUFFER_SIZE);
       } finally {
+        FileUtils.close(is);
         if (os != null) {
           try {
             os.close();
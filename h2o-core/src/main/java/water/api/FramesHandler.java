@@ -4,7 +4,9 @@ import hex.Model;
 import water.*;
 import water.api.schemas3.*;
 import water.exceptions.*;
+import water.fvec.BinaryFrameFormat;
 import water.fvec.Frame;
+import water.fvec.FrameSnapshot;
 import water.fvec.Vec;
 import water.util.Log;
 import water.util.PrettyPrint;
@@ -17,6 +19,15 @@ import java.util.*;
  * GET /3/Frames/(?<frameid>.*)/export/(?<path>.*)/overwrite/(?<force>.*)
  * <p> export(): Export a Frame to the given path with optional overwrite.
  * <p>
+ * POST /3/Frames/(?<frameid>.*)/import_binary
+ * <p> importBinary(): Import a Frame exported in binary format.
+ * <p>
+ * POST /3/Frames/(?<frameid>.*)/save
+ * <p> save(): Save a snapshot of a Frame to the given directory.
+ * <p>
+ * POST /3/Frames/(?<frameid>.*)/load
+ * <p> load(): Load a Frame snapshot from the given directory.
+ * <p>
  * GET /3/Frames/(?<frameid>.*)/columns/(?<column>.*)/summary
  * <p> columnSummary(): Return the summary metrics for a column, e.g. mins, maxes, mean, sigma, percentiles, etc.
  * <p>
@@ -244,7 +255,35 @@ public class FramesHandler<I extends FramesHandler.Frames, S extends SchemaV3<I,
   public FramesV3 export(int version, FramesV3 s) {
     Frame fr = getFromDKV("key", s.frame_id.key());
     Log.info("ExportFiles processing (" + s.path + ")");
-    s.job = new JobV3(Frame.export(fr, s.path, s.frame_id.key().toString(), s.force, s.num_parts));
+    if (BinaryFrameFormat.FORMAT.equals(s.format))
+      s.job = new JobV3(BinaryFrameFormat.export(fr, s.path, s.frame_id.key().toString(), s.force));
+    else
+      s.job = new JobV3(Frame.export(fr, s.path, s.frame_id.key().toString(), s.force, s.num_parts, s.per_node_parts));
+    return s;
+  }
+
+  /** Import a frame exported in binary format from the specified path. */
+  @SuppressWarnings("unused") // called through reflection by RequestServer
+  public FramesV3 importBinary(int version, FramesV3 s) {
+    Log.info("ImportBinaryFrame processing (" + s.path + ")");
+    s.job = new JobV3(BinaryFrameFormat.importFrame(s.frame_id.key(), s.path));
+    return s;
+  }
+
+  /** Save a snapshot of a frame (its compressed chunks) to the specified directory. */
+  @SuppressWarnings("unused") // called through reflection by RequestServer
+  public FramesV3 save(int version, FramesV3 s) {
+    Frame fr = getFromDKV("key", s.frame_id.key());
+    Log.info("SaveFrame processing (" + s.path + ")");
+    s.job = new JobV3(FrameSnapshot.save(fr, s.path, s.force));
+    return s;
+  }
+
+  /** Load a frame snapshot from the specified directory. */
+  @SuppressWarnings("unused") // called through reflection by RequestServer
+  public FramesV3 load(int version, FramesV3 s) {
+    Log.info("LoadFrame processing (" + s.path + ")");
+    s.job = new JobV3(FrameSnapshot.load(s.frame_id.key(), s.path));
     return s;
   }
 
@@ -26,16 +26,23 @@ class ParseHandler extends Handler {
                                       parse.domains, parse.na_strings,
                                       null,
                                       new ParseWriter.ParseErr[0], parse.chunk_size,
-                                      parse.decrypt_tool != null ? parse.decrypt_tool.key() : null);
+                                      parse.decrypt_tool != null ? parse.decrypt_tool.key() : null)
+            .setIncrementalPublishFiles(parse.incremental_publish_files)
+            .setSinglePassCategoricals(parse.single_pass_categoricals)
+            .setSampling(parse.sample_fraction, parse.sample_seed)
+            .setMaxRowsPerFile(parse.max_rows_per_file);
 
     if (parse.source_frames == null) throw new H2OIllegalArgumentException("Data for Frame '" + parse.destination_frame.name + "' is not available. Please check that the path is valid (for all H2O nodes).'");
     Key[] srcs = new Key[parse.source_frames.length];
     for (int i = 0; i < parse.source_frames.length; i++)
       srcs[i] = parse.source_frames[i].key();
 
-    parse.job = new JobV3(ParseDataset.parse(
-        parse.destination_frame.key(), srcs, parse.delete_on_done, setup, parse.blocking
-        )._job);
+    ParseDataset pds = parse.append
+        ? ParseDataset.forkAppend(parse.destination_frame.key(), srcs, setup, parse.delete_on_done)
+        : ParseDataset.forkParseDataset(parse.destination_frame.key(), srcs, setup, parse.delete_on_done);
+    if (parse.blocking)
+      pds._job.get();
+    parse.job = new JobV3(pds._job);
     if (parse.blocking) {
       Frame fr = DKV.getGet(parse.destination_frame.key());
       parse.rows = fr.numRows();
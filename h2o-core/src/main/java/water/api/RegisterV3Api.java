@@ -148,6 +148,18 @@ public class RegisterV3Api extends AbstractRegister {
             "POST /3/Frames/{frame_id}/export", FramesHandler.class, "export",
             "Export a Frame to the given path with optional overwrite.");
 
+    context.registerEndpoint("importBinaryFrame",
+            "POST /3/Frames/{frame_id}/import_binary", FramesHandler.class, "importBinary",
+            "Import a Frame exported in binary format from the given path.");
+
+    context.registerEndpoint("saveFrame",
+            "POST /3/Frames/{frame_id}/save", FramesHandler.class, "save",
+            "Save a snapshot of a Frame (its compressed chunks) to the given directory.");
+
+    context.registerEndpoint("loadFrame",
+            "POST /3/Frames/{frame_id}/load", FramesHandler.class, "load",
+            "Load a Frame snapshot from the given directory.");
+
     context.registerEndpoint("frameColumnSummary",
             "GET /3/Frames/{frame_id}/columns/{column}/summary", FramesHandler.class, "columnSummary",
             "Return the summary metrics for a column, e.g. min, max, mean, sigma, percentiles, etc.");
@@ -13,6 +13,9 @@ public class DownloadDataV3 extends RequestSchemaV3<Iced, DownloadDataV3> {
   @API(help="Emit double values in a machine readable lossless format with Double.toHexString().")
   public boolean hex_string;
 
+  @API(help="Compression of the downloaded file (gzip), none if not specified", values={"none", "gzip"})
+  public String compression;
+
   // Output
   @API(help="CSV Stream", direction=API.Direction.OUTPUT)
   public String csv;
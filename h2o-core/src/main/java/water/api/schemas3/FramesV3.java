@@ -40,6 +40,12 @@ public class FramesV3 extends RequestSchemaV3<Frames, FramesV3> {
   @API(help="Number of part files to use (1=single file,-1=automatic)",json=false)
   public int num_parts = 1;
 
+  @API(help="Write one part file per node (in parallel, rows are not kept in order across the parts); num_parts is ignored",json=false)
+  public boolean per_node_parts = false;
+
+  @API(help="Format of the export: csv or binary (columnar, one part file per chunk)",json=false,values={"csv","binary"})
+  public String format = "csv";
+
   @API(help="Job for export file",direction=API.Direction.OUTPUT)
   public JobV3 job;
 
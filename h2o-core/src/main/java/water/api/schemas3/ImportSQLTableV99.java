@@ -28,4 +28,7 @@ public class ImportSQLTableV99 extends RequestSchemaV3<Iced,ImportSQLTableV99> {
   @API(help = "optimize")
   public boolean optimize = true;
 
+  @API(help = "numeric or date/time column to split the table into ranges read in parallel (no OFFSET paging)")
+  public String split_column = "";
+
 }
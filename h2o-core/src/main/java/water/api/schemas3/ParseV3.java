@@ -53,6 +53,30 @@ public class ParseV3 extends RequestSchemaV3<Iced, ParseV3> {
   @API(help="Key-reference to an initialized instance of a Decryption Tool")
   public KeyV3.DecryptionToolKeyV3 decrypt_tool;
 
+  @API(help="Publish the partially parsed frame (with provisional categorical domains) after every this many files; " +
+          "0 publishes the frame only once all files are parsed", level = API.Level.expert)
+  public int incremental_publish_files;
+
+  @API(help="Assign global categorical ids while parsing, this skips the pass renumbering the parsed chunks; " +
+          "categorical levels are ordered by first appearance instead of lexicographically (the order can differ " +
+          "between runs), the frame equals a regularly parsed one only up to the level order", level = API.Level.expert)
+  public boolean single_pass_categoricals;
+
+  @API(help="Append the parsed rows to the existing destination frame instead of replacing it; the files must have " +
+          "the same columns as the frame", level = API.Level.expert)
+  public boolean append;
+
+  @API(help="Parse only a random sample of chunks of each file, this fraction of the chunks is selected (0 or 1 parses " +
+          "all chunks); compressed files are always parsed whole", level = API.Level.expert)
+  public double sample_fraction;
+
+  @API(help="Seed of the chunk sample (-1 for a random seed, the seed used is recorded on the parsed frame)",
+          level = API.Level.expert)
+  public long sample_seed = -1;
+
+  @API(help="Parse only the first this many rows of each file (0 parses all rows)", level = API.Level.expert)
+  public long max_rows_per_file;
+
   // Output fields
   @API(help="Parse job", direction=API.Direction.OUTPUT)
   public JobV3 job;
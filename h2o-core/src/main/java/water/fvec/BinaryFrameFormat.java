@@ -0,0 +1,380 @@
+package water.fvec;
+
+import water.*;
+import water.exceptions.H2OIllegalArgumentException;
+import water.parser.BufferedString;
+import water.util.FileUtils;
+import water.util.Log;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Columnar binary export and import of Frames.
+ *
+ * Unlike the CSV export, values are stored in binary form (doubles and timestamps survive the round-trip exactly)
+ * and the re-import needs neither type guessing nor categorical unification - types and domains are part
+ * of the export. The export is a directory:
+ * <ul>
+ *   <li>{@code part-c-NNNNN}: one file per Chunk, written by the home node of the Chunk; the columns of the Chunk
+ *   are stored one after another, each of them Deflate-compressed on its own</li>
+ *   <li>{@code frame.meta}: column names, types, domains and the number of rows of each Chunk; written last,
+ *   once all the parts are complete</li>
+ * </ul>
+ * The import restores the Chunk layout of the exported Frame, each Chunk is read on its home node.
+ */
+public class BinaryFrameFormat {
+  public static final String FORMAT = "binary";
+  static final String META_FILE = "frame.meta";
+  private static final int MAGIC = 0x48324f43; // "H2OC"
+  private static final int VERSION = 1;
+  // Encodings of numeric columns
+  private static final byte ENC_LONG = 0;
+  private static final byte ENC_DOUBLE = 1;
+
+  private static final String PART_PREFIX = "part-c-";
+
+  /**
+   * Exports a Frame to the given directory, each node writes the parts of its home Chunks.
+   * @param overwrite if true, an existing export in the directory is overwritten, otherwise the directory needs to be empty
+   */
+  public static Job export(Frame fr, String path, String frameName, boolean overwrite) {
+    if (!overwrite && !H2O.getPM().isEmptyDirectoryAllNodes(path))
+      throw new H2OIllegalArgumentException(path, "exportFrame", "Cannot use path " + path +
+              " to store the binary export! The target needs to be either an existing empty directory or not exist yet.");
+    Job job = new Job<>(fr._key, "water.fvec.Frame", "Export dataset");
+    return job.start(new ExportDriver(fr, path, frameName, overwrite, job), fr.anyVec().nChunks());
+  }
+
+  /**
+   * Imports a Frame previously exported by {@link #export(Frame, String, String, boolean)}.
+   */
+  public static Job<Frame> importFrame(Key<Frame> dest, String path) {
+    Job<Frame> job = new Job<>(dest, Frame.class.getName(), "Import binary frame");
+    Metadata meta = Metadata.read(path);
+    return job.start(new ImportDriver(dest, path, meta, job), meta._chunkLens.length);
+  }
+
+  private static class ExportDriver extends ChunkFiles.WriteDriver<ExportDriver> {
+    final String _path;
+    final String _frameName;
+    final boolean _overwrite;
+
+    ExportDriver(Frame frame, String path, String frameName, boolean overwrite, Job j) {
+      super(frame, j);
+      _path = path;
+      _frameName = frameName;
+      _overwrite = overwrite;
+    }
+
+    @Override
+    ChunkFiles.WriteChunksTask chunksTask() {
+      return new ExportChunksTask(_path, _overwrite, _j);
+    }
+
+    @Override
+    void writeMetadata() {
+      new Metadata(_frame).write(_path + "/" + META_FILE, _overwrite);
+      Log.info("Exported key '" + _frameName + "' in binary format to " + _path + ".");
+    }
+  }
+
+  private static class ExportChunksTask extends ChunkFiles.WriteChunksTask<ExportChunksTask> {
+    ExportChunksTask(String path, boolean overwrite, Job j) {
+      super(path, PART_PREFIX, overwrite, j);
+    }
+
+    @Override
+    void writeChunks(Chunk[] cs, OutputStream os) throws IOException {
+      BinaryFrameFormat.writeChunks(cs, os);
+    }
+  }
+
+  private static class ImportDriver extends H2O.H2OCountedCompleter<ImportDriver> {
+    final Key<Frame> _dest;
+    final String _path;
+    final Metadata _meta;
+    final Job<Frame> _j;
+
+    ImportDriver(Key<Frame> dest, String path, Metadata meta, Job<Frame> j) {
+      _dest = dest;
+      _path = path;
+      _meta = meta;
+      _j = j;
+    }
+
+    @Override
+    public void compute2() {
+      // Empty Vecs with the layout of the exported Frame, the Chunks are replaced by the content of the parts
+      long[] espc = new long[_meta._chunkLens.length + 1];
+      for (int i = 0; i < _meta._chunkLens.length; i++)
+        espc[i + 1] = espc[i] + _meta._chunkLens[i];
+      Vec.VectorGroup vg = new Vec.VectorGroup();
+      int rowLayout = Vec.ESPC.rowLayout(vg._key, espc);
+      Frame fr = new Frame(_dest, _meta._names,
+              new Vec(vg.addVec(), rowLayout).makeCons(_meta._names.length, 0L, _meta._domains, _meta._types));
+      fr.delete_and_lock(_j);
+      try {
+        new ImportChunksTask(_path, _j).doAll(fr);
+        if (_j.stop_requested()) throw new Job.JobCancelledException();
+      } catch (RuntimeException e) {
+        fr.delete(_j._key, new Futures()).blockForPending();
+        throw e;
+      }
+      fr.update(_j);
+      fr.unlock(_j);
+      tryComplete();
+    }
+  }
+
+  private static class ImportChunksTask extends MRTask<ImportChunksTask> {
+    final String _path;
+    final Job _j;
+
+    ImportChunksTask(String path, Job j) {
+      _path = path;
+      _j = j;
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      if (_j.stop_requested()) return;
+      InputStream is = null;
+      try {
+        is = H2O.getPM().open(ChunkFiles.chunkPath(_path, PART_PREFIX, cs[0].cidx()));
+        NewChunk[] ncs = readChunks(cs, is);
+        for (NewChunk nc : ncs) nc.close(_fs);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      } finally {
+        FileUtils.close(is);
+      }
+      _j.update(1);
+    }
+  }
+
+  // ------------------------------------------------------------------------
+  // Chunk encoding
+
+  static void writeChunks(Chunk[] cs, OutputStream os) throws IOException {
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+    out.writeInt(MAGIC);
+    out.writeInt(cs[0]._len);
+    out.writeInt(cs.length);
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    for (Chunk c : cs) {
+      bos.reset();
+      DataOutputStream col = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(bos)));
+      writeColumn(c, col);
+      col.close();
+      out.writeInt(bos.size());
+      bos.writeTo(out);
+    }
+    out.flush();
+  }
+
+  private static void writeColumn(Chunk c, DataOutputStream out) throws IOException {
+    final int len = c._len;
+    switch (c.vec().get_type()) {
+      case Vec.T_BAD:
+        break; // all NAs, nothing to store
+      case Vec.T_NUM:
+        if (c.hasFloat()) {
+          out.writeByte(ENC_DOUBLE);
+          for (int i = 0; i < len; i++) out.writeDouble(c.atd(i)); // NA is NaN
+          break;
+        }
+        out.writeByte(ENC_LONG);
+        // fall through
+      case Vec.T_TIME:
+        for (int i = 0; i < len; i++) {
+          boolean na = c.isNA(i);
+          out.writeBoolean(na);
+          if (!na) out.writeLong(c.at8(i));
+        }
+        break;
+      case Vec.T_CAT:
+        for (int i = 0; i < len; i++) out.writeInt(c.isNA(i) ? -1 : (int) c.at8(i));
+        break;
+      case Vec.T_STR:
+        BufferedString tmp = new BufferedString();
+        for (int i = 0; i < len; i++) {
+          BufferedString s = c.atStr(tmp, i);
+          if (s == null) out.writeInt(-1);
+          else {
+            out.writeInt(s.length());
+            out.write(s.getBuffer(), s.getOffset(), s.length());
+          }
+        }
+        break;
+      case Vec.T_UUID:
+        for (int i = 0; i < len; i++) {
+          boolean na = c.isNA(i);
+          out.writeBoolean(na);
+          if (!na) {
+            out.writeLong(c.at16l(i));
+            out.writeLong(c.at16h(i));
+          }
+        }
+        break;
+      default:
+        throw H2O.unimpl("Binary export of column type " + c.vec().get_type_str());
+    }
+  }
+
+  static NewChunk[] readChunks(Chunk[] cs, InputStream is) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(is));
+    if (in.readInt() != MAGIC)
+      throw new IOException("Chunk " + cs[0].cidx() + " is not stored in H2O binary format.");
+    int len = in.readInt();
+    if (len != cs[0]._len || in.readInt() != cs.length)
+      throw new IOException("Chunk " + cs[0].cidx() + " doesn't match the metadata of the binary export.");
+    NewChunk[] ncs = new NewChunk[cs.length];
+    for (int c = 0; c < cs.length; c++) {
+      byte[] bits = new byte[in.readInt()];
+      in.readFully(bits);
+      DataInputStream col = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new ByteArrayInputStream(bits))));
+      readColumn(cs[c].vec().get_type(), col, ncs[c] = new NewChunk(cs[c]), len);
+    }
+    return ncs;
+  }
+
+  private static void readColumn(byte type, DataInputStream in, NewChunk nc, int len) throws IOException {
+    switch (type) {
+      case Vec.T_BAD:
+        nc.addNAs(len);
+        break;
+      case Vec.T_NUM:
+        if (in.readByte() == ENC_DOUBLE) {
+          for (int i = 0; i < len; i++) {
+            double d = in.readDouble();
+            if (Double.isNaN(d)) nc.addNA();
+            else nc.addNum(d);
+          }
+          break;
+        }
+        // fall through
+      case Vec.T_TIME:
+        for (int i = 0; i < len; i++) {
+          if (in.readBoolean()) nc.addNA();
+          else nc.addNum(in.readLong(), 0);
+        }
+        break;
+      case Vec.T_CAT:
+        for (int i = 0; i < len; i++) {
+          int id = in.readInt();
+          if (id < 0) nc.addNA();
+          else nc.addNum(id, 0);
+        }
+        break;
+      case Vec.T_STR:
+        for (int i = 0; i < len; i++) {
+          int n = in.readInt();
+          if (n < 0) nc.addNA();
+          else {
+            byte[] bytes = new byte[n];
+            in.readFully(bytes);
+            nc.addStr(new BufferedString(bytes));
+          }
+        }
+        break;
+      case Vec.T_UUID:
+        for (int i = 0; i < len; i++) {
+          if (in.readBoolean()) nc.addNA();
+          else nc.addUUID(in.readLong(), in.readLong());
+        }
+        break;
+      default:
+        throw H2O.unimpl("Binary import of column type " + type);
+    }
+  }
+
+  // ------------------------------------------------------------------------
+  // Frame metadata
+
+  static class Metadata {
+    final String[] _names;
+    final byte[] _types;
+    final String[][] _domains;
+    final long[] _chunkLens;
+
+    Metadata(Frame fr) {
+      _names = fr.names();
+      _types = fr.types();
+      _domains = fr.domains();
+      Vec v = fr.anyVec();
+      _chunkLens = new long[v.nChunks()];
+      for (int i = 0; i < _chunkLens.length; i++)
+        _chunkLens[i] = v.chunkLen(i);
+    }
+
+    private Metadata(String[] names, byte[] types, String[][] domains, long[] chunkLens) {
+      _names = names;
+      _types = types;
+      _domains = domains;
+      _chunkLens = chunkLens;
+    }
+
+    void write(String file, boolean overwrite) {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(H2O.getPM().create(file, overwrite)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(_names.length);
+        for (int i = 0; i < _names.length; i++) {
+          writeString(out, _names[i]);
+          out.writeByte(_types[i]);
+          String[] domain = _domains[i];
+          out.writeInt(domain == null ? -1 : domain.length);
+          if (domain != null)
+            for (String level : domain) writeString(out, level);
+        }
+        out.writeInt(_chunkLens.length);
+        for (long len : _chunkLens) out.writeLong(len);
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to write metadata of the binary export to " + file, e);
+      }
+    }
+
+    static Metadata read(String path) {
+      String file = path + "/" + META_FILE;
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+              ChunkFiles.openMetadata(path, META_FILE, "importBinaryFrame", "binary export of a Frame")))) {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION)
+          throw new H2OIllegalArgumentException(path, "importBinaryFrame", "Unsupported binary export in " + path + ".");
+        int ncols = in.readInt();
+        String[] names = new String[ncols];
+        byte[] types = new byte[ncols];
+        String[][] domains = new String[ncols][];
+        for (int i = 0; i < ncols; i++) {
+          names[i] = readString(in);
+          types[i] = in.readByte();
+          int n = in.readInt();
+          if (n >= 0) {
+            domains[i] = new String[n];
+            for (int j = 0; j < n; j++) domains[i][j] = readString(in);
+          }
+        }
+        long[] chunkLens = new long[in.readInt()];
+        for (int i = 0; i < chunkLens.length; i++) chunkLens[i] = in.readLong();
+        return new Metadata(names, types, domains, chunkLens);
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to read metadata of the binary export from " + file, e);
+      }
+    }
+
+    // Unlike writeUTF, strings are not limited to 64kB
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+      byte[] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
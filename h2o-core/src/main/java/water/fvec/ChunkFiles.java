@@ -0,0 +1,127 @@
+package water.fvec;
+
+import jsr166y.CountedCompleter;
+import water.*;
+import water.exceptions.H2OIllegalArgumentException;
+import water.util.FileUtils;
+import water.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Frames stored in a directory with one file per Chunk index (written and read by the home node of the Chunks)
+ * and a metadata file, written last: a directory without the metadata is not complete.
+ * Shared by {@link BinaryFrameFormat} and {@link FrameSnapshot}, which only differ in the encoding of the files.
+ */
+final class ChunkFiles {
+
+  private ChunkFiles() {}
+
+  static String chunkPath(String path, String prefix, int cidx) {
+    return path + "/" + prefix + String.valueOf(100000 + cidx).substring(1);
+  }
+
+  /**
+   * Opens the metadata file of a directory.
+   * @throws H2OIllegalArgumentException if the directory has no metadata (ie. it is not complete)
+   */
+  static InputStream openMetadata(String path, String metaFile, String method, String what) {
+    String file = path + "/" + metaFile;
+    if (!H2O.getPM().exists(file))
+      throw new H2OIllegalArgumentException(path, method, "Path " + path +
+              " doesn't contain a complete " + what + " (missing " + metaFile + ").");
+    return H2O.getPM().open(file);
+  }
+
+  /**
+   * Writes a Frame to a directory: the Chunk files first, then the metadata. The Frame is read-locked while it is
+   * being written.
+   */
+  static abstract class WriteDriver<T extends WriteDriver<T>> extends H2O.H2OCountedCompleter<T> {
+    final Frame _frame;
+    final Job _j;
+    private transient boolean _locked;
+
+    WriteDriver(Frame frame, Job j) {
+      _frame = frame;
+      _j = j;
+    }
+
+    /** Task writing the Chunk files */
+    abstract WriteChunksTask chunksTask();
+
+    /** Writes the metadata, once all the Chunk files are stored */
+    abstract void writeMetadata();
+
+    @Override
+    public void compute2() {
+      _frame.read_lock(_j._key);
+      _locked = true;
+      chunksTask().doAll(_frame);
+      if (_j.stop_requested()) throw new Job.JobCancelledException();
+      writeMetadata();
+      tryComplete();
+    }
+
+    @Override
+    public void onCompletion(CountedCompleter caller) {
+      unlock();
+    }
+
+    @Override
+    public boolean onExceptionalCompletion(Throwable t, CountedCompleter caller) {
+      unlock();
+      return super.onExceptionalCompletion(t, caller);
+    }
+
+    private void unlock() {
+      if (_locked) {
+        _locked = false;
+        _frame.unlock(_j);
+      }
+    }
+  }
+
+  /**
+   * Writes one file per Chunk index, each file is written by the home node of the Chunks.
+   */
+  static abstract class WriteChunksTask<T extends WriteChunksTask<T>> extends MRTask<T> {
+    final String _path;
+    final String _prefix;
+    final boolean _overwrite;
+    final Job _j;
+
+    WriteChunksTask(String path, String prefix, boolean overwrite, Job j) {
+      _path = path;
+      _prefix = prefix;
+      _overwrite = overwrite;
+      _j = j;
+    }
+
+    /** Writes the Chunks with the same index to the file */
+    abstract void writeChunks(Chunk[] cs, OutputStream os) throws IOException;
+
+    @Override
+    protected void setupLocal() {
+      boolean created = H2O.getPM().mkdirs(_path);
+      if (! created) Log.warn("Path ", _path, " was not created.");
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      if (_j.stop_requested()) return;
+      OutputStream os = null;
+      try {
+        os = H2O.getPM().create(chunkPath(_path, _prefix, cs[0].cidx()), _overwrite);
+        writeChunks(cs, os);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      } finally {
+        FileUtils.close(os);
+      }
+      _j.update(1);
+    }
+  }
+}
@@ -29,6 +29,10 @@ public abstract class FileVec extends ByteVec {
   public static final int DFLT_CHUNK_SIZE = 1 << DFLT_LOG2_CHUNK_SIZE;
   public int _chunkSize = DFLT_CHUNK_SIZE;
   public int _nChunks = -1;
+  String _contentVersion;       // Version of the file content at import (ETag, modification time), null if unknown
+
+  /** Version of the file content at the time of the import, the persist cache only reuses entries of this version */
+  public String getContentVersion() { return _contentVersion; }
 
   protected FileVec(Key key, long len, byte be) {
     super(key,-1/*no rowLayout*/);
@@ -7,6 +7,7 @@ import water.api.FramesHandler;
 import water.api.schemas3.KeyV3;
 import water.exceptions.H2OIllegalArgumentException;
 import water.parser.BufferedString;
+import water.parser.ParseSampling;
 import water.rapids.Merge;
 import water.util.*;
 
@@ -69,6 +70,8 @@ public class Frame extends Lockable<Frame> {
   private Key<Vec>[] _keys;     // Keys for the vectors
   private transient Vec[] _vecs; // The Vectors (transient to avoid network traffic)
   private transient Vec _col0; // First readable vec; fast access to the VectorGroup's Chunk layout
+  /** How the input data was sampled when parsed, null if the Frame holds all of the parsed data */
+  public ParseSampling _parse_sampling;
 
   /**
    * Given a temp Frame and a base Frame from which it was created, delete the
@@ -1431,7 +1434,16 @@ public class Frame extends Lockable<Frame> {
   }
 
   public static Job export(Frame fr, String path, String frameName, boolean overwrite, int nParts) {
-    boolean forceSingle = nParts == 1;
+    return export(fr, path, frameName, overwrite, nParts, false);
+  }
+
+  /**
+   * Exports the Frame to CSV file(s).
+   * @param nParts number of part files (1 = single file, -1 = automatic)
+   * @param perNode if true, each node writes its own part file in parallel with the other nodes (nParts is ignored)
+   */
+  public static Job export(Frame fr, String path, String frameName, boolean overwrite, int nParts, boolean perNode) {
+    boolean forceSingle = nParts == 1 && !perNode;
     // Validate input
     if (forceSingle) {
       boolean fileExists = H2O.getPM().exists(path);
@@ -1447,7 +1459,7 @@ public class Frame extends Lockable<Frame> {
       }
     }
     Job job =  new Job<>(fr._key, "water.fvec.Frame", "Export dataset");
-    FrameUtils.ExportTaskDriver t = new FrameUtils.ExportTaskDriver(fr, path, frameName, overwrite, job, nParts);
+    FrameUtils.ExportTaskDriver t = new FrameUtils.ExportTaskDriver(fr, path, frameName, overwrite, job, nParts, perNode);
     return job.start(t, fr.anyVec().nChunks());
   }
 
@@ -1462,13 +1474,26 @@ public class Frame extends Lockable<Frame> {
     return new CSVStream(this, headers, hex_string);
   }
 
+  /**
+   * Renders the rows of the Frame as CSV. Rows are rendered in blocks of roughly {@link #BLOCK_SIZE} characters, the
+   * memory needed does not depend on the size of the Frame: remote Chunks are fetched at most
+   * {@link #PREFETCH_WINDOW} rows of Chunks ahead of the Chunks being rendered and dropped from the local cache once
+   * rendered.
+   */
   public static class CSVStream extends InputStream {
+    static final int BLOCK_SIZE = 64 * 1024;
+    static final int PREFETCH_WINDOW = 2;
     private final boolean _hex_string;
+    private final StringBuilder _sb = new StringBuilder();
+    private final BufferedString _tmpStr = new BufferedString();
     byte[] _line;
     int _position;
     int _chkRow;
+    int _rowSize; // size of the first row of the current block
     Chunk[] _curChks;
     int _lastChkIdx;
+    int _prefetchedChkIdx; // remote Chunks up to this index are being fetched
+    boolean _done;
     public volatile int _curChkIdx; // used only for progress reporting
 
     public CSVStream(Frame fr, boolean headers, boolean hex_string) {
@@ -1501,17 +1526,19 @@ public class Frame extends Lockable<Frame> {
       _line = StringUtils.bytesOf(sb);
       _chkRow = -1; // first process the header line
       _curChks = chks;
+      if (chks != null) {
+        _prefetchedChkIdx = chks[0].cidx();
+        prefetchAhead(chks[0].cidx());
+      }
     }
 
     public int getCurrentRowSize() throws IOException {
       int av = available();
       assert av > 0;
-      return _line.length;
+      return _rowSize;
     }
 
-    byte[] getBytesForRow() {
-      StringBuilder sb = new StringBuilder();
-      BufferedString tmpStr = new BufferedString();
+    void appendRow(StringBuilder sb) {
       for (int i = 0; i < _curChks.length; i++ ) {
         Vec v = _curChks[i]._vec;
         if(i > 0) sb.append(',');
@@ -1519,7 +1546,7 @@ public class Frame extends Lockable<Frame> {
           if( v.isCategorical() ) sb.append('"').append(v.factor(_curChks[i].at8(_chkRow))).append('"');
           else if( v.isUUID() ) sb.append(PrettyPrint.UUID(_curChks[i].at16l(_chkRow), _curChks[i].at16h(_chkRow)));
           else if( v.isInt() ) sb.append(_curChks[i].at8(_chkRow));
-          else if (v.isString()) sb.append('"').append(_curChks[i].atStr(tmpStr, _chkRow)).append('"');
+          else if (v.isString()) sb.append('"').append(_curChks[i].atStr(_tmpStr, _chkRow)).append('"');
           else {
             double d = _curChks[i].atd(_chkRow);
             // R 3.1 unfortunately changed the behavior of read.csv().
@@ -1537,63 +1564,99 @@ public class Frame extends Lockable<Frame> {
         }
       }
       sb.append('\n');
-      return StringUtils.bytesOf(sb);
     }
 
     @Override public int available() throws IOException {
-      // Case 1:  There is more data left to read from the current line.
+      // Case 1:  There is more data left to read from the current block.
       if (_position != _line.length) {
         return _line.length - _position;
       }
 
       // Case 2:  There are no chunks to work with (eg. the whole Frame was empty).
-      if (_curChks == null) {
+      if (_curChks == null || _done) {
         return 0;
       }
 
+      // Case 3:  Render the next block of rows (the builder is reused, only the bytes of the block are allocated)
+      _sb.setLength(0);
+      _rowSize = -1;
+      while (_sb.length() < BLOCK_SIZE && nextRow()) {
+        int start = _sb.length();
+        appendRow(_sb);
+        if (_rowSize < 0) _rowSize = _sb.length() - start;
+      }
+      _line = StringUtils.bytesOf(_sb);
+      _position = 0;
+
+      return _line.length;
+    }
+
+    // Moves to the next row, returns false when out of data
+    private boolean nextRow() {
       _chkRow++;
       Chunk anyChunk = _curChks[0];
 
-      // Case 3:  Out of data.
+      // Out of data.
       if (anyChunk._start + _chkRow == anyChunk._vec.length()) {
-        return 0;
+        _done = true;
+        return false;
       }
 
-      // Case 4:  Out of data in the current chunks => fast-forward to the next set of non-empty chunks.
+      // Out of data in the current chunks => fast-forward to the next set of non-empty chunks.
       if (_chkRow == anyChunk.len()) {
         _curChkIdx = anyChunk._vec.elem2ChunkIdx(anyChunk._start + _chkRow); // skips empty chunks
-        // Case 4:  Processed all requested chunks.
+        // Processed all requested chunks.
         if (_curChkIdx > _lastChkIdx) {
-          return 0;
+          _done = true;
+          return false;
         }
+        prefetchAhead(_curChkIdx);
         // fetch the next non-empty chunks
         Chunk[] newChks = new Chunk[_curChks.length];
         for (int i = 0; i < _curChks.length; i++) {
           newChks[i] = _curChks[i]._vec.chunkForChunkIdx(_curChkIdx);
           // flush the remote chunk
-          Key oldKey = _curChks[i]._vec.chunkKey(_curChks[i]._cidx);
-          if (! oldKey.home()) {
-            H2O.raw_remove(oldKey);
-          }
+          flushRemote(_curChks[i]._vec, _curChks[i]._cidx);
         }
         _curChks = newChks;
         _chkRow = 0;
       }
+      return true;
+    }
 
-      // Case 5:  Return data for the current row.
-      _line = getBytesForRow();
-      _position = 0;
+    // Starts fetching the remote Chunks of the rows of Chunks following the given index
+    private void prefetchAhead(int cidx) {
+      int last = Math.min(cidx + PREFETCH_WINDOW, _lastChkIdx);
+      for (int c = Math.max(_prefetchedChkIdx, cidx) + 1; c <= last; c++) {
+        for (Chunk chk : _curChks) {
+          Key k = chk._vec.chunkKey(c);
+          if (! k.home()) DKV.prefetch(k);
+        }
+        _prefetchedChkIdx = c;
+      }
+    }
 
-      return _line.length;
+    private static void flushRemote(Vec v, int cidx) {
+      Key k = v.chunkKey(cidx);
+      if (! k.home()) {
+        H2O.raw_remove(k);
+      }
     }
 
     @Override public void close() throws IOException {
       super.close();
+      // drop the remote chunks cached by this stream (the current ones and the prefetched ones)
+      if (_curChks != null) {
+        for (int c = _curChks[0]._cidx; c <= _prefetchedChkIdx; c++)
+          for (Chunk chk : _curChks)
+            flushRemote(chk._vec, c);
+        _curChks = null;
+      }
       _line = null;
     }
 
     @Override public int read() throws IOException {
-      return available() == 0 ? -1 : _line[_position++];
+      return available() == 0 ? -1 : _line[_position++] & 0xFF;
     }
 
     @Override public int read(byte[] b, int off, int len) throws IOException {
@@ -0,0 +1,226 @@
+package water.fvec;
+
+import water.*;
+import water.exceptions.H2OIllegalArgumentException;
+import water.util.FileUtils;
+import water.util.Log;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Snapshot of a Frame in its in-memory form: the already compressed Chunks are written as they are, and loaded
+ * straight back into the DKV, no parsing (nor re-compression) is involved. Loading a snapshot is I/O-bound.
+ *
+ * A snapshot is a directory (on any filesystem supported by the {@link water.persist.PersistManager}):
+ * <ul>
+ *   <li>{@code chunks-NNNNN}: Chunks of all the columns with the given Chunk index, written by the home node
+ *   of the Chunks and loaded on the home node of the Chunks in the loading cloud</li>
+ *   <li>{@code snapshot.meta}: column names, types, domains, Chunk layout and the roll-up statistics known
+ *   at the time of the save; written last, once all the Chunks are stored</li>
+ * </ul>
+ * Same as binary models, snapshots are meant to be loaded by the same version of H2O that saved them.
+ */
+public class FrameSnapshot {
+  static final String META_FILE = "snapshot.meta";
+
+  private static final String CHUNKS_PREFIX = "chunks-";
+
+  /**
+   * Saves a snapshot of the Frame to the given directory, each node writes its home Chunks.
+   * @param overwrite if true, an existing snapshot in the directory is overwritten, otherwise the directory needs to be empty
+   */
+  public static Job save(Frame fr, String path, boolean overwrite) {
+    if (!overwrite && !H2O.getPM().isEmptyDirectoryAllNodes(path))
+      throw new H2OIllegalArgumentException(path, "saveFrame", "Cannot use path " + path +
+              " to store the snapshot! The target needs to be either an existing empty directory or not exist yet.");
+    Job job = new Job<>(fr._key, "water.fvec.Frame", "Save frame snapshot");
+    return job.start(new SaveDriver(fr, path, overwrite, job), fr.anyVec().nChunks());
+  }
+
+  /**
+   * Loads a Frame snapshot saved by {@link #save(Frame, String, boolean)}, the loaded Frame has the Chunk layout
+   * of the saved Frame.
+   */
+  public static Job<Frame> load(Key<Frame> dest, String path) {
+    Metadata meta = readMetadata(path);
+    Job<Frame> job = new Job<>(dest, Frame.class.getName(), "Load frame snapshot");
+    return job.start(new LoadDriver(dest, path, meta, job), meta._espc.length - 1);
+  }
+
+  private static class SaveDriver extends ChunkFiles.WriteDriver<SaveDriver> {
+    final String _path;
+    final boolean _overwrite;
+
+    SaveDriver(Frame frame, String path, boolean overwrite, Job j) {
+      super(frame, j);
+      _path = path;
+      _overwrite = overwrite;
+    }
+
+    @Override
+    ChunkFiles.WriteChunksTask chunksTask() {
+      return new SaveChunksTask(_path, _overwrite, _j);
+    }
+
+    @Override
+    void writeMetadata() {
+      FrameSnapshot.writeMetadata(new Metadata(_frame), _path, _overwrite);
+      Log.info("Saved snapshot of frame '" + _frame._key + "' to " + _path + ".");
+    }
+  }
+
+  private static class SaveChunksTask extends ChunkFiles.WriteChunksTask<SaveChunksTask> {
+    SaveChunksTask(String path, boolean overwrite, Job j) {
+      super(path, CHUNKS_PREFIX, overwrite, j);
+    }
+
+    @Override
+    void writeChunks(Chunk[] cs, OutputStream os) {
+      AutoBuffer ab = new AutoBuffer(os, false);
+      ab.put4(cs.length);
+      for (Chunk c : cs) { // compressed bytes of the Chunk, as stored in the DKV
+        Chunk stored = storedChunk(c);
+        ab.putStr(stored.getClass().getName());
+        ab.putA1(stored.asBytes());
+      }
+      ab.close();
+    }
+
+    // Chunks of wrapped Vecs (eg. adapted categoricals) only exist on the fly, they are materialized
+    private static Chunk storedChunk(Chunk c) {
+      if (c.vec().getClass() == Vec.class) return c;
+      NewChunk nc = new NewChunk(c);
+      c.extractRows(nc, 0, c._len);
+      return nc.compress();
+    }
+  }
+
+  private static class LoadDriver extends H2O.H2OCountedCompleter<LoadDriver> {
+    final Key<Frame> _dest;
+    final String _path;
+    final Metadata _meta;
+    final Job<Frame> _j;
+
+    LoadDriver(Key<Frame> dest, String path, Metadata meta, Job<Frame> j) {
+      _dest = dest;
+      _path = path;
+      _meta = meta;
+      _j = j;
+    }
+
+    @Override
+    public void compute2() {
+      Vec.VectorGroup vg = new Vec.VectorGroup();
+      int rowLayout = Vec.ESPC.rowLayout(vg._key, _meta._espc);
+      Key<Vec>[] keys = vg.addVecs(_meta._names.length);
+      Vec[] vecs = new Vec[keys.length];
+      for (int i = 0; i < vecs.length; i++)
+        vecs[i] = new Vec(keys[i], rowLayout, _meta._domains[i], _meta._types[i]);
+      // Chunks are loaded on their home nodes
+      Key[] chunkKeys = new Key[_meta._espc.length - 1];
+      for (int cidx = 0; cidx < chunkKeys.length; cidx++)
+        chunkKeys[cidx] = vecs[0].chunkKey(cidx);
+      try {
+        new LoadChunksTask(_path, keys, _j).doAll(chunkKeys);
+        if (_j.stop_requested()) throw new Job.JobCancelledException();
+      } catch (RuntimeException e) {
+        Futures fs = new Futures();
+        for (Key<Vec> k : keys)
+          for (int cidx = 0; cidx < chunkKeys.length; cidx++)
+            DKV.remove(Vec.chunkKey(k, cidx), fs);
+        fs.blockForPending();
+        throw e;
+      }
+      Futures fs = new Futures();
+      for (int i = 0; i < vecs.length; i++) {
+        DKV.put(vecs[i], fs); // Header last
+        if (_meta._rollups[i] != null) DKV.put(vecs[i].rollupStatsKey(), _meta._rollups[i], fs);
+      }
+      fs.blockForPending();
+      Frame fr = new Frame(_dest, _meta._names, vecs);
+      fr.delete_and_lock(_j);
+      fr.update(_j);
+      fr.unlock(_j);
+      tryComplete();
+    }
+  }
+
+  private static class LoadChunksTask extends MRTask<LoadChunksTask> {
+    final String _path;
+    final Key<Vec>[] _vecKeys;
+    final Job _j;
+
+    LoadChunksTask(String path, Key<Vec>[] vecKeys, Job j) {
+      _path = path;
+      _vecKeys = vecKeys;
+      _j = j;
+    }
+
+    @Override
+    public void map(Key key) {
+      if (_j.stop_requested()) return;
+      final int cidx = _lo; // keys are the first-column Chunk keys, in Chunk order
+      InputStream is = null;
+      try {
+        is = H2O.getPM().open(ChunkFiles.chunkPath(_path, CHUNKS_PREFIX, cidx));
+        AutoBuffer ab = new AutoBuffer(is);
+        if (ab.get4() != _vecKeys.length)
+          throw new IllegalStateException("Chunks " + cidx + " don't match the metadata of the snapshot in " + _path + ".");
+        for (Key<Vec> vecKey : _vecKeys) {
+          Chunk c = (Chunk) TypeMap.newFreezable(ab.getStr());
+          DKV.put(Vec.chunkKey(vecKey, cidx), c.reloadFromBytes(ab.getA1()), _fs);
+        }
+        ab.close();
+      } finally {
+        FileUtils.close(is);
+      }
+      _j.update(1);
+    }
+  }
+
+  // ------------------------------------------------------------------------
+  // Snapshot metadata
+
+  static class Metadata extends Iced<Metadata> {
+    String[] _names;
+    byte[] _types;
+    String[][] _domains;
+    long[] _espc;
+    RollupStats[] _rollups; // roll-ups of the Vecs at the time of the save (null if not computed)
+
+    Metadata(Frame fr) {
+      _names = fr.names();
+      _types = fr.types();
+      _domains = fr.domains();
+      _espc = fr.anyVec().espc();
+      Vec[] vecs = fr.vecs();
+      _rollups = new RollupStats[vecs.length];
+      for (int i = 0; i < vecs.length; i++)
+        if (vecs[i].getClass() == Vec.class) _rollups[i] = vecs[i].rollupStatsIfReady();
+    }
+  }
+
+  static void writeMetadata(Metadata meta, String path, boolean overwrite) {
+    OutputStream os = null;
+    try {
+      os = H2O.getPM().create(path + "/" + META_FILE, overwrite);
+      new AutoBuffer(os, true).put(meta).close();
+    } finally {
+      FileUtils.close(os);
+    }
+  }
+
+  static Metadata readMetadata(String path) {
+    InputStream is = null;
+    try {
+      is = ChunkFiles.openMetadata(path, META_FILE, "loadFrame", "frame snapshot");
+      AutoBuffer ab = new AutoBuffer(is);
+      Metadata meta = ab.get(Metadata.class);
+      ab.close();
+      return meta;
+    } finally {
+      FileUtils.close(is);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package water.fvec;
 
 import water.DKV;
 import water.Futures;
+import water.H2O;
 import water.Key;
 import water.Value;
 
@@ -23,7 +24,8 @@ public class GcsFileVec extends FileVec {
     Key<Vec> vecKey = Vec.newKey(frameKey);
     new Frame(frameKey).delete_and_lock();
     // Insert the top-level FileVec key into the store
-    Vec vec = new GcsFileVec(vecKey, size);
+    GcsFileVec vec = new GcsFileVec(vecKey, size);
+    vec._contentVersion = H2O.getPM().getContentVersion(Value.GCS, frameKey); // looked up again on every import
     DKV.put(vecKey, vec, fs);
     Frame frame = new Frame(frameKey, new String[]{path}, new Vec[]{vec});
     frame.update();
@@ -6,8 +6,14 @@ import water.*;
  * Vec representation of file stored on HDFS.
  */
 public final class HDFSFileVec extends FileVec {
-  private HDFSFileVec(Key key, long len) {
+  // Chunks smaller than this are never forced on the Vec just to align them with the HDFS blocks
+  private static final int MIN_ALIGNED_CHUNK_SIZE = 1 << 16;
+
+  private final long _blockSize; // HDFS block size of the file, 0 if unknown
+
+  private HDFSFileVec(Key key, long len, long blockSize) {
     super(key, len, Value.HDFS);
+    _blockSize = blockSize;
   }
 
   public static Key make(String path, long size) {
@@ -17,11 +23,15 @@ public final class HDFSFileVec extends FileVec {
     return key;
   }
   public static Key make(String path, long size, Futures fs) {
+    return make(path, size, 0, fs);
+  }
+  public static Key make(String path, long size, long blockSize, Futures fs) {
     Key k = Key.make(path);
     Key k2 = Vec.newKey(k);
     new Frame(k).delete_and_lock();
     // Insert the top-level FileVec key into the store
-    Vec v = new HDFSFileVec(k2,size);
+    HDFSFileVec v = new HDFSFileVec(k2,size,blockSize);
+    v._contentVersion = H2O.getPM().getContentVersion(Value.HDFS, k); // looked up again on every import
     DKV.put(k2, v, fs);
     Frame fr = new Frame(k,new String[]{path},new Vec[]{v});
     fr.update();
@@ -29,5 +39,22 @@ public final class HDFSFileVec extends FileVec {
     return k;
   }
 
+  @Override
+  public int setChunkSize(Frame fr, int chunkSize) {
+    return super.setChunkSize(fr, alignToBlocks(chunkSize, _blockSize));
+  }
+
+  /**
+   * A Chunk which doesn't cross a boundary of HDFS blocks is read from a single datanode - from the local disk
+   * when H2O runs next to the datanode holding a replica of the block (short-circuit reads).
+   * @return the largest power of two not greater than chunkSize which divides the block size
+   */
+  static int alignToBlocks(int chunkSize, long blockSize) {
+    if (blockSize <= 0 || blockSize % chunkSize == 0) return chunkSize;
+    int aligned = Integer.highestOneBit(chunkSize);
+    while (aligned > MIN_ALIGNED_CHUNK_SIZE && blockSize % aligned != 0)
+      aligned >>= 1;
+    return blockSize % aligned == 0 ? aligned : chunkSize;
+  }
 
 }
@@ -42,9 +42,11 @@ public class NFSFileVec extends FileVec {
   public static NFSFileVec make(File f, Futures fs) {
     if( !f.exists() ) throw new IllegalArgumentException("File not found: "+f.toString());
     long size = f.length();
-    Key k = Vec.newKey(PersistNFS.decodeFile(f));
+    Key fk = PersistNFS.decodeFile(f);
+    Key k = Vec.newKey(fk);
     // Insert the top-level FileVec key into the store
     NFSFileVec nfs = new NFSFileVec(k,size);
+    nfs._contentVersion = H2O.getPM().getContentVersion(Value.NFS, fk); // looked up again on every import
     DKV.put(k,nfs,fs);
     return nfs;
   }
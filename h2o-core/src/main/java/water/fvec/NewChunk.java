@@ -461,6 +461,36 @@ public class NewChunk extends Chunk {
     }
     ++_len;
   }
+  /**
+   * Renumbers categorical values in place, NAs are kept.  The implicit zeros of a sparse chunk are level 0,
+   * the chunk is inflated if level 0 gets a different value.
+   * @param map new value for each of the old values
+   * @param categoricalsOnly only renumber the values added as categoricals, the chunk can also hold numbers
+   *                         (implicit zeros are numbers too then)
+   */
+  public void remap(int[] map, boolean categoricalsOnly) {
+    if (categoricalsOnly) {
+      if (_ms == null || _xs == null) return;
+      for (int i = 0; i < _sparseLen; i++)
+        if (isCategorical2(i)) _ms.set(i, map[(int) _ms.get(i)]);
+      return;
+    }
+    if (sparseZero() && map.length > 0 && map[0] != 0) {
+      cancel_sparse();
+      if (_xs != null) // the former implicit zeros are categoricals too
+        for (int i = 0; i < _sparseLen; i++)
+          if (!isNA2(i) && !isCategorical2(i) && _ms.get(i) == 0 && _xs.get(i) == 0)
+            _xs.setCategorical(i);
+    }
+    if (_ds != null) {
+      for (int i = 0; i < _sparseLen; i++)
+        if (!Double.isNaN(_ds[i])) _ds[i] = map[(int) _ds[i]];
+      return;
+    }
+    if (_ms == null) return;
+    for (int i = 0; i < _sparseLen; i++)
+      if (!isNA2(i)) _ms.set(i, map[(int) _ms.get(i)]);
+  }
   public void addNA() {
     if(!_sparseNA) {
       if (isString()) {
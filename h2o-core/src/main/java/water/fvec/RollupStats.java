@@ -27,7 +27,7 @@ import java.util.Arrays;
  *  manage the M/R job computing the rollups.  Losers block for the same
  *  rollup.  Remote requests *always* forward to the Rollup Key's master.
  */
-final class RollupStats extends Iced {
+public final class RollupStats extends Iced {
   /** The count of missing elements.... or -2 if we have active writers and no
    *  rollup info can be computed (because the vector is being rapidly
    *  modified!), or -1 if rollups have not been computed since the last
@@ -254,17 +254,62 @@ final class RollupStats extends Iced {
     return _maxs[_maxs.length-1];
   }
 
+  // Reverts the finalization of rollups computed over the Chunks before chunkBase,
+  // so that rollups of the Chunks appended after them can be reduced in
+  private RollupStats reopen(Vec vec, String[] priorDomain, int chunkBase) {
+    RollupStats rs = (RollupStats) clone();
+    rs._tsk = null;
+    rs._mins = _mins.clone();
+    rs._maxs = _maxs.clone();
+    if( !vec.isString() && !vec.isUUID() ) { // NaNs mark unused slots of Vecs with less than 5 rows
+      for( int i = 0; i < rs._mins.length; i++ ) if( Double.isNaN(rs._mins[i]) ) rs._mins[i] =  Double.MAX_VALUE;
+      for( int i = 0; i < rs._maxs.length; i++ ) if( Double.isNaN(rs._maxs[i]) ) rs._maxs[i] = -Double.MAX_VALUE;
+    }
+    rs._sigma = _rows > 1 ? _sigma*_sigma*(_rows-1) : 0;
+    rs._checksum ^= vec.espc()[chunkBase]; // Undo the salting with the Vec length
+    rs._size -= metadataSize(vec, priorDomain, chunkBase);
+    rs._bins = null;
+    rs._pctiles = new double[Vec.PERCENTILES.length];  Arrays.fill(rs._pctiles, Double.NaN);
+    return rs;
+  }
+
+  // Size of the domain and of the Chunk Keys, accounted for in the Vec size
+  private static long metadataSize(Vec vec, String[] domain, int nchunks) {
+    if( domain == null ) return 0;
+    long dsz = (2/*hdr*/+1/*len*/+domain.length)*8;  // Size of base domain array
+    for( String s : domain )
+      if( s != null )
+        dsz += 2*s.length() + (2/*hdr*/+1/*value*/+1/*hash*/+2/*hdr*/+1/*len*/)*8;
+    // Account for Chunk key size
+    int keysize = (2/*hdr*/+1/*kb*/+1/*hash*/+2/*hdr*/+1/*len*/)*8+ vec._key._kb.length;
+    return dsz + nchunks*(keysize*4/*key+value ptr in DKV, plus 50% fill rate*/);
+  }
+
   private static class Roll extends MRTask<Roll> {
     final Key _rskey;
     RollupStats _rs;
+    // When appending: rollups of the Vec before the append, only the appended Chunks are rolled up
+    private final RollupStats _prior;
+    private final String[] _priorDomain;
+    private final int _chunkStart; // first appended Chunk
 
     @Override
     protected boolean modifiesVolatileVecs(){return false;}
+    @Override
+    protected int chunkStart() { return _chunkStart; }
 
-    Roll( H2OCountedCompleter cmp, Key rskey ) { super(cmp); _rskey=rskey; }
+    Roll( H2OCountedCompleter cmp, Key rskey ) { this(cmp, rskey, null, null, 0); }
+    Roll( H2OCountedCompleter cmp, Key rskey, RollupStats prior, String[] priorDomain, int chunkBase ) {
+      super(cmp); _rskey=rskey; _prior=prior; _priorDomain=priorDomain; _chunkStart=chunkBase;
+    }
     @Override public void map( Chunk c ) { _rs = new RollupStats(0).map(c); }
     @Override public void reduce( Roll roll ) { _rs.reduce(roll._rs); }
     @Override public void postGlobal() {
+      if( _prior != null ) {
+        RollupStats rs = _prior.reopen(_fr.anyVec(), _priorDomain, _chunkStart);
+        if( _rs != null ) rs.reduce(_rs);
+        _rs = rs;
+      }
       if( _rs == null )
         _rs = new RollupStats(0);
       else {
@@ -280,16 +325,7 @@ final class RollupStats extends Iced {
       String[] ss = vec.domain();
       if( vec.isCategorical() && ss.length > 2 )
         _rs._mean = _rs._sigma = Double.NaN;
-      if( ss != null ) {
-        long dsz = (2/*hdr*/+1/*len*/+ss.length)*8;  // Size of base domain array
-        for( String s : vec.domain() )
-          if( s != null )
-            dsz += 2*s.length() + (2/*hdr*/+1/*value*/+1/*hash*/+2/*hdr*/+1/*len*/)*8;
-        _rs._size += dsz;             // Account for domain size in Vec size
-        // Account for Chunk key size
-        int keysize = (2/*hdr*/+1/*kb*/+1/*hash*/+2/*hdr*/+1/*len*/)*8+ vec._key._kb.length;
-        _rs._size += vec.nChunks()*(keysize*4/*key+value ptr in DKV, plus 50% fill rate*/);
-      }
+      _rs._size += metadataSize(vec, ss, vec.nChunks()); // Account for domain & Chunk keys size in Vec size
     }
     // Just toooo common to report always.  Drowning in multi-megabyte log file writes.
     @Override public boolean logVerbose() { return false; }
@@ -316,6 +352,32 @@ final class RollupStats extends Iced {
       }).call());
   }
 
+  /**
+   * Computes rollups of Vecs after Chunks were appended to them. Only the appended Chunks are scanned,
+   * their rollups are merged with the rollups of the Vecs before the append. Histograms are dropped and
+   * computed again on demand. Rollups are not installed if the Vec got its rollups computed in the meantime.
+   *
+   * @param vecs Vecs with the appended Chunks
+   * @param priors rollups of the Vecs before the append, Vecs with null rollups are skipped (rollups will be computed lazily)
+   * @param priorDomains domains of the Vecs before the append
+   * @param chunkBase index of the first appended Chunk
+   */
+  static void append(Vec[] vecs, RollupStats[] priors, String[][] priorDomains, int chunkBase) {
+    Roll[] rolls = new Roll[vecs.length];
+    for( int i = 0; i < vecs.length; i++ )
+      if( priors[i] != null && !(vecs[i] instanceof InteractionWrappedVec) )
+        rolls[i] = new Roll(null, vecs[i].rollupStatsKey(), priors[i], priorDomains[i], chunkBase).dfork(vecs[i]);
+    Futures fs = new Futures();
+    for( int i = 0; i < vecs.length; i++ ) {
+      if( rolls[i] == null ) continue;
+      RollupStats rs = rolls[i].getResult()._rs;
+      rs._checksum ^= vecs[i].length();
+      Key rskey = vecs[i].rollupStatsKey();
+      DKV.DputIfMatch(rskey, new Value(rskey, rs), null, fs);
+    }
+    fs.blockForPending();
+  }
+
   private static NonBlockingHashMap<Key,RPC> _pendingRollups = new NonBlockingHashMap<>();
 
   static RollupStats get(Vec vec, boolean computeHisto) {
@@ -23,7 +23,8 @@ public class S3FileVec extends FileVec {
     Key k2 = Vec.newKey(k);
     new Frame(k).delete_and_lock();
     // Insert the top-level FileVec key into the store
-    Vec v = new S3FileVec(k2, size);
+    S3FileVec v = new S3FileVec(k2, size);
+    v._contentVersion = H2O.getPM().getContentVersion(Value.S3, k); // looked up again on every import
     DKV.put(k2, v, fs);
     Frame fr = new Frame(k, new String[]{path}, new Vec[]{v});
     fr.update();
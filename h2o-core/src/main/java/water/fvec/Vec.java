@@ -654,6 +654,32 @@ public class Vec extends Keyed<Vec> {
     return vecs;
   }
 
+  /**
+   * Make a temporary work vec of float [] .
+   * Same as {@link #makeVolatileDoubles(int)}, for data which does not need double precision.
+   * Chunks stores as C4FVolatileChunk - expose data directly as float [].
+   *
+   * @param n number of columns
+   * @return
+   */
+  public Vec [] makeVolatileFloats(int n){
+    Vec [] vecs = makeZeros(n);
+    for(Vec v:vecs) {
+      v._volatile = true;
+      DKV.put(v);
+    }
+    new MRTask(){
+      @Override public void map(Chunk [] cs){
+        int len = cs[0].len();
+        for(int i = 0; i < cs.length; ++i) {
+          cs[i].setVolatile(MemoryManager.malloc4f(len));
+        }
+      }
+    }.doAll(vecs);
+
+    return vecs;
+  }
+
   /**
    * Make a temporary work vec of int [] .
    * Volatile vecs can only be used locally (chunks do not serialize) and are assumed to change frequently(MRTask call preWiting() by default).
@@ -888,6 +914,23 @@ public class Vec extends Keyed<Vec> {
    */
   public void startRollupStats(Futures fs, boolean doHisto) { RollupStats.start(this,fs,doHisto); }
 
+  /** Roll-up stats of this Vec if already computed, null otherwise; does not
+   *  start the computation.  Used to capture the stats before Chunks are
+   *  appended, see {@link #appendRollupStats}.
+   *  @return Roll-up stats or null */
+  public RollupStats rollupStatsIfReady() { return RollupStats.getOrNull(this, rollupStatsKey()); }
+
+  /** Compute the roll-up stats of Vecs after Chunks were appended to them,
+   *  scanning only the appended Chunks.  Vecs without prior stats are left
+   *  to compute their stats lazily over all Chunks.
+   *  @param vecs Vecs extended by the append
+   *  @param priors stats of the Vecs before the append, see {@link #rollupStatsIfReady}
+   *  @param priorDomains domains of the Vecs before the append
+   *  @param chunkBase index of the first appended Chunk */
+  public static void appendRollupStats(Vec[] vecs, RollupStats[] priors, String[][] priorDomains, int chunkBase) {
+    RollupStats.append(vecs, priors, priorDomains, chunkBase);
+  }
+
   /** A high-quality 64-bit checksum of the Vec's content, useful for
    *  establishing dataset identity.
    *  @return Checksum of the Vec's content  */
@@ -7,7 +7,11 @@ import water.parser.ParseDataset;
 import water.util.Log;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Random;
 import java.util.concurrent.ArrayBlockingQueue;
 
 import static water.fvec.Vec.makeCon;
@@ -16,6 +20,13 @@ public class SQLManager {
 
   private static final String TEMP_TABLE_NAME = "table_for_h2o_import";
   private static final String MAX_USR_CONNECTIONS_KEY = H2O.OptArgs.SYSTEM_PROP_PREFIX + "sql.connections.max";
+  private static final String FETCH_SIZE_KEY = H2O.OptArgs.SYSTEM_PROP_PREFIX + "sql.fetch.size";
+  //Number of rows fetched from the database in a single round-trip by partitioned imports
+  private static final int DEFAULT_FETCH_SIZE = 10000;
+  //Number of values of the split column sampled to check the equal-width ranges for skew
+  static final int SPLIT_SAMPLE_SIZE = 10000;
+  //Equal-width ranges are skewed if one of them holds more than this many times its share of the sampled values
+  static final double SPLIT_SKEW_FACTOR = 2;
   //A target upper bound on number of connections to database
   private static final int MAX_CONNECTIONS = 100;
   //A lower bound on number of connections to database per node
@@ -24,6 +35,10 @@ public class SQLManager {
   private static final String HIVE_DB_TYPE = "hive2";
   private static final String ORACLE_DB_TYPE = "oracle";
   private static final String SQL_SERVER_DB_TYPE = "sqlserver";
+  private static final String POSTGRESQL_DB_TYPE = "postgresql";
+  private static final String MYSQL_DB_TYPE = "mysql";
+  private static final String MARIADB_DB_TYPE = "mariadb";
+  private static final String TERADATA_DB_TYPE = "teradata";
 
   private static final String NETEZZA_JDBC_DRIVER_CLASS = "org.netezza.Driver";
   private static final String HIVE_JDBC_DRIVER_CLASS = "org.apache.hive.jdbc.HiveDriver";
@@ -40,6 +55,23 @@ public class SQLManager {
   public static Job<Frame> importSqlTable(final String connection_url, String table, final String select_query,
                                           final String username, final String password, final String columns,
                                           boolean optimize) {
+    return importSqlTable(connection_url, table, select_query, username, password, columns, optimize, null);
+  }
+
+  /**
+   * @param connection_url (Input)
+   * @param table (Input)
+   * @param select_query (Input)
+   * @param username (Input)
+   * @param password (Input)
+   * @param columns (Input)
+   * @param optimize (Input)
+   * @param split_column (Input) numeric or date/time column used to split the table into ranges, one range per chunk;
+   *                     each range is read with a single query (no OFFSET paging), null or empty to page through the table
+   */
+  public static Job<Frame> importSqlTable(final String connection_url, String table, final String select_query,
+                                          final String username, final String password, final String columns,
+                                          boolean optimize, final String split_column) {
     Connection conn = null;
     Statement stmt = null;
     ResultSet rs = null;
@@ -60,6 +92,10 @@ public class SQLManager {
     long numRow = 0;
     final String[] columnNames;
     final byte[] columnH2OTypes;
+    final boolean partitioned = split_column != null && !split_column.isEmpty();
+    double splitMin = Double.NaN, splitMax = Double.NaN;
+    double[] splitSample = null;
+    boolean splitIsTime = false;
     try {
       conn = DriverManager.getConnection(connection_url, username, password);
       stmt = conn.createStatement();
@@ -84,6 +120,29 @@ public class SQLManager {
         numRow = rs.getLong(1);
         rs.close();
       }
+      //get the range of the split column
+      if (partitioned) {
+        rs = stmt.executeQuery("SELECT MIN(" + split_column + "), MAX(" + split_column + ") FROM " + table);
+        rs.next();
+        switch (rs.getMetaData().getColumnType(1)) {
+          case Types.DATE:
+          case Types.TIME:
+          case Types.TIMESTAMP:
+            splitIsTime = true;
+            Timestamp minTime = rs.getTimestamp(1), maxTime = rs.getTimestamp(2);
+            if (minTime != null) splitMin = minTime.getTime();
+            if (maxTime != null) splitMax = maxTime.getTime();
+            break;
+          default:
+            splitMin = rs.getDouble(1);
+            if (rs.wasNull()) splitMin = Double.NaN;
+            splitMax = rs.getDouble(2);
+            if (rs.wasNull()) splitMax = Double.NaN;
+        }
+        rs.close();
+        if (!Double.isNaN(splitMin) && !Double.isNaN(splitMax))
+          splitSample = sampleSplitColumn(conn, databaseType, table, split_column, splitIsTime, numRow, SPLIT_SAMPLE_SIZE);
+      }
       //get H2O column names and types 
       if (needFetchClause)
         rs = stmt.executeQuery("SELECT " + columns + " FROM " + table + " FETCH NEXT 1 ROWS ONLY");
@@ -183,16 +242,25 @@ public class SQLManager {
       _v = makeCon(0, numRow, (int) Math.ceil(Math.log1p(rows_per_chunk)), false);
     }
     Log.info("Number of chunks: " + _v.nChunks());
+    final double[] splitBounds = partitioned ? partitionBounds(splitMin, splitMax, _v.nChunks(), splitSample) : null;
+    if (splitBounds != null)
+      Log.info("Splitting the import on column " + split_column + " into " + _v.nChunks() + " ranges of [" +
+              splitMin + ", " + splitMax + "]: " + Arrays.toString(splitBounds));
+    else if (partitioned)
+      Log.warn("Split column " + split_column + " has no values, the table is imported page by page");
     //create frame
     final Key destination_key = Key.make(table + "_sql_to_hex");
     final Job<Frame> j = new Job(destination_key, Frame.class.getName(), "Import SQL Table");
 
     final String finalTable = table;
+    final boolean splitIsTime_ = splitIsTime;
     H2O.H2OCountedCompleter work = new H2O.H2OCountedCompleter() {
       @Override
       public void compute2() {
         ConnectionPoolProvider provider = new ConnectionPoolProvider(connection_url, username, password, _v.nChunks());
-        Frame fr = new SqlTableToH2OFrame(finalTable, needFetchClause, columns, numCol, j, provider).doAll(columnH2OTypes, _v)
+        SqlTableToH2OFrame task = new SqlTableToH2OFrame(finalTable, needFetchClause, columns, numCol, j, provider);
+        if (splitBounds != null) task.setPartitioning(split_column, splitBounds, splitIsTime_, getFetchSize());
+        Frame fr = task.doAll(columnH2OTypes, _v)
                 .outputFrame(destination_key, columnNames, null);
         DKV.put(fr);
         _v.remove();
@@ -207,6 +275,143 @@ public class SQLManager {
     return j;
   }
 
+  /**
+   * Splits the range of the split column into equal-width ranges, range i holds the values in [bounds[i], bounds[i+1]).
+   * The first range is unbounded from below and the last one from above (it also holds the NULL values), so the ranges
+   * cover the whole table even if the column changed since the bounds were computed.
+   *
+   * @param min minimal value of the split column (NaN if the column has only NULL values)
+   * @param max maximal value of the split column
+   * @param n number of ranges
+   * @return n+1 bounds of the ranges, null if the column has no values to split on
+   */
+  static double[] partitionBounds(double min, double max, int n) {
+    if (Double.isNaN(min) || Double.isNaN(max)) return null; // only NULL values, nothing to split
+    double[] bounds = new double[n + 1];
+    for (int i = 0; i <= n; i++)
+      bounds[i] = min + (max - min) * i / n;
+    bounds[n] = max;
+    return bounds;
+  }
+
+  /**
+   * Splits the range of the split column into n ranges, see {@link #partitionBounds(double, double, int)}. The ranges
+   * have equal widths unless one of them would hold more than SPLIT_SKEW_FACTOR times its share of the sampled values,
+   * then the inner bounds are quantiles of the sample, so that the ranges hold about the same number of rows (a single
+   * value holding many rows still ends up in one range).
+   *
+   * @param sample values of the split column, null if not sampled
+   */
+  static double[] partitionBounds(double min, double max, int n, double[] sample) {
+    double[] bounds = partitionBounds(min, max, n);
+    if (bounds == null || sample == null || sample.length == 0 || !isSkewed(bounds, sample))
+      return bounds;
+    double[] sorted = sample.clone();
+    Arrays.sort(sorted);
+    for (int i = 1; i < n; i++)
+      bounds[i] = sorted[(int) ((long) i * sorted.length / n)];
+    Log.info("Values of the split column are skewed, the import is split on quantiles of the column");
+    return bounds;
+  }
+
+  // Does one of the ranges hold more than SPLIT_SKEW_FACTOR times its share of the sample?
+  static boolean isSkewed(double[] bounds, double[] sample) {
+    int n = bounds.length - 1;
+    int[] counts = new int[n];
+    for (double v : sample) {
+      int i = Arrays.binarySearch(bounds, 1, n, v); // range i holds [bounds[i], bounds[i+1])
+      counts[i >= 0 ? i : -i - 2]++;
+    }
+    int max = 0;
+    for (int c : counts) max = Math.max(max, c);
+    return max > SPLIT_SKEW_FACTOR * sample.length / n;
+  }
+
+  /**
+   * Sample of the non-NULL values of the split column, drawn by the database (see
+   * {@link #sampleQuery(String, String, String, long, int)}) and reduced to at most size values by reservoir sampling.
+   *
+   * @param numRow number of rows of the table
+   * @param size maximal number of sampled values
+   * @return sampled values, all the values if the table holds at most 2 * size rows, null if the database cannot sample
+   */
+  static double[] sampleSplitColumn(Connection conn, String databaseType, String table, String splitColumn,
+                                    boolean isTime, long numRow, int size) throws SQLException {
+    String query = sampleQuery(databaseType, table, splitColumn, numRow, size);
+    if (query == null) {
+      Log.info("Database " + databaseType + " does not support sampling, the import is split into equal-width ranges");
+      return null;
+    }
+    Statement stmt = conn.createStatement();
+    ResultSet rs = null;
+    try {
+      stmt.setFetchSize(getFetchSize());
+      rs = stmt.executeQuery(query);
+      double[] sample = new double[size];
+      Random rng = new Random(0xDA7A); // deterministic splits for the same table
+      long seen = 0;
+      while (rs.next()) {
+        double v = isTime ? rs.getTimestamp(1).getTime() : rs.getDouble(1);
+        long i = seen < size ? seen : (long) (rng.nextDouble() * (seen + 1));
+        if (i < size) sample[(int) i] = v;
+        seen++;
+      }
+      return seen < size ? Arrays.copyOf(sample, (int) seen) : sample;
+    } finally {
+      if (rs != null) rs.close();
+      stmt.close();
+    }
+  }
+
+  /**
+   * Query reading a sample of about 2 * size non-NULL values of the split column, so that the sample is not yet
+   * another full read of the table. Small tables are read whole, larger ones are sampled by the database: block
+   * sampling (TABLESAMPLE / SAMPLE BLOCK) reads only the sampled pages, the other databases filter the rows on
+   * their side and only the sample is transferred.
+   *
+   * @return the query, null if the database has no known way to sample a table
+   */
+  static String sampleQuery(String databaseType, String table, String splitColumn, long numRow, int size) {
+    String notNull = " WHERE " + splitColumn + " IS NOT NULL";
+    String select = "SELECT " + splitColumn + " FROM " + table;
+    if (numRow <= 2L * size)
+      return select + notNull;
+    // percentage of rows to sample, oversampled to make up for NULLs and the variance of block sampling
+    String percent = BigDecimal.valueOf(100.0 * 2 * size / numRow).setScale(6, RoundingMode.UP).toPlainString();
+    switch (databaseType) {
+      case POSTGRESQL_DB_TYPE:
+        return select + " TABLESAMPLE SYSTEM (" + percent + ")" + notNull;
+      case SQL_SERVER_DB_TYPE:
+      case HIVE_DB_TYPE:
+        return select + " TABLESAMPLE (" + percent + " PERCENT)" + notNull;
+      case ORACLE_DB_TYPE:
+        return select + " SAMPLE BLOCK (" + percent + ")" + notNull;
+      case MYSQL_DB_TYPE:
+      case MARIADB_DB_TYPE:
+        return select + notNull + " AND RAND() < " + percent + " / 100";
+      case TERADATA_DB_TYPE:
+        return select + notNull + " SAMPLE " + 2L * size;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * @return number of rows fetched from the database in a single round-trip by partitioned imports
+   */
+  static int getFetchSize() {
+    final String userDefinedFetchSize = System.getProperty(FETCH_SIZE_KEY);
+    if (userDefinedFetchSize != null) {
+      try {
+        int fetchSize = Integer.valueOf(userDefinedFetchSize);
+        if (fetchSize > 0) return fetchSize;
+      } catch (NumberFormatException e) {
+        Log.info("Unable to parse SQL fetch size: " + userDefinedFetchSize + ". Falling back to default settings.");
+      }
+    }
+    return DEFAULT_FETCH_SIZE;
+  }
+
   static class ConnectionPoolProvider extends Iced<ConnectionPoolProvider> {
 
     private String _url;
@@ -337,8 +542,15 @@ public class SQLManager {
     final boolean _needFetchClause;
     final Job _job;
     final ConnectionPoolProvider _poolProvider;
+    //partitioned import: chunk i holds the rows with the split column in [_splitBounds[i], _splitBounds[i+1])
+    String _splitColumn;
+    double[] _splitBounds;
+    boolean _splitIsTime;
+    int _fetchSize;
 
     transient ArrayBlockingQueue<Connection> sqlConn;
+    //rows and nanoseconds spent reading, per connection
+    transient IdentityHashMap<Connection, long[]> _connStats;
 
     public SqlTableToH2OFrame(final String table, final boolean needFetchClause, final String columns, final int numCol,
                               final Job job, final ConnectionPoolProvider poolProvider) {
@@ -350,77 +562,57 @@ public class SQLManager {
       _poolProvider = poolProvider;
     }
 
+    /**
+     * Reads the table by ranges of the split column instead of OFFSET paging, each chunk is filled by a single query.
+     */
+    void setPartitioning(String splitColumn, double[] splitBounds, boolean splitIsTime, int fetchSize) {
+      _splitColumn = splitColumn;
+      _splitBounds = splitBounds;
+      _splitIsTime = splitIsTime;
+      _fetchSize = fetchSize;
+    }
+
     @Override
     protected void setupLocal() {
       sqlConn = _poolProvider.createConnectionPool();
+      _connStats = new IdentityHashMap<>();
     }
 
     @Override
     public void map(Chunk[] cs, NewChunk[] ncs) {
       if (isCancelled() || _job != null && _job.stop_requested()) return;
-      //fetch data from sql table with limit and offset
+      //fetch data from sql table with limit and offset (or the range of the chunk)
       Connection conn = null;
       Statement stmt = null;
       ResultSet rs = null;
       Chunk c0 = cs[0];
-      String sqlText = "SELECT " + _columns + " FROM " + _table;
-      if (_needFetchClause)
-        sqlText += " OFFSET " + c0.start() + " ROWS FETCH NEXT " + c0._len + " ROWS ONLY";
-      else
-        sqlText += " LIMIT " + c0._len + " OFFSET " + c0.start();
       try {
         conn = sqlConn.take();
-        stmt = conn.createStatement();
-        //set fetch size for best performance
-        stmt.setFetchSize(c0._len);
-        rs = stmt.executeQuery(sqlText);
-        while (rs.next()) {
-          for (int i = 0; i < _numCol; i++) {
-            Object res = rs.getObject(i + 1);
-            if (res == null) ncs[i].addNA();
-            else {
-              switch (res.getClass().getSimpleName()) {
-                case "Double":
-                  ncs[i].addNum((double) res);
-                  break;
-                case "Integer":
-                  ncs[i].addNum((long) (int) res, 0);
-                  break;
-                case "Long":
-                  ncs[i].addNum((long) res, 0);
-                  break;
-                case "Float":
-                  ncs[i].addNum((double) (float) res);
-                  break;
-                case "Short":
-                  ncs[i].addNum((long) (short) res, 0);
-                  break;
-                case "Byte":
-                  ncs[i].addNum((long) (byte) res, 0);
-                  break;
-                case "BigDecimal":
-                  ncs[i].addNum(((BigDecimal) res).doubleValue());
-                  break;
-                case "Boolean":
-                  ncs[i].addNum(((boolean) res ? 1 : 0), 0);
-                  break;
-                case "String":
-                  ncs[i].addStr(new BufferedString((String) res));
-                  break;
-                case "Date":
-                  ncs[i].addNum(((Date) res).getTime(), 0);
-                  break;
-                case "Time":
-                  ncs[i].addNum(((Time) res).getTime(), 0);
-                  break;
-                case "Timestamp":
-                  ncs[i].addNum(((Timestamp) res).getTime(), 0);
-                  break;
-                default:
-                  ncs[i].addNA();
-              }
-            }
-          }
+        long start = System.nanoTime();
+        if (_splitBounds != null) {
+          PreparedStatement pstmt = conn.prepareStatement(rangeQuery(c0.cidx()));
+          stmt = pstmt;
+          setRangeParameters(pstmt, c0.cidx());
+          //stream the whole range in large batches
+          pstmt.setFetchSize(_fetchSize);
+          rs = pstmt.executeQuery();
+        } else {
+          String sqlText = "SELECT " + _columns + " FROM " + _table;
+          if (_needFetchClause)
+            sqlText += " OFFSET " + c0.start() + " ROWS FETCH NEXT " + c0._len + " ROWS ONLY";
+          else
+            sqlText += " LIMIT " + c0._len + " OFFSET " + c0.start();
+          stmt = conn.createStatement();
+          //set fetch size for best performance
+          stmt.setFetchSize(c0._len);
+          rs = stmt.executeQuery(sqlText);
+        }
+        long rows = readRows(rs, ncs);
+        synchronized (_connStats) {
+          long[] stats = _connStats.get(conn);
+          if (stats == null) _connStats.put(conn, stats = new long[2]);
+          stats[0] += rows;
+          stats[1] += System.nanoTime() - start;
         }
       } catch (SQLException ex) {
         throw new RuntimeException("SQLException: " + ex.getMessage() + "\nFailed to read SQL data");
@@ -448,14 +640,101 @@ public class SQLManager {
         }
 
         //return connection to pool
-        sqlConn.add(conn);
+        if (conn != null) sqlConn.add(conn);
 
       }
       if (_job != null) _job.update(1);
     }
 
+    /**
+     * @return query selecting the rows of the range of the given chunk
+     */
+    String rangeQuery(int cidx) {
+      String sqlText = "SELECT " + _columns + " FROM " + _table + " WHERE ";
+      boolean first = cidx == 0, last = cidx == _splitBounds.length - 2;
+      if (first && last) return sqlText + "1=1";
+      if (!first) sqlText += _splitColumn + " >= ?";
+      if (!first && !last) sqlText += " AND ";
+      if (!last) sqlText += _splitColumn + " < ?";
+      else sqlText += " OR " + _splitColumn + " IS NULL";
+      return sqlText;
+    }
+
+    private void setRangeParameters(PreparedStatement pstmt, int cidx) throws SQLException {
+      int param = 1;
+      if (cidx > 0) setBound(pstmt, param++, _splitBounds[cidx]);
+      if (cidx < _splitBounds.length - 2) setBound(pstmt, param, _splitBounds[cidx + 1]);
+    }
+
+    private void setBound(PreparedStatement pstmt, int param, double bound) throws SQLException {
+      if (_splitIsTime) pstmt.setTimestamp(param, new Timestamp((long) bound));
+      else pstmt.setDouble(param, bound);
+    }
+
+    /**
+     * Appends all rows of the result set to the chunks
+     * @return number of rows read
+     */
+    private long readRows(ResultSet rs, NewChunk[] ncs) throws SQLException {
+      long rows = 0;
+      while (rs.next()) {
+        rows++;
+        for (int i = 0; i < _numCol; i++) {
+          Object res = rs.getObject(i + 1);
+          if (res == null) ncs[i].addNA();
+          else {
+            switch (res.getClass().getSimpleName()) {
+              case "Double":
+                ncs[i].addNum((double) res);
+                break;
+              case "Integer":
+                ncs[i].addNum((long) (int) res, 0);
+                break;
+              case "Long":
+                ncs[i].addNum((long) res, 0);
+                break;
+              case "Float":
+                ncs[i].addNum((double) (float) res);
+                break;
+              case "Short":
+                ncs[i].addNum((long) (short) res, 0);
+                break;
+              case "Byte":
+                ncs[i].addNum((long) (byte) res, 0);
+                break;
+              case "BigDecimal":
+                ncs[i].addNum(((BigDecimal) res).doubleValue());
+                break;
+              case "Boolean":
+                ncs[i].addNum(((boolean) res ? 1 : 0), 0);
+                break;
+              case "String":
+                ncs[i].addStr(new BufferedString((String) res));
+                break;
+              case "Date":
+                ncs[i].addNum(((Date) res).getTime(), 0);
+                break;
+              case "Time":
+                ncs[i].addNum(((Time) res).getTime(), 0);
+                break;
+              case "Timestamp":
+                ncs[i].addNum(((Timestamp) res).getTime(), 0);
+                break;
+              default:
+                ncs[i].addNA();
+            }
+          }
+        }
+      }
+      return rows;
+    }
+
     @Override
     protected void closeLocal() {
+      for (long[] stats : _connStats.values())
+        if (stats[1] > 0)
+          Log.info("SQL import connection read " + stats[0] + " rows at " +
+                  (long) (stats[0] / (stats[1] / 1e9)) + " rows/sec");
       try {
         for (Connection conn : sqlConn) {
           conn.close();
@@ -0,0 +1,127 @@
+package water.parser;
+
+import water.H2O;
+import water.fvec.ByteVec;
+import water.fvec.FileVec;
+import water.util.Log;
+import water.util.PrettyPrint;
+
+/**
+ * Maps the native blocks of a columnar file (eg. Parquet row groups) to parse tasks.
+ *
+ * A distributed parse runs one map call per Chunk of the source ByteVec, on the Chunk's home node.
+ * Columnar formats cannot be split at arbitrary byte offsets, so each block has to be owned by
+ * exactly one of the Chunks it overlaps. This class picks as owner the Chunk whose home node
+ * holds the largest share of the block's bytes - the block is then parsed where most of its
+ * bytes are already homed and only the remainder needs to be fetched from peers.
+ */
+public class BlockScheduler {
+
+  private BlockScheduler() {}
+
+  /**
+   * Assigns each block to the chunk that should parse it.
+   *
+   * @param vec source file
+   * @param starts byte offsets of the blocks
+   * @param lengths lengths of the blocks in bytes
+   * @return chunk index for each block
+   */
+  public static int[] assign(ByteVec vec, long[] starts, long[] lengths) {
+    assert starts.length == lengths.length;
+    int[] owners = new int[starts.length];
+    for (int i = 0; i < owners.length; i++)
+      owners[i] = ownerChunk(vec, starts[i], lengths[i]);
+    return owners;
+  }
+
+  /**
+   * Finds the chunk which should parse a block spanning the given byte range.
+   *
+   * Bytes of the block are grouped by the home node of the chunk they belong to, the node holding
+   * most bytes wins. Among the chunks homed on the winning node the one holding most bytes of the block
+   * is returned (ties are resolved in favor of the lower chunk index).
+   *
+   * @param vec source file
+   * @param start byte offset of the block
+   * @param len length of the block in bytes
+   * @return index of the chunk owning the block
+   */
+  public static int ownerChunk(ByteVec vec, long start, long len) {
+    final int nchunks = vec.nChunks();
+    final long end = Math.min(start + Math.max(len, 1), vec.length());
+    final int first = chunkIdx(vec, start);
+    final int last = chunkIdx(vec, end - 1);
+    if (first == last)
+      return first;
+    final long[] nodeBytes = new long[H2O.CLOUD.size()];
+    final long[] bestChunkBytes = new long[nodeBytes.length];
+    final int[] bestChunk = new int[nodeBytes.length];
+    for (int c = first; c <= last; c++) {
+      long cStart = chunkStart(vec, c);
+      long cEnd = c == nchunks - 1 ? vec.length() : chunkStart(vec, c + 1);
+      long overlap = Math.min(end, cEnd) - Math.max(start, cStart);
+      if (overlap <= 0) continue;
+      int node = vec.chunkKey(c).home_node().index();
+      if (node < 0) node = 0; // client node, not a cloud member
+      nodeBytes[node] += overlap;
+      if (overlap > bestChunkBytes[node]) {
+        bestChunkBytes[node] = overlap;
+        bestChunk[node] = c;
+      }
+    }
+    int bestNode = 0;
+    for (int n = 1; n < nodeBytes.length; n++)
+      if (nodeBytes[n] > nodeBytes[bestNode]) bestNode = n;
+    return bestChunkBytes[bestNode] > 0 ? bestChunk[bestNode] : first;
+  }
+
+  /**
+   * Fraction of the block's bytes homed on this node.
+   */
+  public static double localFraction(ByteVec vec, long start, long len) {
+    if (len <= 0) return 1;
+    final int nchunks = vec.nChunks();
+    final long end = Math.min(start + len, vec.length());
+    long local = 0;
+    for (int c = chunkIdx(vec, start); c <= chunkIdx(vec, end - 1); c++) {
+      if (!vec.chunkKey(c).home()) continue;
+      long cStart = chunkStart(vec, c);
+      long cEnd = c == nchunks - 1 ? vec.length() : chunkStart(vec, c + 1);
+      local += Math.max(0, Math.min(end, cEnd) - Math.max(start, cStart));
+    }
+    return (double) local / len;
+  }
+
+  /**
+   * Logs timing metrics of a parsed block.
+   *
+   * @param kind type of the block (eg. "row group")
+   * @param blockIdx index of the block within the file
+   * @param cidx chunk that parsed the block
+   * @param rows number of rows in the block
+   * @param bytes size of the block in bytes
+   * @param localFraction fraction of bytes that were homed on the parsing node
+   * @param startNanos System.nanoTime() when parsing of the block started
+   */
+  public static void logBlockParsed(String kind, int blockIdx, int cidx, long rows, long bytes,
+                                    double localFraction, long startNanos) {
+    long ms = Math.max(1, (System.nanoTime() - startNanos) / 1000000);
+    Log.debug("Parsed ", kind, " #", blockIdx, " in chunk #", cidx, ": ", rows, " rows, ", PrettyPrint.bytes(bytes),
+            " (", (int) (localFraction * 100), "% local) in ", ms, "ms, ", (rows * 1000 / ms), " rows/s, ",
+            PrettyPrint.bytesPerSecond(bytes * 1000 / ms));
+  }
+
+  private static int chunkIdx(ByteVec vec, long offset) {
+    if (vec instanceof FileVec)
+      return ((FileVec) vec).elem2ChunkIdx(offset);
+    return vec.elem2ChunkIdx(offset);
+  }
+
+  private static long chunkStart(ByteVec vec, int cidx) {
+    if (vec instanceof FileVec)
+      return (long) cidx * ((FileVec) vec)._chunkSize;
+    return vec.espc()[cidx];
+  }
+
+}
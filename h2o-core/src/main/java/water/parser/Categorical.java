@@ -1,5 +1,6 @@
 package water.parser;
 
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import water.Iced;
@@ -28,6 +29,8 @@ public final class Categorical extends Iced {
   int _maxId = -1;
   volatile IcedHashMap<BufferedString, Integer> _map;
   boolean maxDomainExceeded = false;
+  // Global ids of the node-local ids (-1 if not known yet), used by single-pass parses (see CategoricalDictionary)
+  private transient volatile int[] _globalIds = new int[0];
 
   Categorical() { _map = new IcedHashMap<>(); }
 
@@ -56,6 +59,30 @@ public final class Categorical extends Iced {
   int size() { return _map.size(); }
   boolean isMapFull() { return maxDomainExceeded; }
 
+  /** Global id of a node-local id, -1 if the id wasn't translated yet. */
+  int globalId(int id) {
+    int[] globalIds = _globalIds;
+    return id < globalIds.length ? globalIds[id] : -1;
+  }
+
+  /** Local->global translation table, indexed by node-local ids. */
+  int[] globalIds() { return _globalIds; }
+
+  /** Records global ids of the given node-local ids. */
+  synchronized void setGlobalIds(int[] ids, int[] globalIds) {
+    int[] table = _globalIds;
+    int max = -1;
+    for (int id : ids) max = Math.max(max, id);
+    if (max >= table.length) {
+      int len = table.length;
+      table = Arrays.copyOf(table, Math.max(max + 1, len << 1));
+      Arrays.fill(table, len, table.length, -1);
+    }
+    for (int i = 0; i < ids.length; i++)
+      table[ids[i]] = globalIds[i];
+    _globalIds = table; // publish
+  }
+
   BufferedString[] getColumnDomain() {
     return  _map.keySet().toArray(new BufferedString[_map.size()]);
   }
@@ -0,0 +1,185 @@
+package water.parser;
+
+import water.*;
+import water.nbhm.NonBlockingHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cluster-wide dictionary assigning global ids to categorical levels while the data is being parsed.
+ *
+ * Every column has its own dictionary homed on a single node (given by the home of the column Key).
+ * Parsers keep using the node-local {@link Categorical} maps and translate the node-local ids
+ * to global ids when a chunk is closed, before it is compressed. Only levels not yet translated
+ * on the node need a round-trip to the home of the column, the levels of all columns homed on
+ * the same node are sent in a single task. There is thus no need for a second pass rewriting
+ * the parsed chunks once the domains are unified.
+ *
+ * Global ids are assigned in order of first appearance (which depends on the order the chunks are
+ * closed in) - the resulting domains are neither sorted nor deterministic. A frame parsed this way
+ * is equal to a regularly parsed one only up to the order of the categorical levels.
+ */
+public class CategoricalDictionary extends Iced<CategoricalDictionary> {
+
+  // Column dictionaries homed on this node: column key -> dictionary
+  private static final NonBlockingHashMap<Key, ColumnDictionary> HOMED = new NonBlockingHashMap<>();
+
+  private final Key _key;
+  private final int _ncols;
+
+  public CategoricalDictionary(int ncols) {
+    _key = Key.make();
+    _ncols = ncols;
+  }
+
+  private Key columnKey(int col) {
+    return Key.make(_key.toString() + "_col" + col);
+  }
+
+  /**
+   * Registers levels of the given columns in the global dictionary. Columns homed on the same node
+   * are looked up by a single task, the tasks for different nodes run concurrently.
+   *
+   * @param cols column indices
+   * @param levels levels to look up for each column, levels seen for the first time are assigned new ids
+   * @return global ids of the given levels, for each column
+   */
+  int[][] assign(int[] cols, String[][] levels) {
+    // group the columns by their home node
+    HashMap<H2ONode, ArrayList<Integer>> byNode = new HashMap<>();
+    for (int i = 0; i < cols.length; i++) {
+      H2ONode home = columnKey(cols[i]).home_node();
+      ArrayList<Integer> idxs = byNode.get(home);
+      if (idxs == null) byNode.put(home, idxs = new ArrayList<>());
+      idxs.add(i);
+    }
+    ArrayList<RPC<AssignIdsTask>> rpcs = new ArrayList<>(byNode.size());
+    for (Map.Entry<H2ONode, ArrayList<Integer>> e : byNode.entrySet()) {
+      ArrayList<Integer> idxs = e.getValue();
+      Key[] colKeys = new Key[idxs.size()];
+      String[][] nodeLevels = new String[idxs.size()][];
+      for (int j = 0; j < colKeys.length; j++) {
+        colKeys[j] = columnKey(cols[idxs.get(j)]);
+        nodeLevels[j] = levels[idxs.get(j)];
+      }
+      rpcs.add(new RPC<>(e.getKey(), new AssignIdsTask(colKeys, nodeLevels)).call());
+    }
+    int[][] ids = new int[cols.length][];
+    int n = 0;
+    for (ArrayList<Integer> idxs : byNode.values()) {
+      int[][] nodeIds = rpcs.get(n++).get()._ids;
+      for (int j = 0; j < nodeIds.length; j++)
+        ids[idxs.get(j)] = nodeIds[j];
+    }
+    return ids;
+  }
+
+  /**
+   * Fetches the global domains of the given columns.
+   * @return domain for each of the given columns (in order of the global ids), null if the column has no levels
+   */
+  public String[][] domains(int[] cols) {
+    RPC<DomainTask>[] rpcs = new RPC[cols.length];
+    for (int i = 0; i < cols.length; i++) {
+      Key colKey = columnKey(cols[i]);
+      rpcs[i] = new RPC<>(colKey.home_node(), new DomainTask(colKey)).call();
+    }
+    String[][] domains = new String[cols.length][];
+    for (int i = 0; i < cols.length; i++) {
+      String[] domain = rpcs[i].get()._domain;
+      domains[i] = domain.length == 0 ? null : domain;
+    }
+    return domains;
+  }
+
+  /**
+   * Removes the dictionary from the cluster.
+   */
+  public void remove() {
+    new RemoveTask(_key, _ncols).doAllNodes();
+  }
+
+  private static class ColumnDictionary {
+    private final HashMap<String, Integer> _ids = new HashMap<>();
+    private final ArrayList<String> _levels = new ArrayList<>();
+
+    synchronized int[] assign(String[] levels) {
+      int[] ids = new int[levels.length];
+      for (int i = 0; i < levels.length; i++) {
+        Integer id = _ids.get(levels[i]);
+        if (id == null) {
+          id = _levels.size();
+          _levels.add(levels[i]);
+          _ids.put(levels[i], id);
+        }
+        ids[i] = id;
+      }
+      return ids;
+    }
+
+    synchronized String[] domain() {
+      return _levels.toArray(new String[_levels.size()]);
+    }
+  }
+
+  private static class AssignIdsTask extends DTask<AssignIdsTask> {
+    private final Key[] _colKeys;
+    private String[][] _levels;
+    private int[][] _ids;
+
+    private AssignIdsTask(Key[] colKeys, String[][] levels) {
+      _colKeys = colKeys;
+      _levels = levels;
+    }
+
+    @Override
+    public void compute2() {
+      _ids = new int[_colKeys.length][];
+      for (int i = 0; i < _colKeys.length; i++) {
+        ColumnDictionary dict = HOMED.get(_colKeys[i]);
+        if (dict == null) {
+          HOMED.putIfAbsent(_colKeys[i], new ColumnDictionary());
+          dict = HOMED.get(_colKeys[i]); // Re-get in case we lost the insertion race
+        }
+        _ids[i] = dict.assign(_levels[i]);
+      }
+      _levels = null; // don't send the levels back
+      tryComplete();
+    }
+  }
+
+  private static class DomainTask extends DTask<DomainTask> {
+    private final Key _colKey;
+    private String[] _domain;
+
+    private DomainTask(Key colKey) {
+      _colKey = colKey;
+    }
+
+    @Override
+    public void compute2() {
+      ColumnDictionary dict = HOMED.get(_colKey);
+      _domain = dict == null ? new String[0] : dict.domain();
+      tryComplete();
+    }
+  }
+
+  private static class RemoveTask extends MRTask<RemoveTask> {
+    private final Key _key;
+    private final int _ncols;
+
+    private RemoveTask(Key key, int ncols) {
+      _key = key;
+      _ncols = ncols;
+    }
+
+    @Override
+    protected void setupLocal() {
+      for (int i = 0; i < _ncols; i++)
+        HOMED.remove(Key.make(_key.toString() + "_col" + i));
+    }
+  }
+
+}
@@ -9,6 +9,8 @@ import water.fvec.Vec;
 import water.util.ArrayUtils;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /** Parsed data output specialized for fluid vecs.
@@ -25,10 +27,19 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
   final int _cidx;
   final int _chunkSize;
   ParseErr [] _errs = new ParseErr[0];
-  private final Vec.VectorGroup _vg;
+  final Vec.VectorGroup _vg;
   private long _errCnt;
+  // Single-pass categoricals: node-local ids are translated to global ids before the chunks are closed
+  transient final CategoricalDictionary _catDict;
+  private transient HashMap<Integer, String>[] _untranslated; // node-local ids without a known global id, per column
+  private transient boolean[] _hasCats; // columns with categorical values in this chunk
 
   public FVecParseWriter(Vec.VectorGroup vg, int cidx, Categorical[] categoricals, byte[] ctypes, int chunkSize, AppendableVec[] avs){
+    this(vg, cidx, categoricals, ctypes, chunkSize, avs, null);
+  }
+
+  public FVecParseWriter(Vec.VectorGroup vg, int cidx, Categorical[] categoricals, byte[] ctypes, int chunkSize, AppendableVec[] avs,
+                         CategoricalDictionary catDict){
     _ctypes = ctypes;           // Required not-null
     _vecs = avs;
     _nvs = new NewChunk[avs.length];
@@ -39,6 +50,11 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
     _cidx = cidx;
     _vg = vg;
     _chunkSize = chunkSize;
+    _catDict = catDict;
+    if (catDict != null) {
+      _untranslated = new HashMap[avs.length];
+      _hasCats = new boolean[avs.length];
+    }
   }
 
   @Override public FVecParseWriter reduce(StreamParseWriter sdout){
@@ -67,6 +83,7 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
   }
   @Override public FVecParseWriter close(Futures fs){
     if( _nvs == null ) return this; // Might call close twice
+    if (_catDict != null) translateCategoricals();
     for(int i=0; i < _nvs.length; i++) {
       _nvs[i].close(_cidx, fs);
       _nvs[i] = null; // free immediately, don't wait for all columns to close
@@ -75,7 +92,43 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
     return this;
   }
   @Override public FVecParseWriter nextChunk(){
-    return  new FVecParseWriter(_vg, _cidx+1, _categoricals, _ctypes, _chunkSize, _vecs);
+    return  new FVecParseWriter(_vg, _cidx+1, _categoricals, _ctypes, _chunkSize, _vecs, _catDict);
+  }
+
+  // Renumber categorical values of this chunk to the global ids, unknown levels of all columns are registered
+  // in the dictionary at once (one task per home node). The chunks have to be renumbered before they are
+  // compressed, the close therefore waits for the new ids.
+  private void translateCategoricals() {
+    int ncols = 0;
+    for (HashMap<Integer, String> untranslated : _untranslated)
+      if (untranslated != null) ncols++;
+    if (ncols > 0) {
+      int[] cols = new int[ncols];
+      int[][] localIds = new int[ncols][];
+      String[][] levels = new String[ncols][];
+      int c = 0;
+      for (int i = 0; i < _untranslated.length; i++) {
+        if (_untranslated[i] == null) continue;
+        cols[c] = i;
+        localIds[c] = new int[_untranslated[i].size()];
+        levels[c] = new String[localIds[c].length];
+        int j = 0;
+        for (Map.Entry<Integer, String> e : _untranslated[i].entrySet()) {
+          localIds[c][j] = e.getKey();
+          levels[c][j++] = e.getValue();
+        }
+        _untranslated[i] = null;
+        c++;
+      }
+      int[][] globalIds = _catDict.assign(cols, levels);
+      for (c = 0; c < ncols; c++)
+        _categoricals[cols[c]].setGlobalIds(localIds[c], globalIds[c]);
+    }
+    for (int i = 0; i < _nvs.length; i++) {
+      if (!_hasCats[i]) continue;
+      // a column which is not (yet) categorical can mix numbers with categorical values, only the latter are renumbered
+      _nvs[i].remap(_categoricals[i].globalIds(), _ctypes[i] != Vec.T_CAT && _ctypes[i] != Vec.T_BAD);
+    }
   }
 
   @Override public void newLine() {
@@ -93,7 +146,7 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
     }
   }
 
-  @Override public final void addInvalidCol(int colIdx) {
+  @Override public void addInvalidCol(int colIdx) {
     if(colIdx < _nCols) _nvs[_col = colIdx].addNA();
   }
 
@@ -131,6 +184,16 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
       } else { // categoricals
         if(!_categoricals[colIdx].isMapFull()) {
           int id = _categoricals[_col = colIdx].addKey(str);
+          if (_catDict != null) {
+            _hasCats[colIdx] = true;
+            if (_categoricals[colIdx].globalId(id) < 0) {
+              if (_untranslated[colIdx] == null) _untranslated[colIdx] = new HashMap<>();
+              if (!_untranslated[colIdx].containsKey(id)) {
+                String s = str.toString();
+                _untranslated[colIdx].put(id, s.contains("\uFFFD") ? str.toSanitizedString() : s);
+              }
+            }
+          }
           if (_ctypes[colIdx] == Vec.T_BAD && id > 1) _ctypes[colIdx] = Vec.T_CAT;
           if(_ctypes[colIdx] == Vec.T_CAT) {
             _nvs[colIdx].addNum(id, 0); // if we are sure we have a categorical column, we can only store the integer (more efficient than remembering this value was categorical)
@@ -26,6 +26,7 @@ import static water.parser.DefaultParserProviders.*;
 public final class ParseDataset {
   public Job<Frame> _job;
   private MultiFileParseTask _mfpt; // Access to partially built vectors for cleanup after parser crash
+  private Frame _prior; // Frame being appended to (as it was before the append), null for a regular parse
 
   // Keys are limited to ByteVec Keys and Frames-of-1-ByteVec Keys
   public static Frame parse(Key okey, Key... keys) { return parse(okey,keys,true, false, ParseSetup.GUESS_HEADER); }
@@ -117,7 +118,88 @@ public final class ParseDataset {
     // FIXME: ParseSetup should be separated into two classes - one for using via Rest API as user setup
     //        and another as an internal parser setup to drive parsing.
     final ParseSetup setup = parseSetup.getFinalSetup(keys, parseSetup);
+    long totalParseSize = prepareInputs(dest, keys, setup, deleteOnDone);
 
+    // Fire off the parse
+    ParseDataset pds = new ParseDataset(dest);
+    new Frame(pds._job._result,new String[0],new Vec[0]).delete_and_lock(pds._job); // Write-Lock BEFORE returning
+    for( Key k : keys ) Lockable.read_lock(k,pds._job); // Read-Lock BEFORE returning
+    ParserFJTask fjt = new ParserFJTask(pds, keys, setup, deleteOnDone); // Fire off background parse
+    pds._job.start(fjt, totalParseSize);
+    return pds;
+  }
+
+  public static Frame append(Key<Frame> dest, Key[] keys, boolean deleteOnDone, ParseSetup parseSetup) {
+    return forkAppend(dest, keys, parseSetup, deleteOnDone)._job.get();
+  }
+
+  /**
+   * Parses files and appends the parsed rows to an existing frame.
+   *
+   * The new rows are stored as additional chunks of the frame's Vecs: chunks of the existing rows are
+   * neither copied nor rewritten. New categorical levels are appended to the existing domains and
+   * rollups are extended by scanning the appended chunks only.
+   *
+   * Since the Vecs are extended in place, the append is refused if another frame in the DKV shares some of
+   * them; frames which are not in the DKV (eg. a local {@code new Frame(fr)}) cannot be detected and see the
+   * appended rows.
+   *
+   * @param dest  existing frame to append to
+   * @param keys  input keys
+   * @param parseSetup  a generic parser setup, column names and types are taken from the existing frame
+   * @param deleteOnDone  delete input data when finished
+   * @return a new parse job
+   */
+  public static ParseDataset forkAppend(final Key<Frame> dest, final Key[] keys, final ParseSetup parseSetup, boolean deleteOnDone) {
+    final Frame prior = DKV.getGet(dest);
+    if (prior == null)
+      throw new H2OIllegalArgumentException("Frame " + dest + " to append to does not exist");
+    final ParseSetup setup = parseSetup.getFinalSetup(keys, parseSetup);
+    if (setup._parse_type.equals(SVMLight_INFO))
+      throw new H2OIllegalArgumentException("Appending is not supported for SVMLight files");
+    if (setup._number_columns != prior.numCols())
+      throw new H2OIllegalArgumentException("Cannot append files with " + setup._number_columns + " columns to frame " +
+              dest + " with " + prior.numCols() + " columns");
+    byte[] types = new byte[prior.numCols()];
+    for (int i = 0; i < types.length; i++) {
+      Vec v = prior.vec(i);
+      if (v.getClass() != Vec.class) // Wrapped or file-backed Vecs cannot be extended with parsed chunks
+        throw new H2OIllegalArgumentException("Cannot append to frame " + dest + ", column " + prior.name(i) +
+                " is backed by " + v.getClass().getSimpleName());
+      types[i] = v.get_type();
+    }
+    Key sharing = frameSharingVecs(prior);
+    if (sharing != null)
+      throw new H2OIllegalArgumentException("Cannot append to frame " + dest + ", its columns are shared with frame " +
+              sharing + "; append to a copy of the frame instead");
+    setup._column_names = prior.names().clone();
+    setup._column_types = types;
+    long totalParseSize = prepareInputs(dest, keys, setup, deleteOnDone);
+
+    ParseDataset pds = new ParseDataset(dest);
+    pds._prior = prior;
+    prior.write_lock(pds._job); // Write-Lock BEFORE returning
+    for( Key k : keys ) Lockable.read_lock(k,pds._job); // Read-Lock BEFORE returning
+    ParserFJTask fjt = new ParserFJTask(pds, keys, setup, deleteOnDone); // Fire off background parse
+    pds._job.start(fjt, totalParseSize);
+    return pds;
+  }
+
+  // Key of another frame of the DKV using some of the Vecs of the given frame, null if there is none
+  private static Key frameSharingVecs(Frame fr) {
+    HashSet<Key> vecKeys = new HashSet<Key>(Arrays.asList(fr.keys()));
+    for (Key k : KeySnapshot.globalKeysOfClass(Frame.class)) {
+      if (k.equals(fr._key)) continue;
+      Frame other = DKV.getGet(k);
+      if (other == null) continue;
+      for (Key vk : other.keys())
+        if (vecKeys.contains(vk)) return k;
+    }
+    return null;
+  }
+
+  // Validates the inputs of a parse and sets their chunk size; returns the total size of the inputs
+  private static long prepareInputs(Key<Frame> dest, Key[] keys, ParseSetup setup, boolean deleteOnDone) {
     HashSet<String> conflictingNames = setup.checkDupColumnNames();
     for( String x : conflictingNames )
     if ( x != null && !x.equals(""))
@@ -158,14 +240,7 @@ public final class ParseDataset {
     long memsz = H2O.CLOUD.free_mem();
     if( totalParseSize > memsz*4 )
       throw new IllegalArgumentException("Total input file size of "+PrettyPrint.bytes(totalParseSize)+" is much larger than total cluster memory of "+PrettyPrint.bytes(memsz)+", please use either a larger cluster or smaller data.");
-
-    // Fire off the parse
-    ParseDataset pds = new ParseDataset(dest);
-    new Frame(pds._job._result,new String[0],new Vec[0]).delete_and_lock(pds._job); // Write-Lock BEFORE returning
-    for( Key k : keys ) Lockable.read_lock(k,pds._job); // Read-Lock BEFORE returning
-    ParserFJTask fjt = new ParserFJTask(pds, keys, setup, deleteOnDone); // Fire off background parse
-    pds._job.start(fjt, totalParseSize);
-    return pds;
+    return totalParseSize;
   }
 
   // Setup a private background parse job
@@ -215,7 +290,15 @@ public final class ParseDataset {
       // Assume the input is corrupt - or already partially deleted after
       // parsing.  Nuke it all - no partial Vecs lying around.
       for (Key k : _keys) Keyed.remove(k, fs);
-      Keyed.remove(_pds._job._result,fs);
+      if (_pds._prior != null) { // Appending: restore the Vecs of the frame as they were before the append
+        for (Vec v : _pds._prior.vecs()) {
+          DKV.put(v, fs);
+          DKV.remove(v.rollupStatsKey(), fs);
+        }
+        fs.blockForPending();
+        _pds._prior.unlock(_pds._job);
+      } else
+        Keyed.remove(_pds._job._result,fs);
       fs.blockForPending();
     }
   }
@@ -236,15 +319,144 @@ public final class ParseDataset {
     if(setup._na_strings != null && setup._na_strings.length != setup._number_columns) setup._na_strings = null;
     if( fkeys.length == 0) { job.stop();  return pds;  }
 
+    // Incremental publication parses the files in batches, each batch is appended to the frame parsed so far
+    // (SVMLight can widen the frame with every file and is therefore always parsed at once)
+    final int batchSize = setup._incremental_publish_files > 0 && !setup._parse_type.equals(SVMLight_INFO) ?
+            setup._incremental_publish_files : fkeys.length;
     job.update(0, "Ingesting files.");
-    VectorGroup vg = getByteVec(fkeys[0]).group();
-    MultiFileParseTask mfpt = pds._mfpt = new MultiFileParseTask(vg,setup,job._key,fkeys,deleteOnDone);
+    // When appending, the new chunks become part of the Vecs of the existing frame
+    Frame fr = pds._prior;
+    VectorGroup vg = fr != null ? fr.anyVec().group() : getByteVec(fkeys[0]).group();
+    // Single-pass categoricals: global ids are assigned during the parse (shared by all batches)
+    final CategoricalDictionary catDict = setup._single_pass_categoricals && !setup._parse_type.isDomainProvided &&
+            !setup._parse_type.equals(SVMLight_INFO) ? new CategoricalDictionary(setup._number_columns) : null;
+    if (catDict != null && fr != null) { // Existing levels keep their ids
+      int[] ecols = categoricalColumns(fr.vecs());
+      String[][] domains = new String[ecols.length][];
+      for (int i = 0; i < ecols.length; i++)
+        domains[i] = fr.vec(ecols[i]).domain();
+      catDict.assign(ecols, domains);
+    }
+    // Chunk sampling without an explicit seed: pick one, the frame records it so the sample can be reproduced
+    if (setup.isChunkSampling() && setup._sample_seed == -1)
+      setup._sample_seed = new Random().nextLong();
+    long parsedChunks = 0, totalChunks = 0;
+    ParseWriter.ParseErr [] errs = setup.errs();
+    final Key<Frame> partialKey = partialResultKey(job._result);
+    try {
+      for (int from = 0; from < fkeys.length; from += batchSize) {
+        Key[] batchKeys = Arrays.copyOfRange(fkeys, from, Math.min(fkeys.length, from + batchSize));
+        int chunkBase = fr == null ? 0 : fr.anyVec().nChunks();
+        MultiFileParseTask mfpt = pds._mfpt = new MultiFileParseTask(vg,setup,job._key,batchKeys,deleteOnDone,
+                fr == null ? null : fr.keys(),chunkBase,catDict);
+        fr = parseBatch(job, mfpt, batchKeys, setup, fr);
+        // Check for job cancellation
+        if ( fr == null || job.stop_requested() ) return pds;
+        parsedChunks += mfpt._parsedChunks;
+        totalChunks += mfpt._totalChunks;
+        errs = ArrayUtils.append(errs, batchErrors(mfpt, batchKeys, fr));
+        if (from + batchKeys.length < fkeys.length) {
+          // publish the parsed prefix, the result itself stays write-locked until the parse is done
+          DKV.put(new Frame(partialKey, fr.names(), fr.vecs()));
+          job.update(0, "Published " + fr.numRows() + " rows parsed from " + (from + batchKeys.length) + " out of " +
+                  fkeys.length + " files as " + partialKey + ".");
+          Log.info("Published partial parse result for ", fr._key, " as ", partialKey, " (", fr.numRows(), " rows, ",
+                  from + batchKeys.length, "/", fkeys.length, " files).");
+        }
+      }
+    } finally {
+      if (catDict != null) catDict.remove();
+      DKV.remove(partialKey); // only the snapshot, its Vecs belong to the result
+    }
+    // Provisional domains need sorting, single-pass domains are final (ordered by first appearance, documented
+    // as equal to a regular parse only up to the level order);
+    // appended frames keep the order of the existing levels
+    if (batchSize < fkeys.length && catDict == null && pds._prior == null) {
+      // Provisional domains were extended batch by batch, make them sorted as in a regular parse
+      int[] ecols = categoricalColumns(fr.vecs());
+      if (ecols.length > 0) {
+        job.update(0, "Sorting categorical domains.");
+        sortCategoricalDomains(fr, ecols);
+      }
+    }
+
+    // SVMLight is sparse format, there may be missing chunks with all 0s, fill them in
+    if (setup._parse_type.equals(SVMLight_INFO))
+      new SVFTask(fr).doAllNodes();
+
+    // Check for job cancellation
+    if ( job.stop_requested() ) return pds;
+
+    if(errs.length > 0) {
+      SortedSet<ParseWriter.ParseErr> s = new TreeSet<>(new Comparator<ParseWriter.ParseErr>() {
+        @Override
+        public int compare(ParseWriter.ParseErr o1, ParseWriter.ParseErr o2) {
+          long res = o1._gLineNum - o2._gLineNum;
+          if (res == 0) res = o1._byteOffset - o2._byteOffset;
+          if (res == 0) return o1._err.compareTo(o2._err);
+          return (int) res < 0 ? -1 : 1;
+        }
+      });
+      Collections.addAll(s, errs);
+      String[] warns = new String[s.size()];
+      int i = 0;
+      for (ParseWriter.ParseErr err : s)
+        Log.warn(warns[i++] = err.toString());
+      job.setWarnings(warns);
+    }
+    if (setup.isChunkSampling() || setup._max_rows_per_file > 0) {
+      fr._parse_sampling = new ParseSampling(setup.isChunkSampling() ? setup._sample_fraction : 0, setup._sample_seed,
+              setup._max_rows_per_file, parsedChunks, totalChunks);
+      Log.info("Parse of " + fr._key + " is a sample: " + fr._parse_sampling);
+    }
+    job.update(0,"Calculating data summary.");
+    logParseResults(fr);
+    // Release the frame for overwriting
+    fr.update(job);
+    Frame fr2 = DKV.getGet(fr._key);
+    assert fr2._names.length == fr2.numCols();
+    fr.unlock(job);
+    // Remove CSV files from H2O memory
+    if( deleteOnDone )
+      for( Key k : fkeys ) {
+        DKV.remove(k);
+        assert DKV.get(k) == null : "Input key " + k + " not deleted during parse";
+      }
+    return pds;
+  }
+
+  /**
+   * Parses a batch of files and appends the parsed chunks to a previously parsed frame.
+   *
+   * Categorical domains of the appended frame are provisional: levels seen for the first time
+   * in this batch are appended (in sorted order) to the domain of the prior frame, this way the
+   * chunks of the prior frame stay valid.
+   *
+   * @param job parse job
+   * @param mfpt parse task for the batch
+   * @param fkeys files of this batch
+   * @param setup parse setup
+   * @param prior frame parsed so far, null for the first batch
+   * @return frame combining the prior frame and the batch, null if the job was cancelled
+   */
+  private static Frame parseBatch(Job<Frame> job, MultiFileParseTask mfpt, Key[] fkeys, ParseSetup setup, Frame prior) {
     mfpt.doAll(fkeys);
     Log.trace("Done ingesting files.");
-    if( job.stop_requested() ) return pds;
+    if( job.stop_requested() ) return null;
 
-    final AppendableVec [] avs = mfpt.vecs();
+    final AppendableVec [] avs = prior == null ? mfpt.vecs() : appendTo(prior.vecs(), mfpt.vecs());
     setup._column_names = getColumnNames(avs.length, setup._column_names);
+    // Capture rollups of the prior Vecs, they get extended by the rollups of the appended chunks only
+    RollupStats[] priorRollups = null;
+    String[][] priorDomains = null;
+    if (prior != null) {
+      priorRollups = new RollupStats[avs.length];
+      priorDomains = new String[avs.length][];
+      for (int i = 0; i < avs.length; i++) {
+        priorRollups[i] = prior.vec(i).rollupStatsIfReady();
+        priorDomains[i] = prior.vec(i).domain();
+      }
+    }
 
     Frame fr = null;
     // Calculate categorical domain
@@ -257,16 +469,35 @@ public final class ParseDataset {
     final int[] ecols = Arrays.copyOf(ecols2, n);
     // If we have any, go gather unified categorical domains
     if( n > 0 ) {
-      if (!setup.getParseType().isDomainProvided) { // Domains are not provided via setup we need to collect them
+      if (mfpt._catDict != null) { // Global ids were assigned during the parse, the chunks need no update
+        job.update(0, "Collecting categorical domains.");
+        String[][] domains = mfpt._catDict.domains(ecols);
+        List<String> offendingColNames = new ArrayList<>();
+        for (int i = 0; i < ecols.length; i++) {
+          int domainLength = domains[i] == null ? 0 : domains[i].length;
+          if (domainLength < Categorical.MAX_CATEGORICAL_COUNT) {
+            if( domainLength==0 ) avs[ecols[i]].setBad(); // The all-NA column
+            else avs[ecols[i]].setDomain(domains[i]);
+          } else
+            offendingColNames.add(setup._column_names[ecols[i]]);
+        }
+        new RemoveCategoricalsTask(mfpt._cKey).doAllNodes();
+        if (offendingColNames.size() > 0)
+          throw new H2OParseException("Exceeded categorical limit on columns "+ offendingColNames+".   Consider reparsing these columns as a string.");
+      } else if (!setup.getParseType().isDomainProvided) { // Domains are not provided via setup we need to collect them
         job.update(0, "Collecting categorical domains across nodes.");
         {
           GatherCategoricalDomainsTask gcdt = new GatherCategoricalDomainsTask(mfpt._cKey, ecols).doAllNodes();
           //Test domains for excessive length.
           List<String> offendingColNames = new ArrayList<>();
           for (int i = 0; i < ecols.length; i++) {
-            if (gcdt.getDomainLength(i) < Categorical.MAX_CATEGORICAL_COUNT) {
-              if( gcdt.getDomainLength(i)==0 ) avs[ecols[i]].setBad(); // The all-NA column
-              else avs[ecols[i]].setDomain(gcdt.getDomain(i));
+            String[] domain = gcdt.getDomain(i);
+            if (prior != null)
+              domain = extendDomain(prior.vec(ecols[i]).domain(), domain);
+            int domainLength = domain == null ? 0 : domain.length;
+            if (domainLength < Categorical.MAX_CATEGORICAL_COUNT) {
+              if( domainLength==0 ) avs[ecols[i]].setBad(); // The all-NA column
+              else avs[ecols[i]].setDomain(domain);
             } else
               offendingColNames.add(setup._column_names[ecols[i]]);
           }
@@ -282,10 +513,10 @@ public final class ParseDataset {
       }
 
       job.update(0, "Compressing data.");
-      fr = new Frame(job._result, setup._column_names, AppendableVec.closeAll(avs));
+      fr = new Frame(job._result, setup._column_names, closeAll(avs, prior != null));
       fr.update(job);
       Log.trace("Done compressing data.");
-      if (!setup.getParseType().isDomainProvided) {
+      if (!setup.getParseType().isDomainProvided && mfpt._catDict == null) {
         // Update categoricals to the globally agreed numbering
         Vec[] evecs = new Vec[ecols.length];
         for( int i = 0; i < evecs.length; ++i ) evecs[i] = fr.vecs()[ecols[i]];
@@ -303,70 +534,133 @@ public final class ParseDataset {
           for (RPC rpc : rpcs)
             rpc.get();
 
-          new UpdateCategoricalChunksTask(mfpt._cKey, mfpt._chunk2ParseNodeMap).doAll(evecs);
+          new UpdateCategoricalChunksTask(mfpt._cKey, mfpt._chunk2ParseNodeMap, mfpt._chunkBase).doAll(evecs);
           MultiFileParseTask._categoricals.remove(mfpt._cKey);
         }
         Log.trace("Done unifying categoricals across nodes.");
       }
     } else {                    // No categoricals case
       job.update(0,"Compressing data.");
-      fr = new Frame(job._result, setup._column_names,AppendableVec.closeAll(avs));
+      fr = new Frame(job._result, setup._column_names, closeAll(avs, prior != null));
       Log.trace("Done closing all Vecs.");
     }
-    // Check for job cancellation
-    if ( job.stop_requested() ) return pds;
-
-    // SVMLight is sparse format, there may be missing chunks with all 0s, fill them in
-    if (setup._parse_type.equals(SVMLight_INFO))
-      new SVFTask(fr).doAllNodes();
+    if (prior != null)
+      Vec.appendRollupStats(fr.vecs(), priorRollups, priorDomains, mfpt._chunkBase);
+    return fr;
+  }
 
-    // Check for job cancellation
-    if ( job.stop_requested() ) return pds;
+  // Close the Vecs, when appending any rollups of a previously published prefix of the Vecs are stale
+  private static Vec[] closeAll(AppendableVec[] avs, boolean appended) {
+    if (!appended) return AppendableVec.closeAll(avs);
+    Futures fs = new Futures();
+    Vec[] vecs = AppendableVec.closeAll(avs, fs);
+    for (Vec v : vecs)
+      DKV.remove(v.rollupStatsKey(), fs);
+    fs.blockForPending();
+    return vecs;
+  }
 
-    ParseWriter.ParseErr [] errs = ArrayUtils.append(setup.errs(),mfpt._errors);
-    if(errs.length > 0) {
-      // compute global line numbers for warnings/errs
-      HashMap<String, Integer> fileChunkOffsets = new HashMap<>();
-      for (int i = 0; i < mfpt._fileChunkOffsets.length; ++i)
-        fileChunkOffsets.put(fkeys[i].toString(), mfpt._fileChunkOffsets[i]);
-      long[] espc = fr.anyVec().espc();
-      for (int i = 0; i < errs.length; ++i) {
-        if(fileChunkOffsets.containsKey(errs[i]._file)) {
-          int espcOff = fileChunkOffsets.get(errs[i]._file);
-          errs[i]._gLineNum = espc[espcOff + errs[i]._cidx] + errs[i]._lineNum;
-          errs[i]._lineNum = errs[i]._gLineNum - espc[espcOff];
-        }
+  // Extends the prior Vecs with chunks of a newly parsed batch
+  private static AppendableVec[] appendTo(Vec[] prior, AppendableVec[] batch) {
+    assert prior.length == batch.length;
+    final long[] priorEspc = prior[0].espc();
+    final int priorChunks = prior[0].nChunks();
+    AppendableVec[] res = new AppendableVec[batch.length];
+    long[] tmpEspc = null;
+    for (int i = 0; i < res.length; i++) {
+      assert batch[i]._key.equals(prior[i]._key);
+      assert batch[i]._chunkOff == priorChunks;
+      if (tmpEspc == null) {
+        long[] batchEspc = batch[i]._tmp_espc;
+        tmpEspc = MemoryManager.malloc8(priorChunks + batchEspc.length);
+        for (int c = 0; c < priorChunks; c++)
+          tmpEspc[c] = priorEspc[c + 1] - priorEspc[c];
+        System.arraycopy(batchEspc, 0, tmpEspc, priorChunks, batchEspc.length);
       }
-      SortedSet<ParseWriter.ParseErr> s = new TreeSet<>(new Comparator<ParseWriter.ParseErr>() {
-        @Override
-        public int compare(ParseWriter.ParseErr o1, ParseWriter.ParseErr o2) {
-          long res = o1._gLineNum - o2._gLineNum;
-          if (res == 0) res = o1._byteOffset - o2._byteOffset;
-          if (res == 0) return o1._err.compareTo(o2._err);
-          return (int) res < 0 ? -1 : 1;
-        }
-      });
-      Collections.addAll(s, errs);
-      String[] warns = new String[s.size()];
-      int i = 0;
-      for (ParseWriter.ParseErr err : s)
-        Log.warn(warns[i++] = err.toString());
-      job.setWarnings(warns);
+      res[i] = new AppendableVec(batch[i]._key, tmpEspc, prior[i].get_type() == Vec.T_BAD ? batch[i].get_type() : prior[i].get_type(), 0);
     }
-    job.update(0,"Calculating data summary.");
-    logParseResults(fr);
-    // Release the frame for overwriting
-    fr.update(job);
-    Frame fr2 = DKV.getGet(fr._key);
-    assert fr2._names.length == fr2.numCols();
-    fr.unlock(job);
-    // Remove CSV files from H2O memory
-    if( deleteOnDone )
-      for( Key k : fkeys ) {
-        DKV.remove(k);
-        assert DKV.get(k) == null : "Input key " + k + " not deleted during parse";
+    return res;
+  }
+
+  // Provisional domain: prior levels keep their ids, new levels are appended
+  private static String[] extendDomain(String[] priorDomain, String[] batchDomain) {
+    if (priorDomain == null) return batchDomain;
+    if (batchDomain == null) return priorDomain;
+    HashSet<String> known = new HashSet<>(Arrays.asList(priorDomain));
+    List<String> domain = new ArrayList<>(Arrays.asList(priorDomain));
+    for (String level : batchDomain)
+      if (!known.contains(level)) domain.add(level);
+    return domain.toArray(new String[domain.size()]);
+  }
+
+  /**
+   * Key of the snapshot of a parse with incremental publication. After each batch of files the rows parsed so far
+   * are published as an unlocked frame under this key, readers can read-lock it while the result is still being
+   * parsed. The snapshot shares the Vecs of the result: it is only valid while the parse is running (domains can
+   * still be reordered when the parse finishes), it is removed once the parse completes and must not be deleted
+   * by the readers.
+   * @param dest key of the parse result
+   * @return key of the snapshot of the parsed prefix
+   */
+  public static Key<Frame> partialResultKey(Key<Frame> dest) {
+    return Key.make(dest + "_partial");
+  }
+
+  // Orders categorical levels as the regular parse does (by their UTF-8 bytes)
+  private static final Comparator<String> DOMAIN_ORDER = new Comparator<String>() {
+    @Override public int compare(String s1, String s2) {
+      return new BufferedString(s1).compareTo(new BufferedString(s2));
+    }
+  };
+
+  private static int[] categoricalColumns(Vec[] vecs) {
+    int n = 0;
+    int[] ecols = new int[vecs.length];
+    for (int i = 0; i < vecs.length; i++)
+      if (vecs[i].isCategorical()) ecols[n++] = i;
+    return Arrays.copyOf(ecols, n);
+  }
+
+  // Sort provisional domains and renumber categorical chunks accordingly
+  private static void sortCategoricalDomains(Frame fr, int[] ecols) {
+    List<Vec> unsorted = new ArrayList<>();
+    List<int[]> maps = new ArrayList<>();
+    for (int col : ecols) {
+      Vec v = fr.vec(col);
+      String[] domain = v.domain();
+      String[] sorted = domain.clone();
+      Arrays.sort(sorted, DOMAIN_ORDER);
+      if (Arrays.equals(domain, sorted)) continue;
+      HashMap<String, Integer> pos = new HashMap<>();
+      for (int i = 0; i < sorted.length; i++) pos.put(sorted[i], i);
+      int[] map = new int[domain.length];
+      for (int i = 0; i < domain.length; i++) map[i] = pos.get(domain[i]);
+      v.setDomain(sorted);
+      DKV.put(v);
+      unsorted.add(v);
+      maps.add(map);
+    }
+    if (unsorted.isEmpty()) return;
+    new RemapCategoricalChunksTask(maps.toArray(new int[maps.size()][])).doAll(unsorted.toArray(new Vec[unsorted.size()]));
+    fr.reloadVecs();
+  }
+
+  // Compute global line numbers for warnings/errs of a single batch
+  private static ParseWriter.ParseErr[] batchErrors(MultiFileParseTask mfpt, Key[] fkeys, Frame fr) {
+    ParseWriter.ParseErr[] errs = mfpt._errors;
+    if (errs == null || errs.length == 0) return new ParseWriter.ParseErr[0];
+    HashMap<String, Integer> fileChunkOffsets = new HashMap<>();
+    for (int i = 0; i < mfpt._fileChunkOffsets.length; ++i)
+      fileChunkOffsets.put(fkeys[i].toString(), mfpt._fileChunkOffsets[i]);
+    long[] espc = fr.anyVec().espc();
+    for (int i = 0; i < errs.length; ++i) {
+      if(fileChunkOffsets.containsKey(errs[i]._file)) {
+        int espcOff = fileChunkOffsets.get(errs[i]._file);
+        errs[i]._gLineNum = espc[espcOff + errs[i]._cidx] + errs[i]._lineNum;
+        errs[i]._lineNum = errs[i]._gLineNum - espc[espcOff];
       }
-    return pds;
+    }
+    return errs;
   }
   private static class CreateParse2GlobalCategoricalMaps extends DTask<CreateParse2GlobalCategoricalMaps> {
     private final Key   _parseCatMapsKey;
@@ -423,13 +717,16 @@ public final class ParseDataset {
   private static class UpdateCategoricalChunksTask extends MRTask<UpdateCategoricalChunksTask> {
     private final Key _parseCatMapsKey;
     private final int  [] _chunk2ParseNodeMap;
+    private final int _chunkBase; // chunks before this index were parsed (and updated) by a previous batch
 
-    private UpdateCategoricalChunksTask(Key parseCatMapsKey, int[] chunk2ParseNodeMap) {
+    private UpdateCategoricalChunksTask(Key parseCatMapsKey, int[] chunk2ParseNodeMap, int chunkBase) {
       _parseCatMapsKey = parseCatMapsKey;
       _chunk2ParseNodeMap = chunk2ParseNodeMap;
+      _chunkBase = chunkBase;
     }
 
     @Override public void map(Chunk [] chks){
+      if (chks[0].cidx() < _chunkBase) return;
       CategoricalUpdateMap temp = DKV.getGet(Key.make(_parseCatMapsKey.toString() + "parseCatMapNode" + _chunk2ParseNodeMap[chks[0].cidx()]));
       if ( temp == null || temp.map == null)
         throw new H2OIllegalValueException("Missing categorical update map",this);
@@ -463,6 +760,44 @@ public final class ParseDataset {
         DKV.remove(Key.make(_parseCatMapsKey.toString() + "parseCatMapNode" + i));
     }
   }
+  /**
+   * Renumbers categorical chunks after the domains of the Vecs were re-ordered.
+   */
+  private static class RemapCategoricalChunksTask extends MRTask<RemapCategoricalChunksTask> {
+    private final int[][] _maps; // old ordinal -> new ordinal, for each Vec
+
+    private RemapCategoricalChunksTask(int[][] maps) {
+      _maps = maps;
+    }
+
+    @Override public void map(Chunk [] chks) {
+      for (int i = 0; i < chks.length; ++i) {
+        Chunk chk = chks[i];
+        int[] map = _maps[i];
+        for (int j = 0; j < chk._len; ++j) {
+          if (chk.isNA(j)) continue;
+          chk.set(j, map[(int) chk.at8(j)]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Drops the node-local categorical maps of a parse.
+   */
+  private static class RemoveCategoricalsTask extends MRTask<RemoveCategoricalsTask> {
+    private final Key _k;
+
+    private RemoveCategoricalsTask(Key k) {
+      _k = k;
+    }
+
+    @Override
+    public void setupLocal() {
+      MultiFileParseTask._categoricals.remove(_k);
+    }
+  }
+
   private static class GatherCategoricalDomainsTask extends MRTask<GatherCategoricalDomainsTask> {
     private final Key _k;
     private final int[] _catColIdxs;
@@ -571,6 +906,9 @@ public final class ParseDataset {
     private final ParseSetup _parseSetup; // The expected column layout
     private final VectorGroup _vg;    // vector group of the target dataset
     private final int _vecIdStart;    // Start of available vector keys
+    private final Key<Vec>[] _vecKeys; // Keys of existing Vecs to append to, null when parsing into new Vecs
+    private final int _chunkBase;     // Index of the first chunk produced by this task (non-zero when appending)
+    private final CategoricalDictionary _catDict; // Global categorical ids for single-pass parses, null otherwise
     // Shared against all concurrent unrelated parses, a map to the node-local
     // categorical lists for each concurrent parse.
     private static NonBlockingHashMap<Key, Categorical[]> _categoricals = new NonBlockingHashMap<>();
@@ -585,6 +923,11 @@ public final class ParseDataset {
     private final Key<Job> _jobKey;
     // A mapping of Key+ByteVec to rolling total Chunk counts.
     private final int[]  _fileChunkOffsets;
+    // Per file mapping of input Chunks to output Chunks when the Chunks are sampled (-1 for skipped Chunks),
+    // null for files parsed whole
+    private final int[][] _sampledChunks;
+    final long _parsedChunks; // Number of input Chunks selected for parsing
+    final long _totalChunks;  // Number of input Chunks
 
     // OUTPUT fields:
     FVecParseWriter[] _dout;
@@ -593,25 +936,67 @@ public final class ParseDataset {
     private ParseWriter.ParseErr[] _errors = new ParseWriter.ParseErr[0];
 
     MultiFileParseTask(VectorGroup vg,  ParseSetup setup, Key<Job> jobKey, Key[] fkeys, boolean deleteOnDone ) {
+      this(vg, setup, jobKey, fkeys, deleteOnDone, null, 0, null);
+    }
+
+    /**
+     * @param vecKeys keys of existing Vecs to append to, null to reserve new keys
+     * @param chunkBase index of the first output chunk, non-zero when appending to already parsed Vecs
+     * @param catDict dictionary assigning global categorical ids during the parse, null to unify the domains afterwards
+     */
+    MultiFileParseTask(VectorGroup vg,  ParseSetup setup, Key<Job> jobKey, Key[] fkeys, boolean deleteOnDone,
+                       Key<Vec>[] vecKeys, int chunkBase, CategoricalDictionary catDict) {
       _vg = vg; _parseSetup = setup;
-      _vecIdStart = _vg.reserveKeys(_reservedKeys = _parseSetup._parse_type.equals(SVMLight_INFO) ? 100000000 : setup._number_columns);
+      _reservedKeys = _parseSetup._parse_type.equals(SVMLight_INFO) ? 100000000 : setup._number_columns;
+      _vecKeys = vecKeys;
+      _vecIdStart = vecKeys != null ? -1 : _vg.reserveKeys(_reservedKeys);
+      _chunkBase = chunkBase;
+      _catDict = catDict;
       _deleteOnDone = deleteOnDone;
       _jobKey = jobKey;
       // A mapping of Key+ByteVec to rolling total Chunk counts.
       _fileChunkOffsets = new int[fkeys.length];
-      int len = 0;
+      _sampledChunks = new int[fkeys.length][];
+      int len = chunkBase;
+      long total = 0;
       for( int i = 0; i < fkeys.length; ++i ) {
         _fileChunkOffsets[i] = len;
-        len += getByteVec(fkeys[i]).nChunks();
+        ByteVec vec = getByteVec(fkeys[i]);
+        total += vec.nChunks();
+        _sampledChunks[i] = sampleChunks(setup, fkeys[i], vec, fkeys.length);
+        len += _sampledChunks[i] == null ? vec.nChunks() : (int) ArrayUtils.maxValue(_sampledChunks[i]) + 1;
       }
+      _parsedChunks = len - chunkBase;
+      _totalChunks = total;
 
       // Mapping from Chunk# to cluster-node-number
       _chunk2ParseNodeMap = MemoryManager.malloc4(len);
       Arrays.fill(_chunk2ParseNodeMap, -1);
     }
 
+    /**
+     * Selects a random subset of the Chunks of a file, each Chunk is parsed with probability given
+     * by the sample fraction. Only files parsed in a distributed fashion can be sampled, the others are parsed whole.
+     * @return mapping of input Chunks to (consecutive) output Chunks, -1 for skipped Chunks; null if the whole file is parsed
+     */
+    static int[] sampleChunks(ParseSetup setup, Key key, ByteVec vec, int nfiles) {
+      if (!setup.isChunkSampling() || setup._max_rows_per_file > 0) return null;
+      if (ZipUtil.guessCompressionMethod(vec.getFirstBytes()) != ZipUtil.Compression.NONE ||
+          setup._parse_type.parseMethod(nfiles, vec.nChunks()) != ParserInfo.ParseMethod.DistributedParse ||
+          !DecryptionTool.get(setup._decrypt_tool).isTransparent())
+        return null;
+      Random rng = RandomUtils.getRNG(setup._sample_seed + key.toString().hashCode());
+      int[] out = new int[vec.nChunks()];
+      int n = 0;
+      for (int i = 0; i < out.length; i++) // the first Chunk is always parsed (it may hold the header)
+        out[i] = i == 0 || rng.nextDouble() < setup._sample_fraction ? n++ : -1;
+      return out;
+    }
+
     private AppendableVec [] _vecs;
 
+    private Key<Vec> vecKey(int i) { return _vecKeys != null ? _vecKeys[i] : _vg.vecKey(_vecIdStart + i); }
+
     @Override public void postGlobal(){
       Log.trace("Begin file parse cleanup.");
       // Compress nulls out of _dout array
@@ -643,7 +1028,7 @@ public final class ParseDataset {
         Arrays.fill(_parseSetup._column_types,Vec.T_NUM);
       }
       for(int i = 0; i < res.length; ++i)
-        res[i] = new AppendableVec(_vg.vecKey(_vecIdStart + i), espc, _parseSetup._column_types[i], 0);
+        res[i] = new AppendableVec(vecKey(i), espc, _parseSetup._column_types[i], _chunkBase);
       // Load the global ESPC from the file-local ESPCs
       for( FVecParseWriter fvpw : _dout ) {
         AppendableVec[] avs = fvpw._vecs;
@@ -654,7 +1039,7 @@ public final class ParseDataset {
           assert avs[0]._chunkOff == avs[j]._chunkOff;
           assert file_local_espc == avs[j]._tmp_espc || Arrays.equals(file_local_espc,avs[j]._tmp_espc);
         }
-        System.arraycopy(file_local_espc, 0, espc, avs[0]._chunkOff, file_local_espc.length);
+        System.arraycopy(file_local_espc, 0, espc, avs[0]._chunkOff - _chunkBase, file_local_espc.length);
       }
 
       _vecs = res;
@@ -696,10 +1081,18 @@ public final class ParseDataset {
       final long [] espc = MemoryManager.malloc8(nchunks);
       final byte[] ctypes = localSetup._column_types; // SVMLight only uses numeric types, sparsely represented as a null
       for(int i = 0; i < avs.length; ++i)
-        avs[i] = new AppendableVec(_vg.vecKey(i + _vecIdStart), espc, ctypes==null ? /*SVMLight*/Vec.T_NUM : ctypes[i], chunkOff);
-      return localSetup._parse_type.equals(SVMLight_INFO)
-        ? new SVMLightFVecParseWriter(_vg, _vecIdStart,chunkOff, _parseSetup._chunk_size, avs)
-        : new FVecParseWriter(_vg, chunkOff, categoricals(_cKey, localSetup._number_columns), localSetup._column_types, _parseSetup._chunk_size, avs);
+        avs[i] = new AppendableVec(vecKey(i), espc, ctypes==null ? /*SVMLight*/Vec.T_NUM : ctypes[i], chunkOff);
+      if (localSetup._parse_type.equals(SVMLight_INFO))
+        return new SVMLightFVecParseWriter(_vg, _vecIdStart,chunkOff, _parseSetup._chunk_size, avs);
+      Categorical[] categoricals = categoricals(_cKey, localSetup._number_columns);
+      return localSetup._max_rows_per_file > 0
+        ? new RowLimitFVecParseWriter(_vg, chunkOff, categoricals, localSetup._column_types, _parseSetup._chunk_size, avs, _catDict, localSetup._max_rows_per_file)
+        : new FVecParseWriter(_vg, chunkOff, categoricals, localSetup._column_types, _parseSetup._chunk_size, avs, _catDict);
+    }
+
+    // Stops reading the input once the row limit of the file is reached
+    private static InputStream limit(InputStream is, FVecParseWriter dout) {
+      return dout instanceof RowLimitFVecParseWriter ? ((RowLimitFVecParseWriter) dout).limit(is) : is;
     }
 
     // Called once per file
@@ -725,16 +1118,24 @@ public final class ParseDataset {
           ParserInfo.ParseMethod pm = _parseSetup._parse_type.parseMethod(_keys.length, vec.nChunks());
           if (pm == ParserInfo.ParseMethod.DistributedParse && ! decryptionTool.isTransparent())
             pm = ParserInfo.ParseMethod.StreamParse;
+          // Row limit: only the beginning of the file is read
+          if (pm == ParserInfo.ParseMethod.DistributedParse && localSetup._max_rows_per_file > 0 &&
+              !localSetup._parse_type.equals(SVMLight_INFO))
+            pm = ParserInfo.ParseMethod.StreamParse;
           if(pm == ParserInfo.ParseMethod.DistributedParse) {
-            new DistributedParse(_vg, localSetup, _vecIdStart, chunkStartIdx, this, key, vec.nChunks()).dfork(vec).getResult(false);
+            int[] outChunks = _sampledChunks[_lo];
+            int nchunks = outChunks == null ? vec.nChunks() : (int) ArrayUtils.maxValue(outChunks) + 1;
+            new DistributedParse(_vg, localSetup, _vecIdStart, chunkStartIdx, this, key, nchunks, outChunks).dfork(vec).getResult(false);
             for( int i = 0; i < vec.nChunks(); ++i )
-              _chunk2ParseNodeMap[chunkStartIdx + i] = vec.chunkKey(i).home_node().index();
+              if (outChunks == null || outChunks[i] >= 0)
+                _chunk2ParseNodeMap[chunkStartIdx + (outChunks == null ? i : outChunks[i])] = vec.chunkKey(i).home_node().index();
           } else if(pm == ParserInfo.ParseMethod.StreamParse){
             localSetup = ParserService.INSTANCE.getByInfo(localSetup._parse_type).setupLocal(vec,localSetup);
             InputStream bvs = vec.openStream(_jobKey);
             Parser p = localSetup.parser(_jobKey);
-            _dout[_lo] = ((FVecParseWriter) p.streamParse(decryptionTool.decryptInputStream(bvs),
-                    makeDout(localSetup,chunkStartIdx,vec.nChunks()))).close(_fs);
+            FVecParseWriter dout = makeDout(localSetup,chunkStartIdx,vec.nChunks());
+            _dout[_lo] = ((FVecParseWriter) p.streamParse(limit(decryptionTool.decryptInputStream(bvs), dout),
+                    dout)).close(_fs);
             _errors = _dout[_lo].removeErrors();
             chunksAreLocal(vec,chunkStartIdx,key);
           } else throw H2O.unimpl();
@@ -751,8 +1152,10 @@ public final class ParseDataset {
           ZipEntry ze = zis.getNextEntry(); // Get the *FIRST* entry
           InputStream dec = decryptionTool.decryptInputStream(zis);
           // There is at least one entry in zip file and it is not a directory.
-          if( ze != null && !ze.isDirectory() )
-            _dout[_lo] = streamParse(dec,localSetup, makeDout(localSetup,chunkStartIdx,vec.nChunks()), bvs);
+          if( ze != null && !ze.isDirectory() ) {
+            FVecParseWriter dout = makeDout(localSetup,chunkStartIdx,vec.nChunks());
+            _dout[_lo] = streamParse(limit(dec, dout),localSetup, dout, bvs);
+          }
             _errors = _dout[_lo].removeErrors();
           dec.close();       // Confused: which zipped file to decompress
           chunksAreLocal(vec,chunkStartIdx,key);
@@ -762,8 +1165,9 @@ public final class ParseDataset {
           localSetup = ParserService.INSTANCE.getByInfo(localSetup._parse_type).setupLocal(vec,localSetup);
           InputStream bvs = vec.openStream(_jobKey);
           // Zipped file; no parallel decompression;
-          _dout[_lo] = streamParse(decryptionTool.decryptInputStream(new GZIPInputStream(bvs)),
-                  localSetup, makeDout(localSetup,chunkStartIdx,vec.nChunks()),bvs);
+          FVecParseWriter dout = makeDout(localSetup,chunkStartIdx,vec.nChunks());
+          _dout[_lo] = streamParse(limit(decryptionTool.decryptInputStream(new GZIPInputStream(bvs)), dout),
+                  localSetup, dout, bvs);
           _errors = _dout[_lo].removeErrors();
           // set this node as the one which processed all the chunks
           chunksAreLocal(vec,chunkStartIdx,key);
@@ -827,29 +1231,41 @@ public final class ParseDataset {
     private static class DistributedParse extends MRTask<DistributedParse> {
       private ParseSetup _setup;
       private final int _vecIdStart;
+      private final Key<Vec>[] _vecKeys;
       private final int _startChunkIdx; // for multifile parse, offset of the first chunk in the final dataset
       private final VectorGroup _vg;
       private FVecParseWriter _dout;
       private final Key _cKey;  // Parse-local-categoricals key
+      private final CategoricalDictionary _catDict;
       private final Key<Job> _jobKey;
       private transient final MultiFileParseTask _outerMFPT;
       private transient final Key _srckey; // Source/text file to delete on done
       private transient NonBlockingSetInt _visited;
       private transient long [] _espc;
       final int _nchunks;
+      private final int[] _outChunks; // input to output Chunk mapping of a sampled file (-1 skips a Chunk), null to parse all Chunks
 
       DistributedParse(VectorGroup vg, ParseSetup setup, int vecIdstart, int startChunkIdx, MultiFileParseTask mfpt, Key srckey, int nchunks) {
+        this(vg, setup, vecIdstart, startChunkIdx, mfpt, srckey, nchunks, null);
+      }
+
+      DistributedParse(VectorGroup vg, ParseSetup setup, int vecIdstart, int startChunkIdx, MultiFileParseTask mfpt, Key srckey, int nchunks,
+                       int[] outChunks) {
         super(null);
         _vg = vg;
         _setup = setup;
         _vecIdStart = vecIdstart;
+        _vecKeys = mfpt._vecKeys;
         _startChunkIdx = startChunkIdx;
         _outerMFPT = mfpt;
         _cKey = mfpt._cKey;
+        _catDict = mfpt._catDict;
         _jobKey = mfpt._jobKey;
         _srckey = srckey;
         _nchunks = nchunks;
+        _outChunks = outChunks;
       }
+      @Override protected boolean skipChunk(int cidx) { return _outChunks != null && _outChunks[cidx] < 0; }
       @Override public void setupLocal(){
         super.setupLocal();
         _visited = new NonBlockingSetInt();
@@ -863,10 +1279,11 @@ public final class ParseDataset {
           if (_setup._column_types == null) // SVMLight
             avs[i] = new AppendableVec(_vg.vecKey(_vecIdStart + i), _espc, Vec.T_NUM, _startChunkIdx);
           else
-            avs[i] = new AppendableVec(_vg.vecKey(_vecIdStart + i), _espc, _setup._column_types[i], _startChunkIdx);
+            avs[i] = new AppendableVec(_vecKeys != null ? _vecKeys[i] : _vg.vecKey(_vecIdStart + i), _espc, _setup._column_types[i], _startChunkIdx);
         // Break out the input & output vectors before the parse loop
         FVecParseReader din = new FVecParseReader(in);
         FVecParseWriter dout;
+        final int ocidx = _outChunks == null ? in.cidx() : _outChunks[in.cidx()]; // index of the output chunk
         // Get a parser
         Parser p = _setup.parser(_jobKey);
         switch(_setup._parse_type.name()) {
@@ -874,19 +1291,19 @@ public final class ParseDataset {
         case "CSV":
         case "PARQUET":
           Categorical [] categoricals = categoricals(_cKey, _setup._number_columns);
-          dout = new FVecParseWriter(_vg,_startChunkIdx + in.cidx(), categoricals, _setup._column_types,
-                  _setup._chunk_size, avs); //TODO: use _setup._domains instead of categoricals
+          dout = new FVecParseWriter(_vg,_startChunkIdx + ocidx, categoricals, _setup._column_types,
+                  _setup._chunk_size, avs, _catDict); //TODO: use _setup._domains instead of categoricals
           break;
         case "SVMLight":
           dout = new SVMLightFVecParseWriter(_vg, _vecIdStart, in.cidx() + _startChunkIdx, _setup._chunk_size, avs);
           break;
         case "ORC":  // setup special case for ORC
           Categorical [] orc_categoricals = categoricals(_cKey, _setup._number_columns);
-          dout = new FVecParseWriter(_vg, in.cidx() + _startChunkIdx, orc_categoricals, _setup._column_types,
-                  _setup._chunk_size, avs);
+          dout = new FVecParseWriter(_vg, ocidx + _startChunkIdx, orc_categoricals, _setup._column_types,
+                  _setup._chunk_size, avs, _catDict);
           break;
         default: // FIXME: should not be default and creation strategy should be forwarded to ParserProvider
-          dout = new FVecParseWriter(_vg, in.cidx() + _startChunkIdx, null, _setup._column_types,
+          dout = new FVecParseWriter(_vg, ocidx + _startChunkIdx, null, _setup._column_types,
                   _setup._chunk_size, avs);
           break;
         }
@@ -952,13 +1369,14 @@ public final class ParseDataset {
     }
 
     // Find & remove all partially built output chunks & vecs
+    // (when appending only the appended chunks are removed, the Vecs are restored by the caller)
     Futures onExceptionCleanup(Futures fs) {
       int nchunks = _chunk2ParseNodeMap.length;
       int ncols = _parseSetup._number_columns;
       for( int i = 0; i < ncols; ++i ) {
-        Key vkey = _vg.vecKey(_vecIdStart + i);
-        Keyed.remove(vkey,fs);
-        for( int c = 0; c < nchunks; ++c )
+        Key vkey = vecKey(i);
+        if (_vecKeys == null) Keyed.remove(vkey,fs);
+        for( int c = _chunkBase; c < nchunks; ++c )
           DKV.remove(Vec.chunkKey(vkey,c),fs);
       }
       cancel(true);
@@ -0,0 +1,38 @@
+package water.parser;
+
+import water.Iced;
+
+/**
+ * Describes how a Frame was sampled at parse time, allows to parse the same sample again.
+ */
+public class ParseSampling extends Iced<ParseSampling> {
+  /** Fraction of the chunks of each file selected for parsing (0 if chunks were not sampled) */
+  public final double _sample_fraction;
+  /** Seed of the chunk selection */
+  public final long _sample_seed;
+  /** Limit of rows parsed from each file (0 if not limited) */
+  public final long _max_rows_per_file;
+  /** Number of chunks of the input files that were parsed */
+  public final long _parsed_chunks;
+  /** Total number of chunks of the input files */
+  public final long _total_chunks;
+
+  ParseSampling(double sampleFraction, long sampleSeed, long maxRowsPerFile, long parsedChunks, long totalChunks) {
+    _sample_fraction = sampleFraction;
+    _sample_seed = sampleSeed;
+    _max_rows_per_file = maxRowsPerFile;
+    _parsed_chunks = parsedChunks;
+    _total_chunks = totalChunks;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    if (_sample_fraction > 0)
+      sb.append("sampled ").append(_parsed_chunks).append("/").append(_total_chunks)
+              .append(" chunks (fraction=").append(_sample_fraction).append(", seed=").append(_sample_seed).append(")");
+    if (_max_rows_per_file > 0)
+      sb.append(sb.length() > 0 ? ", " : "").append("first ").append(_max_rows_per_file).append(" rows of each file");
+    return sb.toString();
+  }
+}
@@ -42,6 +42,16 @@ public class ParseSetup extends Iced {
   String [] _fileNames = new String[]{"unknown"};
   public  boolean disableParallelParse;
   Key<DecryptionTool> _decrypt_tool;
+  // Publish the partially parsed frame after every this many files (0 = publish only when all files are parsed)
+  int _incremental_publish_files;
+  // Assign global categorical ids during the parse (no chunk rewrite pass); off by default, the domains are in the
+  // non-deterministic order of first appearance - equal to a regular parse only up to the level order
+  boolean _single_pass_categoricals;
+  // Parse-time sampling: fraction of chunks of each file to parse (0 or 1 = all) & seed of the selection (-1 = random)
+  double _sample_fraction;
+  long _sample_seed = -1;
+  // Parse only the first this many rows of each file (0 = all rows)
+  long _max_rows_per_file;
 
   public void setFileName(String name) {_fileNames[0] = name;}
 
@@ -60,6 +70,11 @@ public class ParseSetup extends Iced {
          ps._separator, ps._single_quotes, ps._check_header, ps._number_columns,
          ps._column_names, ps._column_types, ps._domains, ps._na_strings, ps._data,
          new ParseWriter.ParseErr[0], ps._chunk_size, ps._decrypt_tool);
+    _incremental_publish_files = ps._incremental_publish_files;
+    _single_pass_categoricals = ps._single_pass_categoricals;
+    _sample_fraction = ps._sample_fraction;
+    _sample_seed = ps._sample_seed;
+    _max_rows_per_file = ps._max_rows_per_file;
   }
 
 
@@ -213,6 +228,11 @@ public class ParseSetup extends Iced {
       ParseSetup ps = pp.createParserSetup(inputKeys, demandedSetup);
       if (demandedSetup._decrypt_tool != null)
         ps._decrypt_tool = demandedSetup._decrypt_tool;
+      ps._incremental_publish_files = demandedSetup._incremental_publish_files;
+      ps._single_pass_categoricals = demandedSetup._single_pass_categoricals;
+      ps._sample_fraction = demandedSetup._sample_fraction;
+      ps._sample_seed = demandedSetup._sample_seed;
+      ps._max_rows_per_file = demandedSetup._max_rows_per_file;
       return ps;
     }
 
@@ -761,4 +781,28 @@ public class ParseSetup extends Iced {
     return this;
   }
 
+  public ParseSetup setIncrementalPublishFiles(int incremental_publish_files) {
+    this._incremental_publish_files = incremental_publish_files;
+    return this;
+  }
+
+  public ParseSetup setSinglePassCategoricals(boolean single_pass_categoricals) {
+    this._single_pass_categoricals = single_pass_categoricals;
+    return this;
+  }
+
+  public ParseSetup setSampling(double sample_fraction, long sample_seed) {
+    this._sample_fraction = sample_fraction;
+    this._sample_seed = sample_seed;
+    return this;
+  }
+
+  public ParseSetup setMaxRowsPerFile(long max_rows_per_file) {
+    this._max_rows_per_file = max_rows_per_file;
+    return this;
+  }
+
+  /** True if only a random sample of the chunks of each file gets parsed. */
+  boolean isChunkSampling() { return _sample_fraction > 0 && _sample_fraction < 1; }
+
 } // ParseSetup state class
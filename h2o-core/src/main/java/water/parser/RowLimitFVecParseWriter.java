@@ -0,0 +1,56 @@
+package water.parser;
+
+import water.fvec.AppendableVec;
+import water.fvec.Vec;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parse writer keeping only the first rows of a file. Rows beyond the limit are dropped and the input
+ * stream (see {@link #limit(InputStream)}) reports end of file as soon as the limit is reached,
+ * the rest of the file is never read.
+ */
+class RowLimitFVecParseWriter extends FVecParseWriter {
+  // rows still to be parsed, shared by all the writers of a single file
+  private transient final long[] _rowsLeft;
+
+  RowLimitFVecParseWriter(Vec.VectorGroup vg, int cidx, Categorical[] categoricals, byte[] ctypes, int chunkSize, AppendableVec[] avs,
+                          CategoricalDictionary catDict, long maxRows) {
+    this(vg, cidx, categoricals, ctypes, chunkSize, avs, catDict, new long[]{maxRows});
+  }
+
+  private RowLimitFVecParseWriter(Vec.VectorGroup vg, int cidx, Categorical[] categoricals, byte[] ctypes, int chunkSize, AppendableVec[] avs,
+                                  CategoricalDictionary catDict, long[] rowsLeft) {
+    super(vg, cidx, categoricals, ctypes, chunkSize, avs, catDict);
+    _rowsLeft = rowsLeft;
+  }
+
+  boolean isFull() { return _rowsLeft[0] <= 0; }
+
+  @Override public FVecParseWriter nextChunk() {
+    return new RowLimitFVecParseWriter(_vg, _cidx+1, _categoricals, _ctypes, _chunkSize, _vecs, _catDict, _rowsLeft);
+  }
+
+  @Override public void newLine() {
+    if (isFull()) { _col = -1; return; }
+    long before = _nLines;
+    super.newLine();
+    _rowsLeft[0] -= _nLines - before;
+  }
+  @Override public void addNumCol(int colIdx, long number, int exp) { if (!isFull()) super.addNumCol(colIdx, number, exp); }
+  @Override public void addNumCol(int colIdx, double value) { if (!isFull()) super.addNumCol(colIdx, value); }
+  @Override public void addInvalidCol(int colIdx) { if (!isFull()) super.addInvalidCol(colIdx); }
+  @Override public void addStrCol(int colIdx, BufferedString str) { if (!isFull()) super.addStrCol(colIdx, str); }
+  @Override public void addNAs(int colIdx, int nrows) { if (!isFull()) super.addNAs(colIdx, nrows); }
+
+  /** Wraps the input of the parser, the stream ends once enough rows were parsed */
+  InputStream limit(InputStream is) {
+    return new FilterInputStream(is) {
+      @Override public int read() throws IOException { return isFull() ? -1 : super.read(); }
+      @Override public int read(byte[] b, int off, int len) throws IOException { return isFull() ? -1 : super.read(b, off, len); }
+      @Override public int available() throws IOException { return isFull() ? 0 : super.available(); }
+    };
+  }
+}
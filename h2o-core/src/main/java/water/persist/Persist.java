@@ -34,6 +34,13 @@ public abstract class Persist {
   /** Total storage space, or -1 for unknown */
   public long getTotalSpace() { return /*UNKNOWN*/-1; }
 
+  /**
+   * Version of the content of the file the given key points to (eg. ETag or modification time), used to validate
+   * locally cached copies of the file.
+   * @return version of the content, or null if the backend cannot tell (such files are not cached)
+   */
+  public String getContentVersion(Key k) { return null; }
+
   /** Transform given uri into file vector holding file name. */
   abstract public Key uriToKey(URI uri) throws IOException;
 
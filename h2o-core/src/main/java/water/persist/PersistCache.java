@@ -0,0 +1,196 @@
+package water.persist;
+
+import water.DKV;
+import water.Key;
+import water.Value;
+import water.fvec.FileVec;
+import water.fvec.Vec;
+import water.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.file.NoSuchFileException;
+import java.util.*;
+
+import static water.H2O.OptArgs.SYSTEM_PROP_PREFIX;
+
+/**
+ * Local on-disk cache of data loaded from remote persist backends (S3, GCS, HDFS). Importing the same files again
+ * (eg. after a restart of the cloud) reads the chunks from the local disk instead of downloading them again.
+ *
+ * Entries are content-addressed: the name of a cache file is a digest of the URI of the file, the version of its
+ * content (ETag, modification time) as reported by the backend and the byte range of the chunk. The version is
+ * looked up whenever the file is imported and kept in its FileVec, so a file imported again is checked for changes
+ * and never hits stale entries. The size of the cache is capped, least recently used entries are evicted.
+ */
+public class PersistCache {
+  /** Directory of the cache, the cache is disabled if not set */
+  public static final String PROP_CACHE_DIR = SYSTEM_PROP_PREFIX + "persist.cache.dir";
+  /** Maximal size of the cache in bytes */
+  public static final String PROP_CACHE_MAX_BYTES = SYSTEM_PROP_PREFIX + "persist.cache.maxBytes";
+
+  static final long DEFAULT_MAX_BYTES = 10L << 30; // 10GB
+  private static final String TMP_SUFFIX = ".tmp";
+
+  private final File _dir;
+  private final long _maxBytes;
+  // cache id -> size of the entry, in access order (eldest is the least recently used)
+  private final LinkedHashMap<String, Long> _entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long _totalBytes;
+
+  PersistCache(File dir, long maxBytes) {
+    _dir = dir;
+    _maxBytes = maxBytes;
+    if (!_dir.isDirectory() && !_dir.mkdirs())
+      throw new IllegalArgumentException("Cannot create persist cache directory " + _dir);
+    restoreIndex();
+  }
+
+  /**
+   * Creates the cache configured by system properties.
+   * @return the cache or null if the cache is not configured
+   */
+  static PersistCache fromSystemProperties() {
+    String dir = System.getProperty(PROP_CACHE_DIR);
+    if (dir == null || dir.isEmpty()) return null;
+    long maxBytes = Long.getLong(PROP_CACHE_MAX_BYTES, DEFAULT_MAX_BYTES);
+    PersistCache cache = new PersistCache(new File(dir), maxBytes);
+    Log.info("Persist cache in " + dir + " holds " + cache.totalBytes() + " of max " + maxBytes + " bytes.");
+    return cache;
+  }
+
+  /** Only chunks of files on remote backends are cached */
+  static boolean isCacheable(int backend, Value v) {
+    return (backend == Value.S3 || backend == Value.GCS || backend == Value.HDFS) && v._key.isChunkKey();
+  }
+
+  // Existing entries are ordered by their last use (the access time is kept as the modification time of the file)
+  private void restoreIndex() {
+    File[] files = _dir.listFiles();
+    if (files == null) return;
+    Arrays.sort(files, new Comparator<File>() {
+      @Override public int compare(File f1, File f2) { return Long.compare(f1.lastModified(), f2.lastModified()); }
+    });
+    for (File f : files) {
+      if (f.getName().endsWith(TMP_SUFFIX)) { // unfinished write
+        if (!f.delete()) Log.warn("Cannot delete " + f);
+        continue;
+      }
+      _entries.put(f.getName(), f.length());
+      _totalBytes += f.length();
+    }
+    evict();
+  }
+
+  /**
+   * Loads the chunk through the cache.
+   * @param stats stats of the backend, cache hits and misses are recorded
+   */
+  byte[] load(Persist persist, Value v, PersistManager.PersistStatsEntry stats) throws IOException {
+    Key k = v._key;
+    Vec vec = DKV.getGet(Vec.getVecKey(k));
+    String version = vec instanceof FileVec ? ((FileVec) vec).getContentVersion() : null;
+    if (version == null) // backend cannot tell us whether the file changed
+      return persist.load(v);
+    String id = cacheId(FileVec.getPathForKey(k), version, FileVec.chunkOffset(k), v._max);
+    byte[] b = get(id, v._max);
+    if (b != null) {
+      stats.cache_hit_count.incrementAndGet();
+      stats.cache_hit_bytes.addAndGet(b.length);
+      return b;
+    }
+    b = persist.load(v);
+    stats.cache_miss_count.incrementAndGet();
+    stats.cache_miss_bytes.addAndGet(b.length);
+    put(id, b);
+    return b;
+  }
+
+  static String cacheId(String uri, String version, long offset, int len) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      byte[] digest = md.digest((uri + "\n" + version + "\n" + offset + "\n" + len).getBytes(StandardCharsets.UTF_8));
+      StringBuilder sb = new StringBuilder(digest.length * 2);
+      for (byte d : digest) sb.append(String.format("%02x", d));
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * @return cached bytes of the given length, or null if not cached
+   */
+  byte[] get(String id, int len) {
+    synchronized (this) {
+      if (_entries.get(id) == null) return null; // marks the entry as recently used
+    }
+    // the file is read outside of the lock, entries are replaced by atomic moves so a read never sees a partial file
+    File f = new File(_dir, id);
+    try {
+      byte[] b = Files.readAllBytes(f.toPath());
+      if (b.length == len) {
+        if (!f.setLastModified(System.currentTimeMillis()))
+          Log.debug("Cannot update last use of persist cache entry " + f);
+        return b;
+      }
+      Log.warn("Persist cache entry " + f + " is corrupted (" + b.length + " instead of " + len + " bytes), dropping it.");
+    } catch (NoSuchFileException e) {
+      return null; // evicted by a concurrent put
+    } catch (IOException e) {
+      Log.warn("Cannot read persist cache entry " + f + ": " + e.getMessage());
+    }
+    remove(id);
+    return null;
+  }
+
+  void put(String id, byte[] b) {
+    if (b.length > _maxBytes) return;
+    File tmp = new File(_dir, id + "." + Thread.currentThread().getId() + TMP_SUFFIX);
+    try {
+      Files.write(tmp.toPath(), b);
+      // entries become visible only once they are complete
+      Files.move(tmp.toPath(), new File(_dir, id).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Log.warn("Cannot write persist cache entry " + id + ": " + e.getMessage());
+      if (tmp.exists() && !tmp.delete()) Log.warn("Cannot delete " + tmp);
+      return;
+    }
+    synchronized (this) {
+      Long old = _entries.put(id, (long) b.length);
+      _totalBytes += b.length - (old == null ? 0 : old);
+      evict();
+    }
+  }
+
+  private synchronized void remove(String id) {
+    Long size = _entries.remove(id);
+    if (size != null) _totalBytes -= size;
+    File f = new File(_dir, id);
+    if (f.exists() && !f.delete()) Log.warn("Cannot delete persist cache entry " + f);
+  }
+
+  private synchronized void evict() {
+    Iterator<Map.Entry<String, Long>> it = _entries.entrySet().iterator();
+    while (_totalBytes > _maxBytes && it.hasNext()) {
+      Map.Entry<String, Long> eldest = it.next();
+      it.remove();
+      _totalBytes -= eldest.getValue();
+      File f = new File(_dir, eldest.getKey());
+      if (!f.delete()) Log.warn("Cannot evict persist cache entry " + f);
+    }
+  }
+
+  synchronized long totalBytes() {
+    return _totalBytes;
+  }
+
+  synchronized int size() {
+    return _entries.size();
+  }
+}
@@ -55,6 +55,10 @@ public class PersistManager {
       delete_count = new AtomicLong();
       load_count = new AtomicLong();
       load_bytes = new AtomicLong();
+      cache_hit_count = new AtomicLong();
+      cache_hit_bytes = new AtomicLong();
+      cache_miss_count = new AtomicLong();
+      cache_miss_bytes = new AtomicLong();
     }
 
     public AtomicLong store_count;
@@ -62,9 +66,15 @@ public class PersistManager {
     public AtomicLong delete_count;
     public AtomicLong load_count;
     public AtomicLong load_bytes;
+    // loads served by (hit) or passed through (miss) the local persist cache
+    public AtomicLong cache_hit_count;
+    public AtomicLong cache_hit_bytes;
+    public AtomicLong cache_miss_count;
+    public AtomicLong cache_miss_bytes;
   }
 
   private Persist[] I;
+  private PersistCache cache;
   private PersistStatsEntry[] stats;
   public PersistStatsEntry[] getStats() { return stats; }
 
@@ -91,6 +101,21 @@ public class PersistManager {
     return path.toLowerCase().startsWith("gs://");
   }
 
+  /**
+   * Object stores have no atomic rename, renaming a file copies it.
+   */
+  public boolean isObjectStorePath(String path) {
+    String s = path.toLowerCase();
+    return s.startsWith("s3:") || s.startsWith("s3n:") || s.startsWith("s3a:") || isGcsPath(path);
+  }
+
+  /**
+   * Checks that the backend needed to write to the given path is available (S3 paths are written through HDFS).
+   */
+  public void validatePath(String path) {
+    if (isHdfsPath(path)) validateHdfsConfigured();
+  }
+
   public PersistManager(URI iceRoot) {
     I = new Persist[MAX_BACKENDS];
     stats = new PersistStatsEntry[MAX_BACKENDS];
@@ -131,6 +156,7 @@ public class PersistManager {
     }
 
     I[Value.ICE ] = ice;
+    cache = PersistCache.fromSystemProperties();
     I[Value.NFS ] = new PersistNFS();
 
     try {
@@ -174,11 +200,27 @@ public class PersistManager {
 
   public byte[] load(int backend, Value v) throws IOException {
     stats[backend].load_count.incrementAndGet();
-    byte[] arr = I[backend].load(v);
+    byte[] arr = cache != null && PersistCache.isCacheable(backend, v) ?
+            cache.load(I[backend], v, stats[backend]) : I[backend].load(v);
     stats[backend].load_bytes.addAndGet(arr.length);
     return arr;
   }
 
+  /**
+   * Looks up the version of the content of a file being imported, the persist cache keys its entries by it.
+   * @return the version, or null if the persist cache is disabled or the backend cannot tell
+   */
+  public String getContentVersion(int backend, Key k) {
+    return cache != null && I[backend] != null ? I[backend].getContentVersion(k) : null;
+  }
+
+  // Replaces the persist cache of this node, returns the previous one
+  PersistCache setCache(PersistCache c) {
+    PersistCache prior = cache;
+    cache = c;
+    return prior;
+  }
+
   /** Get the current Persist flavor for user-mode swapping. */
   public Persist getIce() { return I[Value.ICE]; }
 
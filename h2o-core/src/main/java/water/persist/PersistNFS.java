@@ -39,6 +39,12 @@ public final class PersistNFS extends Persist {
 
   public void cleanUp() { }
 
+  @Override
+  public String getContentVersion(Key k) {
+    File f = getFileForKey(k);
+    return f.exists() ? f.lastModified() + "-" + f.length() : null;
+  }
+
   /**
    * InputStream from a NFS-based Key
    */
@@ -8,6 +8,7 @@ import water.*;
 import water.fvec.*;
 import water.parser.ParseDataset;
 import water.parser.ParseSetup;
+import water.persist.Persist;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -336,39 +337,84 @@ public class FrameUtils {
   public static class ExportTaskDriver extends H2O.H2OCountedCompleter<ExportTaskDriver> {
     private static long DEFAULT_TARGET_PART_SIZE = 134217728L; // 128MB, default HDFS block size
     private static int AUTO_PARTS_MAX = 128; // maximum number of parts if automatic determination is enabled
+    /** Lists the committed part files of a multi-part export */
+    public static final String MANIFEST_FILE = ".manifest";
+    private static final String TMP_PART_SUFFIX = ".tmp";
     final Frame _frame;
     final String _path;
     final String _frameName;
     final boolean _overwrite;
     final Job _j;
     int _nParts;
+    final boolean _perNode;
+    // temporary parts of this export are named after it, concurrent exports to the same directory don't mix
+    final String _exportId = Key.rand();
+    // object stores (S3, GCS) have no atomic rename (a rename copies the object), parts are uploaded under their
+    // final names - an object only becomes visible once its upload is complete
+    final boolean _directParts;
 
     public ExportTaskDriver(Frame frame, String path, String frameName, boolean overwrite, Job j, int nParts) {
+      this(frame, path, frameName, overwrite, j, nParts, false);
+    }
+
+    /**
+     * @param perNode if true, each node writes its home chunks to a single part file of its own (ignores nParts);
+     *                all nodes write at the same time, but rows of the frame are not kept in order across the parts
+     */
+    public ExportTaskDriver(Frame frame, String path, String frameName, boolean overwrite, Job j, int nParts, boolean perNode) {
       _frame = frame;
       _path = path;
       _frameName = frameName;
       _overwrite = overwrite;
       _j = j;
       _nParts = nParts;
+      _perNode = perNode;
+      _directParts = H2O.getPM().isObjectStorePath(path);
     }
 
     @Override
     public void compute2() {
       _frame.read_lock(_j._key);
-      if (_nParts == 1) {
+      if (_nParts == 1 && !_perNode) {
         // Single file export, the file should be created by the node that was asked to export the data
         // (this is for non-distributed filesystems, we want the file to go to the local filesystem of the node)
         Frame.CSVStream is = new Frame.CSVStream(_frame, true, false);
         exportCSVStream(is, _path, 0);
         tryComplete();
       } else {
-        // Multi-part export
-        if (_nParts < 0) {
-          _nParts = calculateNParts();
-          assert _nParts > 0;
+        // Multi-part export: parts are written under temporary names and only renamed once all of them are complete,
+        // the manifest is written last and is the commit point of the export. A failed or cancelled export removes
+        // its temporary parts and the parts it already committed.
+        H2O.getPM().validatePath(_path); // eg. S3 needs the HDFS layer, fail before anything is written
+        String manifest = _path + "/" + MANIFEST_FILE;
+        if (H2O.getPM().exists(manifest)) {
+          if (!_overwrite)
+            throw new IllegalArgumentException("Export to " + _path + " already exists (found " + manifest + ").");
+          if (!H2O.getPM().delete(manifest)) // the old manifest must not describe the new parts
+            throw new IllegalStateException("Cannot delete " + manifest + " of the previous export.");
+        }
+        ExportedPart[] parts = null;
+        try {
+          if (_perNode) {
+            parts = new NodeExportTask(_frame._names).doAllNodes()._parts;
+          } else {
+            if (_nParts < 0) {
+              _nParts = calculateNParts();
+              assert _nParts > 0;
+            }
+            int nChunksPerPart = ((_frame.anyVec().nChunks() - 1) / _nParts) + 1;
+            parts = new PartExportTask(_frame._names, nChunksPerPart).doAll(_frame)._parts;
+          }
+          if (_j.stop_requested()) throw new Job.JobCancelledException();
+          if (!_directParts)
+            new CommitPartsTask(_path, _exportId, parts).doAllNodes();
+          writeManifest(parts);
+        } catch (RuntimeException e) {
+          new CleanupPartsTask(_path, _exportId, parts, _directParts).doAllNodes();
+          throw e;
         }
-        int nChunksPerPart = ((_frame.anyVec().nChunks() - 1) / _nParts) + 1;
-        new PartExportTask(this, _frame._names, nChunksPerPart).dfork(_frame);
+        logThroughput(parts);
+        tryComplete();
       }
     }
 
@@ -453,7 +499,7 @@ public class FrameUtils {
       return len;
     }
 
-    private void exportCSVStream(Frame.CSVStream is, String path, int firstChkIdx) {
+    private long exportCSVStream(Frame.CSVStream is, String path, int firstChkIdx) {
       OutputStream os = null;
       long written = -1;
       try {
@@ -466,21 +512,113 @@ public class FrameUtils {
           try {
             os.flush(); // Seems redundant, but seeing a short-file-read on windows sometimes
             os.close();
-            Log.info("Written " + written + " bytes of key '" + _frameName + "' to " + _path + ".");
+            Log.info("Written " + written + " bytes of key '" + _frameName + "' to " + path + ".");
           } catch (Exception e) {
             Log.err(e);
           }
         }
         try { is.close(); } catch (Exception e) { Log.err(e); }
       }
+      return written;
+    }
+
+    // path a part is written to before the export is committed
+    String partPath(String partName) {
+      return _directParts ? _path + "/" + partName : tmpPartPath(_path, _exportId, partName);
+    }
+
+    static String tmpPartPath(String path, String exportId, String partName) {
+      return path + "/" + tmpPartName(exportId, partName);
+    }
+
+    static String tmpPartName(String exportId, String partName) {
+      return "." + partName + "." + exportId + TMP_PART_SUFFIX;
+    }
+
+    static boolean isTmpPartOf(String fileName, String exportId) {
+      return fileName.startsWith(".") && fileName.endsWith("." + exportId + TMP_PART_SUFFIX);
+    }
+
+    private void writeManifest(ExportedPart[] parts) {
+      StringBuilder sb = new StringBuilder("part,node,rows,bytes\n");
+      for (ExportedPart p : parts) {
+        if (p == null) continue;
+        sb.append(p._name).append(',').append(H2O.CLOUD._memary[p._node].getIpPortString()).append(',')
+                .append(p._rows).append(',').append(p._bytes).append('\n');
+      }
+      H2O.getPM().mkdirs(_path);
+      // the manifest appears at once: renamed from a temporary file, or uploaded as a single object
+      String path = partPath(MANIFEST_FILE);
+      OutputStream os = null;
+      try {
+        os = H2O.getPM().create(path, true);
+        os.write(StringUtils.bytesOf(sb));
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      } finally {
+        FileUtils.close(os);
+      }
+      if (!_directParts && !H2O.getPM().rename(path, _path + "/" + MANIFEST_FILE)) {
+        H2O.getPM().delete(path);
+        throw new IllegalStateException("Cannot commit the manifest of the export to " + _path + ".");
+      }
+    }
+
+    // Nodes write their parts concurrently, throughput of a node is measured from its first write to its last one
+    private void logThroughput(ExportedPart[] parts) {
+      int nodes = H2O.CLOUD.size();
+      long[] rows = new long[nodes], bytes = new long[nodes], start = new long[nodes], end = new long[nodes];
+      Arrays.fill(start, Long.MAX_VALUE);
+      for (ExportedPart p : parts) {
+        if (p == null) continue;
+        rows[p._node] += p._rows;
+        bytes[p._node] += p._bytes;
+        start[p._node] = Math.min(start[p._node], p._startMs);
+        end[p._node] = Math.max(end[p._node], p._endMs);
+      }
+      for (int n = 0; n < nodes; n++) {
+        if (start[n] == Long.MAX_VALUE) continue;
+        double secs = Math.max(end[n] - start[n], 1) / 1000.0;
+        Log.info("Node " + H2O.CLOUD._memary[n].getIpPortString() + " exported " + rows[n] + " rows (" + bytes[n] +
+                " bytes) of key '" + _frameName + "' in " + secs + "s, " +
+                String.format("%.2f", bytes[n] / secs / (1 << 20)) + " MB/s.");
+      }
+    }
+
+    /** Part file written by a node, committed (renamed to its final name) by the same node */
+    static class ExportedPart extends Iced<ExportedPart> {
+      String _name;
+      int _node;
+      long _rows;
+      long _bytes;
+      long _startMs;
+      long _endMs;
+
+      ExportedPart(String name, long rows, long bytes, long startMs) {
+        _name = name;
+        _node = H2O.SELF.index();
+        _rows = rows;
+        _bytes = bytes;
+        _startMs = startMs;
+        _endMs = System.currentTimeMillis();
+      }
+    }
+
+    static ExportedPart[] mergeParts(ExportedPart[] parts, ExportedPart[] other) {
+      if (parts == null) return other;
+      if (other != null)
+        for (int i = 0; i < parts.length; i++)
+          if (parts[i] == null) parts[i] = other[i];
+      return parts;
     }
 
     class PartExportTask extends MRTask<PartExportTask> {
       final String[] _colNames;
       final int _length;
+      // OUT
+      ExportedPart[] _parts;
 
-      PartExportTask(H2O.H2OCountedCompleter<?> completer, String[] colNames, int length) {
-        super(completer);
+      PartExportTask(String[] colNames, int length) {
         _colNames = colNames;
         _length = length;
       }
@@ -492,9 +630,20 @@ public class FrameUtils {
           return;
         }
         int partIdx = anyChunk.cidx() / _length;
-        String partPath = _path + "/part-m-" + String.valueOf(100000 + partIdx).substring(1);
+        String partName = "part-m-" + String.valueOf(100000 + partIdx).substring(1);
+        long start = System.currentTimeMillis();
         Frame.CSVStream is = new Frame.CSVStream(cs, _colNames, _length, false);
-        exportCSVStream(is, partPath, anyChunk.cidx());
+        long bytes = exportCSVStream(is, partPath(partName), anyChunk.cidx());
+        Vec v = anyChunk.vec();
+        int lastChkIdx = Math.min(anyChunk.cidx() + _length, v.nChunks());
+        long rows = v.espc()[lastChkIdx] - anyChunk.start();
+        _parts = new ExportedPart[(v.nChunks() - 1) / _length + 1];
+        _parts[partIdx] = new ExportedPart(partName, rows, bytes, start);
+      }
+
+      @Override
+      public void reduce(PartExportTask mrt) {
+        _parts = mergeParts(_parts, mrt._parts);
       }
 
       @Override
@@ -503,6 +652,136 @@ public class FrameUtils {
         if (! created) Log.warn("Path ", _path, " was not created.");
       }
     }
+
+    /**
+     * Each node streams its home chunks (in chunk order) to a part file of its own, nodes don't wait for each other.
+     */
+    class NodeExportTask extends MRTask<NodeExportTask> {
+      final String[] _colNames;
+      // OUT
+      ExportedPart[] _parts;
+
+      NodeExportTask(String[] colNames) {
+        _colNames = colNames;
+      }
+
+      @Override
+      protected void setupLocal() {
+        _parts = new ExportedPart[H2O.CLOUD.size()];
+        Vec[] vecs = _frame.vecs();
+        Vec anyVec = vecs[0];
+        String partName = "part-n-" + String.valueOf(100000 + H2O.SELF.index()).substring(1);
+        long start = System.currentTimeMillis();
+        OutputStream os = null;
+        long rows = 0, bytes = 0;
+        byte[] buffer = new byte[4 * 1024 * 1024];
+        try {
+          for (int cidx = 0; cidx < anyVec.nChunks(); cidx++) {
+            if (!anyVec.chunkKey(cidx).home()) continue;
+            if (_j.stop_requested()) throw new Job.JobCancelledException();
+            if (os == null) {
+              boolean created = H2O.getPM().mkdirs(_path);
+              if (! created) Log.warn("Path ", _path, " was not created.");
+              os = H2O.getPM().create(partPath(partName), _overwrite);
+            }
+            Chunk[] cs = new Chunk[vecs.length];
+            for (int i = 0; i < cs.length; i++)
+              cs[i] = vecs[i].chunkForChunkIdx(cidx);
+            Frame.CSVStream is = new Frame.CSVStream(cs, bytes == 0 ? _colNames : null, 1, false);
+            try {
+              for (int count; (count = is.read(buffer, 0, buffer.length)) > 0; ) {
+                os.write(buffer, 0, count);
+                bytes += count;
+              }
+            } finally {
+              is.close();
+            }
+            rows += cs[0]._len;
+            _j.update(1);
+          }
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        } finally {
+          FileUtils.close(os);
+        }
+        if (os != null) // nodes without any home chunks don't write a part
+          _parts[H2O.SELF.index()] = new ExportedPart(partName, rows, bytes, start);
+      }
+
+      @Override
+      public void reduce(NodeExportTask mrt) {
+        _parts = mergeParts(_parts, mrt._parts);
+      }
+    }
+  }
+
+  /**
+   * Renames the written parts of an export to their final names, each node renames the parts it wrote (the target
+   * might be the local filesystem of the node). The parts are not visible as an export until the manifest is written,
+   * a failure is rolled back by {@link CleanupPartsTask}.
+   */
+  private static class CommitPartsTask extends MRTask<CommitPartsTask> {
+    final String _path;
+    final String _exportId;
+    final ExportTaskDriver.ExportedPart[] _parts;
+
+    CommitPartsTask(String path, String exportId, ExportTaskDriver.ExportedPart[] parts) {
+      _path = path;
+      _exportId = exportId;
+      _parts = parts;
+    }
+
+    @Override
+    protected void setupLocal() {
+      for (ExportTaskDriver.ExportedPart p : _parts) {
+        if (p == null || p._node != H2O.SELF.index()) continue;
+        if (!H2O.getPM().rename(ExportTaskDriver.tmpPartPath(_path, _exportId, p._name), _path + "/" + p._name))
+          throw new IllegalStateException("Cannot commit part " + p._name + " of the export to " + _path + ".");
+      }
+    }
+  }
+
+  /**
+   * Rolls back a failed or cancelled export: removes its temporary parts and the parts it already committed (or
+   * uploaded under their final names), temporary parts of other exports to the same directory are left alone.
+   * Each node removes the parts it wrote.
+   */
+  static class CleanupPartsTask extends MRTask<CleanupPartsTask> {
+    final String _path;
+    final String _exportId;
+    final ExportTaskDriver.ExportedPart[] _parts; // parts written by the export, null if writing them failed
+    final boolean _directParts;
+
+    CleanupPartsTask(String path, String exportId) {
+      this(path, exportId, null, false);
+    }
+
+    CleanupPartsTask(String path, String exportId, ExportTaskDriver.ExportedPart[] parts, boolean directParts) {
+      _path = path;
+      _exportId = exportId;
+      _parts = parts;
+      _directParts = directParts;
+    }
+
+    @Override
+    protected void setupLocal() {
+      if (_parts != null) {
+        for (ExportTaskDriver.ExportedPart p : _parts) {
+          if (p == null || p._node != H2O.SELF.index()) continue;
+          // a part without its temporary file was already committed by this export
+          String tmp = ExportTaskDriver.tmpPartPath(_path, _exportId, p._name);
+          String path = _directParts || !H2O.getPM().exists(tmp) ? _path + "/" + p._name : tmp;
+          if (H2O.getPM().exists(path) && !H2O.getPM().delete(path))
+            Log.warn("Cannot delete part " + p._name + " of the failed export to " + _path + ".");
+        }
+      }
+      if (_directParts) return;
+      for (Persist.PersistEntry e : H2O.getPM().list(_path)) {
+        if (!ExportTaskDriver.isTmpPartOf(e._name, _exportId)) continue;
+        if (!H2O.getPM().delete(_path + "/" + e._name))
+          Log.warn("Cannot delete unfinished part " + e._name + " of the export to " + _path + ".");
+      }
+    }
   }
 
   public static class CategoricalOneHotEncoder extends Iced {
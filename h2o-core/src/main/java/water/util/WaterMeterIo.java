@@ -25,6 +25,18 @@ public class WaterMeterIo extends Iced {
 
     @API(help="Cumulative loaded bytes", direction = API.Direction.OUTPUT)
     public long load_bytes;
+
+    @API(help="Number of loads served by the local persist cache", direction = API.Direction.OUTPUT)
+    public long cache_hit_count;
+
+    @API(help="Cumulative bytes served by the local persist cache", direction = API.Direction.OUTPUT)
+    public long cache_hit_bytes;
+
+    @API(help="Number of loads missing the local persist cache", direction = API.Direction.OUTPUT)
+    public long cache_miss_count;
+
+    @API(help="Cumulative bytes loaded from the backend on a miss of the local persist cache", direction = API.Direction.OUTPUT)
+    public long cache_miss_bytes;
   }
 
   // Input
@@ -56,6 +68,10 @@ public class WaterMeterIo extends Iced {
         persist_stats[j].delete_count += io.persist_stats[j].delete_count;
         persist_stats[j].load_count += io.persist_stats[j].load_count;
         persist_stats[j].load_bytes += io.persist_stats[j].load_bytes;
+        persist_stats[j].cache_hit_count += io.persist_stats[j].cache_hit_count;
+        persist_stats[j].cache_hit_bytes += io.persist_stats[j].cache_hit_bytes;
+        persist_stats[j].cache_miss_count += io.persist_stats[j].cache_miss_count;
+        persist_stats[j].cache_miss_bytes += io.persist_stats[j].cache_miss_bytes;
       }
     }
   }
@@ -106,6 +122,10 @@ public class WaterMeterIo extends Iced {
         dest_e.delete_count = src_e.delete_count.get();
         dest_e.load_count = src_e.load_count.get();
         dest_e.load_bytes = src_e.load_bytes.get();
+        dest_e.cache_hit_count = src_e.cache_hit_count.get();
+        dest_e.cache_hit_bytes = src_e.cache_hit_bytes.get();
+        dest_e.cache_miss_count = src_e.cache_miss_count.get();
+        dest_e.cache_miss_bytes = src_e.cache_miss_bytes.get();
       }
 
       int[] backendsToZeroCheck = new int[] {0, 5, 6, 7};
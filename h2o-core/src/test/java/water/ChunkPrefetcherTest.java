@@ -0,0 +1,56 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkPrefetcherTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  private static class ByteSum extends MRTask<ByteSum> {
+    long _len;
+    long _sum;
+    @Override public void map(Chunk c) {
+      for (int i = 0; i < c._len; i++)
+        _sum += c.at8(i);
+      _len += c._len;
+    }
+    @Override public void reduce(ByteSum mrt) {
+      _len += mrt._len;
+      _sum += mrt._sum;
+    }
+  }
+
+  @Test public void testMapOverUnloadedFile() throws IOException {
+    File f = FileUtils.getFile("smalldata/airlines/airlineUUID.csv");
+    NFSFileVec nfs = NFSFileVec.make(f);
+    try {
+      nfs.setChunkSize(1 << 12); // many small Chunks, none of them loaded yet
+      Frame fr = new Frame(nfs);
+      ByteSum task = new ByteSum();
+      task._fr = fr;
+      assertTrue(ChunkPrefetcher.isWorthwhile(task));
+      long issued = ChunkPrefetcher.stats()._issued;
+      ByteSum bs = new ByteSum().doAll(fr);
+      assertEquals(f.length(), bs._len);
+      long sum = 0;
+      for (byte b : Files.readAllBytes(f.toPath())) sum += b & 0xFF;
+      assertEquals(sum, bs._sum);
+      ChunkPrefetcher.Stats stats = ChunkPrefetcher.stats();
+      assertTrue(stats.toString(), stats._issued > issued);
+      assertTrue(stats.toString(), stats._hits + stats._late + stats._cancelled <= stats._issued);
+    } finally {
+      nfs.remove();
+    }
+  }
+}
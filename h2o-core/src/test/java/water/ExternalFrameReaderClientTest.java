@@ -5,6 +5,7 @@ import org.junit.Test;
 import water.fvec.Frame;
 import water.fvec.TestFrameBuilder;
 import water.fvec.Vec;
+import water.parser.BufferedString;
 
 import java.io.IOException;
 import java.nio.channels.ByteChannel;
@@ -110,4 +111,54 @@ public class ExternalFrameReaderClientTest extends TestUtil{
         }
     }
 
+    @Test
+    public void testColumnarReading() throws IOException, ExternalFrameConfirmationException {
+        final String frameName = "testColumnarFrame";
+        final Frame testFrame = new TestFrameBuilder()
+                .withName(frameName)
+                .withColNames("ColA", "ColB", "ColC")
+                .withVecTypes(Vec.T_NUM, Vec.T_STR, Vec.T_NUM)
+                .withDataForCol(0, ard(Double.NaN, 1, 2, 3, 4, 5.6, 7, -1, 3.14))
+                .withDataForCol(1, ar("A", "B", "C", "E", null, "I", "J", "\u0080", "K"))
+                .withDataForCol(2, ard(1, 2, Double.NaN, 4, 5, 6, 7, 8, 9))
+                .withChunkLayout(9)
+                .build();
+        try {
+            ByteChannel sock = ExternalFrameUtils.getConnection(H2O.SELF.getIpPortString());
+            try {
+                byte[] expectedTypes = {ExternalFrameUtils.EXPECTED_DOUBLE, ExternalFrameUtils.EXPECTED_STRING, ExternalFrameUtils.EXPECTED_LONG};
+                ExternalFrameReaderClient reader = new ExternalFrameReaderClient(sock, frameName, 0, new int[]{0, 1, 2}, expectedTypes, 4);
+                assertEquals(9, reader.getNumRows());
+                int rowsRead = 0;
+                while (rowsRead < reader.getNumRows()) {
+                    int batchRows = reader.readBatch();
+                    assertEquals(Math.min(4, 9 - rowsRead), batchRows);
+                    double[] doubles = reader.readDoubleColumn();
+                    String[] strings = reader.readStringColumn();
+                    byte[] stringNAs = reader.getLastNAs();
+                    long[] longs = reader.readLongColumn();
+                    byte[] longNAs = reader.getLastNAs();
+                    for (int i = 0; i < batchRows; i++) {
+                        int row = rowsRead + i;
+                        if (row == 0) {
+                            assertTrue(Double.isNaN(doubles[i]));
+                        } else {
+                            assertEquals(testFrame.vec(0).at(row), doubles[i], 0);
+                        }
+                        assertEquals(row == 4, ExternalFrameUtils.isNA(stringNAs, i));
+                        assertEquals(row == 4 ? null : testFrame.vec(1).atStr(new BufferedString(), row).toString(), strings[i]);
+                        assertEquals(row == 2, ExternalFrameUtils.isNA(longNAs, i));
+                        if (row != 2) assertEquals(testFrame.vec(2).at8(row), longs[i]);
+                    }
+                    rowsRead += batchRows;
+                }
+                reader.waitUntilAllReceived(10);
+            } finally {
+                sock.close();
+            }
+        } finally {
+            testFrame.remove();
+        }
+    }
+
 }
@@ -129,6 +129,105 @@ public class ExternalFrameWriterClientTest extends TestUtil {
         }
     }
 
+    @Test
+    public void testColumnarWriting() {
+        final long time = System.currentTimeMillis();
+        WriteOperation testOp = new WriteOperation() {
+            @Override
+            public void doWrite(ExternalFrameWriterClient writer) throws IOException {
+                int batchSize = 300;
+                for (int from = 0; from < nrows(); from += batchSize) {
+                    int n = Math.min(batchSize, nrows() - from);
+                    writer.startBatch(n);
+                    int[] ints = new int[n];
+                    byte[] bools = new byte[n];
+                    String[] strs = new String[n];
+                    long[] times = new long[n];
+                    double[] dbls = new double[n];
+                    byte[] nas = ExternalFrameUtils.naBitmap(n);
+                    for (int i = 0; i < n; i++) {
+                        int row = from + i;
+                        ints[i] = row;
+                        bools[i] = (byte) (row % 2);
+                        strs[i] = row % 7 == 0 ? null : "str_" + row;
+                        times[i] = time + row;
+                        dbls[i] = row % 5 == 0 ? Double.NaN : row / 2.0;
+                        if (row % 3 == 0) ExternalFrameUtils.setNA(nas, i);
+                    }
+                    writer.sendColumn(ints, nas);
+                    writer.sendColumn(bools, null);
+                    writer.sendColumn(strs, null);
+                    writer.sendColumn(times, nas);
+                    writer.sendColumn(dbls, null);
+                }
+            }
+
+            @Override
+            public int nrows() {
+                return 1000;
+            }
+
+            @Override
+            public String[] colNames() {
+                return new String[] {"NUM", "BOOL", "STR", "TIMESTAMP", "DBL"};
+            }
+
+            @Override
+            public byte[] colTypes() {
+                return new byte[] {
+                    ExternalFrameUtils.EXPECTED_INT,
+                    ExternalFrameUtils.EXPECTED_BOOL,
+                    ExternalFrameUtils.EXPECTED_STRING,
+                    ExternalFrameUtils.EXPECTED_TIMESTAMP,
+                    ExternalFrameUtils.EXPECTED_DOUBLE};
+            }
+
+            @Override
+            public boolean columnar() {
+                return true;
+            }
+        };
+
+        final String[] nodes = getH2ONodes();
+        final String[] connStrings = ArrayUtils.join(nodes, nodes);
+
+        Frame frame = createFrame(testOp, connStrings);
+        try {
+            assertEquals(connStrings.length, frame.anyVec().nChunks());
+            assertEquals(Vec.T_NUM, frame.vec(0).get_type());
+            assertEquals(Vec.T_STR, frame.vec(2).get_type());
+            assertEquals(Vec.T_TIME, frame.vec(3).get_type());
+            assertEquals(testOp.nrows() * connStrings.length, frame.numRows());
+
+            BufferedString buff = new BufferedString();
+            for (int i = 0; i < connStrings.length; i++) {
+                for (int row = 0; row < testOp.nrows(); row++) {
+                    long globalRow = row + testOp.nrows() * i;
+                    if (row % 3 == 0) {
+                        assertTrue(frame.vec(0).isNA(globalRow));
+                        assertTrue(frame.vec(3).isNA(globalRow));
+                    } else {
+                        assertEquals(row, frame.vec(0).at8(globalRow));
+                        assertEquals(time + row, frame.vec(3).at8(globalRow));
+                    }
+                    assertEquals(row % 2, frame.vec(1).at8(globalRow));
+                    if (row % 7 == 0) {
+                        assertTrue(frame.vec(2).isNA(globalRow));
+                    } else {
+                        assertEquals("str_" + row, frame.vec(2).atStr(buff, globalRow).toString());
+                    }
+                    if (row % 5 == 0) {
+                        assertTrue(frame.vec(4).isNA(globalRow));
+                    } else {
+                        assertEquals(row / 2.0, frame.vec(4).at(globalRow), 0);
+                    }
+                }
+            }
+        } finally {
+            frame.remove();
+        }
+    }
+
     @Test
     public void testDenseVectorWrite() throws IOException {
         WriteOperation testOp = new WriteOperation() {
@@ -315,7 +414,11 @@ public class ExternalFrameWriterClientTest extends TestUtil {
                         ByteChannel sock = ExternalFrameUtils.getConnection(writeEndpoints[currentIndex]);
                         try {
                             ExternalFrameWriterClient writer = new ExternalFrameWriterClient(sock);
-                            writer.createChunks(op.frameName(), op.colTypes(),  currentIndex, op.nrows(), op.maxVecSizes());
+                            if (op.columnar()) {
+                                writer.createColumnarChunks(op.frameName(), op.colTypes(), currentIndex, op.nrows());
+                            } else {
+                                writer.createChunks(op.frameName(), op.colTypes(), currentIndex, op.nrows(), op.maxVecSizes());
+                            }
 
                             op.doWrite(writer);
 
@@ -375,4 +478,8 @@ abstract class WriteOperation {
         return ExternalFrameUtils.EMPTY_ARI;
     }
 
+    public boolean columnar() {
+        return false;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Key;
+import water.TestUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class BinaryFrameFormatTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  @Test public void testExportImportRoundTrip() throws IOException {
+    Frame fr = null, imported = null;
+    try {
+      fr = new TestFrameBuilder()
+              .withName("binary_src")
+              .withColNames("cat", "dbl", "int", "time", "str")
+              .withVecTypes(Vec.T_CAT, Vec.T_NUM, Vec.T_NUM, Vec.T_TIME, Vec.T_STR)
+              .withDataForCol(0, ar("a", "b", null, "a", "c"))
+              .withDataForCol(1, ard(0.1, Double.NaN, 1.0 / 3, -2.5e-300, Math.PI))
+              .withDataForCol(2, ard(1, 2, Double.NaN, 4, 1L << 40))
+              .withDataForCol(3, ar(1500000000123L, 1500000000456L, 0, -1, 1L << 41))
+              .withDataForCol(4, ar("x", null, "", "zz", "\u00e9t\u00e9"))
+              .withChunkLayout(2, 3)
+              .build();
+      File folder = tmpFolder.newFolder("binary_export");
+      BinaryFrameFormat.export(fr, folder.getPath(), "binary_src", false).get();
+      assertTrue(new File(folder, BinaryFrameFormat.META_FILE).exists());
+      assertEquals(fr.anyVec().nChunks() + 1, folder.listFiles().length);
+
+      imported = BinaryFrameFormat.importFrame(Key.<Frame>make("binary_imported"), folder.getPath()).get();
+      assertArrayEquals(fr.names(), imported.names());
+      assertArrayEquals(fr.types(), imported.types());
+      assertArrayEquals(fr.vec("cat").domain(), imported.vec("cat").domain());
+      assertArrayEquals(fr.anyVec().espc(), imported.anyVec().espc());
+      assertTrue(isBitIdentical(fr, imported));
+    } finally {
+      if (fr != null) fr.delete();
+      if (imported != null) imported.delete();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testImportRequiresMetadata() throws IOException {
+    File folder = tmpFolder.newFolder("not_an_export");
+    BinaryFrameFormat.importFrame(Key.<Frame>make("nothing"), folder.getPath());
+  }
+
+}
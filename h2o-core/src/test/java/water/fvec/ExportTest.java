@@ -6,12 +6,14 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import water.*;
 import water.parser.ParseDataset;
+import water.util.FrameUtils;
 import water.util.Log;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -44,10 +46,11 @@ public class ExportTest extends TestUtil {
         Frame.export(rebalanced, target.getPath(), "export", false, parts).get();
         // check the number of produced part files (only if the number was given)
         if (expPart[i] != -1) {
-          assertEquals(expPart[i], folder.listFiles().length);
+          assertEquals(expPart[i], dataFiles(folder).size());
           if (parts == 1) {
             assertTrue(target.exists());
           } else {
+            assertTrue(new File(folder, FrameUtils.ExportTaskDriver.MANIFEST_FILE).exists());
             for (int j = 0; j < expPart[i]; j++) {
               String suffix = (j < 10) ? "0000" + j : "000" + j;
               assertTrue(new File(folder, "part-m-" + suffix).exists());
@@ -67,6 +70,37 @@ public class ExportTest extends TestUtil {
     fr.delete();
   }
 
+  @Test public void testPerNodeExport() throws IOException {
+    Frame fr = parse_test_file("smalldata/airlines/airlineUUID.csv");
+    Frame rebalanced = null;
+    Frame imported = null;
+    try {
+      rebalanced = rebalance(fr, Key.make("rebalanced_per_node"), 17);
+      File folder = tmpFolder.newFolder("export_per_node");
+      Frame.export(rebalanced, folder.getPath(), "export", false, -1, true).get();
+      // single node: one part holding all the chunks
+      assertEquals(H2O.CLOUD.size(), dataFiles(folder).size());
+      assertTrue(new File(folder, "part-n-00000").exists());
+      assertTrue(new File(folder, FrameUtils.ExportTaskDriver.MANIFEST_FILE).exists());
+      imported = parseFolder(folder);
+      assertEquals(fr.numRows(), imported.numRows());
+      assertTrue(TestUtil.isBitIdentical(fr, imported));
+    } finally {
+      if (rebalanced != null) rebalanced.delete();
+      if (imported != null) imported.delete();
+      fr.delete();
+    }
+  }
+
+  // part files, without the manifest
+  private static List<File> dataFiles(File folder) {
+    List<File> files = new ArrayList<>();
+    for (File f : folder.listFiles())
+      if (f.isFile() && !f.isHidden())
+        files.add(f);
+    return files;
+  }
+
   private static Frame rebalance(Frame fr, Key targetKey, int nChunks) {
     RebalanceDataSet rb = new RebalanceDataSet(fr, targetKey, nChunks);
     H2O.submitTask(rb);
@@ -76,13 +110,11 @@ public class ExportTest extends TestUtil {
 
   private static Frame parseFolder(File folder) {
     assert folder.isDirectory();
-    File[] files = folder.listFiles();
-    assert files != null;
-    Arrays.sort(files);
+    List<File> files = dataFiles(folder);
+    Collections.sort(files);
     ArrayList<Key> keys = new ArrayList<>();
     for( File f : files )
-      if( f.isFile() )
-        keys.add(NFSFileVec.make(f)._key);
+      keys.add(NFSFileVec.make(f)._key);
     Key[] res = new Key[keys.size()];
     keys.toArray(res);
     return ParseDataset.parse(Key.make(), res);
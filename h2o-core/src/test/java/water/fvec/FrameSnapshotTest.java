@@ -0,0 +1,79 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.Job;
+import water.Key;
+import water.TestUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class FrameSnapshotTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  @Test public void testSaveLoad() throws IOException {
+    Frame fr = null, loaded = null;
+    try {
+      fr = parse_test_file("smalldata/airlines/airlineUUID.csv");
+      double mean = fr.vec(0).mean(); // roll-ups are part of the snapshot
+      File folder = tmpFolder.newFolder("snapshot");
+      FrameSnapshot.save(fr, folder.getPath(), false).get();
+      assertTrue(new File(folder, FrameSnapshot.META_FILE).exists());
+      assertEquals(fr.anyVec().nChunks() + 1, folder.listFiles().length);
+
+      loaded = FrameSnapshot.load(Key.<Frame>make("snapshot_loaded"), folder.getPath()).get();
+      assertArrayEquals(fr.names(), loaded.names());
+      assertArrayEquals(fr.types(), loaded.types());
+      assertArrayEquals(fr.domains(), loaded.domains());
+      assertArrayEquals(fr.anyVec().espc(), loaded.anyVec().espc());
+      assertNotNull(loaded.vec(0).rollupStatsIfReady());
+      assertEquals(mean, loaded.vec(0).mean(), 0);
+      for (int i = 0; i < fr.numCols(); i++) // Chunks are loaded as they were stored
+        assertEquals(fr.vec(i).chunkForChunkIdx(0).getClass(), loaded.vec(i).chunkForChunkIdx(0).getClass());
+      assertTrue(isBitIdentical(fr, loaded));
+    } finally {
+      if (fr != null) fr.delete();
+      if (loaded != null) loaded.delete();
+    }
+  }
+
+  @Test public void testSaveLockedFrame() throws IOException {
+    Frame fr = null;
+    Job<Frame> writer = null;
+    try {
+      fr = parse_test_file("smalldata/airlines/airlineUUID.csv");
+      writer = new Job<>(fr._key, Frame.class.getName(), "Writer");
+      fr.write_lock(writer);
+      try {
+        FrameSnapshot.save(fr, tmpFolder.newFolder("locked").getPath(), false).get();
+        fail("Snapshot of a write-locked frame should fail");
+      } catch (RuntimeException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) // the failed save did not try to release a lock it didn't get
+          assertFalse(t instanceof AssertionError);
+      }
+      fr.unlock(writer); // still locked by the writer
+      writer = null;
+    } finally {
+      if (writer != null) fr.unlock(writer);
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLoadRequiresMetadata() throws IOException {
+    File folder = tmpFolder.newFolder("not_a_snapshot");
+    FrameSnapshot.load(Key.<Frame>make("nothing"), folder.getPath());
+  }
+
+}
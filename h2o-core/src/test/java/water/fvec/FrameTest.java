@@ -6,6 +6,9 @@ import org.junit.Test;
 import water.*;
 import water.util.FrameUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -50,6 +53,40 @@ public class FrameTest extends TestUtil {
     }
   }
 
+  @Test
+  public void testCSVStreamSpansBlocksAndChunks() throws IOException {
+    try {
+      Scope.enter();
+      int n = 30000; // rendered in several blocks
+      double[] nums = new double[n];
+      String[] cats = new String[n];
+      StringBuilder expected = new StringBuilder("\"ColA\",\"Response\"\n");
+      for (int i = 0; i < n; i++) {
+        nums[i] = i;
+        cats[i] = i % 2 == 0 ? "A" : "B";
+        expected.append(i).append(",\"").append(cats[i]).append("\"\n");
+      }
+      final Frame fr = Scope.track(new TestFrameBuilder()
+              .withName("testFrame")
+              .withColNames("ColA", "Response")
+              .withVecTypes(Vec.T_NUM, Vec.T_CAT)
+              .withDataForCol(0, nums)
+              .withDataForCol(1, cats)
+              .withChunkLayout(10000, 0, 15000, 5000)
+              .build());
+      InputStream is = fr.toCSV(true, false);
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      byte[] buffer = new byte[1000];
+      int count;
+      while ((count = is.read(buffer, 0, buffer.length)) > 0) // our CSV stream returns 0 as EOF
+        os.write(buffer, 0, count);
+      is.close();
+      assertEquals(expected.toString(), os.toString("UTF-8"));
+    } finally {
+      Scope.exit();
+    }
+  }
+
   @Test
   public void testRemoveColumn() {
     Scope.enter();
@@ -0,0 +1,19 @@
+package water.fvec;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HDFSFileVecTest {
+
+  @Test public void testAlignToBlocks() {
+    long block = 128 << 20;
+    assertEquals(4 << 20, HDFSFileVec.alignToBlocks(4 << 20, block)); // already aligned
+    assertEquals(4 << 20, HDFSFileVec.alignToBlocks(5 << 20, block));
+    assertEquals(128 << 20, HDFSFileVec.alignToBlocks(256 << 20, block));
+    assertEquals(4 << 20, HDFSFileVec.alignToBlocks(8 << 20, 100L << 20)); // 100MB = 25 * 4MB
+    assertEquals(3 << 20, HDFSFileVec.alignToBlocks(3 << 20, 0)); // block size unknown
+    assertEquals(1 << 20, HDFSFileVec.alignToBlocks(1 << 20, (1 << 20) + 1)); // cannot be aligned
+  }
+
+}
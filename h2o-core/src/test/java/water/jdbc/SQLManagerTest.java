@@ -8,7 +8,9 @@ import org.junit.contrib.java.lang.system.RestoreSystemProperties;
 import water.H2O;
 
 import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.concurrent.ArrayBlockingQueue;
 
 public class SQLManagerTest {
@@ -73,4 +75,89 @@ public class SQLManagerTest {
     Assert.assertEquals(expectedConnectionsPerNode, maxConnectionsPerNode);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testPartitionBounds() {
+    double[] bounds = SQLManager.partitionBounds(10, 50, 4);
+    Assert.assertArrayEquals(new double[]{10, 20, 30, 40, 50}, bounds, 0);
+    Assert.assertNull(SQLManager.partitionBounds(Double.NaN, Double.NaN, 4));
+  }
+
+  @Test
+  public void testPartitionBoundsNotSkewed() {
+    double[] sample = new double[1000];
+    for (int i = 0; i < sample.length; i++) sample[i] = i * 0.05; // uniform in [0, 50)
+    Assert.assertArrayEquals(new double[]{0, 12.5, 25, 37.5, 50}, SQLManager.partitionBounds(0, 50, 4, sample), 0);
+  }
+
+  @Test
+  public void testPartitionBoundsSkewedNumericKey() {
+    // 90% of the keys in [0, 90), the rest spread up to 10^6: equal-width ranges would put 90% of the rows in the first one
+    double[] sample = new double[1000];
+    for (int i = 0; i < 900; i++) sample[i] = i * 0.1;
+    for (int i = 900; i < 1000; i++) sample[i] = (i - 899) * 10000;
+    Assert.assertTrue(SQLManager.isSkewed(SQLManager.partitionBounds(0, 1e6, 4), sample));
+    double[] bounds = SQLManager.partitionBounds(0, 1e6, 4, sample);
+    Assert.assertEquals(0, bounds[0], 0);
+    Assert.assertEquals(1e6, bounds[4], 0);
+    Assert.assertFalse(SQLManager.isSkewed(bounds, sample));
+    int[] counts = new int[4];
+    for (double v : sample)
+      for (int r = 0; r < 4; r++)
+        if ((r == 0 || v >= bounds[r]) && (r == 3 || v < bounds[r + 1])) counts[r]++;
+    for (int c : counts)
+      Assert.assertEquals(250, c);
+  }
+
+  @Test
+  public void testSampleNumericSplitColumn() throws ReflectiveOperationException, SQLException {
+    Class.forName("org.apache.derby.jdbc.EmbeddedDriver");
+    Connection conn = DriverManager.getConnection("jdbc:derby:memory:splitSample;create=true");
+    Statement stmt = conn.createStatement();
+    try {
+      stmt.executeUpdate("CREATE TABLE tbl (id INT, val DOUBLE)");
+      for (int i = 0; i < 100; i++)
+        stmt.executeUpdate("INSERT INTO tbl VALUES (" + (i % 10 == 0 ? "NULL" : String.valueOf(i)) + ", " + i + ")");
+      double[] all = SQLManager.sampleSplitColumn(conn, "derby", "tbl", "id", false, 100, 1000);
+      Assert.assertEquals(90, all.length); // NULL keys are not sampled
+      double[] sample = SQLManager.sampleSplitColumn(conn, "derby", "tbl", "id", false, 100, 50);
+      Assert.assertEquals(50, sample.length);
+      for (double v : sample) {
+        Assert.assertTrue(v > 0 && v < 100);
+        Assert.assertTrue(v % 10 != 0);
+      }
+      // a large table is not read whole, derby cannot sample it
+      Assert.assertNull(SQLManager.sampleSplitColumn(conn, "derby", "tbl", "id", false, 100, 10));
+    } finally {
+      stmt.executeUpdate("DROP TABLE tbl");
+      stmt.close();
+      conn.close();
+    }
+  }
+
+  @Test
+  public void testSampleQueries() {
+    Assert.assertEquals("SELECT id FROM tbl WHERE id IS NOT NULL",
+        SQLManager.sampleQuery("postgresql", "tbl", "id", 2000, 1000));
+    Assert.assertEquals("SELECT id FROM tbl TABLESAMPLE SYSTEM (0.200000) WHERE id IS NOT NULL",
+        SQLManager.sampleQuery("postgresql", "tbl", "id", 1000000, 1000));
+    Assert.assertEquals("SELECT id FROM tbl TABLESAMPLE (0.200000 PERCENT) WHERE id IS NOT NULL",
+        SQLManager.sampleQuery("sqlserver", "tbl", "id", 1000000, 1000));
+    Assert.assertEquals("SELECT id FROM tbl SAMPLE BLOCK (0.000020) WHERE id IS NOT NULL",
+        SQLManager.sampleQuery("oracle", "tbl", "id", 10000000000L, 1000));
+    Assert.assertEquals("SELECT id FROM tbl WHERE id IS NOT NULL AND RAND() < 0.200000 / 100",
+        SQLManager.sampleQuery("mysql", "tbl", "id", 1000000, 1000));
+    Assert.assertNull(SQLManager.sampleQuery("derby", "tbl", "id", 1000000, 1000));
+  }
+
+  @Test
+  public void testRangeQueries() {
+    SQLManager.SqlTableToH2OFrame task = new SQLManager.SqlTableToH2OFrame("tbl", false, "*", 1, null, null);
+    task.setPartitioning("id", SQLManager.partitionBounds(0, 30, 3), false, 1000);
+    Assert.assertEquals("SELECT * FROM tbl WHERE id < ?", task.rangeQuery(0));
+    Assert.assertEquals("SELECT * FROM tbl WHERE id >= ? AND id < ?", task.rangeQuery(1));
+    Assert.assertEquals("SELECT * FROM tbl WHERE id >= ? OR id IS NULL", task.rangeQuery(2));
+    task.setPartitioning("id", SQLManager.partitionBounds(0, 30, 1), false, 1000);
+    Assert.assertEquals("SELECT * FROM tbl WHERE 1=1", task.rangeQuery(0));
+  }
+
+}
@@ -0,0 +1,43 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.TestUtil;
+import water.fvec.ByteVec;
+
+import static org.junit.Assert.*;
+
+public class BlockSchedulerTest extends TestUtil {
+
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testBlocksAreAssignedToSingleOwner() {
+    // 4 chunks of 10 bytes each
+    ByteVec vec = DKV.getGet(ParserTest.makeByteVec("0123456789", "0123456789", "0123456789", "0123456789"));
+    try {
+      long[] starts = new long[]{0, 12, 18, 25};
+      long[] lengths = new long[]{10, 6, 7, 15};
+      int[] owners = BlockScheduler.assign(vec, starts, lengths);
+      assertEquals(0, owners[0]); // fully within the first chunk
+      assertEquals(1, owners[1]); // fully within the second chunk
+      assertEquals(2, owners[2]); // bytes [18, 25): 2 in chunk #1, 5 in chunk #2 - chunk #2 wins
+      assertEquals(3, owners[3]); // bytes [25, 40): 5 in chunk #2, 10 in chunk #3 - chunk #3 wins
+    } finally {
+      vec.remove();
+    }
+  }
+
+  @Test
+  public void testLocalFraction() {
+    ByteVec vec = DKV.getGet(ParserTest.makeByteVec("0123456789", "0123456789"));
+    try {
+      assertEquals(1.0, BlockScheduler.localFraction(vec, 5, 10), 0); // single node: all bytes are local
+    } finally {
+      vec.remove();
+    }
+  }
+
+}
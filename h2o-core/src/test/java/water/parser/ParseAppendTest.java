@@ -0,0 +1,111 @@
+package water.parser;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Key;
+import water.TestUtil;
+import water.exceptions.H2OIllegalArgumentException;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import static water.parser.DefaultParserProviders.CSV_INFO;
+
+public class ParseAppendTest extends TestUtil {
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  private static ParseSetup makeSetup() {
+    return new ParseSetup(CSV_INFO, (byte)',', false, ParseSetup.NO_HEADER, 2,
+            new String[]{"num", "cat"}, ParseSetup.strToColumnTypes(new String[]{"Numeric", "Enum"}), null, null, null);
+  }
+
+  private static void assertLevels(Vec vec, String... levels) {
+    Assert.assertEquals(levels.length, vec.length());
+    for (int i = 0; i < levels.length; i++)
+      Assert.assertEquals(levels[i], vec.domain()[(int) vec.at8(i)]);
+  }
+
+  @Test public void testAppendExtendsFrame() {
+    Frame fr = null, expected = null;
+    try {
+      fr = ParseDataset.parse(Key.make("append.hex"), new Key[]{ParserTest.makeByteVec("1,b\n2,c\n", "3,b\n")}, true, makeSetup());
+      Vec num = fr.vec("num");
+      Assert.assertEquals(2, num.mean(), 1e-10); // rollups of the existing rows are computed before the append
+      int nchunks = num.nChunks();
+
+      Frame res = ParseDataset.append(fr._key, new Key[]{ParserTest.makeByteVec("4,a\n5,b\n", "6,d\n")}, true, makeSetup());
+      Assert.assertEquals(6, res.numRows());
+      Assert.assertEquals(nchunks + 2, res.anyVec().nChunks());
+      Assert.assertArrayEquals(new String[]{"b", "c", "a", "d"}, res.vec("cat").domain()); // existing levels keep their ids
+      assertLevels(res.vec("cat"), "b", "c", "b", "a", "b", "d");
+
+      expected = ParseDataset.parse(Key.make("expected.hex"),
+              new Key[]{ParserTest.makeByteVec("1,b\n2,c\n", "3,b\n", "4,a\n5,b\n", "6,d\n")}, true, makeSetup());
+      Vec exp = expected.vec("num");
+      Vec act = res.vec("num");
+      Assert.assertEquals(exp.min(), act.min(), 0);
+      Assert.assertEquals(exp.max(), act.max(), 0);
+      Assert.assertEquals(exp.mean(), act.mean(), 1e-10);
+      Assert.assertEquals(exp.sigma(), act.sigma(), 1e-10);
+      Assert.assertEquals(exp.naCnt(), act.naCnt());
+      Assert.assertArrayEquals(exp.mins(), act.mins(), 0);
+      Assert.assertArrayEquals(exp.maxs(), act.maxs(), 0);
+      fr = res;
+    } finally {
+      if (fr != null) fr.delete();
+      if (expected != null) expected.delete();
+    }
+  }
+
+  @Test public void testAppendSinglePassCategoricals() {
+    Frame fr = null;
+    try {
+      fr = ParseDataset.parse(Key.make("append_single_pass.hex"), new Key[]{ParserTest.makeByteVec("1,b\n2,c\n")}, true, makeSetup());
+      fr = ParseDataset.append(fr._key, new Key[]{ParserTest.makeByteVec("3,a\n4,c\n")}, true,
+              makeSetup().setSinglePassCategoricals(true));
+      Assert.assertArrayEquals(new String[]{"b", "c", "a"}, fr.vec("cat").domain());
+      assertLevels(fr.vec("cat"), "b", "c", "a", "c");
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testAppendRejectsSharedVecs() {
+    Frame fr = null, subset = null;
+    Key file = ParserTest.makeByteVec("2,c\n");
+    try {
+      fr = ParseDataset.parse(Key.make("append_shared.hex"), new Key[]{ParserTest.makeByteVec("1,b\n")}, true, makeSetup());
+      subset = new Frame(Key.<Frame>make("append_shared_subset.hex"), new String[]{"num"}, new Vec[]{fr.vec("num")});
+      DKV.put(subset);
+      try {
+        ParseDataset.append(fr._key, new Key[]{file}, false, makeSetup());
+        Assert.fail("Frame with Vecs shared with another frame should not be appended to");
+      } catch (H2OIllegalArgumentException e) {
+        Assert.assertTrue(e.getMessage().contains("append_shared_subset.hex"));
+      }
+      Assert.assertEquals(1, subset.numRows());
+    } finally {
+      file.remove();
+      if (subset != null) DKV.remove(subset._key); // the Vecs are deleted with fr
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test(expected = H2OIllegalArgumentException.class)
+  public void testAppendRejectsDifferentColumns() {
+    Frame fr = null;
+    Key file = ParserTest.makeByteVec("1,b,x\n");
+    try {
+      fr = ParseDataset.parse(Key.make("append_mismatch.hex"), new Key[]{ParserTest.makeByteVec("1,b\n")}, true, makeSetup());
+      ParseSetup setup = new ParseSetup(CSV_INFO, (byte)',', false, ParseSetup.NO_HEADER, 3,
+              null, ParseSetup.strToColumnTypes(new String[]{"Numeric", "Enum", "Enum"}), null, null, null);
+      ParseDataset.append(fr._key, new Key[]{file}, true, setup);
+    } finally {
+      file.remove();
+      if (fr != null) fr.delete();
+    }
+  }
+
+}
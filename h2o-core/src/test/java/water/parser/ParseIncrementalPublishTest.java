@@ -0,0 +1,139 @@
+package water.parser;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.DKV;
+import water.Job;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.fvec.Vec;
+import water.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static water.parser.DefaultParserProviders.CSV_INFO;
+
+public class ParseIncrementalPublishTest extends TestUtil {
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private static final String[][] FILES = new String[][]{
+          {"1,c\n2,b\n", "3,c\n"},
+          {"4,a\n5,d\n"},
+          {"6,b\n", "7,e\n8,a\n"}
+  };
+
+  private static Key[] makeFiles() {
+    Key[] keys = new Key[FILES.length];
+    for (int i = 0; i < keys.length; i++)
+      keys[i] = ParserTest.makeByteVec(FILES[i]);
+    return keys;
+  }
+
+  // non-ASCII content, the chunks of a file hold its UTF-8 bytes
+  private Key makeFile(String data) throws IOException {
+    File f = tmpFolder.newFile();
+    Files.write(f.toPath(), StringUtils.bytesOf(data));
+    return NFSFileVec.make(f)._key;
+  }
+
+  private static ParseSetup makeSetup() {
+    return new ParseSetup(CSV_INFO, (byte)',', false, ParseSetup.NO_HEADER, 2,
+            new String[]{"num", "cat"}, ParseSetup.strToColumnTypes(new String[]{"Numeric", "Enum"}), null, null, null);
+  }
+
+  @Test public void testIncrementalPublishMatchesRegularParse() {
+    Frame expected = null, actual = null;
+    try {
+      expected = ParseDataset.parse(Key.make("regular.hex"), makeFiles(), true, makeSetup());
+      actual = ParseDataset.parse(Key.make("incremental.hex"), makeFiles(), true, makeSetup().setIncrementalPublishFiles(1));
+      Assert.assertEquals(8, actual.numRows());
+      Assert.assertArrayEquals(new String[]{"a", "b", "c", "d", "e"}, actual.vec("cat").domain());
+      Assert.assertTrue(isBitIdentical(expected, actual));
+    } finally {
+      if (expected != null) expected.delete();
+      if (actual != null) actual.delete();
+    }
+  }
+
+  // Levels are sorted by their UTF-8 bytes like in a regular parse, not by their UTF-16 chars
+  @Test public void testIncrementalPublishDomainOrder() throws IOException {
+    Frame expected = null, actual = null;
+    try {
+      String[][] files = new String[][]{{"1,\uFF21\n"}, {"2,\uD83D\uDE00\n"}, {"3,a\n"}};
+      Key[] regularKeys = new Key[files.length], incrementalKeys = new Key[files.length];
+      for (int i = 0; i < files.length; i++) {
+        regularKeys[i] = makeFile(files[i][0]);
+        incrementalKeys[i] = makeFile(files[i][0]);
+      }
+      expected = ParseDataset.parse(Key.make("regular_order.hex"), regularKeys, true, makeSetup());
+      actual = ParseDataset.parse(Key.make("incremental_order.hex"), incrementalKeys, true, makeSetup().setIncrementalPublishFiles(1));
+      Assert.assertArrayEquals(expected.vec("cat").domain(), actual.vec("cat").domain());
+      Assert.assertTrue(isBitIdentical(expected, actual));
+    } finally {
+      if (expected != null) expected.delete();
+      if (actual != null) actual.delete();
+    }
+  }
+
+  @Test public void testPublishedPrefixIsReadable() {
+    final int nfiles = 40;
+    Key[] keys = new Key[nfiles];
+    for (int i = 0; i < nfiles; i++)
+      keys[i] = ParserTest.makeByteVec((i + 1) + "," + (char) ('a' + i % 5) + "\n");
+    Key<Frame> dest = Key.make("incremental_prefix.hex");
+    Key<Frame> partialKey = ParseDataset.partialResultKey(dest);
+    Key<Job> reader = Key.make();
+    ParseDataset pds = ParseDataset.forkParseDataset(dest, keys, makeSetup().setIncrementalPublishFiles(1), true);
+    Frame fr = null;
+    int observed = 0;
+    try {
+      while (!pds._job.isStopped()) {
+        Frame partial = DKV.getGet(partialKey);
+        if (partial == null) continue;
+        // the snapshot is not write-locked (the result is), it is replaced by the next snapshot - no need to unlock it
+        try {
+          partial.read_lock(reader);
+        } catch (IllegalArgumentException e) {
+          if (DKV.get(partialKey) == null) continue; // removed by the finishing parse in the meantime
+          throw e;
+        }
+        Vec num = partial.vec("num");
+        Assert.assertTrue(num.length() > 0 && num.length() < nfiles);
+        for (int i = 0; i < num.length(); i++)
+          Assert.assertEquals(i + 1, num.at8(i));
+        observed++;
+      }
+      fr = pds._job.get();
+      Assert.assertTrue("No partial result was observed", observed > 0);
+      Assert.assertNull(DKV.get(partialKey));
+      Assert.assertEquals(nfiles, fr.numRows());
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testIncrementalPublishRollups() {
+    Frame fr = null;
+    try {
+      fr = ParseDataset.parse(Key.make("incremental_rollups.hex"), makeFiles(), true, makeSetup().setIncrementalPublishFiles(2));
+      Vec num = fr.vec("num");
+      Assert.assertEquals(1, num.min(), 0);
+      Assert.assertEquals(8, num.max(), 0);
+      Assert.assertEquals(4.5, num.mean(), 1e-10);
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+}
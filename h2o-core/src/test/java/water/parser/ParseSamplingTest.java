@@ -0,0 +1,62 @@
+package water.parser;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+
+import static water.parser.DefaultParserProviders.CSV_INFO;
+
+public class ParseSamplingTest extends TestUtil {
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  private static final String[] CHUNKS = new String[]{
+          "1,a\n2,b\n", "3,c\n4,d\n", "5,e\n6,f\n", "7,g\n8,h\n", "9,i\n10,j\n", "11,k\n12,l\n", "13,m\n14,n\n", "15,o\n16,p\n"
+  };
+
+  private static ParseSetup makeSetup() {
+    return new ParseSetup(CSV_INFO, (byte)',', false, ParseSetup.NO_HEADER, 2,
+            new String[]{"num", "cat"}, ParseSetup.strToColumnTypes(new String[]{"Numeric", "Enum"}), null, null, null);
+  }
+
+  @Test public void testMaxRowsPerFile() {
+    Frame fr = null;
+    try {
+      fr = ParseDataset.parse(Key.make("row_limit.hex"),
+              new Key[]{ParserTest.makeByteVec(CHUNKS), ParserTest.makeByteVec("20,x\n21,y\n22,z\n")}, true,
+              makeSetup().setMaxRowsPerFile(3));
+      Assert.assertEquals(6, fr.numRows());
+      Assert.assertEquals(1 + 2 + 3 + 20 + 21 + 22, fr.vec("num").mean() * 6, 1e-10);
+      Assert.assertNotNull(fr._parse_sampling);
+      Assert.assertEquals(3, fr._parse_sampling._max_rows_per_file);
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testChunkSamplingIsReproducible() {
+    Frame fr1 = null, fr2 = null;
+    try {
+      fr1 = ParseDataset.parse(Key.make("sample1.hex"), new Key[]{ParserTest.makeByteVec(CHUNKS)}, true,
+              makeSetup().setSampling(0.5, 42));
+      fr2 = ParseDataset.parse(Key.make("sample2.hex"), new Key[]{ParserTest.makeByteVec(CHUNKS)}, true,
+              makeSetup().setSampling(0.5, 42));
+      ParseSampling sampling = fr1._parse_sampling;
+      Assert.assertNotNull(sampling);
+      Assert.assertEquals(42, sampling._sample_seed);
+      Assert.assertEquals(CHUNKS.length, sampling._total_chunks);
+      Assert.assertTrue(sampling._parsed_chunks >= 1 && sampling._parsed_chunks <= CHUNKS.length);
+      Assert.assertEquals(2 * sampling._parsed_chunks, fr1.numRows());
+      Assert.assertEquals(sampling._parsed_chunks, fr1.anyVec().nChunks());
+      Assert.assertEquals(1, fr1.vec("num").at8(0)); // the first chunk is always parsed
+      Assert.assertTrue(isBitIdentical(new Frame(fr1.vec("num")), new Frame(fr2.vec("num"))));
+    } finally {
+      if (fr1 != null) fr1.delete();
+      if (fr2 != null) fr2.delete();
+    }
+  }
+
+}
@@ -0,0 +1,130 @@
+package water.parser;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+
+import static water.parser.DefaultParserProviders.CSV_INFO;
+
+public class ParseSinglePassCategoricalsTest extends TestUtil {
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  private static final String[][] FILES = new String[][]{
+          {"1,c\n2,b\n", "3,\n"},
+          {"4,a\n5,d\n"},
+          {"6,b\n", "7,e\n8,c\n"}
+  };
+
+  private static Key[] makeFiles() {
+    Key[] keys = new Key[FILES.length];
+    for (int i = 0; i < keys.length; i++)
+      keys[i] = ParserTest.makeByteVec(FILES[i]);
+    return keys;
+  }
+
+  private static ParseSetup makeSetup() {
+    return new ParseSetup(CSV_INFO, (byte)',', false, ParseSetup.NO_HEADER, 2,
+            new String[]{"num", "cat"}, ParseSetup.strToColumnTypes(new String[]{"Numeric", "Enum"}), null, null, null);
+  }
+
+  private static ParseSetup makeMixedSetup() {
+    return makeSetup().setColumnTypes(ParseSetup.strToColumnTypes(new String[]{"Numeric", "Unknown"}));
+  }
+
+  private static void assertSameLevels(Vec expected, Vec actual) {
+    Assert.assertEquals(expected.length(), actual.length());
+    for (long i = 0; i < expected.length(); i++) {
+      Assert.assertEquals(expected.isNA(i), actual.isNA(i));
+      if (!expected.isNA(i))
+        Assert.assertEquals(expected.domain()[(int) expected.at8(i)], actual.domain()[(int) actual.at8(i)]);
+    }
+  }
+
+  // Single-pass domains are ordered by first appearance, the frames are equal only up to the order of the levels
+  @Test public void testSinglePassMatchesRegularParse() {
+    Frame expected = null, actual = null;
+    try {
+      expected = ParseDataset.parse(Key.make("regular.hex"), makeFiles(), true, makeSetup());
+      actual = ParseDataset.parse(Key.make("single_pass.hex"), makeFiles(), true, makeSetup().setSinglePassCategoricals(true));
+      Assert.assertEquals(8, actual.numRows());
+      Assert.assertTrue(isBitIdentical(new Frame(expected.vec("num")), new Frame(actual.vec("num"))));
+      String[] domain = actual.vec("cat").domain().clone();
+      Arrays.sort(domain);
+      Assert.assertArrayEquals(expected.vec("cat").domain(), domain);
+      assertSameLevels(expected.vec("cat"), actual.vec("cat"));
+    } finally {
+      if (expected != null) expected.delete();
+      if (actual != null) actual.delete();
+    }
+  }
+
+  @Test public void testSinglePassWithIncrementalPublish() {
+    Frame expected = null, actual = null;
+    try {
+      expected = ParseDataset.parse(Key.make("regular.hex"), makeFiles(), true, makeSetup());
+      actual = ParseDataset.parse(Key.make("single_pass_incremental.hex"), makeFiles(), true,
+              makeSetup().setSinglePassCategoricals(true).setIncrementalPublishFiles(1));
+      Assert.assertEquals(5, actual.vec("cat").cardinality());
+      assertSameLevels(expected.vec("cat"), actual.vec("cat"));
+    } finally {
+      if (expected != null) expected.delete();
+      if (actual != null) actual.delete();
+    }
+  }
+
+  // Categorical values are followed by numbers in a column of unknown type, only the categorical values are renumbered
+  @Test public void testSinglePassMixedColumn() {
+    Frame expected = null, actual = null;
+    try {
+      String[][] files = new String[][]{{"1,a\n2,12345\n3,7\n"}, {"4,b\n5,a\n"}};
+      Key[] keys = new Key[files.length];
+      for (int i = 0; i < keys.length; i++)
+        keys[i] = ParserTest.makeByteVec(files[i]);
+      expected = ParseDataset.parse(Key.make("regular_mixed.hex"), keys, false, makeMixedSetup());
+      actual = ParseDataset.parse(Key.make("single_pass_mixed.hex"), keys, true, makeMixedSetup().setSinglePassCategoricals(true));
+      Assert.assertEquals(5, actual.numRows());
+      Assert.assertEquals(expected.vec("cat").get_type(), actual.vec("cat").get_type());
+      if (expected.vec("cat").isCategorical())
+        assertSameLevels(expected.vec("cat"), actual.vec("cat"));
+      else
+        Assert.assertTrue(isBitIdentical(new Frame(expected.vec("cat")), new Frame(actual.vec("cat"))));
+    } finally {
+      if (expected != null) expected.delete();
+      if (actual != null) actual.delete();
+    }
+  }
+
+  // Mostly one level per file, the parsed chunks are sparse and their implicit zeros are a different level in each file
+  private static String sparseFile(String common, String rare, int rows) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < rows; i++)
+      sb.append(i).append(',').append(i % 100 == 99 ? rare : common).append('\n');
+    return sb.toString();
+  }
+
+  @Test public void testSinglePassSparseChunks() {
+    Frame expected = null, actual = null;
+    try {
+      String[][] files = new String[][]{{sparseFile("a", "b", 1000)}, {sparseFile("b", "a", 1000)}, {sparseFile("c", "a", 1000)}};
+      Key[] keys = new Key[files.length];
+      for (int i = 0; i < keys.length; i++)
+        keys[i] = ParserTest.makeByteVec(files[i]);
+      expected = ParseDataset.parse(Key.make("regular_sparse.hex"), keys, false, makeSetup());
+      actual = ParseDataset.parse(Key.make("single_pass_sparse.hex"), keys, true, makeSetup().setSinglePassCategoricals(true));
+      Assert.assertEquals(3000, actual.numRows());
+      Assert.assertEquals(3, actual.vec("cat").cardinality());
+      assertSameLevels(expected.vec("cat"), actual.vec("cat"));
+    } finally {
+      if (expected != null) expected.delete();
+      if (actual != null) actual.delete();
+    }
+  }
+
+}
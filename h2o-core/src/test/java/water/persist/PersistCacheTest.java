@@ -0,0 +1,95 @@
+package water.persist;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.*;
+import water.fvec.FileVec;
+import water.fvec.NFSFileVec;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class PersistCacheTest extends TestUtil {
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  private static byte[] loadFirstChunk(PersistCache cache, Persist persist, FileVec vec,
+                                       PersistManager.PersistStatsEntry stats) throws IOException {
+    Value v = new Value(vec.chunkKey(0), (int) vec.length(), null, TypeMap.C1NCHUNK, Value.NFS);
+    return cache.load(persist, v, stats);
+  }
+
+  @Test public void testCacheIdIsContentAddressed() {
+    String id = PersistCache.cacheId("s3://bucket/file.csv", "etag1", 0, 100);
+    assertEquals(id, PersistCache.cacheId("s3://bucket/file.csv", "etag1", 0, 100));
+    assertNotEquals(id, PersistCache.cacheId("s3://bucket/file.csv", "etag2", 0, 100));
+    assertNotEquals(id, PersistCache.cacheId("s3://bucket/file.csv", "etag1", 100, 100));
+  }
+
+  @Test public void testPutGetEvict() throws IOException {
+    File dir = tmpFolder.newFolder("cache");
+    PersistCache cache = new PersistCache(dir, 25);
+    cache.put("a", new byte[10]);
+    cache.put("b", new byte[10]);
+    assertNotNull(cache.get("a", 10)); // a is now more recently used than b
+    assertNull(cache.get("a", 11));    // wrong length is a miss, entry gets dropped
+    cache.put("a", new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+    cache.put("c", new byte[10]);      // over the cap, b is the least recently used
+    assertNull(cache.get("b", 10));
+    assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, cache.get("a", 10));
+    assertNotNull(cache.get("c", 10));
+    assertEquals(20, cache.totalBytes());
+    assertEquals(2, dir.listFiles().length);
+
+    // the index survives a restart
+    PersistCache restored = new PersistCache(dir, 25);
+    assertEquals(2, restored.size());
+    assertEquals(20, restored.totalBytes());
+    assertNotNull(restored.get("c", 10));
+  }
+
+  @Test public void testReimportOfChangedFile() throws IOException {
+    PersistCache cache = new PersistCache(tmpFolder.newFolder("cache"), 1 << 20);
+    PersistCache prior = H2O.getPM().setCache(cache);
+    Persist files = new PersistNFS(); // local files posing as a remote backend, versioned by modification time
+    PersistManager.PersistStatsEntry stats = new PersistManager.PersistStatsEntry();
+    File f = tmpFolder.newFile("data.csv");
+    FileVec vec = null;
+    try {
+      Files.write(f.toPath(), "1,a\n2,b\n".getBytes(StandardCharsets.UTF_8));
+      vec = NFSFileVec.make(f);
+      assertArrayEquals(Files.readAllBytes(f.toPath()), loadFirstChunk(cache, files, vec, stats));
+      assertArrayEquals(Files.readAllBytes(f.toPath()), loadFirstChunk(cache, files, vec, stats));
+      assertEquals(1, stats.cache_miss_count.get());
+      assertEquals(1, stats.cache_hit_count.get());
+
+      // same length, different content and modification time
+      Files.write(f.toPath(), "3,c\n4,d\n".getBytes(StandardCharsets.UTF_8));
+      assertTrue(f.setLastModified(f.lastModified() + 10000));
+      String oldVersion = vec.getContentVersion();
+      // imported again over the existing Vec, without removing it first
+      vec = NFSFileVec.make(f);
+      assertNotEquals(oldVersion, vec.getContentVersion());
+      assertNotEquals(oldVersion, ((FileVec) DKV.getGet(vec._key)).getContentVersion());
+      assertArrayEquals("3,c\n4,d\n".getBytes(StandardCharsets.UTF_8), loadFirstChunk(cache, files, vec, stats));
+      assertEquals(2, stats.cache_miss_count.get());
+      assertEquals(1, stats.cache_hit_count.get());
+      assertEquals(2, cache.size()); // the entry of the old content is left to the eviction
+    } finally {
+      if (vec != null) vec.remove();
+      H2O.getPM().setCache(prior);
+    }
+  }
+
+}
@@ -5,7 +5,9 @@ import hex.Model;
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import water.Key;
 import water.Scope;
 import water.TestUtil;
@@ -14,11 +16,15 @@ import water.fvec.FrameTestUtil;
 import water.fvec.TestFrameBuilder;
 import water.fvec.Vec;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Random;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -28,6 +34,9 @@ public class FrameUtilsTest extends TestUtil {
   @BeforeClass
   static public void setup() {  stall_till_cloudsize(1); }
 
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
   @Test
   public void testCategoricalColumnsBinaryEncoding() {
     int numNoncatColumns = 10;
@@ -164,4 +173,39 @@ public class FrameUtilsTest extends TestUtil {
     }
   }
 
+  @Test
+  public void testCleanupOnlyOwnTmpParts() throws IOException {
+    File folder = tmpFolder.newFolder("export");
+    File own = new File(folder, FrameUtils.ExportTaskDriver.tmpPartName("_own", "part-m-00000"));
+    File concurrent = new File(folder, FrameUtils.ExportTaskDriver.tmpPartName("_other", "part-m-00000"));
+    File committed = new File(folder, "part-m-00001");
+    assertTrue(own.createNewFile());
+    assertTrue(concurrent.createNewFile());
+    assertTrue(committed.createNewFile());
+    new FrameUtils.CleanupPartsTask(folder.getPath(), "_own").doAllNodes();
+    assertFalse(own.exists());
+    assertTrue(concurrent.exists()); // temporary part of another export to the same directory
+    assertTrue(committed.exists());
+  }
+
+  @Test
+  public void testCleanupRollsBackCommittedParts() throws IOException {
+    File folder = tmpFolder.newFolder("export_rollback");
+    File committed = new File(folder, "part-m-00000"); // renamed before the commit failed
+    File uncommitted = new File(folder, FrameUtils.ExportTaskDriver.tmpPartName("_own", "part-m-00001"));
+    File unrelated = new File(folder, "part-m-00002");
+    File concurrent = new File(folder, FrameUtils.ExportTaskDriver.tmpPartName("_other", "part-m-00000"));
+    for (File f : new File[]{committed, uncommitted, unrelated, concurrent})
+      assertTrue(f.createNewFile());
+    FrameUtils.ExportTaskDriver.ExportedPart[] parts = new FrameUtils.ExportTaskDriver.ExportedPart[]{
+            new FrameUtils.ExportTaskDriver.ExportedPart("part-m-00000", 1, 1, 0),
+            new FrameUtils.ExportTaskDriver.ExportedPart("part-m-00001", 1, 1, 0)
+    };
+    new FrameUtils.CleanupPartsTask(folder.getPath(), "_own", parts, false).doAllNodes();
+    assertFalse(committed.exists());
+    assertFalse(uncommitted.exists());
+    assertTrue(unrelated.exists());
+    assertTrue(concurrent.exists());
+  }
+
 }
@@ -0,0 +1,242 @@
+package hex.genmodel.algos.tree;
+
+import hex.genmodel.utils.ByteBufferWrapper;
+
+import java.util.Arrays;
+
+/**
+ * Tree decoded once from its compressed form (see {@link SharedTreeMojoModel#scoreTree}) into flat arrays of nodes,
+ * so that scoring a row does not decode the node types, column ids and split values again.
+ *
+ * Nodes are numbered in pre-order, the children of node n are {@code _children[2n]} (left) and
+ * {@code _children[2n+1]} (right); leaves are encoded as negative children, {@code ~child} is the index of the leaf
+ * prediction. Scoring gives the same predictions as {@link SharedTreeMojoModel#scoreTree} (mojo version 1.2).
+ */
+public final class FlatTree {
+  private static final int NsdNaVsRest = NaSplitDir.NAvsREST.value();
+  private static final int NsdNaLeft = NaSplitDir.NALeft.value();
+  private static final int NsdLeft = NaSplitDir.Left.value();
+
+  // Node flags
+  private static final byte NA_RIGHT = 1;   // NAs (and values out of the bitset/domain) go right
+  private static final byte NA_VS_REST = 2; // NAs vs. the rest, no split value
+  private static final byte BITSET = 4;     // group split, the value is looked up in a bitset
+
+  private final int _root;         // first node, or ~leaf if the tree is a single leaf
+  private final int[] _cols;       // per node: column to split on
+  private final float[] _splits;   // per node: split value (numeric splits)
+  private final byte[] _flags;     // per node: NA_RIGHT, NA_VS_REST, BITSET
+  private final int[] _bitsets;    // per node: bitset in effect (own bitset or the last one on the path), -1 if none
+  private final int[] _children;   // per node: left and right child
+  private final float[] _leaves;   // leaf predictions
+  private final byte[] _bits;      // all the bitsets
+  private final int[] _bitsOff;    // per bitset: offset of the bitset in _bits
+  private final int[] _bitsFirst;  // per bitset: first value in the bitset
+  private final int[] _bitsCount;  // per bitset: number of bits
+  private final String[][] _domains;
+
+  private FlatTree(Builder b, int root, String[][] domains) {
+    _root = root;
+    _cols = Arrays.copyOf(b._cols, b._nodes);
+    _splits = Arrays.copyOf(b._splits, b._nodes);
+    _flags = Arrays.copyOf(b._flags, b._nodes);
+    _bitsets = Arrays.copyOf(b._bitsets, b._nodes);
+    _children = Arrays.copyOf(b._children, 2 * b._nodes);
+    _leaves = Arrays.copyOf(b._leaves, b._nleaves);
+    _bits = b._tree;
+    _bitsOff = Arrays.copyOf(b._bitsOff, b._nbitsets);
+    _bitsFirst = Arrays.copyOf(b._bitsFirst, b._nbitsets);
+    _bitsCount = Arrays.copyOf(b._bitsCount, b._nbitsets);
+    _domains = domains;
+  }
+
+  /**
+   * Decodes a compressed tree.
+   * @param tree tree in the format of mojo version 1.2
+   * @param domains domains of the columns, levels outside of the domain of a column are scored as NAs
+   */
+  public static FlatTree decode(byte[] tree, String[][] domains) {
+    Builder b = new Builder(tree);
+    int root = b.subtree(new ByteBufferWrapper(tree), -1, true);
+    return new FlatTree(b, root, domains);
+  }
+
+  /** Decodes all the (non-null) trees of a model, see {@link #decode} */
+  public static FlatTree[] decode(byte[][] trees, String[][] domains) {
+    FlatTree[] res = new FlatTree[trees.length];
+    for (int i = 0; i < trees.length; i++)
+      if (trees[i] != null)
+        res[i] = decode(trees[i], domains);
+    return res;
+  }
+
+  public double score(double[] row) {
+    int n = _root;
+    while (n >= 0)
+      n = _children[2 * n + (goesRight(n, row[_cols[n]]) ? 1 : 0)];
+    return _leaves[~n];
+  }
+
+  /**
+   * Scores a block of rows, the nodes of the tree stay in the cache for all the rows of the block.
+   * @param cols column-major values of the rows, cols[c][i] is the value of column c in the i-th row
+   * @param preds the prediction of the i-th row is added to preds[i]
+   */
+  public void score(double[][] cols, int nrows, double[] preds) {
+    for (int i = 0; i < nrows; i++) {
+      int n = _root;
+      while (n >= 0)
+        n = _children[2 * n + (goesRight(n, cols[_cols[n]][i]) ? 1 : 0)];
+      preds[i] += _leaves[~n];
+    }
+  }
+
+  /**
+   * Scores the given rows of a block, see {@link #score(double[][], int, double[])}.
+   * @param rows indices of the rows to score, only the first nrows are used
+   */
+  public void score(double[][] cols, int[] rows, int nrows, double[] preds) {
+    for (int j = 0; j < nrows; j++) {
+      int i = rows[j];
+      int n = _root;
+      while (n >= 0)
+        n = _children[2 * n + (goesRight(n, cols[_cols[n]][i]) ? 1 : 0)];
+      preds[i] += _leaves[~n];
+    }
+  }
+
+  private boolean goesRight(int n, double d) {
+    int flags = _flags[n];
+    if (Double.isNaN(d) || outOfDomain(_cols[n], d) ||
+            ((flags & BITSET) != 0 && _bitsets[n] >= 0 && !inRange(_bitsets[n], (int) d)))
+      return (flags & NA_RIGHT) != 0;
+    if ((flags & NA_VS_REST) != 0)
+      return false;
+    if ((flags & BITSET) == 0)
+      return d >= _splits[n];
+    return contains(_bitsets[n], (int) d);
+  }
+
+  // Levels outside of the domain of the column are scored as NAs
+  private boolean outOfDomain(int col, double d) {
+    String[] domain = _domains == null ? null : _domains[col];
+    return domain != null && (int) d >= domain.length;
+  }
+
+  public int numNodes() { return _cols.length; }
+
+  /** @return true if the tree was decoded for the given domains */
+  public boolean isFor(String[][] domains) { return _domains == domains; }
+
+  private boolean inRange(int bs, int v) {
+    v -= _bitsFirst[bs];
+    return v >= 0 && v < _bitsCount[bs];
+  }
+
+  private boolean contains(int bs, int v) {
+    v -= _bitsFirst[bs];
+    return (_bits[_bitsOff[bs] + (v >> 3)] & ((byte) 1 << (v & 7))) != 0;
+  }
+
+  // Growable arrays of the nodes, filled in pre-order
+  private static class Builder {
+    final byte[] _tree;
+    int _nodes, _nleaves, _nbitsets;
+    int[] _cols = new int[16];
+    float[] _splits = new float[16];
+    byte[] _flags = new byte[16];
+    int[] _bitsets = new int[16];
+    int[] _children = new int[32];
+    float[] _leaves = new float[16];
+    int[] _bitsOff = new int[4], _bitsFirst = new int[4], _bitsCount = new int[4];
+
+    Builder(byte[] tree) { _tree = tree; }
+
+    int leaf(float pred) {
+      if (_nleaves == _leaves.length) _leaves = Arrays.copyOf(_leaves, 2 * _nleaves);
+      _leaves[_nleaves] = pred;
+      return ~_nleaves++;
+    }
+
+    int bitset(int off, int first, int count) {
+      if (_nbitsets == _bitsOff.length) {
+        _bitsOff = Arrays.copyOf(_bitsOff, 2 * _nbitsets);
+        _bitsFirst = Arrays.copyOf(_bitsFirst, 2 * _nbitsets);
+        _bitsCount = Arrays.copyOf(_bitsCount, 2 * _nbitsets);
+      }
+      _bitsOff[_nbitsets] = off;
+      _bitsFirst[_nbitsets] = first;
+      _bitsCount[_nbitsets] = count;
+      return _nbitsets++;
+    }
+
+    int node() {
+      if (_nodes == _cols.length) {
+        int len = 2 * _nodes;
+        _cols = Arrays.copyOf(_cols, len);
+        _splits = Arrays.copyOf(_splits, len);
+        _flags = Arrays.copyOf(_flags, len);
+        _bitsets = Arrays.copyOf(_bitsets, len);
+        _children = Arrays.copyOf(_children, 2 * len);
+      }
+      return _nodes++;
+    }
+
+    // Decodes the subtree at the position of the buffer, bitset is the bitset in effect on the path to the subtree
+    int subtree(ByteBufferWrapper ab, int bitset, boolean root) {
+      int nodeType = ab.get1U();
+      int colId = ab.get2();
+      if (colId == 65535) {
+        assert root : "leaves are only encoded as nodes if the tree is a single leaf";
+        return leaf(ab.get4f());
+      }
+      int naSplitDir = ab.get1U();
+      boolean naVsRest = naSplitDir == NsdNaVsRest;
+      boolean leftward = naSplitDir == NsdNaLeft || naSplitDir == NsdLeft;
+      int equal = (nodeType & 12);  // Can be one of 0, 8, 12
+      assert equal != 4;  // no longer supported
+
+      int n = node();
+      byte flags = 0;
+      if (!leftward) flags |= NA_RIGHT;
+      if (naVsRest) flags |= NA_VS_REST;
+      if (equal != 0) flags |= BITSET;
+      if (!naVsRest) {
+        if (equal == 0) {
+          _splits[n] = ab.get4f();
+        } else if (equal == 8) { // small inline bitset
+          bitset = bitset(ab.position(), 0, 32);
+          ab.skip(4);
+        } else {
+          int first = ab.get2();
+          int count = ab.get4();
+          bitset = bitset(ab.position(), first, count);
+          ab.skip(((count - 1) >> 3) + 1);
+        }
+      }
+      _cols[n] = colId;
+      _flags[n] = flags;
+      _bitsets[n] = bitset;
+
+      int lmask = (nodeType & 51);
+      int left;
+      if (lmask <= 3) { // subtree, preceded by its size
+        ab.skip(lmask + 1);
+        left = subtree(ab, bitset, false);
+      } else {
+        assert lmask == 48 : "illegal lmask value " + lmask;
+        left = leaf(ab.get4f());
+      }
+      int rmask = (nodeType & 0xC0) >> 2;
+      int right;
+      if ((rmask & 16) != 0) {
+        assert rmask == 48 : "illegal rmask value " + rmask;
+        right = leaf(ab.get4f());
+      } else
+        right = subtree(ab, bitset, false);
+      _children[2 * n] = left;
+      _children[2 * n + 1] = right;
+      return n;
+    }
+  }
+}
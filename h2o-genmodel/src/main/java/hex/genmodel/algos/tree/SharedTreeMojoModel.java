@@ -45,6 +45,12 @@ public abstract class SharedTreeMojoModel extends MojoModel {
      */
     protected byte[][] _compressed_trees_aux;
 
+    /**
+     * Trees decoded into flat arrays of nodes (mojo version 1.2 only), used for scoring. Decoded on the first scoring,
+     * not serialized.
+     */
+    private transient volatile FlatTree[] _flat_trees;
+
     /**
      * GLM's beta used for calibrating output probabilities using Platt Scaling.
      */
@@ -439,13 +445,16 @@ public abstract class SharedTreeMojoModel extends MojoModel {
      */
     protected void scoreAllTrees(double[] row, double[] preds) {
         java.util.Arrays.fill(preds, 0);
+        final FlatTree[] flatTrees = flatTrees();
         for (int i = 0; i < _ntrees_per_group; i++) {
             int k = _nclasses == 1? 0 : i + 1;
             for (int j = 0; j < _ntree_groups; j++) {
                 int itree = treeIndex(j, i);
                 // Skip all empty trees
                 if (_compressed_trees[itree] == null) continue;
-                if (_mojo_version.equals(1.0)) { //First version
+                if (flatTrees != null) {
+                    preds[k] += flatTrees[itree].score(row);
+                } else if (_mojo_version.equals(1.0)) { //First version
                     preds[k] += scoreTree0(_compressed_trees[itree], row, _nclasses, false);
                 } else if (_mojo_version.equals(1.1)) { //Second version
                     preds[k] += scoreTree1(_compressed_trees[itree], row, _nclasses, false);
@@ -456,6 +465,17 @@ public abstract class SharedTreeMojoModel extends MojoModel {
         }
     }
 
+    /**
+     * @return the trees decoded for scoring (mojo version 1.2), or null if the trees are scored from the compressed form
+     */
+    protected final FlatTree[] flatTrees() {
+        if (_mojo_version == null || !_mojo_version.equals(1.2)) return null;
+        FlatTree[] flatTrees = _flat_trees;
+        if (flatTrees == null) // racing threads decode the same trees, any of the results can be kept
+            _flat_trees = flatTrees = FlatTree.decode(_compressed_trees, _domains);
+        return flatTrees;
+    }
+
     // note that _ntree_group = _treekeys.length
     // ntrees_per_group = _treeKeys[0].length
     public String[] getDecisionPathNames() {
@@ -30,11 +30,11 @@ public class ParquetParser extends Parser {
 
   private static final int MAX_PREVIEW_RECORDS = 1000;
 
-  private final byte[] _metadata;
+  private final ParquetParseSetup _parquetSetup;
 
   ParquetParser(ParseSetup setup, Key<Job> jobKey) {
     super(setup, jobKey);
-    _metadata = ((ParquetParseSetup) setup).parquetMetadata;
+    _parquetSetup = (ParquetParseSetup) setup;
   }
 
   @Override
@@ -44,25 +44,43 @@ public class ParquetParser extends Parser {
       throw new IllegalStateException("We only accept parser readers backed by a Vec (no streaming support!).");
     }
     Chunk chunk = ((FVecParseReader) din).getChunk();
-    Vec vec = chunk.vec();
-    // extract metadata, we want to read only the row groups that have centers in this chunk
-    ParquetMetadataConverter.MetadataFilter chunkFilter = ParquetMetadataConverter.range(
-            chunk.start(), chunk.start() + chunk.len());
-    ParquetMetadata metadata = VecParquetReader.readFooter(_metadata, chunkFilter);
-    if (metadata.getBlocks().isEmpty()) {
-      Log.trace("Chunk #", cidx, " doesn't contain any Parquet block center.");
-      return dout;
-    }
-    Log.info("Processing ", metadata.getBlocks().size(), " blocks of chunk #", cidx);
-    VecParquetReader reader = new VecParquetReader(vec, metadata, dout, _setup.getColumnTypes());
-    try {
-      Integer recordNumber;
-      do {
-        recordNumber = reader.read();
-      } while (recordNumber != null);
-    } catch (IOException e) {
-      throw new RuntimeException("Failed to parse records", e);
+    ByteVec vec = (ByteVec) chunk.vec();
+    // footer and block assignment are computed once per node (in setupLocal), read only the row groups of this chunk
+    ParquetMetadata metadata = _parquetSetup.scheduleBlocks(vec);
+    int[] owners = _parquetSetup.blockOwners;
+    List<BlockMetaData> blocks = metadata.getBlocks();
+    int parsedBlocks = 0;
+    for (int i = 0; i < blocks.size(); i++) {
+      if (owners[i] != cidx)
+        continue;
+      BlockMetaData block = blocks.get(i);
+      long start = block.getStartingPos();
+      long len = block.getCompressedSize();
+      final long startNanos = System.nanoTime();
+      ParquetMetadata blockMetadata = new ParquetMetadata(metadata.getFileMetaData(), Collections.singletonList(block));
+      VecParquetReader reader = new VecParquetReader(vec, blockMetadata, dout, _setup.getColumnTypes());
+      try {
+        Integer recordNumber;
+        do {
+          recordNumber = reader.read();
+        } while (recordNumber != null);
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to parse records", e);
+      } finally {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          Log.warn("Failed to close the reader of Parquet row group #" + i, e);
+        }
+      }
+      BlockScheduler.logBlockParsed("row group", i, cidx, block.getRowCount(), len,
+              BlockScheduler.localFraction(vec, start, len), startNanos);
+      parsedBlocks++;
     }
+    if (parsedBlocks == 0)
+      Log.trace("Chunk #", cidx, " doesn't own any Parquet block.");
+    else
+      Log.info("Processed ", parsedBlocks, " blocks of chunk #", cidx);
     return dout;
   }
 
@@ -155,6 +173,8 @@ public class ParquetParser extends Parser {
 
   public static class ParquetParseSetup extends ParseSetup {
     transient byte[] parquetMetadata;
+    transient ParquetMetadata metadata; // decoded parquetMetadata
+    transient int[] blockOwners; // index of the chunk parsing each row group
 
     public ParquetParseSetup() { super(); }
     public ParquetParseSetup(String[] columnNames, byte[] ctypes, String[][] data, byte[] parquetMetadata) {
@@ -163,6 +183,27 @@ public class ParquetParser extends Parser {
               new String[columnNames.length][] /* domains */, null /* NA strings */, data);
       this.parquetMetadata = parquetMetadata;
     }
+
+    /**
+     * Decodes the footer and assigns the row groups to the chunks of the source file (only once).
+     * The assignment only depends on the chunk layout of the file and is the same on every node.
+     */
+    synchronized ParquetMetadata scheduleBlocks(ByteVec vec) {
+      if (blockOwners != null)
+        return metadata;
+      if (parquetMetadata == null)
+        parquetMetadata = VecParquetReader.readFooterAsBytes(vec);
+      metadata = VecParquetReader.readFooter(parquetMetadata);
+      List<BlockMetaData> blocks = metadata.getBlocks();
+      long[] starts = new long[blocks.size()];
+      long[] lengths = new long[blocks.size()];
+      for (int i = 0; i < starts.length; i++) {
+        starts[i] = blocks.get(i).getStartingPos();
+        lengths[i] = blocks.get(i).getCompressedSize();
+      }
+      blockOwners = BlockScheduler.assign(vec, starts, lengths);
+      return metadata;
+    }
   }
 
   private static void checkCompatibility(ParquetMetadata metadata) {
@@ -55,8 +55,11 @@ public class ParquetParserProvider extends BinaryParserProvider {
 
   @Override
   public ParseSetup setupLocal(Vec v, ParseSetup setup) {
-    ((ParquetParser.ParquetParseSetup) setup).parquetMetadata = VecParquetReader.readFooterAsBytes(v);
-    return setup;
+    ParquetParser.ParquetParseSetup ps = (ParquetParser.ParquetParseSetup) setup;
+    ps.parquetMetadata = VecParquetReader.readFooterAsBytes(v);
+    ps.blockOwners = null;
+    ps.scheduleBlocks((ByteVec) v);
+    return ps;
   }
 
 }
@@ -202,6 +202,36 @@ public class ParseTestParquet extends TestUtil {
     assertFrameAssertion(assertion);
   }
 
+  @Test
+  public void testParseRowGroupsOnce() throws IOException {
+    final int nrows = 5000;
+    File f = ParquetFileGenerator.generateParquetFile(Files.createTempDir(), "rowGroups.parquet", nrows, new Date());
+    Frame fr = null;
+    try {
+      NFSFileVec nfs = NFSFileVec.make(f);
+      Key[] keys = new Key[]{nfs._key};
+      ParseSetup setup = ParseSetup.guessSetup(keys, false, ParseSetup.GUESS_HEADER);
+      setup._chunk_size = 4096; // many small chunks, row groups span chunk boundaries
+      nfs.setChunkSize(setup._chunk_size);
+
+      // every row group is owned by exactly one existing chunk
+      ParquetParser.ParquetParseSetup ps = (ParquetParser.ParquetParseSetup) new ParquetParserProvider()
+              .setupLocal(nfs, setup.copyTo(new ParquetParser.ParquetParseSetup()));
+      assertTrue("Expected multiple row groups", ps.blockOwners.length > 1);
+      assertTrue("Expected multiple chunks", nfs.nChunks() > 1);
+      for (int owner : ps.blockOwners)
+        assertTrue(owner >= 0 && owner < nfs.nChunks());
+
+      // each row is parsed exactly once and in order
+      fr = ParseDataset.parse(Key.<Frame>make(), keys, true, setup, true)._job.get();
+      assertEquals(nrows, fr.numRows());
+      for (int row = 0; row < nrows; row++)
+        assertEquals("Value in column int32_field", 32 + row, fr.vec(0).at8(row));
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
   @Test
   public void testParseSingleEmpty() {
     FrameAssertion assertion = new GenFrameAssertion("empty.parquet", TestUtil.ari(5, 0)) {
@@ -296,6 +296,12 @@ public final class PersistGcs extends Persist {
     return storage.get(blob).delete();
   }
 
+  @Override
+  public String getContentVersion(Key k) {
+    final Blob blob = storage.get(GcsBlob.of(k).getBlobId());
+    return blob == null ? null : String.valueOf(blob.getGeneration());
+  }
+
   @Override
   public long length(String path) {
     final BlobId blob = GcsBlob.of(path).getBlobId();
@@ -26,6 +26,7 @@ import water.fvec.HDFSFileVec;
 import water.util.FileUtils;
 import water.util.Log;
 
+import static water.H2O.OptArgs.SYSTEM_PROP_PREFIX;
 import static water.fvec.FileVec.getPathForKey;
 
 /**
@@ -34,6 +35,10 @@ import static water.fvec.FileVec.getPathForKey;
 public final class PersistHdfs extends Persist {
   /** Globally shared HDFS configuration. */
   public static final Configuration CONF;
+  /** Read blocks with a replica on this host straight from the local disk (bypassing the datanode) */
+  public static final String PROP_SHORT_CIRCUIT = SYSTEM_PROP_PREFIX + "persist.hdfs.shortCircuit";
+  /** Path of the UNIX domain socket shared with the local datanode, needed for short-circuit reads */
+  public static final String PROP_DOMAIN_SOCKET_PATH = SYSTEM_PROP_PREFIX + "persist.hdfs.domainSocketPath";
   /** Root path of HDFS */
   private final Path _iceRoot;
 
@@ -79,9 +84,30 @@ public final class PersistHdfs extends Persist {
         Log.debug("Cannot find HADOOP_CONF_DIR or YARN_CONF_DIR - default HDFS properties are NOT loaded!");
       }
     }
+    configureShortCircuitReads(conf);
     CONF = conf;
   }
 
+  /**
+   * Short-circuit reads are enabled whenever the domain socket of the datanode is known (either from the HDFS
+   * configuration or from the system property). H2O nodes co-located with the datanodes (eg. on YARN) then read
+   * their Chunks of imported files locally. Hosts without a local datanode fall back to regular reads.
+   */
+  static void configureShortCircuitReads(Configuration conf) {
+    String socketPath = System.getProperty(PROP_DOMAIN_SOCKET_PATH, conf.get("dfs.domain.socket.path"));
+    String enabled = System.getProperty(PROP_SHORT_CIRCUIT);
+    if (enabled == null ? socketPath == null : !Boolean.parseBoolean(enabled))
+      return;
+    if (socketPath == null || socketPath.isEmpty()) {
+      Log.warn("HDFS short-circuit reads were requested but the domain socket path is not set (" +
+              PROP_DOMAIN_SOCKET_PATH + "), short-circuit reads are disabled.");
+      return;
+    }
+    conf.set("dfs.domain.socket.path", socketPath);
+    conf.setBoolean("dfs.client.read.shortcircuit", true);
+    Log.info("HDFS short-circuit local reads enabled, datanode domain socket: " + socketPath);
+  }
+
   // Loading HDFS files
   public PersistHdfs() { _iceRoot = null; }
   public void cleanUp() { throw H2O.unimpl(); /** user-mode swapping not implemented */}
@@ -304,7 +330,7 @@ public final class PersistHdfs extends Persist {
         if(file.isDirectory()) {
           addFolder(fs, pfs, keys, failed);
         } else if (file.getLen() > 0){
-          Key k = HDFSFileVec.make(pfs.toString(), file.getLen(), futures);
+          Key k = HDFSFileVec.make(pfs.toString(), file.getLen(), file.getBlockSize(), futures);
           keys.add(k.toString());
           Log.debug("PersistHdfs: DKV.put(" + k + ")");
         }
@@ -324,7 +350,10 @@ public final class PersistHdfs extends Persist {
     FileStatus[] fstatus = fs.listStatus(new Path(uri));
     assert fstatus.length == 1 : "Expected uri to single file, but uri is " + uri;
 
-    return HDFSFileVec.make(fstatus[0].getPath().toString(), fstatus[0].getLen());
+    Futures fs = new Futures();
+    Key k = HDFSFileVec.make(fstatus[0].getPath().toString(), fstatus[0].getLen(), fstatus[0].getBlockSize(), fs);
+    fs.blockForPending();
+    return k;
   }
 
   public static FileSystem getFS(String path) throws IOException {
@@ -474,6 +503,19 @@ public final class PersistHdfs extends Persist {
     }
   }
 
+  @Override
+  public String getContentVersion(Key k) {
+    Path p = new Path(getPathForKey(k));
+    try {
+      FileStatus status = FileSystem.get(p.toUri(), CONF).getFileStatus(p);
+      return status.getModificationTime() + "-" + status.getLen();
+    }
+    catch (IOException e) {
+      Log.warn("Cannot get the modification time of " + p + ": " + e.getMessage());
+      return null;
+    }
+  }
+
   @Override
   public long length(String path) {
     Path p = new Path(path);
@@ -34,6 +34,7 @@ public final class PersistS3 extends Persist {
 
   private static final Object _lock = new Object();
   private static volatile AmazonS3 _s3;
+  private static volatile S3ReadAhead _readAhead;
 
   public static AmazonS3 getClient() {
     if( _s3 == null ) {
@@ -99,12 +100,29 @@ public final class PersistS3 extends Persist {
     }
   }
 
+  static S3ReadAhead getReadAhead() {
+    if( _readAhead == null ) {
+      synchronized( _lock ) {
+        if( _readAhead == null ) {
+          _readAhead = new S3ReadAhead(
+              Integer.getInteger(S3_PREFETCH_CHUNKS_PROP, DEFAULT_PREFETCH_CHUNKS),
+              Integer.getInteger(S3_MAX_INFLIGHT_RANGES_PROP, DEFAULT_MAX_INFLIGHT_RANGES),
+              Integer.getInteger(S3_RANGE_RETRIES_PROP, DEFAULT_RANGE_RETRIES));
+        }
+      }
+    }
+    return _readAhead;
+  }
+
   public static final class H2SO3InputStream extends RIStream {
     Key _k;
     long _to;
     String[] _bk;
 
     @Override protected InputStream open(long offset) {
+      S3ReadAhead readAhead = getReadAhead();
+      if (readAhead.isEnabled()) // upcoming blocks are fetched while the current one is consumed
+        return readAhead.openStream(_bk[0], _bk[1], offset, _to);
       return getClient().getObject(new GetObjectRequest(_bk[0], _bk[1]).withRange(offset, _to)).getObjectContent();
     }
 
@@ -115,12 +133,20 @@ public final class PersistS3 extends Persist {
     public H2SO3InputStream(Key k, ProgressMonitor pmon, long from, long to) {
       super(from, pmon);
       _k = k;
-      _to = Math.min(DKV.get(k)._max - 1, to);
       _bk = decodeKey(k);
+      _to = Math.min(objectLength(k, _bk) - 1, to);
       open();
     }
   }
 
+  // The length of an imported object is known from its FileVec, S3 is only asked about keys without one
+  private static long objectLength(Key k, String[] bk) {
+    Value v = DKV.get(k);
+    if (v != null && v.isVec())
+      return ((Vec) v.get()).length();
+    return getClient().getObjectMetadata(bk[0], bk[1]).getContentLength();
+  }
+
   @Override
   public InputStream open(String path) {
     String[] bk = decodePath(path);
@@ -182,8 +208,14 @@ public final class PersistS3 extends Persist {
     Key k = v._key;
     long skip = 0;
     // Skip offset based on chunk number
-    if(k._kb[0] == Key.CHK)
+    if(k._kb[0] == Key.CHK) {
       skip = FileVec.chunkOffset(k); // The offset
+      S3ReadAhead readAhead = getReadAhead();
+      byte[] prefetched = readAhead.claim(k, v._max);
+      // Keep the following chunks of the file coming while this one is parsed
+      readAhead.prefetchAfter(k);
+      if (prefetched != null) return prefetched;
+    }
     // Too complicate matters, S3 likes to reset connections when H2O hits it
     // too hard.  We "fix" this by just trying again, assuming we're getting
     // hit with a bogus resource limit (H2O doing a parse looks like a DDOS to
@@ -301,6 +333,11 @@ public final class PersistS3 extends Persist {
     return getClient().getObject(r);
   }
 
+  @Override
+  public String getContentVersion(Key k) {
+    return getObjectMetadataForKey(k).getETag();
+  }
+
   // Gets the object metadata associated with given key.
   private static ObjectMetadata getObjectMetadataForKey(Key k) {
     String[] bk = decodeKey(k);
@@ -326,6 +363,16 @@ public final class PersistS3 extends Persist {
   /** Enable S3 path style access via setting the property to true.
    * See: {@link com.amazonaws.services.s3.S3ClientOptions#setPathStyleAccess(boolean)} */
   public final static String S3_ENABLE_PATH_STYLE = SYSTEM_PROP_PREFIX + "persist.s3.enable.path.style";
+  /** Number of upcoming chunks of a file read ahead by concurrent ranged GETs, 0 disables the read-ahead */
+  public final static String S3_PREFETCH_CHUNKS_PROP = SYSTEM_PROP_PREFIX + "persist.s3.prefetchChunks";
+  /** Maximal number of ranged GETs in flight at the same time (per node) */
+  public final static String S3_MAX_INFLIGHT_RANGES_PROP = SYSTEM_PROP_PREFIX + "persist.s3.maxInflightRanges";
+  /** Number of attempts to read a single range before the read fails */
+  public final static String S3_RANGE_RETRIES_PROP = SYSTEM_PROP_PREFIX + "persist.s3.rangeRetries";
+
+  static final int DEFAULT_PREFETCH_CHUNKS = 4;
+  static final int DEFAULT_MAX_INFLIGHT_RANGES = 16;
+  static final int DEFAULT_RANGE_RETRIES = 3;
 
 
   static ClientConfiguration s3ClientCfg() {
@@ -335,6 +382,9 @@ public final class PersistS3 extends Persist {
     if (prop.containsKey(S3_CONNECTION_TIMEOUT_PROP)) cfg.setConnectionTimeout(Integer.getInteger(S3_CONNECTION_TIMEOUT_PROP));
     if (prop.containsKey(S3_MAX_ERROR_RETRY_PROP)) cfg.setMaxErrorRetry(Integer.getInteger(S3_MAX_ERROR_RETRY_PROP));
     if (prop.containsKey(S3_MAX_HTTP_CONNECTIONS_PROP)) cfg.setMaxConnections(Integer.getInteger(S3_MAX_HTTP_CONNECTIONS_PROP));
+    else // make sure all the in-flight ranged reads get a pooled connection
+      cfg.setMaxConnections(Math.max(cfg.getMaxConnections(),
+          Integer.getInteger(S3_MAX_INFLIGHT_RANGES_PROP, DEFAULT_MAX_INFLIGHT_RANGES) + 1));
     if (prop.containsKey(S3_FORCE_HTTP)) cfg.setProtocol(Protocol.HTTP);
 
     return cfg;
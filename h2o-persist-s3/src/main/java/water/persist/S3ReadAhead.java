@@ -0,0 +1,295 @@
+package water.persist;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.google.common.io.ByteStreams;
+import water.H2O;
+import water.Key;
+import water.MemoryManager;
+import water.fvec.FileVec;
+import water.fvec.Vec;
+import water.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static water.persist.PersistS3.getClient;
+
+/**
+ * Read-ahead layer of S3 reads. Byte ranges of upcoming chunks of a file are fetched by concurrent ranged GETs,
+ * so throughput of an import scales with the number of connections instead of the latency of a single request.
+ *
+ * The number of ranges being fetched at the same time is bounded by the size of the thread pool (connections
+ * of the S3 client are pooled and reused), each range is retried on its own when its transfer fails or S3
+ * reports a transient error.
+ */
+final class S3ReadAhead {
+
+  // Read-ahead chunks which nobody asked for (eg. the chunk got loaded by another node) are dropped after this time
+  private static final long PREFETCH_TTL_MS = 60 * 1000;
+
+  private final int _prefetchChunks;
+  private final int _maxInflight;
+  private final int _maxAttempts;
+  private final RangeReader _reader;
+  private final ConcurrentHashMap<Key, Prefetch> _prefetched = new ConcurrentHashMap<>();
+  private volatile ExecutorService _pool;
+
+  S3ReadAhead(int prefetchChunks, int maxInflight, int maxAttempts) {
+    this(prefetchChunks, maxInflight, maxAttempts, S3_RANGES);
+  }
+
+  S3ReadAhead(int prefetchChunks, int maxInflight, int maxAttempts, RangeReader reader) {
+    _prefetchChunks = prefetchChunks;
+    _maxInflight = Math.max(1, maxInflight);
+    _maxAttempts = Math.max(1, maxAttempts);
+    _reader = reader;
+  }
+
+  /** Single transfer of a byte range, without any retries */
+  interface RangeReader {
+    byte[] read(String bucket, String key, long offset, int len) throws IOException;
+  }
+
+  private static final RangeReader S3_RANGES = new RangeReader() {
+    @Override public byte[] read(String bucket, String key, long offset, int len) throws IOException {
+      S3ObjectInputStream s = null;
+      try {
+        GetObjectRequest r = new GetObjectRequest(bucket, key);
+        r.setRange(offset, offset + len - 1);
+        s = getClient().getObject(r).getObjectContent();
+        byte[] b = MemoryManager.malloc1(len);
+        ByteStreams.readFully(s, b);
+        return b;
+      } finally {
+        // the whole range was consumed, closing releases the connection back to the pool
+        try { if (s != null) s.close(); } catch (IOException e) {}
+      }
+    }
+  };
+
+  /**
+   * Failed transfers (eg. reset connections) and errors S3 reports on its side (eg. 503 Slow Down) are worth
+   * another attempt, requests S3 rejects (eg. 403 Access Denied, 404 Not Found) will fail again.
+   */
+  static boolean isRetryable(Exception e) {
+    if (e instanceof AmazonServiceException) {
+      AmazonServiceException ase = (AmazonServiceException) e;
+      return ase.getErrorType() == AmazonServiceException.ErrorType.Service || ase.getStatusCode() == 429;
+    }
+    return e instanceof IOException || e instanceof AmazonClientException;
+  }
+
+  boolean isEnabled() {
+    return _prefetchChunks > 0;
+  }
+
+  private static class Prefetch {
+    final Future<byte[]> _data;
+    final long _created = System.currentTimeMillis();
+    Prefetch(Future<byte[]> data) { _data = data; }
+  }
+
+  private ExecutorService pool() {
+    if (_pool == null) {
+      synchronized (this) {
+        if (_pool == null) {
+          final AtomicInteger cnt = new AtomicInteger();
+          _pool = Executors.newFixedThreadPool(_maxInflight, new ThreadFactory() {
+            @Override public Thread newThread(Runnable r) {
+              Thread t = new Thread(r, "S3-ReadAhead-" + cnt.incrementAndGet());
+              t.setDaemon(true);
+              return t;
+            }
+          });
+        }
+      }
+    }
+    return _pool;
+  }
+
+  /**
+   * Reads the given byte range of an S3 object, the range is read again when the transfer fails
+   * @param offset start of the range
+   * @param len length of the range
+   */
+  byte[] readRange(String bucket, String key, long offset, int len) throws IOException {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return _reader.read(bucket, key, offset, len);
+      } catch (IOException | RuntimeException e) {
+        if (attempt >= _maxAttempts || !isRetryable(e)) {
+          if (e instanceof IOException) throw (IOException) e;
+          throw (RuntimeException) e;
+        }
+        Log.warn("Read of range [" + offset + ", " + (offset + len) + ") of s3://" + bucket + "/" + key +
+                " failed (attempt " + attempt + "), retrying: " + e.getMessage());
+        try {
+          Thread.sleep(256L << Math.min(attempt, 5));
+        } catch (InterruptedException ie) {
+          throw new InterruptedIOException("Interrupted while retrying ranged read of s3://" + bucket + "/" + key);
+        }
+      }
+    }
+  }
+
+  Future<byte[]> readRangeAsync(final String bucket, final String key, final long offset, final int len) {
+    return pool().submit(new Callable<byte[]>() {
+      @Override public byte[] call() throws IOException {
+        return readRange(bucket, key, offset, len);
+      }
+    });
+  }
+
+  /**
+   * Take the read-ahead data of the given chunk (if any)
+   * @return bytes of the chunk, or null if the chunk wasn't (successfully) read ahead
+   */
+  byte[] claim(Key chunkKey, int len) {
+    Prefetch p = _prefetched.remove(chunkKey);
+    if (p == null) return null;
+    try {
+      byte[] b = p._data.get();
+      return b.length == len ? b : null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      Log.warn("Read-ahead of chunk " + chunkKey + " failed, the chunk will be read again: " + e.getCause());
+      return null;
+    }
+  }
+
+  /**
+   * Schedule reads of the chunks following the given chunk. Only chunks homed on this node are read ahead,
+   * these are the chunks this node will be asked to load.
+   */
+  void prefetchAfter(Key chunkKey) {
+    if (!isEnabled()) return;
+    expireStale();
+    FileVec vec = (FileVec) Vec.getVecKey(chunkKey).get();
+    String[] bk = PersistS3.decodeKey(chunkKey);
+    int nChunks = vec.nChunks();
+    int scheduled = 0;
+    for (int cidx = (int) (FileVec.chunkOffset(chunkKey) / vec._chunkSize) + 1;
+         cidx < nChunks && scheduled < _prefetchChunks && _prefetched.size() < _maxInflight; cidx++) {
+      Key ck = vec.chunkKey(cidx);
+      if (!ck.home()) continue;
+      scheduled++;
+      if (_prefetched.containsKey(ck) || isRequested(ck)) continue;
+      long offset = (long) cidx * vec._chunkSize;
+      int len = (int) (cidx < nChunks - 1 ? vec._chunkSize : vec.length() - offset);
+      Prefetch p = new Prefetch(readRangeAsync(bk[0], bk[1], offset, len));
+      if (_prefetched.putIfAbsent(ck, p) != null)
+        p._data.cancel(false);
+    }
+  }
+
+  // Values of FileVec chunks are created lazily when the chunk is first asked for, the chunk is loaded (or being loaded)
+  private static boolean isRequested(Key ck) {
+    return H2O.STORE.get(ck) != null;
+  }
+
+  private void expireStale() {
+    long now = System.currentTimeMillis();
+    for (Iterator<Map.Entry<Key, Prefetch>> it = _prefetched.entrySet().iterator(); it.hasNext(); ) {
+      Prefetch p = it.next().getValue();
+      if (now - p._created > PREFETCH_TTL_MS) {
+        p._data.cancel(false);
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Stream of the given byte range of an S3 object, the following blocks of the object are fetched concurrently
+   * while the current block is being consumed.
+   * @param from first byte of the stream
+   * @param to last byte of the stream (inclusive)
+   */
+  InputStream openStream(String bucket, String key, long from, long to) {
+    return openStream(bucket, key, from, to, FileVec.DFLT_CHUNK_SIZE);
+  }
+
+  InputStream openStream(String bucket, String key, long from, long to, int blockSize) {
+    return new ReadAheadInputStream(bucket, key, from, to, blockSize, Math.max(1, _prefetchChunks));
+  }
+
+  private final class ReadAheadInputStream extends InputStream {
+    private final String _bucket;
+    private final String _key;
+    private final long _to;
+    private final int _blockSize;
+    private final int _depth;
+    private final ArrayDeque<Future<byte[]>> _pending = new ArrayDeque<>();
+    private long _next;
+    private byte[] _buf;
+    private int _pos;
+
+    ReadAheadInputStream(String bucket, String key, long from, long to, int blockSize, int depth) {
+      _bucket = bucket;
+      _key = key;
+      _next = from;
+      _to = to;
+      _blockSize = blockSize;
+      _depth = depth;
+    }
+
+    private void fill() {
+      while (_pending.size() < _depth && _next <= _to) {
+        int len = (int) Math.min(_blockSize, _to - _next + 1);
+        _pending.add(readRangeAsync(_bucket, _key, _next, len));
+        _next += len;
+      }
+    }
+
+    private boolean nextBlock() throws IOException {
+      fill();
+      Future<byte[]> f = _pending.poll();
+      if (f == null) return false;
+      try {
+        _buf = f.get();
+        _pos = 0;
+      } catch (InterruptedException e) {
+        throw new InterruptedIOException("Interrupted while reading s3://" + _bucket + "/" + _key);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+        throw new IOException(e.getCause());
+      }
+      fill();
+      return true;
+    }
+
+    @Override public int read() throws IOException {
+      if ((_buf == null || _pos == _buf.length) && !nextBlock()) return -1;
+      return _buf[_pos++] & 0xFF;
+    }
+
+    @Override public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) return 0;
+      if ((_buf == null || _pos == _buf.length) && !nextBlock()) return -1;
+      int n = Math.min(len, _buf.length - _pos);
+      System.arraycopy(_buf, _pos, b, off, n);
+      _pos += n;
+      return n;
+    }
+
+    @Override public int available() {
+      return _buf == null ? 0 : _buf.length - _pos;
+    }
+
+    @Override public void close() {
+      for (Future<byte[]> f : _pending) f.cancel(true);
+      _pending.clear();
+      _buf = null;
+    }
+  }
+}
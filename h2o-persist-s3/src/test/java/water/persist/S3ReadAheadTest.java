@@ -0,0 +1,136 @@
+package water.persist;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class S3ReadAheadTest {
+
+  /** Object of the given size, byte i has value (i % 251), every read takes a while */
+  private static class FakeObject implements S3ReadAhead.RangeReader {
+    final List<Long> _offsets = Collections.synchronizedList(new ArrayList<Long>());
+    final AtomicInteger _inflight = new AtomicInteger();
+    final AtomicInteger _maxInflight = new AtomicInteger();
+
+    @Override public byte[] read(String bucket, String key, long offset, int len) throws IOException {
+      _offsets.add(offset);
+      int n = _inflight.incrementAndGet();
+      while (true) {
+        int max = _maxInflight.get();
+        if (n <= max || _maxInflight.compareAndSet(max, n)) break;
+      }
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      } finally {
+        _inflight.decrementAndGet();
+      }
+      byte[] b = new byte[len];
+      for (int i = 0; i < len; i++) b[i] = (byte) ((offset + i) % 251);
+      return b;
+    }
+  }
+
+  /** Fails the first given number of reads with the given exception */
+  private static class FailingReader implements S3ReadAhead.RangeReader {
+    final AtomicInteger _calls = new AtomicInteger();
+    final int _failures;
+    final Exception _e;
+
+    FailingReader(int failures, Exception e) { _failures = failures; _e = e; }
+
+    @Override public byte[] read(String bucket, String key, long offset, int len) throws IOException {
+      if (_calls.incrementAndGet() <= _failures) {
+        if (_e instanceof IOException) throw (IOException) _e;
+        throw (RuntimeException) _e;
+      }
+      return new byte[len];
+    }
+  }
+
+  private static AmazonServiceException serviceException(int status, AmazonServiceException.ErrorType type) {
+    AmazonServiceException e = new AmazonServiceException("status " + status);
+    e.setStatusCode(status);
+    e.setErrorType(type);
+    return e;
+  }
+
+  @Test
+  public void testReadAheadWindow() throws IOException {
+    FakeObject obj = new FakeObject();
+    S3ReadAhead readAhead = new S3ReadAhead(3, 8, 1, obj);
+    InputStream is = readAhead.openStream("bucket", "key", 5, 104, 10);
+    try {
+      byte[] b = new byte[7];
+      long pos = 5;
+      int n;
+      while ((n = is.read(b, 0, b.length)) != -1) {
+        for (int i = 0; i < n; i++, pos++)
+          assertEquals((byte) (pos % 251), b[i]);
+      }
+      assertEquals(105, pos);
+    } finally {
+      is.close();
+    }
+    // every block of the stream is read exactly once, nothing past its end
+    assertEquals(10, obj._offsets.size());
+    List<Long> offsets = new ArrayList<>(obj._offsets);
+    Collections.sort(offsets);
+    for (int i = 0; i < offsets.size(); i++)
+      assertEquals(5 + 10 * i, (long) offsets.get(i));
+    // blocks are read concurrently, but no more than the window ahead of the consumer
+    assertTrue(obj._maxInflight.get() > 1);
+    assertTrue(obj._maxInflight.get() <= 4);
+  }
+
+  @Test
+  public void testRetryTransientErrors() throws IOException {
+    Exception[] transients = new Exception[]{
+            new IOException("Connection reset"),
+            new AmazonClientException("Unable to execute HTTP request"),
+            serviceException(503, AmazonServiceException.ErrorType.Service),
+            serviceException(429, AmazonServiceException.ErrorType.Client)
+    };
+    for (Exception e : transients) {
+      FailingReader reader = new FailingReader(1, e);
+      byte[] b = new S3ReadAhead(1, 1, 2, reader).readRange("bucket", "key", 0, 42);
+      assertEquals(42, b.length);
+      assertEquals(2, reader._calls.get());
+    }
+  }
+
+  @Test
+  public void testRetriesAreBounded() {
+    FailingReader reader = new FailingReader(Integer.MAX_VALUE, new IOException("Connection reset"));
+    try {
+      new S3ReadAhead(1, 1, 2, reader).readRange("bucket", "key", 0, 42);
+      fail("The read should fail after the last attempt");
+    } catch (IOException e) {
+      assertEquals("Connection reset", e.getMessage());
+    }
+    assertEquals(2, reader._calls.get());
+  }
+
+  @Test
+  public void testRejectedRequestIsNotRetried() throws IOException {
+    FailingReader reader = new FailingReader(1, serviceException(403, AmazonServiceException.ErrorType.Client));
+    try {
+      new S3ReadAhead(1, 1, 3, reader).readRange("bucket", "key", 0, 42);
+      fail("Access denied should not be retried");
+    } catch (AmazonServiceException e) {
+      assertEquals(403, e.getStatusCode());
+    }
+    assertEquals(1, reader._calls.get());
+  }
+
+}
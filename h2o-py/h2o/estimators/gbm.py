@@ -32,13 +32,15 @@ class H2OGradientBoostingEstimator(H2OEstimator):
                       "fold_assignment", "fold_column", "response_column", "ignored_columns", "ignore_const_cols",
                       "offset_column", "weights_column", "balance_classes", "class_sampling_factors",
                       "max_after_balance_size", "max_confusion_matrix_size", "max_hit_ratio_k", "ntrees", "max_depth",
-                      "min_rows", "nbins", "nbins_top_level", "nbins_cats", "r2_stopping", "stopping_rounds",
-                      "stopping_metric", "stopping_tolerance", "max_runtime_secs", "seed", "build_tree_one_node",
-                      "learn_rate", "learn_rate_annealing", "distribution", "quantile_alpha", "tweedie_power",
-                      "huber_alpha", "checkpoint", "sample_rate", "sample_rate_per_class", "col_sample_rate",
-                      "col_sample_rate_change_per_level", "col_sample_rate_per_tree", "min_split_improvement",
-                      "histogram_type", "max_abs_leafnode_pred", "pred_noise_bandwidth", "categorical_encoding",
-                      "calibrate_model", "calibration_frame", "custom_metric_func"}
+                      "max_leaves", "min_rows", "nbins", "nbins_top_level", "nbins_cats", "r2_stopping",
+                      "stopping_rounds", "stopping_metric", "stopping_tolerance", "max_runtime_secs", "seed",
+                      "build_tree_one_node", "learn_rate", "learn_rate_annealing", "distribution", "quantile_alpha",
+                      "tweedie_power", "huber_alpha", "checkpoint", "sample_rate", "sample_rate_per_class",
+                      "col_sample_rate", "col_sample_rate_change_per_level", "col_sample_rate_per_tree",
+                      "min_split_improvement", "histogram_type", "histogram_subtraction", "prebin",
+                      "bundle_sparse_columns", "low_precision", "max_abs_leafnode_pred", "pred_noise_bandwidth", "goss",
+                      "goss_top_rate", "goss_other_rate", "categorical_encoding", "calibrate_model",
+                      "calibration_frame", "custom_metric_func"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
             if pname == 'model_id':
@@ -372,6 +374,22 @@ class H2OGradientBoostingEstimator(H2OEstimator):
         self._parms["max_depth"] = max_depth
 
 
+    @property
+    def max_leaves(self):
+        """
+        Grow the trees leaf-wise (split the leaf with the largest improvement first) up to this number of leaves per
+        tree, still limited by max_depth (0 to grow the trees depth-wise)
+
+        Type: ``int``  (default: ``0``).
+        """
+        return self._parms.get("max_leaves")
+
+    @max_leaves.setter
+    def max_leaves(self, max_leaves):
+        assert_is_type(max_leaves, None, int)
+        self._parms["max_leaves"] = max_leaves
+
+
     @property
     def min_rows(self):
         """
@@ -755,6 +773,71 @@ class H2OGradientBoostingEstimator(H2OEstimator):
         self._parms["histogram_type"] = histogram_type
 
 
+    @property
+    def histogram_subtraction(self):
+        """
+        Build the histograms of only the smaller child of a split and derive the larger child's histograms by
+        subtracting them from the parent's (children reuse the bins of their parent instead of re-binning the observed
+        range)
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("histogram_subtraction")
+
+    @histogram_subtraction.setter
+    def histogram_subtraction(self, histogram_subtraction):
+        assert_is_type(histogram_subtraction, None, bool)
+        self._parms["histogram_subtraction"] = histogram_subtraction
+
+
+    @property
+    def prebin(self):
+        """
+        Bin the predictors once per model using the global split points (requires histogram_type QuantilesGlobal or
+        RoundRobin) and build the histograms of all the trees from the compact bin codes
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("prebin")
+
+    @prebin.setter
+    def prebin(self, prebin):
+        assert_is_type(prebin, None, bool)
+        self._parms["prebin"] = prebin
+
+
+    @property
+    def bundle_sparse_columns(self):
+        """
+        Bundle mutually exclusive sparse 0/1 columns (eg. one-hot encoded features) and build one histogram per bundle
+        instead of one per column
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("bundle_sparse_columns")
+
+    @bundle_sparse_columns.setter
+    def bundle_sparse_columns(self, bundle_sparse_columns):
+        assert_is_type(bundle_sparse_columns, None, bool)
+        self._parms["bundle_sparse_columns"] = bundle_sparse_columns
+
+
+    @property
+    def low_precision(self):
+        """
+        Use single precision for the histograms sent between the nodes and for the working columns of the trees (halves
+        their memory and network volume)
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("low_precision")
+
+    @low_precision.setter
+    def low_precision(self, low_precision):
+        assert_is_type(low_precision, None, bool)
+        self._parms["low_precision"] = low_precision
+
+
     @property
     def max_abs_leafnode_pred(self):
         """
@@ -785,6 +868,52 @@ class H2OGradientBoostingEstimator(H2OEstimator):
         self._parms["pred_noise_bandwidth"] = pred_noise_bandwidth
 
 
+    @property
+    def goss(self):
+        """
+        Use gradient-based one-side sampling (GOSS) instead of uniform row sampling: every tree is built from the rows
+        with the largest gradients and a random sample of the other rows (with increased weights)
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("goss")
+
+    @goss.setter
+    def goss(self, goss):
+        assert_is_type(goss, None, bool)
+        self._parms["goss"] = goss
+
+
+    @property
+    def goss_top_rate(self):
+        """
+        GOSS: fraction of rows with the largest gradients, all of them are used to build every tree (from 0.0 to 1.0)
+
+        Type: ``float``  (default: ``0.2``).
+        """
+        return self._parms.get("goss_top_rate")
+
+    @goss_top_rate.setter
+    def goss_top_rate(self, goss_top_rate):
+        assert_is_type(goss_top_rate, None, numeric)
+        self._parms["goss_top_rate"] = goss_top_rate
+
+
+    @property
+    def goss_other_rate(self):
+        """
+        GOSS: fraction of rows randomly sampled from the rows with smaller gradients for every tree (from 0.0 to 1.0)
+
+        Type: ``float``  (default: ``0.1``).
+        """
+        return self._parms.get("goss_other_rate")
+
+    @goss_other_rate.setter
+    def goss_other_rate(self, goss_other_rate):
+        assert_is_type(goss_other_rate, None, numeric)
+        self._parms["goss_other_rate"] = goss_other_rate
+
+
     @property
     def categorical_encoding(self):
         """
@@ -30,10 +30,11 @@ class H2ORandomForestEstimator(H2OEstimator):
                       "max_after_balance_size", "max_confusion_matrix_size", "max_hit_ratio_k", "ntrees", "max_depth",
                       "min_rows", "nbins", "nbins_top_level", "nbins_cats", "r2_stopping", "stopping_rounds",
                       "stopping_metric", "stopping_tolerance", "max_runtime_secs", "seed", "build_tree_one_node",
-                      "mtries", "sample_rate", "sample_rate_per_class", "binomial_double_trees", "checkpoint",
-                      "col_sample_rate_change_per_level", "col_sample_rate_per_tree", "min_split_improvement",
-                      "histogram_type", "categorical_encoding", "calibrate_model", "calibration_frame", "distribution",
-                      "custom_metric_func"}
+                      "mtries", "sample_rate", "sample_rate_per_class", "binomial_double_trees", "early_exit_delta",
+                      "checkpoint", "col_sample_rate_change_per_level", "col_sample_rate_per_tree",
+                      "min_split_improvement", "histogram_type", "histogram_subtraction", "prebin",
+                      "bundle_sparse_columns", "low_precision", "categorical_encoding", "calibrate_model",
+                      "calibration_frame", "distribution", "custom_metric_func"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
             if pname == 'model_id':
@@ -599,6 +600,25 @@ class H2ORandomForestEstimator(H2OEstimator):
         self._parms["binomial_double_trees"] = binomial_double_trees
 
 
+    @property
+    def early_exit_delta(self):
+        """
+        For classification: when predicting, stop evaluating the trees for a row once its predicted class is decided
+        with probability at least 1 - early_exit_delta (Hoeffding bound on the margin of the votes); the class
+        probabilities are then averaged over the evaluated trees. Only applies to frames scored in the cluster
+        (predictions and model performance); the training and validation metrics and scoring history computed during
+        training, MOJO/POJO and single-row scoring always use all the trees. 0 disables early exit.
+
+        Type: ``float``  (default: ``0.0``).
+        """
+        return self._parms.get("early_exit_delta")
+
+    @early_exit_delta.setter
+    def early_exit_delta(self, early_exit_delta):
+        assert_is_type(early_exit_delta, None, numeric)
+        self._parms["early_exit_delta"] = early_exit_delta
+
+
     @property
     def checkpoint(self):
         """
@@ -675,6 +695,71 @@ class H2ORandomForestEstimator(H2OEstimator):
         self._parms["histogram_type"] = histogram_type
 
 
+    @property
+    def histogram_subtraction(self):
+        """
+        Build the histograms of only the smaller child of a split and derive the larger child's histograms by
+        subtracting them from the parent's (children reuse the bins of their parent instead of re-binning the observed
+        range)
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("histogram_subtraction")
+
+    @histogram_subtraction.setter
+    def histogram_subtraction(self, histogram_subtraction):
+        assert_is_type(histogram_subtraction, None, bool)
+        self._parms["histogram_subtraction"] = histogram_subtraction
+
+
+    @property
+    def prebin(self):
+        """
+        Bin the predictors once per model using the global split points (requires histogram_type QuantilesGlobal or
+        RoundRobin) and build the histograms of all the trees from the compact bin codes
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("prebin")
+
+    @prebin.setter
+    def prebin(self, prebin):
+        assert_is_type(prebin, None, bool)
+        self._parms["prebin"] = prebin
+
+
+    @property
+    def bundle_sparse_columns(self):
+        """
+        Bundle mutually exclusive sparse 0/1 columns (eg. one-hot encoded features) and build one histogram per bundle
+        instead of one per column
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("bundle_sparse_columns")
+
+    @bundle_sparse_columns.setter
+    def bundle_sparse_columns(self, bundle_sparse_columns):
+        assert_is_type(bundle_sparse_columns, None, bool)
+        self._parms["bundle_sparse_columns"] = bundle_sparse_columns
+
+
+    @property
+    def low_precision(self):
+        """
+        Use single precision for the histograms sent between the nodes and for the working columns of the trees (halves
+        their memory and network volume)
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("low_precision")
+
+    @low_precision.setter
+    def low_precision(self, low_precision):
+        assert_is_type(low_precision, None, bool)
+        self._parms["low_precision"] = low_precision
+
+
     @property
     def categorical_encoding(self):
         """